@@ -0,0 +1,91 @@
+#!/usr/bin/env python3
+"""Compares two JMH result files written with -rf json and reports regressions.
+
+Usage: compare.py baseline.json candidate.json [threshold percent]
+
+Every benchmark (including its parameters) found in both files is printed with
+its score in both runs and the change in percent. If the runs were made with
+-prof gc the normalised allocation rate (bytes per operation) is compared as
+well. The script exits with status 1 if any benchmark got slower, or allocates
+more, by more than the threshold (default 5 percent) and the change is larger
+than the error of both runs.
+"""
+
+import json
+import sys
+
+ALLOC_METRIC = "gc.alloc.rate.norm"
+
+
+def load(path):
+    with open(path) as f:
+        results = json.load(f)
+    runs = {}
+    for result in results:
+        name = result["benchmark"].rsplit(".", 2)[-2:]
+        params = result.get("params", {})
+        key = ".".join(name)
+        if params:
+            key += " " + ",".join("%s=%s" % kv for kv in sorted(params.items()))
+        primary = result["primaryMetric"]
+        alloc = result.get("secondaryMetrics", {}).get(ALLOC_METRIC)
+        runs[key] = {
+            "score": primary["score"],
+            "error": primary.get("scoreError") or 0.0,
+            "unit": primary["scoreUnit"],
+            "alloc": alloc["score"] if alloc else None,
+            "higher_is_better": primary["scoreUnit"].startswith("ops"),
+        }
+    return runs
+
+
+def change(old, new):
+    if old == 0:
+        return 0.0 if new == 0 else float("inf")
+    return (new - old) / old * 100.0
+
+
+def main(argv):
+    if len(argv) < 3:
+        print(__doc__)
+        return 2
+    baseline = load(argv[1])
+    candidate = load(argv[2])
+    threshold = float(argv[3]) if len(argv) > 3 else 5.0
+
+    regressions = []
+    print("%-50s %14s %14s %9s %12s %12s" %
+          ("benchmark", "baseline", "candidate", "change", "B/op before", "B/op after"))
+    for key in sorted(set(baseline) & set(candidate)):
+        old = baseline[key]
+        new = candidate[key]
+        diff = change(old["score"], new["score"])
+        worse = -diff if old["higher_is_better"] else diff
+        noise = old["error"] + new["error"]
+        alloc_old = "-" if old["alloc"] is None else "%.1f" % old["alloc"]
+        alloc_new = "-" if new["alloc"] is None else "%.1f" % new["alloc"]
+        flag = ""
+        if worse > threshold and abs(new["score"] - old["score"]) > noise:
+            flag = " SLOWER"
+            regressions.append(key)
+        if old["alloc"] is not None and new["alloc"] is not None:
+            if change(old["alloc"], new["alloc"]) > threshold and new["alloc"] - old["alloc"] > 8:
+                flag += " ALLOCATES MORE"
+                if key not in regressions:
+                    regressions.append(key)
+        print("%-50s %8.1f %-5s %8.1f %-5s %+8.1f%% %12s %12s%s" %
+              (key, old["score"], old["unit"], new["score"], new["unit"], diff,
+               alloc_old, alloc_new, flag))
+
+    for key in sorted(set(baseline) ^ set(candidate)):
+        print("%-50s only in one run" % key)
+
+    if regressions:
+        print("\n%d regression(s) above %.1f%%" % (len(regressions), threshold))
+        return 1
+    print("\nno regressions above %.1f%%" % threshold)
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main(sys.argv))
@@ -0,0 +1,170 @@
+package org.cis120.Othello;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the array based Othello model.
+ *
+ * Every benchmark runs on an opening, a midgame and an endgame position loaded
+ * from files/input, so the benchmarks must be started from the root of the
+ * repository. Run with the GC profiler to also get the allocation rate of every
+ * benchmark, see benchmarks/README.md.
+ *
+ * This class lives in the same package as Othello so it can measure the
+ * package-private generateValidMoves, checkMove and rayCast helpers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OthelloBenchmark {
+
+    @Param({ "opening", "midgame", "endgame" })
+    public String position;
+
+    private String file;
+    private Othello o;
+    private final MoveList moves = new MoveList();
+    private PlayerColor turn;
+
+    // every empty square of the position as a bit index
+    private int[] empties;
+    // first valid move of the player to move
+    private int moveX;
+    private int moveY;
+
+    // board file of a position name
+    static String fileOf(String position) {
+        return "files/input/" + position + "Board.txt";
+    }
+
+    @Setup(Level.Trial)
+    public void loadPosition() throws IOException {
+        file = fileOf(position);
+        o = new Othello();
+        o.loadFile(file);
+        turn = o.getCurrentTurn();
+
+        int count = 0;
+        int[] squares = new int[64];
+        moveX = -1;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                PlayerColor space = o.getBoardSpace(x, y);
+                if (space == null || space == PlayerColor.EMPTY) {
+                    squares[count++] = BitBoard.index(x, y);
+                }
+                if (space == PlayerColor.EMPTY && moveX < 0) {
+                    moveX = x;
+                    moveY = y;
+                }
+            }
+        }
+        empties = Arrays.copyOf(squares, count);
+    }
+
+    // reset does not depend on the position, it is measured for every position
+    // only to keep all benchmarks in one class
+    @Benchmark
+    public Othello reset() {
+        o.reset();
+        return o;
+    }
+
+    @Benchmark
+    public MoveList generateValidMoves() {
+        o.generateValidMoves(turn, moves);
+        return moves;
+    }
+
+    // checks every empty square of the position
+    @Benchmark
+    public void checkMove(Blackhole bh) {
+        for (int sq : empties) {
+            bh.consume(o.checkMove(sq % 8, sq / 8, turn));
+        }
+    }
+
+    // casts a ray in all 8 directions from the first valid move
+    @Benchmark
+    public void rayCast(Blackhole bh) {
+        for (int dx = -1; dx < 2; dx++) {
+            for (int dy = -1; dy < 2; dy++) {
+                if (dx != 0 || dy != 0) {
+                    bh.consume(o.rayCast(moveX + dx, moveY + dy, dx, dy, turn, 0));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Othello loadFile() throws IOException {
+        o.loadFile(file);
+        return o;
+    }
+
+    // writes to files/output/output.txt like the GUI save button
+    @Benchmark
+    public Othello saveGameBoard() throws IOException {
+        o.saveGameBoard();
+        return o;
+    }
+
+    /**
+     * playTurn changes the position, so it gets its own state and the
+     * benchmark takes the move back with unmakeMove. A setup before every call
+     * would cost more than the move itself and swamp the measurement.
+     */
+    @State(Scope.Thread)
+    public static class PlayTurnState {
+
+        @Param({ "opening", "midgame", "endgame" })
+        public String position;
+
+        private Othello o;
+        private int moveX;
+        private int moveY;
+
+        @Setup(Level.Trial)
+        public void loadPosition() throws IOException {
+            o = new Othello();
+            o.loadFile(fileOf(position));
+            moveX = -1;
+            for (int y = 0; y < 8 && moveX < 0; y++) {
+                for (int x = 0; x < 8 && moveX < 0; x++) {
+                    if (o.getBoardSpace(x, y) == PlayerColor.EMPTY) {
+                        moveX = x;
+                        moveY = y;
+                    }
+                }
+            }
+        }
+    }
+
+    // plays the first valid move and takes it back, so every call starts from
+    // the loaded position
+    @Benchmark
+    public Othello playTurn(PlayTurnState state) {
+        state.o.playTurn(state.moveX, state.moveY, state.o.getCurrentTurn());
+        state.o.unmakeMove();
+        return state.o;
+    }
+}
@@ -0,0 +1,71 @@
+package org.cis120.Othello;
+
+/**
+ * Analysis is the immutable result of analysing one position in the
+ * background, see BackgroundAnalysis. It holds the position it belongs to,
+ * so the GUI can check that it still shows that position before using it.
+ */
+public final class Analysis {
+    private final long generation;
+    private final long black;
+    private final long white;
+    private final PlayerColor turn;
+    private final ValidMove bestMove;
+    private final int score;
+    private final int depth;
+    private final long nanos;
+
+    Analysis(long generationParam, long blackParam, long whiteParam, PlayerColor turnParam,
+            ValidMove bestMoveParam, int scoreParam, int depthParam, long nanosParam) {
+        generation = generationParam;
+        black = blackParam;
+        white = whiteParam;
+        turn = turnParam;
+        bestMove = bestMoveParam;
+        score = scoreParam;
+        depth = depthParam;
+        nanos = nanosParam;
+    }
+
+    // number of the request this analysis answers, later requests have
+    // higher numbers
+    public long getGeneration() {
+        return generation;
+    }
+
+    public long getBlackDisks() {
+        return black;
+    }
+
+    public long getWhiteDisks() {
+        return white;
+    }
+
+    public PlayerColor getTurn() {
+        return turn;
+    }
+
+    // best move for turn, null if the game is over
+    public ValidMove getBestMove() {
+        return bestMove;
+    }
+
+    // score of the best move for turn, see SearchEngine.getLastScore
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    // time the analysis took
+    public long getNanos() {
+        return nanos;
+    }
+
+    // true if this is an analysis of the given position
+    public boolean isOf(long blackParam, long whiteParam, PlayerColor turnParam) {
+        return black == blackParam && white == whiteParam && turn == turnParam;
+    }
+}
@@ -0,0 +1,120 @@
+package org.cis120.Othello;
+
+import org.cis120.Othello.ai.SearchEngine;
+
+import javax.swing.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * BackgroundAnalysis runs the search engine on its own thread so the Swing
+ * event thread never waits for it.
+ *
+ * The event thread hands in a position with submit, which copies it and
+ * returns at once. The search runs on a single background thread, and its
+ * result is published back on the event thread as an immutable Analysis.
+ *
+ * Every submit makes all earlier requests stale: a search still running is
+ * told to stop, a request still waiting is skipped, and a result that
+ * arrives late is dropped, so only the analysis of the newest position is
+ * ever published.
+ */
+public class BackgroundAnalysis {
+    private final SearchEngine engine;
+    private final Consumer<Analysis> listener;
+    private final Executor publisher;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "othello-analysis");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // number of the newest request
+    private final AtomicLong generation = new AtomicLong();
+
+    // stop flag of the newest request, guarded by this
+    private AtomicBoolean stop;
+
+    /**
+     * Creates a pipeline that publishes on the Swing event thread.
+     *
+     * @param listenerParam called on the event thread with every analysis
+     */
+    public BackgroundAnalysis(Consumer<Analysis> listenerParam) {
+        this(new SearchEngine(), listenerParam, SwingUtilities::invokeLater);
+    }
+
+    // publisher runs the listener calls, the tests run them right away
+    BackgroundAnalysis(SearchEngine engineParam, Consumer<Analysis> listenerParam,
+            Executor publisherParam) {
+        engine = engineParam;
+        listener = listenerParam;
+        publisher = publisherParam;
+    }
+
+    /**
+     * submit asks for an analysis of position and cancels every earlier
+     * request. The position is copied, so it can be changed right after.
+     *
+     * @param position         position to analyse
+     * @param timeBudgetMillis time budget of the search
+     * @return number of the request, see Analysis.getGeneration
+     */
+    public long submit(OthelloModel position, long timeBudgetMillis) {
+        BitBoardOthello copy = BitBoardOthello.copyOf(position);
+        AtomicBoolean requestStop = new AtomicBoolean();
+        long request;
+        synchronized (this) {
+            if (stop != null) {
+                stop.set(true);
+            }
+            stop = requestStop;
+            request = generation.incrementAndGet();
+        }
+        executor.execute(() -> analyse(copy, timeBudgetMillis, request, requestStop));
+        return request;
+    }
+
+    // runs on the background thread
+    private void analyse(BitBoardOthello position, long timeBudgetMillis, long request,
+            AtomicBoolean requestStop) {
+        // a newer request came in while this one was waiting
+        if (requestStop.get()) {
+            return;
+        }
+        long start = System.nanoTime();
+        ValidMove best = engine.findBestMove(position, timeBudgetMillis, 64, requestStop);
+        if (requestStop.get()) {
+            return;
+        }
+        Analysis analysis = new Analysis(
+                request, position.getBlackDisks(), position.getWhiteDisks(),
+                position.getCurrentTurn(), best, engine.getLastScore(), engine.getLastDepth(),
+                System.nanoTime() - start
+        );
+        publisher.execute(() -> {
+            // still the newest once it reaches the event thread
+            if (generation.get() == request) {
+                listener.accept(analysis);
+            }
+        });
+    }
+
+    // makes every request stale, nothing is published until the next submit
+    public synchronized void cancel() {
+        if (stop != null) {
+            stop.set(true);
+        }
+        generation.incrementAndGet();
+    }
+
+    // stops the background thread, the pipeline cannot be used afterwards
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+}
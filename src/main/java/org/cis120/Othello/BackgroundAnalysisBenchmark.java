@@ -0,0 +1,93 @@
+package org.cis120.Othello;
+
+import org.cis120.Othello.ai.SearchEngine;
+
+import javax.swing.*;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shows that the engine no longer blocks the Swing event thread. Random
+ * moves are played on the event thread, like clicks, and after every move the
+ * engine searches the new position for SEARCH_MILLIS:
+ *
+ * "blocking" runs the search on the event thread itself, the way a hint or AI
+ * reply would run from mouseReleased. "background" hands the position to
+ * BackgroundAnalysis and returns at once.
+ *
+ * An EdtMonitor measures how long the event thread keeps other events
+ * waiting. Any wait longer than 16 ms is a dropped frame.
+ *
+ * Run this file to see the results in your console.
+ */
+public class BackgroundAnalysisBenchmark {
+
+    private static final int MOVES = 30;
+    private static final long SEARCH_MILLIS = 100;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        SearchEngine engine = new SearchEngine();
+        AtomicInteger published = new AtomicInteger();
+        BackgroundAnalysis analysis = new BackgroundAnalysis(result -> published.incrementAndGet());
+
+        try (EdtMonitor monitor = new EdtMonitor(2)) {
+            // warmup
+            run(monitor, o -> engine.findBestMove(BitBoardOthello.copyOf(o), SEARCH_MILLIS), 5);
+            run(monitor, o -> analysis.submit(o, SEARCH_MILLIS), 5);
+
+            run(monitor, o -> engine.findBestMove(BitBoardOthello.copyOf(o), SEARCH_MILLIS),
+                    MOVES);
+            report("blocking", monitor);
+            published.set(0);
+            run(monitor, o -> analysis.submit(o, SEARCH_MILLIS), MOVES);
+            report("background", monitor);
+            System.out.println("analyses published: " + published.get() + " of " + MOVES);
+        } finally {
+            analysis.shutdown();
+        }
+    }
+
+    interface Search {
+        void search(Othello o) throws Exception;
+    }
+
+    // plays moves random moves on the event thread, searching after each one
+    private static void run(EdtMonitor monitor, Search search, int moves) throws Exception {
+        Othello o = new Othello();
+        Random rng = new Random(120);
+        // lets the previous run finish before measuring
+        Thread.sleep(2 * SEARCH_MILLIS);
+        monitor.reset();
+        for (int i = 0; i < moves; i++) {
+            SwingUtilities.invokeAndWait(() -> {
+                if (o.checkWinner() != null) {
+                    o.reset();
+                }
+                int count = 0;
+                int[] valid = new int[64];
+                for (int sq = 0; sq < 64; sq++) {
+                    if (o.getBoardSpace(sq % 8, sq / 8) == PlayerColor.EMPTY) {
+                        valid[count++] = sq;
+                    }
+                }
+                int move = valid[rng.nextInt(count)];
+                o.playTurn(move % 8, move / 8, o.getCurrentTurn());
+                try {
+                    search.search(o);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            // time to look at the hint before the next click
+            Thread.sleep(SEARCH_MILLIS + 50);
+        }
+    }
+
+    private static void report(String name, EdtMonitor monitor) {
+        System.out.printf(
+                "%-10s probes: %5d  max wait: %6.1f ms  late (> 16 ms): %d%n", name,
+                monitor.getSamples(), monitor.getMaxNanos() / 1e6, monitor.getLateCount()
+        );
+    }
+}
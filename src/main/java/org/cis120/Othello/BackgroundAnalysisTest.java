@@ -0,0 +1,78 @@
+package org.cis120.Othello;
+
+import org.cis120.Othello.ai.SearchEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BackgroundAnalysisTest {
+
+    private final List<Analysis> published = new ArrayList<>();
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    // publishes on the background thread, there is no event thread in a test
+    private BackgroundAnalysis analysis() {
+        return new BackgroundAnalysis(new SearchEngine(null), result -> {
+            synchronized (published) {
+                published.add(result);
+            }
+            done.countDown();
+        }, Runnable::run);
+    }
+
+    @Test
+    public void publishTest() throws InterruptedException {
+        BackgroundAnalysis analysis = analysis();
+        Othello o = new Othello();
+        long request = analysis.submit(o, 50);
+        // the model can change as soon as submit returns
+        o.playTurn(5, 4, PlayerColor.BLACK);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        analysis.shutdown();
+
+        Analysis result = published.get(0);
+        assertEquals(request, result.getGeneration());
+        assertTrue(result.isOf(BitBoard.START_BLACK, BitBoard.START_WHITE, PlayerColor.BLACK));
+        long valid = BitBoard.validMoves(BitBoard.START_BLACK, BitBoard.START_WHITE);
+        assertTrue((valid & 1L << result.getBestMove().getSquare()) != 0);
+        assertTrue(result.getDepth() > 0);
+    }
+
+    // a newer request stops the search of an older one and only the newer
+    // result is published
+    @Test
+    public void staleRequestTest() throws InterruptedException {
+        BackgroundAnalysis analysis = analysis();
+        Othello o = new Othello();
+        long start = System.nanoTime();
+        analysis.submit(o, 60000);
+        Thread.sleep(20);
+        o.playTurn(5, 4, PlayerColor.BLACK);
+        long request = analysis.submit(o, 20);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+        Thread.sleep(100);
+        analysis.shutdown();
+
+        synchronized (published) {
+            assertEquals(1, published.size());
+            assertEquals(request, published.get(0).getGeneration());
+            assertEquals(PlayerColor.WHITE, published.get(0).getTurn());
+        }
+    }
+
+    @Test
+    public void cancelTest() throws InterruptedException {
+        BackgroundAnalysis analysis = analysis();
+        analysis.submit(new Othello(), 200);
+        analysis.cancel();
+        assertFalse(done.await(500, TimeUnit.MILLISECONDS));
+        analysis.shutdown();
+        assertTrue(published.isEmpty());
+    }
+}
@@ -0,0 +1,124 @@
+package org.cis120.Othello;
+
+/**
+ * Static helpers for working with an Othello board stored as two 64-bit masks,
+ * one for each color.
+ *
+ * Square (x, y) is stored in bit y * 8 + x, so bit 0 is the top left corner
+ * and bit 63 is the bottom right corner. Every helper works purely on longs so
+ * that nothing is allocated while generating moves or computing flips.
+ */
+public final class BitBoard {
+
+    // masks used to stop shifted bits from wrapping around to the other side of
+    // the board
+    static final long NOT_FIRST_COL = 0xfefefefefefefefeL;
+    static final long NOT_LAST_COL = 0x7f7f7f7f7f7f7f7fL;
+
+    // starting position
+    public static final long START_BLACK = square(4, 3) | square(3, 4);
+    public static final long START_WHITE = square(3, 3) | square(4, 4);
+
+    // the 8 directions as shift amounts (positive is a left shift) and the mask
+    // applied after the shift
+    // E, W, S, N, SE, SW, NE, NW
+    private static final int[] SHIFTS = { 1, -1, 8, -8, 9, 7, -7, -9 };
+    private static final long[] MASKS = {
+        NOT_FIRST_COL, NOT_LAST_COL, -1L, -1L,
+        NOT_FIRST_COL, NOT_LAST_COL, NOT_FIRST_COL, NOT_LAST_COL
+    };
+
+    private BitBoard() {
+    }
+
+    // converts x y coordinates into a single bit mask
+    public static long square(int x, int y) {
+        return 1L << (y * 8 + x);
+    }
+
+    // converts x y coordinates into a bit index
+    public static int index(int x, int y) {
+        return y * 8 + x;
+    }
+
+    // converts a bit index into standard notation, column a-h then row 1-8
+    public static String toNotation(int sq) {
+        return "" + (char) ('a' + sq % 8) + (char) ('1' + sq / 8);
+    }
+
+    // converts standard notation such as "d3" into a bit index
+    public static int fromNotation(String move) {
+        if (move.length() != 2) {
+            throw new IllegalArgumentException();
+        }
+        int x = Character.toLowerCase(move.charAt(0)) - 'a';
+        int y = move.charAt(1) - '1';
+        if (x < 0 || x > 7 || y < 0 || y > 7) {
+            throw new IllegalArgumentException();
+        }
+        return index(x, y);
+    }
+
+    // shifts every disk in b one step in direction dir
+    static long shift(long b, int dir) {
+        int s = SHIFTS[dir];
+        if (s > 0) {
+            return (b << s) & MASKS[dir];
+        } else {
+            return (b >>> -s) & MASKS[dir];
+        }
+    }
+
+    /**
+     * validMoves generates every legal move for the player owning the disks in
+     * own, using shift-and-mask flood fills in all 8 directions.
+     *
+     * @param own disks of the player to move
+     * @param opp disks of the opponent
+     * @return mask of all empty squares that flip at least one disk
+     */
+    public static long validMoves(long own, long opp) {
+        long empty = ~(own | opp);
+        long moves = 0;
+        for (int dir = 0; dir < 8; dir++) {
+            // a line of opponent disks can be at most 6 long
+            long t = shift(own, dir) & opp;
+            t |= shift(t, dir) & opp;
+            t |= shift(t, dir) & opp;
+            t |= shift(t, dir) & opp;
+            t |= shift(t, dir) & opp;
+            t |= shift(t, dir) & opp;
+            moves |= shift(t, dir) & empty;
+        }
+        return moves;
+    }
+
+    /**
+     * flips computes the disks that are flipped when the player owning own
+     * places a disk on square sq.
+     *
+     * @param sq  bit index of the placed disk
+     * @param own disks of the player to move
+     * @param opp disks of the opponent
+     * @return mask of flipped disks, 0 if the move is not legal
+     */
+    public static long flips(int sq, long own, long opp) {
+        long placed = 1L << sq;
+        if (((own | opp) & placed) != 0) {
+            return 0;
+        }
+        long flipped = 0;
+        for (int dir = 0; dir < 8; dir++) {
+            long line = 0;
+            long m = shift(placed, dir);
+            while ((m & opp) != 0) {
+                line |= m;
+                m = shift(m, dir);
+            }
+            if ((m & own) != 0) {
+                flipped |= line;
+            }
+        }
+        return flipped;
+    }
+}
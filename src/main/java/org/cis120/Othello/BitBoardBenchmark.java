@@ -0,0 +1,72 @@
+package org.cis120.Othello;
+
+import java.util.Random;
+
+/**
+ * Compares the array based Othello model against BitBoardOthello by playing
+ * the same random games on both through the shared OthelloModel API.
+ *
+ * Run this file to see the results in your console.
+ */
+public class BitBoardBenchmark {
+
+    private static final int WARMUP_GAMES = 2000;
+    private static final int GAMES = 20000;
+
+    // plays a single random game to the end and returns the final black points
+    // moves are found through getBoardSpace just like the GUI does it
+    static int playRandomGame(OthelloModel o, Random rng) {
+        o.reset();
+        int[] moves = new int[64];
+        while (o.checkWinner() == null) {
+            int count = 0;
+            for (int y = 0; y < 8; y++) {
+                for (int x = 0; x < 8; x++) {
+                    if (o.getBoardSpace(x, y) == PlayerColor.EMPTY) {
+                        moves[count++] = y * 8 + x;
+                    }
+                }
+            }
+            int move = moves[rng.nextInt(count)];
+            o.playTurn(move % 8, move / 8, o.getCurrentTurn());
+        }
+        return o.getBlackPoints();
+    }
+
+    // plays games random games and returns the time taken in nanoseconds
+    // the checksum makes sure both models played exactly the same games
+    private static long run(OthelloModel o, int games, long[] checksum) {
+        Random rng = new Random(120);
+        long sum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            sum += playRandomGame(o, rng);
+        }
+        long time = System.nanoTime() - start;
+        checksum[0] = sum;
+        return time;
+    }
+
+    public static void main(String[] args) {
+        long[] arrayChecksum = new long[1];
+        long[] bitChecksum = new long[1];
+
+        run(new Othello(), WARMUP_GAMES, arrayChecksum);
+        run(new BitBoardOthello(), WARMUP_GAMES, bitChecksum);
+
+        long arrayTime = run(new Othello(), GAMES, arrayChecksum);
+        long bitTime = run(new BitBoardOthello(), GAMES, bitChecksum);
+
+        if (arrayChecksum[0] != bitChecksum[0]) {
+            throw new IllegalStateException("models played different games");
+        }
+
+        System.out.printf(
+                "array:    %8.1f games/s%n", GAMES / (arrayTime / 1e9)
+        );
+        System.out.printf(
+                "bitboard: %8.1f games/s%n", GAMES / (bitTime / 1e9)
+        );
+        System.out.printf("speedup:  %8.1fx%n", (double) arrayTime / bitTime);
+    }
+}
@@ -0,0 +1,572 @@
+package org.cis120.Othello;
+
+import java.io.IOException;
+
+/**
+ * BitBoardOthello is a second implementation of the Othello model that stores
+ * the board as two 64-bit masks (one per color) instead of a PlayerColor[][].
+ * Valid moves and flips are computed with the shift-and-mask helpers in
+ * BitBoard, so playing a turn does not allocate any objects.
+ *
+ * It behaves exactly like Othello and can be used anywhere an OthelloModel is
+ * expected.
+ */
+public class BitBoardOthello implements OthelloModel {
+    // disks of each player, bit y * 8 + x is set if the player owns square x, y
+    private long black;
+    private long white;
+
+    // stores current turn using player color enum
+    private PlayerColor currentTurn;
+
+    // stores valid moves for both players as masks of empty squares
+    private long blackValidMoves;
+    private long whiteValidMoves;
+
+    // Tracks game over state
+    private boolean gameOver;
+
+    // true if next turn will be a pass turn and false otherwise
+    private boolean pass;
+
+    // Zobrist key of the position, updated incrementally in makeMove
+    private long hashKey;
+
+    // pattern indexes updated with every move, null if none are attached
+    private PatternIndexes patterns;
+
+    // listeners told about every change of the board
+    private final ModelEvents events = new ModelEvents();
+
+    // output filestring
+    private final String fileString = "files/output/output.txt";
+
+    // undo stack used by makeMove and unmakeMove
+    // every move fills a square so a game can never be longer than 64 moves
+    private static final int MAX_HISTORY = 64;
+    private final int[] historySquares = new int[MAX_HISTORY];
+    private final long[] historyFlips = new long[MAX_HISTORY];
+    private final boolean[] historyPass = new boolean[MAX_HISTORY];
+    private int historySize;
+    // entries from historySize up to redoSize are moves taken back by undo
+    private int redoSize;
+
+    // BitBoardOthello constructor
+    public BitBoardOthello() {
+        reset();
+    }
+
+    /**
+     * resets the game state to start a new game.
+     **/
+    @Override
+    public void reset() {
+        black = BitBoard.START_BLACK;
+        white = BitBoard.START_WHITE;
+        currentTurn = PlayerColor.BLACK;
+        gameOver = false;
+        pass = false;
+        historySize = 0;
+        redoSize = 0;
+        hashKey = Zobrist.hash(black, white, currentTurn);
+        resetPatterns();
+        updateValidMoves();
+        fireBoardReplaced();
+    }
+
+    /**
+     * setPosition replaces the board with the given disks and player to move.
+     * If the player to move has no valid moves the turn is passed, the same way
+     * loadFile does it. The game over state and the undo stack are cleared.
+     *
+     * @param blackParam mask of black disks
+     * @param whiteParam mask of white disks
+     * @param turn       player to move
+     */
+    @Override
+    public void setPosition(long blackParam, long whiteParam, PlayerColor turn) {
+        if ((blackParam & whiteParam) != 0 || turn == PlayerColor.EMPTY || turn == null) {
+            throw new IllegalArgumentException();
+        }
+        black = blackParam;
+        white = whiteParam;
+        currentTurn = turn;
+        gameOver = false;
+        pass = false;
+        historySize = 0;
+        redoSize = 0;
+        hashKey = Zobrist.hash(black, white, currentTurn);
+        resetPatterns();
+        updateValidMoves();
+        if (currentTurn == PlayerColor.BLACK && blackValidMoves == 0) {
+            pass = true;
+            currentTurnFlip();
+        } else if (currentTurn == PlayerColor.WHITE && whiteValidMoves == 0) {
+            pass = true;
+            currentTurnFlip();
+        }
+        fireBoardReplaced();
+    }
+
+    /**
+     * copyOf creates a BitBoardOthello with the same disks and player to move
+     * as any other model.
+     *
+     * @param position model to copy
+     * @return a new BitBoardOthello
+     */
+    public static BitBoardOthello copyOf(OthelloModel position) {
+        long blackTemp = 0;
+        long whiteTemp = 0;
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                PlayerColor space = position.getBoardSpace(x, y);
+                if (space == PlayerColor.BLACK) {
+                    blackTemp |= BitBoard.square(x, y);
+                } else if (space == PlayerColor.WHITE) {
+                    whiteTemp |= BitBoard.square(x, y);
+                }
+            }
+        }
+        BitBoardOthello copy = new BitBoardOthello();
+        copy.setPosition(blackTemp, whiteTemp, position.getCurrentTurn());
+        return copy;
+    }
+
+    // regenerates the valid moves masks for both players
+    private void updateValidMoves() {
+        blackValidMoves = BitBoard.validMoves(black, white);
+        whiteValidMoves = BitBoard.validMoves(white, black);
+    }
+
+    // Swaps the current turn variable to change over the turns
+    // the side to move is part of the hash key so it is updated as well
+    private void currentTurnFlip() {
+        hashKey ^= Zobrist.SIDE;
+        if (currentTurn == PlayerColor.BLACK) {
+            currentTurn = PlayerColor.WHITE;
+        } else {
+            currentTurn = PlayerColor.BLACK;
+        }
+    }
+
+    /**
+     * playTurn allows players to play a turn. Behaves the same as
+     * Othello.playTurn.
+     *
+     * @param x      column to play in
+     * @param y      row to play in
+     * @param player move color
+     **/
+    @Override
+    public void playTurn(int x, int y, PlayerColor player) {
+        if (player != currentTurn) {
+            throw new IllegalArgumentException();
+        }
+
+        if (x > 7 || y > 7 || x < 0 || y < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        // kills play turn function if the game is over
+        if (gameOver || checkWinner() != null) {
+            gameOver = true;
+            return;
+        }
+
+        int sq = BitBoard.index(x, y);
+        long placed = 1L << sq;
+        long moves = player == PlayerColor.BLACK ? blackValidMoves : whiteValidMoves;
+
+        // if move is invalid an exception is thrown to be handled in GameBoard.java
+        if ((moves & placed) == 0) {
+            throw new IllegalArgumentException();
+        }
+
+        makeMove(sq);
+    }
+
+    /**
+     * makeMove plays a move for the current player without any of the checks
+     * done by playTurn: the move is not validated and the game over state is
+     * not looked at. The forced pass is still applied, so if the opponent has
+     * no valid moves the turn goes back to the player who moved. The move is
+     * pushed onto an undo stack so it can be taken back with unmakeMove. Used
+     * by search code that plays and takes back moves millions of times, so it
+     * never allocates. Moves taken back by undo can no longer be redone.
+     *
+     * @param sq bit index of a valid move for the current player
+     * @return mask of the disks flipped by the move
+     */
+    public long makeMove(int sq) {
+        long placed = 1L << sq;
+        PlayerColor player = currentTurn;
+        long flipped;
+
+        // place the disk and flip all disks changed by the move
+        if (player == PlayerColor.BLACK) {
+            flipped = BitBoard.flips(sq, black, white);
+            black |= flipped | placed;
+            white &= ~flipped;
+        } else {
+            flipped = BitBoard.flips(sq, white, black);
+            white |= flipped | placed;
+            black &= ~flipped;
+        }
+
+        hashKey ^= Zobrist.moveKey(sq, flipped, player);
+        if (patterns != null) {
+            patterns.play(sq, flipped, player);
+        }
+
+        historySquares[historySize] = sq;
+        historyFlips[historySize] = flipped;
+        historyPass[historySize] = pass;
+        historySize++;
+        redoSize = 0;
+
+        // update valid moves masks
+        updateValidMoves();
+
+        // flips turn
+        currentTurnFlip();
+
+        // passing code (operates on next turn)
+        if (player == PlayerColor.BLACK && whiteValidMoves == 0) {
+            pass = true;
+            currentTurnFlip();
+        } else if (player == PlayerColor.WHITE && blackValidMoves == 0) {
+            pass = true;
+            currentTurnFlip();
+        } else {
+            pass = false;
+        }
+
+        // only the GUI and clients listen, the search never pays for more than
+        // this check
+        if (events.hasListeners()) {
+            events.disksPlaced(sq, flipped, player);
+            fireState();
+        }
+        return flipped;
+    }
+
+    /**
+     * unmakeMove takes back the last move played with makeMove or playTurn,
+     * restoring the board, the current turn and the pass state.
+     */
+    public void unmakeMove() {
+        if (historySize == 0) {
+            throw new IllegalStateException();
+        }
+        historySize--;
+        int sq = historySquares[historySize];
+        long placed = 1L << sq;
+        long flipped = historyFlips[historySize];
+
+        // the player who made the move owns the placed disk
+        PlayerColor player;
+        if ((black & placed) != 0) {
+            black &= ~(flipped | placed);
+            white |= flipped;
+            player = PlayerColor.BLACK;
+        } else {
+            white &= ~(flipped | placed);
+            black |= flipped;
+            player = PlayerColor.WHITE;
+        }
+        hashKey ^= Zobrist.moveKey(sq, flipped, player);
+        if (patterns != null) {
+            patterns.undo(sq, flipped, player);
+        }
+        if (player != currentTurn) {
+            currentTurnFlip();
+        }
+        pass = historyPass[historySize];
+        updateValidMoves();
+        if (events.hasListeners()) {
+            events.disksRemoved(sq, flipped, player);
+            fireState();
+        }
+    }
+
+    // takes back the last move and keeps it for redo
+    @Override
+    public void undo() {
+        if (historySize == 0) {
+            throw new IllegalStateException();
+        }
+        redoSize = Math.max(redoSize, historySize);
+        gameOver = false;
+        unmakeMove();
+    }
+
+    // plays the last move taken back by undo again
+    @Override
+    public void redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException();
+        }
+        int top = redoSize;
+        makeMove(historySquares[historySize]);
+        redoSize = top;
+    }
+
+    @Override
+    public boolean canUndo() {
+        return historySize > 0;
+    }
+
+    @Override
+    public boolean canRedo() {
+        return redoSize > historySize;
+    }
+
+    /**
+     * checkWinner checks whether the game has reached a win condition.
+     *
+     * @return PlayerColor of the winner, empty if the game is a tie, or null if the
+     *         game is not over
+     **/
+    @Override
+    public PlayerColor checkWinner() {
+        if (blackValidMoves == 0 && whiteValidMoves == 0) {
+            int blackPoints = getBlackPoints();
+            int whitePoints = getWhitePoints();
+            if (blackPoints > whitePoints) {
+                return PlayerColor.BLACK;
+            } else if (whitePoints > blackPoints) {
+                return PlayerColor.WHITE;
+            } else {
+                return PlayerColor.EMPTY;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * printGameState prints the current game state for debugging in the same
+     * format as Othello.printGameState.
+     */
+    @Override
+    public void printGameState() {
+        System.out.println("B: " + getBlackPoints() + ", W: " + getWhitePoints());
+        System.out.print(" ");
+        for (int i = 0; i < 8; i++) {
+            System.out.print(i);
+        }
+        System.out.println();
+        for (int i = 0; i < 8; i++) {
+            System.out.print(i);
+            for (int j = 0; j < 8; j++) {
+                long sq = BitBoard.square(j, i);
+                if ((black & sq) != 0) {
+                    System.out.print("X");
+                } else if ((white & sq) != 0) {
+                    System.out.print("O");
+                } else if (currentTurn == PlayerColor.BLACK) {
+                    System.out.print((blackValidMoves & sq) != 0 ? "*" : ".");
+                } else {
+                    System.out.print((whiteValidMoves & sq) != 0 ? "#" : ".");
+                }
+            }
+            System.out.println();
+        }
+        System.out.println();
+    }
+
+    // returns the black disks as a bit mask
+    public long getBlackDisks() {
+        return black;
+    }
+
+    // returns the white disks as a bit mask
+    public long getWhiteDisks() {
+        return white;
+    }
+
+    // returns the valid moves of the current player as a bit mask
+    public long getValidMoves() {
+        return currentTurn == PlayerColor.BLACK ? blackValidMoves : whiteValidMoves;
+    }
+
+    // returns the number of empty squares
+    public int getEmptyCount() {
+        return 64 - Long.bitCount(black | white);
+    }
+
+    @Override
+    public PlayerColor getCurrentTurn() {
+        return currentTurn;
+    }
+
+    /**
+     * getBoardSpace is a getter for the contents of the cell specified by the
+     * method arguments.
+     *
+     * @param x column to retrieve
+     * @param y row to retrieve
+     * @return a player color value, empty if the space is a valid move, null if the
+     *         space is empty and not a valid move
+     **/
+    @Override
+    public PlayerColor getBoardSpace(int x, int y) {
+        if (x > 7 || y > 7 || x < 0 || y < 0) {
+            throw new IllegalArgumentException();
+        }
+        long sq = BitBoard.square(x, y);
+        if ((black & sq) != 0) {
+            return PlayerColor.BLACK;
+        } else if ((white & sq) != 0) {
+            return PlayerColor.WHITE;
+        }
+        long moves = currentTurn == PlayerColor.BLACK ? blackValidMoves : whiteValidMoves;
+        if ((moves & sq) != 0) {
+            return PlayerColor.EMPTY;
+        }
+        return null;
+    }
+
+    // points are just the number of disks each player owns
+    @Override
+    public int getBlackPoints() {
+        return Long.bitCount(black);
+    }
+
+    @Override
+    public int getWhitePoints() {
+        return Long.bitCount(white);
+    }
+
+    @Override
+    public boolean getPass() {
+        return pass;
+    }
+
+    // sets the disks, turn and pass flag exactly as they were stored, unlike
+    // setPosition which passes the turn at the end of a game, see GameStore
+    void restore(long blackParam, long whiteParam, PlayerColor turn, boolean passParam) {
+        setPosition(blackParam, whiteParam, turn);
+        if (currentTurn != turn) {
+            currentTurnFlip();
+            if (events.hasListeners()) {
+                fireState();
+            }
+        }
+        pass = passParam;
+    }
+
+    @Override
+    public Position toPosition() {
+        return Position.of(black, white, currentTurn, pass);
+    }
+
+    @Override
+    public void setPosition(Position position) {
+        restore(position.getBlackDisks(), position.getWhiteDisks(), position.getCurrentTurn(),
+                position.getPass());
+    }
+
+    @Override
+    public long getHashKey() {
+        return hashKey;
+    }
+
+    @Override
+    public void addModelListener(ModelListener listener) {
+        events.add(listener);
+    }
+
+    @Override
+    public void removeModelListener(ModelListener listener) {
+        events.remove(listener);
+    }
+
+    // tells the listeners that the whole board changed
+    private void fireBoardReplaced() {
+        if (events.hasListeners()) {
+            events.boardReplaced(black, white);
+            fireState();
+        }
+    }
+
+    // sends the valid moves and points to the listeners if they changed
+    private void fireState() {
+        long moves = currentTurn == PlayerColor.BLACK ? blackValidMoves : whiteValidMoves;
+        events.stateChanged(moves, currentTurn, getBlackPoints(), getWhitePoints());
+    }
+
+    // attaches pattern indexes that follow every move, null to detach them
+    @Override
+    public void setPatternIndexes(PatternIndexes indexes) {
+        patterns = indexes;
+        resetPatterns();
+    }
+
+    // returns the attached pattern indexes, null if none are attached
+    public PatternIndexes getPatternIndexes() {
+        return patterns;
+    }
+
+    // recomputes the attached pattern indexes from the board
+    private void resetPatterns() {
+        if (patterns != null) {
+            patterns.setBoard(black, white);
+        }
+    }
+
+    // saves the current game board in the same text format as Othello
+    @Override
+    public void saveGameBoard() throws IOException {
+        PlayerColor[][] board = new PlayerColor[8][8];
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                long sq = BitBoard.square(x, y);
+                if ((black & sq) != 0) {
+                    board[x][y] = PlayerColor.BLACK;
+                } else if ((white & sq) != 0) {
+                    board[x][y] = PlayerColor.WHITE;
+                } else {
+                    board[x][y] = PlayerColor.EMPTY;
+                }
+            }
+        }
+        BoardFile.write(fileString, currentTurn, board);
+    }
+
+    // saves the current game board as a binary record
+    @Override
+    public void saveBinary(String file) throws IOException {
+        BoardFile.writeBinary(file, currentTurn, black, white);
+    }
+
+    @Override
+    public String getFileString() {
+        return fileString;
+    }
+
+    // loads a file from a user specific location
+    // Will throw Illegal argument exception if a file has incorrect formatting
+    @Override
+    public void loadFile(String file) throws IOException {
+        BoardFile boardFile = BoardFile.read(file);
+        black = boardFile.getBlack();
+        white = boardFile.getWhite();
+        currentTurn = boardFile.getTurn();
+        historySize = 0;
+        redoSize = 0;
+        hashKey = Zobrist.hash(black, white, currentTurn);
+        resetPatterns();
+        updateValidMoves();
+
+        // if the game is loaded into pass state some additional changes are required
+        if (currentTurn == PlayerColor.BLACK && blackValidMoves == 0) {
+            pass = true;
+            currentTurnFlip();
+        } else if (currentTurn == PlayerColor.WHITE && whiteValidMoves == 0) {
+            pass = true;
+            currentTurnFlip();
+        }
+        fireBoardReplaced();
+    }
+}
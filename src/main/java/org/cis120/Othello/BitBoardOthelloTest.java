@@ -0,0 +1,31 @@
+package org.cis120.Othello;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// runs every test in OthelloTest against the bitboard implementation of the
+// model so that both representations are guaranteed to behave the same
+public class BitBoardOthelloTest extends OthelloTest {
+
+    public BitBoardOthelloTest() {
+        o = new BitBoardOthello();
+    }
+
+    // unmakeMove reports the disks it takes back
+    @Test
+    public void unmakeMoveEventsTest() {
+        BitBoardOthello bits = new BitBoardOthello();
+        EventLog events = new EventLog();
+        bits.addModelListener(events);
+        long flipped = bits.makeMove(37);
+        events.take();
+        bits.unmakeMove();
+        assertEquals(
+                "removed 37 " + flipped + " BLACK\n"
+                        + "moves " + BitBoard.validMoves(BitBoard.START_BLACK, BitBoard.START_WHITE)
+                        + " BLACK\n" + "score 2 2\n",
+                events.take()
+        );
+    }
+}
@@ -0,0 +1,203 @@
+package org.cis120.Othello;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Reads and writes the save formats shared by every Othello model
+// the text format has the current turn (BLACK or WHITE) on the first line
+// followed by 8 rows of X (black), O (white) and * (empty)
+// the binary format is a single 17 byte record, see RECORD_SIZE
+final class BoardFile {
+    // binary record: black disks (8 bytes), white disks (8 bytes) and a flags
+    // byte whose lowest bit is set when white is to move
+    // both masks are big-endian with bit y * 8 + x for square x, y
+    static final int RECORD_SIZE = 17;
+    private static final int WHITE_TO_MOVE = 1;
+
+    private final PlayerColor turn;
+    private final long black;
+    private final long white;
+
+    private BoardFile(PlayerColor turn, long black, long white) {
+        this.turn = turn;
+        this.black = black;
+        this.white = white;
+    }
+
+    public PlayerColor getTurn() {
+        return turn;
+    }
+
+    public long getBlack() {
+        return black;
+    }
+
+    public long getWhite() {
+        return white;
+    }
+
+    // returns a new board in x,y format, same as the board in Othello.java
+    public PlayerColor[][] getBoard() {
+        return toBoard(black, white);
+    }
+
+    // converts disk masks into a board in x,y format
+    static PlayerColor[][] toBoard(long black, long white) {
+        PlayerColor[][] board = new PlayerColor[8][8];
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                long sq = BitBoard.square(x, y);
+                if ((black & sq) != 0) {
+                    board[x][y] = PlayerColor.BLACK;
+                } else if ((white & sq) != 0) {
+                    board[x][y] = PlayerColor.WHITE;
+                } else {
+                    board[x][y] = PlayerColor.EMPTY;
+                }
+            }
+        }
+        return board;
+    }
+
+    // returns a mask of every square of board (x,y format) owned by color
+    static long mask(PlayerColor[][] board, PlayerColor color) {
+        long mask = 0;
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                if (board[x][y] == color) {
+                    mask |= BitBoard.square(x, y);
+                }
+            }
+        }
+        return mask;
+    }
+
+    // reads a board file in either format
+    // a file of exactly RECORD_SIZE bytes is binary, no valid text file is
+    // that short
+    // Will throw Illegal argument exception if a file has incorrect formatting
+    public static BoardFile read(String file) throws IOException {
+        if (new File(file).length() == RECORD_SIZE) {
+            return readRecord(ByteBuffer.wrap(Files.readAllBytes(Paths.get(file))), 0);
+        }
+        return readText(file);
+    }
+
+    private static BoardFile readText(String file) throws IOException {
+        PlayerColor[][] boardTemp = new PlayerColor[8][8];
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            int c;
+            int x = 0;
+            int y = 0;
+            String turn = br.readLine();
+            if (turn == null) {
+                throw new IllegalArgumentException();
+            }
+            while ((c = br.read()) != -1) {
+                char disk = (char) c;
+                if (x == 8) {
+                    x = 0;
+                    y++;
+                } else if (x > 8) {
+                    throw new IllegalArgumentException();
+                } else if (y > 7) {
+                    throw new IllegalArgumentException();
+                } else if (disk == 'X') {
+                    boardTemp[x][y] = PlayerColor.BLACK;
+                    x++;
+                } else if (disk == 'O') {
+                    boardTemp[x][y] = PlayerColor.WHITE;
+                    x++;
+                } else if (disk == '*') {
+                    boardTemp[x][y] = PlayerColor.EMPTY;
+                    x++;
+                }
+            }
+            for (PlayerColor[] spaces : boardTemp) {
+                for (PlayerColor space : spaces) {
+                    if (space == null) {
+                        throw new IllegalArgumentException();
+                    }
+                }
+            }
+            long blackTemp = mask(boardTemp, PlayerColor.BLACK);
+            long whiteTemp = mask(boardTemp, PlayerColor.WHITE);
+            if (turn.equals("BLACK")) {
+                return new BoardFile(PlayerColor.BLACK, blackTemp, whiteTemp);
+            } else if (turn.equals("WHITE")) {
+                return new BoardFile(PlayerColor.WHITE, blackTemp, whiteTemp);
+            } else {
+                throw new IllegalArgumentException();
+            }
+        }
+    }
+
+    // reads the binary record starting at offset
+    // Will throw Illegal argument exception if both colors own a square or the
+    // flags byte is not valid
+    static BoardFile readRecord(ByteBuffer buf, int offset) {
+        long blackTemp = buf.getLong(offset);
+        long whiteTemp = buf.getLong(offset + 8);
+        byte flags = buf.get(offset + 16);
+        if ((blackTemp & whiteTemp) != 0 || (flags & ~WHITE_TO_MOVE) != 0) {
+            throw new IllegalArgumentException();
+        }
+        return new BoardFile(turnOf(flags), blackTemp, whiteTemp);
+    }
+
+    // player to move stored in a flags byte
+    static PlayerColor turnOf(byte flags) {
+        return (flags & WHITE_TO_MOVE) != 0 ? PlayerColor.WHITE : PlayerColor.BLACK;
+    }
+
+    // writes a binary record at the position of buf
+    static void putRecord(ByteBuffer buf, PlayerColor turn, long black, long white) {
+        if ((black & white) != 0 || turn == PlayerColor.EMPTY || turn == null) {
+            throw new IllegalArgumentException();
+        }
+        buf.putLong(black);
+        buf.putLong(white);
+        buf.put(turn == PlayerColor.WHITE ? (byte) WHITE_TO_MOVE : 0);
+    }
+
+    // writes a board file
+    // first prints the current turn and then prints the board
+    public static void write(String file, PlayerColor turn, PlayerColor[][] board)
+            throws IOException {
+        BufferedWriter bw = new BufferedWriter(new FileWriter(file));
+        if (turn == PlayerColor.BLACK) {
+            bw.write("BLACK");
+            bw.newLine();
+        } else {
+            bw.write("WHITE");
+            bw.newLine();
+        }
+        for (int i = 0; i < board.length; i++) {
+            for (int j = 0; j < board[0].length; j++) {
+                PlayerColor space = board[j][i];
+                if (space == PlayerColor.BLACK) {
+                    bw.write("X");
+                } else if (space == PlayerColor.WHITE) {
+                    bw.write("O");
+                } else {
+                    bw.write("*");
+                }
+            }
+            if (i < board.length - 1) {
+                bw.newLine();
+            }
+        }
+        bw.flush();
+        bw.close();
+    }
+
+    // writes a board file as a single binary record
+    public static void writeBinary(String file, PlayerColor turn, long black, long white)
+            throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE);
+        putRecord(buf, turn, black, white);
+        Files.write(Paths.get(file), buf.array());
+    }
+}
@@ -0,0 +1,175 @@
+package org.cis120.Othello;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * BoardImage is the off-screen picture of the game board that GameBoard
+ * paints from.
+ *
+ * The static part of the board, the background, grid lines and reference
+ * dots, is drawn once into its own image, and so are the four things a square
+ * can hold: a black or white disk and a black or white move outline. The
+ * frame image holds the whole board, and only the squares that changed are
+ * redrawn into it by copying them from the static image and copying the tile
+ * on top, so no oval is drawn after the images are made. Painting the
+ * component is then a single copy of the clip rectangle.
+ *
+ * Both images are made in device pixels, so on a high-DPI screen the board is
+ * drawn at full resolution and copied without any scaling. A BoardImage
+ * belongs to one size and scale, GameBoard makes a new one when either
+ * changes.
+ */
+final class BoardImage {
+    // board size the disks and dots are laid out for, 75 pixels per square
+    private static final int BASE = 600;
+
+    private final int side;
+    private final double scale;
+    private final Color background;
+
+    // number of device pixels per side
+    private final int pixels;
+
+    private final BufferedImage board;
+    private final BufferedImage frame;
+
+    // disk and outline tiles, the inside of a square without its edges
+    private final int margin;
+    private final BufferedImage blackDisk;
+    private final BufferedImage whiteDisk;
+    private final BufferedImage blackMove;
+    private final BufferedImage whiteMove;
+
+    /**
+     * Creates the images and draws the static board into them, the squares
+     * still have to be drawn with drawSquares.
+     *
+     * @param sideParam       side of the board in component pixels
+     * @param scaleParam      device pixels per component pixel
+     * @param backgroundParam board color
+     */
+    BoardImage(int sideParam, double scaleParam, Color backgroundParam) {
+        if (sideParam < 8 || scaleParam <= 0) {
+            throw new IllegalArgumentException();
+        }
+        side = sideParam;
+        scale = scaleParam;
+        background = backgroundParam;
+        pixels = (int) Math.ceil(side * scale);
+        board = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+        frame = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g = board.createGraphics();
+        g.setColor(background);
+        g.fillRect(0, 0, pixels, pixels);
+        g.setColor(Color.BLACK);
+        // Draws board grid, one device pixel wide lines at the square edges
+        int line = Math.max(1, (int) Math.round(scale));
+        for (int i = 1; i < 8; i++) {
+            g.fillRect(edge(i), 0, line, pixels);
+            g.fillRect(0, edge(i), pixels, line);
+        }
+        // dots that are sometimes on online boards
+        // used simply as a reference point and serve no gameplay purpose
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        int dot = pixels * 10 / BASE;
+        for (int i = 2; i < 8; i += 4) {
+            for (int j = 2; j < 8; j += 4) {
+                g.fillOval(edge(i) - dot / 2, edge(j) - dot / 2, dot, dot);
+            }
+        }
+        g.dispose();
+
+        g = frame.createGraphics();
+        g.drawImage(board, 0, 0, null);
+        g.dispose();
+
+        // the dots and grid lines stay inside the margin, so the tiles can be
+        // opaque
+        margin = pixels * 5 / BASE;
+        int size = pixels / 8 - 2 * margin;
+        blackDisk = tile(size, Color.BLACK, true);
+        whiteDisk = tile(size, Color.WHITE, true);
+        blackMove = tile(size, Color.BLACK, false);
+        whiteMove = tile(size, Color.WHITE, false);
+    }
+
+    // draws a disk or an outline on the board color
+    private BufferedImage tile(int size, Color color, boolean disk) {
+        BufferedImage tile = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = tile.createGraphics();
+        g.setColor(background);
+        g.fillRect(0, 0, size, size);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(color);
+        if (disk) {
+            g.fill(new Ellipse2D.Double(0, 0, size, size));
+        } else {
+            // the stroke is centered on the outline, keep all of it in the tile
+            float stroke = (float) scale;
+            g.setStroke(new BasicStroke(stroke));
+            g.draw(new Ellipse2D.Double(
+                    stroke / 2.0, stroke / 2.0, size - stroke, size - stroke
+            ));
+        }
+        g.dispose();
+        return tile;
+    }
+
+    // true if this image was made for the given size, scale and color
+    boolean fits(int sideParam, double scaleParam, Color backgroundParam) {
+        return side == sideParam && scale == scaleParam && background.equals(backgroundParam);
+    }
+
+    // returns the device pixel where column or row i starts, 8 for the far edge
+    private int edge(int i) {
+        return pixels * i / 8;
+    }
+
+    // returns the component pixel where column or row i starts, 8 for the far
+    // edge
+    static int edge(int side, int i) {
+        return side * i / 8;
+    }
+
+    /**
+     * drawSquares redraws the given squares of the frame.
+     *
+     * @param squares mask of squares to draw, bit y * 8 + x
+     * @param black   mask of black disks
+     * @param white   mask of white disks
+     * @param moves   valid moves of turn, drawn as outlines
+     * @param turn    player to move, the color of the outlines
+     */
+    void drawSquares(long squares, long black, long white, long moves, PlayerColor turn) {
+        Graphics g = frame.createGraphics();
+        BufferedImage move = turn == PlayerColor.BLACK ? blackMove : whiteMove;
+        for (long m = squares; m != 0; m &= m - 1) {
+            int sq = Long.numberOfTrailingZeros(m);
+            int x0 = edge(sq % 8);
+            int y0 = edge(sq / 8);
+            int x1 = edge(sq % 8 + 1);
+            int y1 = edge(sq / 8 + 1);
+            // the static square first, so nothing of the old disk is left
+            g.drawImage(board, x0, y0, x1, y1, x0, y0, x1, y1, null);
+            long bit = 1L << sq;
+            if ((black & bit) != 0) {
+                g.drawImage(blackDisk, x0 + margin, y0 + margin, null);
+            } else if ((white & bit) != 0) {
+                g.drawImage(whiteDisk, x0 + margin, y0 + margin, null);
+            } else if ((moves & bit) != 0) {
+                // potential moves are highlighted in player color
+                g.drawImage(move, x0 + margin, y0 + margin, null);
+            }
+        }
+        g.dispose();
+    }
+
+    // copies the frame to g, g is expected to map component pixels to
+    // device pixels with this scale, so the copy needs no scaling
+    void paint(Graphics g) {
+        g.drawImage(frame, 0, 0, side, side, null);
+    }
+}
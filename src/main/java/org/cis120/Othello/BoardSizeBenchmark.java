@@ -0,0 +1,76 @@
+package org.cis120.Othello;
+
+import java.util.Random;
+
+/**
+ * Measures move generation on every board size by playing random games with
+ * SizedOthello. Every move regenerates the valid moves of both players, so
+ * the time per move is mostly move generation. The 8 by 8 board is measured
+ * on its 64-bit fast path and on the multi-word bitsets the other sizes use.
+ *
+ * Run this file to see the results in your console.
+ */
+public class BoardSizeBenchmark {
+
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final long RUN_NANOS = 3_000_000_000L;
+
+    public static void main(String[] args) {
+        run("6x6", new SizedOthello(6));
+        run("8x8 fast", new SizedOthello(8));
+        run("8x8 words", new SizedOthello(8, true));
+        run("10x10", new SizedOthello(10));
+        run("16x16", new SizedOthello(16));
+    }
+
+    private static void run(String name, SizedOthello o) {
+        Random rng = new Random(120);
+        play(o, rng, WARMUP_NANOS);
+        long[] result = play(o, rng, RUN_NANOS);
+        double seconds = result[2] / 1e9;
+        System.out.printf(
+                "%-10s games: %7d  moves/s: %10.0f  generations/s: %10.0f  "
+                        + "ns per move: %6.1f%n",
+                name, result[0], result[1] / seconds, 2 * result[1] / seconds,
+                result[2] / (double) result[1]
+        );
+    }
+
+    // picks a random valid move of the current player, -1 if there is none
+    static int randomMove(SizedOthello o, long[] moves, Random rng) {
+        int count = o.getValidMoves(moves);
+        if (count == 0) {
+            return -1;
+        }
+        int n = rng.nextInt(count);
+        for (int i = 0; i < moves.length; i++) {
+            long w = moves[i];
+            for (; w != 0; w &= w - 1) {
+                if (n-- == 0) {
+                    return i * 64 + Long.numberOfTrailingZeros(w);
+                }
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    // plays random games for about the given time, returns the number of
+    // games, the number of moves and the time taken
+    private static long[] play(SizedOthello o, Random rng, long nanos) {
+        long[] moves = new long[4];
+        long games = 0;
+        long played = 0;
+        long start = System.nanoTime();
+        long end = start + nanos;
+        while (System.nanoTime() < end) {
+            o.reset();
+            for (int sq = randomMove(o, moves, rng); sq >= 0;
+                    sq = randomMove(o, moves, rng)) {
+                o.makeMove(sq);
+                played++;
+            }
+            games++;
+        }
+        return new long[] { games, played, System.nanoTime() - start };
+    }
+}
@@ -0,0 +1,89 @@
+package org.cis120.Othello;
+
+import java.awt.*;
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * EdtMonitor measures how long the Swing event thread is blocked. A daemon
+ * thread posts a small task every few milliseconds and records how long it
+ * waited before the event thread ran it, which is the longest time the event
+ * thread was busy with something else.
+ *
+ * A frame at 60 frames per second takes FRAME_NANOS, so any wait longer than
+ * that is a dropped frame and is counted as late.
+ */
+public class EdtMonitor implements Closeable {
+    public static final long FRAME_NANOS = 16000000L;
+
+    private final long periodMillis;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicLong late = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Starts measuring.
+     *
+     * @param periodMillisParam time between two probes
+     */
+    public EdtMonitor(long periodMillisParam) {
+        if (periodMillisParam < 1) {
+            throw new IllegalArgumentException();
+        }
+        periodMillis = periodMillisParam;
+        thread = new Thread(this::run, "edt-monitor");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        while (running) {
+            long posted = System.nanoTime();
+            EventQueue.invokeLater(() -> record(System.nanoTime() - posted));
+            try {
+                Thread.sleep(periodMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void record(long nanos) {
+        samples.incrementAndGet();
+        if (nanos > FRAME_NANOS) {
+            late.incrementAndGet();
+        }
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // number of probes that ran
+    public long getSamples() {
+        return samples.get();
+    }
+
+    // number of probes that waited longer than a frame
+    public long getLateCount() {
+        return late.get();
+    }
+
+    // longest wait of a probe
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    // starts counting again from zero
+    public void reset() {
+        samples.set(0);
+        late.set(0);
+        maxNanos.set(0);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+    }
+}
@@ -8,6 +8,8 @@ package org.cis120.Othello;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.IOException;
@@ -34,6 +36,35 @@ public class GameBoard extends JPanel {
 
     private final Othello o; // model for the game
     private final JLabel status; // current status text
+
+    // copy of the board kept up to date by the model events, painting only
+    // reads these so it never has to ask the model about every square
+    private long black;
+    private long white;
+    private long moves;
+    private PlayerColor turn = PlayerColor.BLACK;
+
+    // off-screen picture of the board, made again when the size or the screen
+    // scale changes, and the squares that still have to be redrawn into it
+    private BoardImage image;
+    private long dirtySquares = -1L;
+
+    // debug overlay showing the repaint count and the time per frame, toggled
+    // with F3
+    private boolean debugOverlay;
+    private int repaintCount;
+    private long lastFrameNanos;
+    private long totalFrameNanos;
+    private static final Rectangle OVERLAY_BOUNDS = new Rectangle(0, 0, 300, 36);
+    private EdtMonitor edtMonitor; // measures the event thread while the overlay is shown
+
+    // hints are searched by the background analysis so clicks never wait for
+    // the engine, the newest analysis of the position on the board is shown
+    public static final long HINT_MILLIS = 500;
+    private BackgroundAnalysis analysis; // created when hints are first turned on
+    private boolean hints;
+    private Analysis hint;
+
     EventStatus eventStatus; // arg for keeping track of any events such as errors, passing, wins,
                              // etc.
     EventStatusEnum tempEventStatus; // temp holder for event status
@@ -57,6 +88,69 @@ public class GameBoard extends JPanel {
         status = statusInit; // initializes the status JLabel
         eventStatus = eventStatusParam; // initializes event status object
 
+        /*
+         * Listens for model changes and repaints only the squares that changed.
+         */
+        o.addModelListener(new ModelListener() {
+            @Override
+            public void disksPlaced(int sq, long flipped, PlayerColor player) {
+                long changed = flipped | 1L << sq;
+                if (player == PlayerColor.BLACK) {
+                    black |= changed;
+                    white &= ~changed;
+                } else {
+                    white |= changed;
+                    black &= ~changed;
+                }
+                repaintSquares(changed);
+            }
+
+            @Override
+            public void disksRemoved(int sq, long flipped, PlayerColor player) {
+                long placed = 1L << sq;
+                black &= ~placed;
+                white &= ~placed;
+                // the flipped disks go back to the opponent
+                if (player == PlayerColor.BLACK) {
+                    black &= ~flipped;
+                    white |= flipped;
+                } else {
+                    white &= ~flipped;
+                    black |= flipped;
+                }
+                repaintSquares(flipped | placed);
+            }
+
+            @Override
+            public void boardReplaced(long blackParam, long whiteParam) {
+                black = blackParam;
+                white = whiteParam;
+                dirtySquares = -1L;
+                repaint();
+            }
+
+            @Override
+            public void validMovesChanged(long movesParam, PlayerColor turnParam) {
+                // every highlight changes color when the turn changes
+                long changed = turnParam == turn ? moves ^ movesParam : moves | movesParam;
+                moves = movesParam;
+                turn = turnParam;
+                if (changed != 0) {
+                    repaintSquares(changed);
+                }
+            }
+        });
+        o.reset(); // sends the start position to the listener
+
+        addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() == KeyEvent.VK_F3) {
+                    setDebugOverlay(!debugOverlay);
+                }
+            }
+        });
+
         /*
          * Listens for mouseclicks. Updates the model, then updates the game
          * board based off of the updated model.
@@ -65,10 +159,11 @@ public class GameBoard extends JPanel {
             @Override
             public void mouseReleased(MouseEvent e) {
                 Point p = e.getPoint();
+                int side = boardSide();
 
                 try { // if play turn fails an invalid move was played
                       // updates the model given the coordinates of the mouseclick
-                    o.playTurn(p.x / 75, p.y / 75, o.getCurrentTurn());
+                    o.playTurn(p.x * 8 / side, p.y * 8 / side, o.getCurrentTurn());
                     boardUpdate(); // repaints the game board and updates status
                 } catch (IllegalArgumentException exception) {
                     tempEventStatus = EventStatusEnum.ERROR;// sets temp event status as error
@@ -87,7 +182,7 @@ public class GameBoard extends JPanel {
     public void reset() {
         o.reset();
         status.setText("BLACK's Turn | B: " + o.getBlackPoints() + ", W: " + o.getWhitePoints());
-        repaint();
+        requestAnalysis();
 
         // Makes sure this component has keyboard/mouse focus
         requestFocusInWindow();
@@ -112,10 +207,148 @@ public class GameBoard extends JPanel {
         tempEventStatus = null; // resets the temp event holder
     }
 
-    // shortcut to update status and repaint board
+    // takes back the last move, does nothing if there is none
+    public void undo() {
+        if (o.canUndo()) {
+            o.undo();
+            boardUpdate();
+            eventStatus.setEvent(tempEventStatus); // passes and wins, same as a click
+            tempEventStatus = null;
+        }
+        requestFocusInWindow();
+    }
+
+    // plays the last move taken back by undo again, does nothing if there is
+    // none
+    public void redo() {
+        if (o.canRedo()) {
+            o.redo();
+            boardUpdate();
+            eventStatus.setEvent(tempEventStatus); // passes and wins, same as a click
+            tempEventStatus = null;
+        }
+        requestFocusInWindow();
+    }
+
+    // shortcut to update status and ask for a new hint, the board repaints
+    // itself as the model changes
     public void boardUpdate() {
         updateStatus();
-        repaint();
+        requestAnalysis();
+    }
+
+    // shows or hides the best move found by the engine
+    public void setHints(boolean show) {
+        hints = show;
+        if (hints && analysis == null) {
+            analysis = new BackgroundAnalysis(this::showAnalysis);
+        }
+        requestAnalysis();
+    }
+
+    // removes the shown hint and, if hints are on, starts analysing the
+    // position on the board in the background
+    private void requestAnalysis() {
+        if (hint != null && hint.getBestMove() != null) {
+            repaint(squareBounds(1L << hint.getBestMove().getSquare()));
+        }
+        hint = null;
+        if (analysis == null) {
+            return;
+        }
+        if (hints) {
+            analysis.submit(o, HINT_MILLIS);
+        } else {
+            analysis.cancel();
+        }
+    }
+
+    // called on the event thread with the newest analysis
+    private void showAnalysis(Analysis result) {
+        // the board may have changed after the request was sent
+        if (!hints || !result.isOf(black, white, turn)) {
+            return;
+        }
+        hint = result;
+        if (hint.getBestMove() != null) {
+            repaint(squareBounds(1L << hint.getBestMove().getSquare()));
+        }
+        if (debugOverlay) {
+            repaint(OVERLAY_BOUNDS);
+        }
+    }
+
+    // returns the model, for the benchmarks
+    Othello getModel() {
+        return o;
+    }
+
+    // shows or hides the debug overlay
+    public void setDebugOverlay(boolean show) {
+        debugOverlay = show;
+        if (show && edtMonitor == null) {
+            edtMonitor = new EdtMonitor(5);
+        } else if (!show && edtMonitor != null) {
+            edtMonitor.close();
+            edtMonitor = null;
+        }
+        repaint(OVERLAY_BOUNDS);
+    }
+
+    // number of times the board was painted
+    int getRepaintCount() {
+        return repaintCount;
+    }
+
+    // time the last paint of the board took, overlay not included
+    long getLastFrameNanos() {
+        return lastFrameNanos;
+    }
+
+    // returns the side of the square board in pixels, the panel may be larger
+    // in one direction after a resize
+    private int boardSide() {
+        int side = Math.min(getWidth(), getHeight());
+        return side < 8 ? BOARD_WIDTH : side;
+    }
+
+    // marks squares to be redrawn into the board image and asks Swing to
+    // repaint them
+    private void repaintSquares(long squares) {
+        dirtySquares |= squares;
+        repaint(squareBounds(squares));
+        // the numbers of the overlay change with every paint
+        if (debugOverlay) {
+            repaint(OVERLAY_BOUNDS);
+        }
+    }
+
+    /**
+     * squareBounds returns the smallest rectangle covering the given squares.
+     * Swing joins every repaint request of an event into one rectangle anyway,
+     * so asking for it once is just as small.
+     *
+     * @param squares mask of squares, bit y * 8 + x, not 0
+     * @return bounds of the squares in pixels
+     */
+    Rectangle squareBounds(long squares) {
+        int minX = 7;
+        int maxX = 0;
+        int minY = 7;
+        int maxY = 0;
+        for (long m = squares; m != 0; m &= m - 1) {
+            int sq = Long.numberOfTrailingZeros(m);
+            minX = Math.min(minX, sq % 8);
+            maxX = Math.max(maxX, sq % 8);
+            minY = Math.min(minY, sq / 8);
+            maxY = Math.max(maxY, sq / 8);
+        }
+        int side = boardSide();
+        int x = BoardImage.edge(side, minX);
+        int y = BoardImage.edge(side, minY);
+        return new Rectangle(
+                x, y, BoardImage.edge(side, maxX + 1) - x, BoardImage.edge(side, maxY + 1) - y
+        );
     }
 
     /**
@@ -179,62 +412,73 @@ public class GameBoard extends JPanel {
 
     /**
      * Draws the game board.
-     * 
-     * There are many ways to draw a game board. This approach
-     * will not be sufficient for most games, because it is not
-     * modular. All of the logic for drawing the game board is
-     * in this method, and it does not take advantage of helper
-     * methods. Consider breaking up your paintComponent logic
-     * into multiple methods or classes, like Mushroom of Doom.
+     *
+     * The board is kept in a BoardImage, so painting redraws only the squares
+     * changed since the last paint into it and then copies the clip rectangle
+     * to the screen. The image is made in device pixels, so the board stays
+     * sharp on high-DPI screens, and it follows the size of the panel.
      */
     @Override
     public void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        g.setColor(Color.BLACK);
-
-        // Draws board grid
-        for (int i = 75; i < 600; i += 75) {
-            g.drawLine(i, 0, i, 600);
+        long start = System.nanoTime();
+        int side = boardSide();
+        double scale = ((Graphics2D) g).getTransform().getScaleX();
+        if (image == null || !image.fits(side, scale, getBackground())) {
+            image = new BoardImage(side, scale, getBackground());
+            dirtySquares = -1L;
         }
-
-        for (int i = 75; i < 600; i += 75) {
-            g.drawLine(0, i, 600, i);
+        if (dirtySquares != 0) {
+            image.drawSquares(dirtySquares, black, white, moves, turn);
+            dirtySquares = 0;
+        }
+        image.paint(g);
+        if (hint != null && hint.getBestMove() != null) {
+            paintHint(g, side, hint.getBestMove());
         }
 
-        // dots that are sometimes on online boards
-        // used simply as a reference point and serve no gameplay purpose
-        for (int i = 145; i < 600; i += 300) {
-            for (int j = 145; j < 600; j += 300) {
-                g.fillOval(i, j, 10, 10);
-            }
+        // the part of the panel outside of the square board
+        g.setColor(getBackground());
+        g.fillRect(side, 0, getWidth() - side, getHeight());
+        g.fillRect(0, side, side, getHeight() - side);
+
+        lastFrameNanos = System.nanoTime() - start;
+        totalFrameNanos += lastFrameNanos;
+        repaintCount++;
+        if (debugOverlay) {
+            paintOverlay(g);
         }
+    }
 
-        // Draws disks and potential moves
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                PlayerColor disk = o.getBoardSpace(j, i);
-                if (disk == null) {
-                    continue;
-                }
-                g.setColor(Color.black);
-                if (disk == PlayerColor.BLACK) {
-                    g.setColor(Color.BLACK);
-                } else if (disk == PlayerColor.WHITE) {
-                    g.setColor(Color.WHITE);
+    // marks the hinted square with a red dot, drawn over the board image so
+    // the image never holds a hint
+    private static void paintHint(Graphics g, int side, ValidMove move) {
+        int x0 = BoardImage.edge(side, move.getX());
+        int y0 = BoardImage.edge(side, move.getY());
+        int size = BoardImage.edge(side, move.getX() + 1) - x0;
+        g.setColor(Color.RED);
+        g.fillOval(x0 + size * 3 / 8, y0 + size * 3 / 8, size / 4, size / 4);
+    }
 
-                }
-                if (disk != PlayerColor.EMPTY) {
-                    g.fillOval(75 * j + 5, 75 * i + 5, 65, 65);
-                } else {
-                    // potential moves are highlighted in player color
-                    if (o.getCurrentTurn() == PlayerColor.BLACK) {
-                        g.setColor(Color.BLACK);
-                    } else {
-                        g.setColor(Color.WHITE);
-                    }
-                    g.drawOval(75 * j + 5, 75 * i + 5, 65, 65);
-                }
-            }
+    // draws the repaint count, frame times and event thread waits in the top
+    // left corner
+    private void paintOverlay(Graphics g) {
+        g.setColor(new Color(0, 0, 0, 160));
+        g.fillRect(OVERLAY_BOUNDS.x, OVERLAY_BOUNDS.y, OVERLAY_BOUNDS.width, OVERLAY_BOUNDS.height);
+        g.setColor(Color.WHITE);
+        g.drawString(
+                String.format(
+                        "repaints: %d  frame: %.0f us  mean: %.0f us", repaintCount,
+                        lastFrameNanos / 1e3, totalFrameNanos / 1e3 / repaintCount
+                ), OVERLAY_BOUNDS.x + 5, OVERLAY_BOUNDS.y + 15
+        );
+        if (edtMonitor != null) {
+            g.drawString(
+                    String.format(
+                            "edt max wait: %.1f ms  late: %d  hint depth: %s",
+                            edtMonitor.getMaxNanos() / 1e6, edtMonitor.getLateCount(),
+                            hint == null ? "-" : Integer.toString(hint.getDepth())
+                    ), OVERLAY_BOUNDS.x + 5, OVERLAY_BOUNDS.y + 31
+            );
         }
     }
 
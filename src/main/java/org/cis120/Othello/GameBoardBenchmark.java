@@ -0,0 +1,166 @@
+package org.cis120.Othello;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures the cost of repainting the game board after every move of complete
+ * random games, drawn into an image so it runs without a screen.
+ *
+ * "polling" is the old way: the whole board is drawn from scratch and every
+ * square is read from the model with getBoardSpace. "events" is GameBoard as
+ * it is now: only the squares reported by the model events are redrawn into
+ * the cached board image, and only their rectangle is copied to the screen.
+ * Both are measured on a normal and on a high-DPI (scale 2) screen.
+ *
+ * Run this file to see the results in your console.
+ */
+public class GameBoardBenchmark {
+
+    private static final int WARMUP_GAMES = 300;
+    private static final int GAMES = 1000;
+
+    // union of the rectangles GameBoard asked to repaint since the last paint
+    private static Rectangle dirty;
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        // keeps the rectangles instead of handing them to Swing
+        GameBoard board = new GameBoard(new JLabel(), new EventStatus()) {
+            @Override
+            public void repaint(Rectangle r) {
+                dirty = dirty == null ? new Rectangle(r) : dirty.union(r);
+            }
+        };
+        board.setSize(GameBoard.BOARD_WIDTH, GameBoard.BOARD_HEIGHT);
+
+        // a game has at most 60 moves
+        long[] polling = new long[GAMES * 60];
+        long[] events = new long[GAMES * 60];
+        long[] area = new long[1];
+
+        // a normal screen and a high-DPI screen with two device pixels per pixel
+        for (int scale = 1; scale <= 2; scale++) {
+            BufferedImage image = new BufferedImage(
+                    GameBoard.BOARD_WIDTH * scale, GameBoard.BOARD_HEIGHT * scale,
+                    BufferedImage.TYPE_INT_RGB
+            );
+            Graphics2D graphics = image.createGraphics();
+            graphics.scale(scale, scale);
+
+            run(board, graphics, WARMUP_GAMES, polling, events, area);
+            area[0] = 0;
+            int count = run(board, graphics, GAMES, polling, events, area);
+            System.out.println("scale " + scale + ":");
+            report("polling", polling, count, 1.0);
+            report("events", events, count,
+                    area[0] / ((double) count * GameBoard.BOARD_WIDTH * GameBoard.BOARD_HEIGHT));
+        }
+    }
+
+    // plays random games on the model of board and paints after every move
+    // both ways, returns the number of recorded moves
+    private static int run(GameBoard board, Graphics2D graphics, int games, long[] polling,
+            long[] events, long[] area) {
+        Othello o = board.getModel();
+        Random rng = new Random(120);
+        int[] moves = new int[64];
+        int recorded = 0;
+        for (int g = 0; g < games; g++) {
+            o.reset();
+            while (o.checkWinner() == null) {
+                int count = 0;
+                for (int y = 0; y < 8; y++) {
+                    for (int x = 0; x < 8; x++) {
+                        if (o.getBoardSpace(x, y) == PlayerColor.EMPTY) {
+                            moves[count++] = y * 8 + x;
+                        }
+                    }
+                }
+                int move = moves[rng.nextInt(count)];
+                dirty = null;
+                o.playTurn(move % 8, move / 8, o.getCurrentTurn());
+
+                long start = System.nanoTime();
+                Graphics g1 = graphics.create();
+                pollingPaint(o, board.getBackground(), g1);
+                g1.dispose();
+                long time = System.nanoTime() - start;
+                if (recorded < polling.length) {
+                    polling[recorded] = time;
+                }
+
+                start = System.nanoTime();
+                Graphics g2 = graphics.create();
+                g2.setClip(dirty);
+                board.paintComponent(g2);
+                g2.dispose();
+                time = System.nanoTime() - start;
+                if (recorded < events.length) {
+                    events[recorded++] = time;
+                    area[0] += (long) dirty.width * dirty.height;
+                }
+            }
+        }
+        return recorded;
+    }
+
+    // paints the whole board the way GameBoard did before the model events
+    private static void pollingPaint(OthelloModel o, Color background, Graphics g) {
+        g.setColor(background);
+        g.fillRect(0, 0, GameBoard.BOARD_WIDTH, GameBoard.BOARD_HEIGHT);
+        g.setColor(Color.BLACK);
+        for (int i = 75; i < 600; i += 75) {
+            g.drawLine(i, 0, i, 600);
+        }
+        for (int i = 75; i < 600; i += 75) {
+            g.drawLine(0, i, 600, i);
+        }
+        for (int i = 145; i < 600; i += 300) {
+            for (int j = 145; j < 600; j += 300) {
+                g.fillOval(i, j, 10, 10);
+            }
+        }
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                PlayerColor disk = o.getBoardSpace(j, i);
+                if (disk == null) {
+                    continue;
+                }
+                if (disk == PlayerColor.BLACK) {
+                    g.setColor(Color.BLACK);
+                } else if (disk == PlayerColor.WHITE) {
+                    g.setColor(Color.WHITE);
+                }
+                if (disk != PlayerColor.EMPTY) {
+                    g.fillOval(75 * j + 5, 75 * i + 5, 65, 65);
+                } else {
+                    if (o.getCurrentTurn() == PlayerColor.BLACK) {
+                        g.setColor(Color.BLACK);
+                    } else {
+                        g.setColor(Color.WHITE);
+                    }
+                    g.drawOval(75 * j + 5, 75 * i + 5, 65, 65);
+                }
+            }
+        }
+    }
+
+    private static void report(String name, long[] latencies, int count, double area) {
+        Arrays.sort(latencies, 0, count);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += latencies[i];
+        }
+        System.out.printf(
+                "%-8s repaints: %d  mean: %6.1f us  p50: %6.1f us  p99: %6.1f us  "
+                        + "area: %3.0f%%%n",
+                name, count, total / 1e3 / count, latencies[count / 2] / 1e3,
+                latencies[count * 99 / 100] / 1e3, area * 100
+        );
+    }
+}
@@ -0,0 +1,138 @@
+package org.cis120.Othello;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameBoardTest {
+
+    static {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    // union of the rectangles the board asked to repaint
+    private Rectangle dirty;
+
+    private GameBoard board() {
+        GameBoard board = new GameBoard(new JLabel(), new EventStatus()) {
+            @Override
+            public void repaint(Rectangle r) {
+                dirty = dirty == null ? new Rectangle(r) : dirty.union(r);
+            }
+        };
+        board.setSize(GameBoard.BOARD_WIDTH, GameBoard.BOARD_HEIGHT);
+        return board;
+    }
+
+    private static BufferedImage image() {
+        return new BufferedImage(
+                GameBoard.BOARD_WIDTH, GameBoard.BOARD_HEIGHT, BufferedImage.TYPE_INT_RGB
+        );
+    }
+
+    private static void paint(GameBoard board, BufferedImage image, Rectangle clip) {
+        Graphics g = image.createGraphics();
+        if (clip != null) {
+            g.setClip(clip);
+        }
+        board.paintComponent(g);
+        g.dispose();
+    }
+
+    // painting only the dirty squares after every move gives the same picture
+    // as painting the final position at once
+    @Test
+    public void dirtyRepaintTest() {
+        GameBoard board = board();
+        BufferedImage image = image();
+        paint(board, image, null);
+
+        Othello o = board.getModel();
+        Random rng = new Random(3);
+        for (int i = 0; i < 20 && o.checkWinner() == null; i++) {
+            int count = 0;
+            int[] moves = new int[64];
+            for (int sq = 0; sq < 64; sq++) {
+                if (o.getBoardSpace(sq % 8, sq / 8) == PlayerColor.EMPTY) {
+                    moves[count++] = sq;
+                }
+            }
+            int move = moves[rng.nextInt(count)];
+            dirty = null;
+            o.playTurn(move % 8, move / 8, o.getCurrentTurn());
+            assertNotNull(dirty);
+            assertTrue(dirty.contains(BoardImage.edge(600, move % 8) + 1,
+                    BoardImage.edge(600, move / 8) + 1));
+            paint(board, image, dirty);
+        }
+
+        GameBoard fresh = board();
+        BitBoardOthello copy = BitBoardOthello.copyOf(o);
+        fresh.getModel().setPosition(
+                copy.getBlackDisks(), copy.getWhiteDisks(), o.getCurrentTurn()
+        );
+        BufferedImage expected = image();
+        paint(fresh, expected, null);
+        for (int y = 0; y < GameBoard.BOARD_HEIGHT; y++) {
+            for (int x = 0; x < GameBoard.BOARD_WIDTH; x++) {
+                assertEquals(expected.getRGB(x, y), image.getRGB(x, y), x + ", " + y);
+            }
+        }
+        assertEquals(21, board.getRepaintCount());
+    }
+
+    // undo and redo repaint the squares they change
+    @Test
+    public void undoRepaintTest() {
+        GameBoard board = board();
+        BufferedImage image = image();
+        paint(board, image, null);
+        Othello o = board.getModel();
+        int[] moves = { 37, 29, 18, 44, 45 };
+        for (int sq : moves) {
+            dirty = null;
+            o.makeMove(sq);
+            paint(board, image, dirty);
+        }
+        for (int i = 0; i < 3; i++) {
+            dirty = null;
+            board.undo();
+            paint(board, image, dirty);
+        }
+        dirty = null;
+        board.redo();
+        paint(board, image, dirty);
+
+        GameBoard fresh = board();
+        fresh.getModel().makeMove(37);
+        fresh.getModel().makeMove(29);
+        fresh.getModel().makeMove(18);
+        BufferedImage expected = image();
+        paint(fresh, expected, null);
+        for (int y = 0; y < GameBoard.BOARD_HEIGHT; y++) {
+            for (int x = 0; x < GameBoard.BOARD_WIDTH; x++) {
+                assertEquals(expected.getRGB(x, y), image.getRGB(x, y), x + ", " + y);
+            }
+        }
+    }
+
+    // the board is the largest square that fits into the panel
+    @Test
+    public void resizeTest() {
+        GameBoard board = board();
+        board.setSize(400, 300);
+        assertEquals(new Rectangle(0, 0, 37, 37), board.squareBounds(1L));
+        assertEquals(new Rectangle(262, 262, 38, 38), board.squareBounds(1L << 63));
+        BufferedImage image = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+        paint(board, image, null);
+        // outside of the board
+        assertEquals(board.getBackground().getRGB(), image.getRGB(350, 150));
+        // a black disk in the middle of e4
+        assertEquals(Color.BLACK.getRGB(), image.getRGB(4 * 300 / 8 + 18, 3 * 300 / 8 + 18));
+    }
+}
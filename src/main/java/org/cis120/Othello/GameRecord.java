@@ -0,0 +1,214 @@
+package org.cis120.Othello;
+
+import java.util.Arrays;
+
+/**
+ * GameRecord is a complete game: the start position, every move in order
+ * including passes, and the result.
+ *
+ * Moves are stored as bit indexes (y * 8 + x) with PASS for a passed turn.
+ * Records are created with of, which plays the moves to check them and fill in
+ * the passes and the result, and are stored with GameRecordWriter and read
+ * back with GameRecordReader. A record never changes once it is created.
+ */
+public final class GameRecord {
+    // move value of a passed turn
+    public static final int PASS = 64;
+
+    private final long startBlack;
+    private final long startWhite;
+    private final PlayerColor startTurn;
+    private final byte[] moves;
+    private final int blackPoints;
+    private final int whitePoints;
+    private final boolean finished;
+
+    GameRecord(long startBlackParam, long startWhiteParam, PlayerColor startTurnParam,
+            byte[] movesParam, int blackPointsParam, int whitePointsParam,
+            boolean finishedParam) {
+        startBlack = startBlackParam;
+        startWhite = startWhiteParam;
+        startTurn = startTurnParam;
+        moves = movesParam;
+        blackPoints = blackPointsParam;
+        whitePoints = whitePointsParam;
+        finished = finishedParam;
+    }
+
+    /**
+     * of creates a record by playing moves from a start position. Passes may
+     * be left out of moves since they are forced, they are added to the record
+     * where they happen. Throws an IllegalArgumentException if a move is not
+     * valid or a pass is given where the player has a valid move.
+     *
+     * @param black mask of black disks in the start position
+     * @param white mask of white disks in the start position
+     * @param turn  player to move in the start position
+     * @param moves squares of the moves, PASS for a passed turn
+     * @param count number of entries of moves to use
+     * @return the record of the game
+     */
+    public static GameRecord of(long black, long white, PlayerColor turn, int[] moves,
+            int count) {
+        BitBoardOthello o = new BitBoardOthello();
+        o.setPosition(black, white, turn);
+        byte[] played = new byte[maxMoves(black, white)];
+        int size = 0;
+        // setPosition passes straight away if the player to move has no moves
+        PlayerColor mover = turn;
+        if (o.getCurrentTurn() != mover) {
+            played[size++] = PASS;
+            mover = o.getCurrentTurn();
+        }
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == PASS) {
+                // the forced pass was already recorded after the last move
+                if (size == 0 || played[size - 1] != PASS) {
+                    throw new IllegalArgumentException("pass with valid moves");
+                }
+                continue;
+            }
+            if (moves[i] < 0 || moves[i] > 63 || o.checkWinner() != null) {
+                throw new IllegalArgumentException();
+            }
+            o.playTurn(moves[i] % 8, moves[i] / 8, mover);
+            played[size++] = (byte) moves[i];
+            if (o.checkWinner() == null && o.getCurrentTurn() == mover) {
+                played[size++] = PASS;
+            } else {
+                mover = o.getCurrentTurn();
+            }
+        }
+        return new GameRecord(
+                black, white, turn, Arrays.copyOf(played, size), o.getBlackPoints(),
+                o.getWhitePoints(), o.checkWinner() != null
+        );
+    }
+
+    // returns the most moves and passes a game from the start position can
+    // have: every move fills an empty square and a pass only comes first or
+    // right after a move, so e empties allow e moves and e + 1 passes
+    static int maxMoves(long black, long white) {
+        return 2 * (64 - Long.bitCount(black | white)) + 1;
+    }
+
+    // records a game from the standard start position
+    public static GameRecord of(int[] moves, int count) {
+        return of(BitBoard.START_BLACK, BitBoard.START_WHITE, PlayerColor.BLACK, moves, count);
+    }
+
+    public long getStartBlack() {
+        return startBlack;
+    }
+
+    public long getStartWhite() {
+        return startWhite;
+    }
+
+    public PlayerColor getStartTurn() {
+        return startTurn;
+    }
+
+    // returns the number of moves including passes
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    // returns the square of the i-th move, PASS if the turn was passed
+    public int getMove(int i) {
+        return moves[i];
+    }
+
+    // returns the disks at the end of the record
+    public int getBlackPoints() {
+        return blackPoints;
+    }
+
+    public int getWhitePoints() {
+        return whitePoints;
+    }
+
+    // true if the record ends with the game over
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * getWinner returns the result of the game in the same way as
+     * checkWinner.
+     *
+     * @return PlayerColor of the winner, empty for a tie, or null if the
+     *         record ends before the game is over
+     */
+    public PlayerColor getWinner() {
+        if (!finished) {
+            return null;
+        } else if (blackPoints > whitePoints) {
+            return PlayerColor.BLACK;
+        } else if (whitePoints > blackPoints) {
+            return PlayerColor.WHITE;
+        }
+        return PlayerColor.EMPTY;
+    }
+
+    // replays the whole game on model
+    public void replay(OthelloModel model) {
+        replay(model, moves.length);
+    }
+
+    /**
+     * replay sets model to the start position and plays the first plies moves
+     * through playTurn. Passes are checked against the model rather than
+     * played, since the model passes on its own. Throws an
+     * IllegalArgumentException if the model does not accept the record.
+     *
+     * @param model model to replay the game on
+     * @param plies number of moves to replay, passes included
+     */
+    public void replay(OthelloModel model, int plies) {
+        if (plies < 0 || plies > moves.length) {
+            throw new IllegalArgumentException();
+        }
+        model.setPosition(startBlack, startWhite, startTurn);
+        PlayerColor mover = startTurn;
+        for (int i = 0; i < plies; i++) {
+            PlayerColor next = mover == PlayerColor.BLACK ? PlayerColor.WHITE : PlayerColor.BLACK;
+            if (moves[i] == PASS) {
+                // after a pass the model must already be waiting on the other player
+                if (model.getCurrentTurn() != next) {
+                    throw new IllegalArgumentException("pass with valid moves");
+                }
+            } else {
+                model.playTurn(moves[i] % 8, moves[i] / 8, mover);
+            }
+            mover = next;
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null || obj.getClass() != GameRecord.class) {
+            return false;
+        }
+        GameRecord r = (GameRecord) obj;
+        return startBlack == r.startBlack && startWhite == r.startWhite
+                && startTurn == r.startTurn && Arrays.equals(moves, r.moves)
+                && blackPoints == r.blackPoints && whitePoints == r.whitePoints
+                && finished == r.finished;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(startBlack * 31 + startWhite) * 31 + Arrays.hashCode(moves);
+    }
+
+    // moves in standard notation with -- for a pass, for example f5d6--c3
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (byte move : moves) {
+            s.append(move == PASS ? "--" : BitBoard.toNotation(move));
+        }
+        return s.toString();
+    }
+}
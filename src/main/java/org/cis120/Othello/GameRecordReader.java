@@ -0,0 +1,165 @@
+package org.cis120.Othello;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * GameRecordReader streams the games of a file written by GameRecordWriter.
+ *
+ * next reads the games in order through a fixed size buffer, so any number of
+ * games can be read in constant memory. If the index file exists, seek jumps
+ * straight to game N and reading continues from there.
+ *
+ * A reader is not thread safe.
+ */
+public final class GameRecordReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    // null if the file has no index
+    private final FileChannel index;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final ByteBuffer offsetBuffer = ByteBuffer.allocate(8);
+
+    /**
+     * opens a game file. Throws an IllegalArgumentException if the file was
+     * not written by GameRecordWriter.
+     *
+     * @param file path of the game file
+     */
+    public GameRecordReader(String file) throws IOException {
+        channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ);
+        FileChannel indexChannel = null;
+        try {
+            if (new File(GameRecordWriter.indexFile(file)).exists()) {
+                indexChannel = FileChannel.open(
+                        Paths.get(GameRecordWriter.indexFile(file)), StandardOpenOption.READ
+                );
+            }
+            buffer.limit(0);
+            if (!fill(GameRecordWriter.HEADER_SIZE) || buffer.getInt() != GameRecordWriter.MAGIC
+                    || buffer.getInt() != GameRecordWriter.VERSION) {
+                throw new IllegalArgumentException();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            if (indexChannel != null) {
+                indexChannel.close();
+            }
+            throw e;
+        }
+        index = indexChannel;
+    }
+
+    // true if the file has an index, which seek and size need
+    public boolean hasIndex() {
+        return index != null;
+    }
+
+    // returns the number of games in the index
+    public long size() throws IOException {
+        if (index == null) {
+            throw new IllegalStateException("no index");
+        }
+        return index.size() / 8;
+    }
+
+    /**
+     * seek moves the reader to the start of game, so the next call to next
+     * returns it.
+     *
+     * @param game index of the game, 0 for the first game
+     */
+    public void seek(long game) throws IOException {
+        if (game < 0 || game >= size()) {
+            throw new IndexOutOfBoundsException(Long.toString(game));
+        }
+        offsetBuffer.clear();
+        while (offsetBuffer.hasRemaining()) {
+            if (index.read(offsetBuffer, game * 8 + offsetBuffer.position()) < 0) {
+                throw new IllegalArgumentException("truncated index");
+            }
+        }
+        channel.position(offsetBuffer.getLong(0));
+        buffer.limit(0);
+    }
+
+    // reads game and leaves the reader after it
+    public GameRecord read(long game) throws IOException {
+        seek(game);
+        return next();
+    }
+
+    /**
+     * next reads the game after the last one read.
+     *
+     * @return the next game, or null at the end of the file
+     * @throws IllegalArgumentException if the file ends in the middle of a game
+     *                                  or a record is not valid
+     */
+    public GameRecord next() throws IOException {
+        if (!fill(1)) {
+            return null;
+        }
+        if (!fill(GameRecordWriter.RECORD_HEADER_SIZE)) {
+            throw new IllegalArgumentException("truncated record");
+        }
+        long black = buffer.getLong();
+        long white = buffer.getLong();
+        int flags = buffer.get();
+        int blackPoints = buffer.get();
+        int whitePoints = buffer.get();
+        int count = buffer.get() & 0xff;
+        if ((black & white) != 0 || count > GameRecord.maxMoves(black, white)) {
+            throw new IllegalArgumentException();
+        }
+        if (!fill(count)) {
+            throw new IllegalArgumentException("truncated record");
+        }
+        byte[] moves = new byte[count];
+        buffer.get(moves);
+        for (byte move : moves) {
+            if (move < 0 || move > GameRecord.PASS) {
+                throw new IllegalArgumentException();
+            }
+        }
+        PlayerColor turn = (flags & GameRecordWriter.WHITE_TO_MOVE) != 0 ? PlayerColor.WHITE
+                : PlayerColor.BLACK;
+        return new GameRecord(
+                black, white, turn, moves, blackPoints, whitePoints,
+                (flags & GameRecordWriter.FINISHED) != 0
+        );
+    }
+
+    // makes sure at least n bytes are buffered, returns false at the end of the
+    // file
+    private boolean fill(int n) throws IOException {
+        if (buffer.remaining() >= n) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < n) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            if (index != null) {
+                index.close();
+            }
+        }
+    }
+}
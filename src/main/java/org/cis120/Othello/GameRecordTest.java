@@ -0,0 +1,212 @@
+package org.cis120.Othello;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameRecordTest {
+
+    // returns a path for a new game file, deleted with its index when the
+    // tests finish
+    private static String tempGames() throws IOException {
+        File file = File.createTempFile("games", ".bin");
+        file.deleteOnExit();
+        new File(GameRecordWriter.indexFile(file.getPath())).deleteOnExit();
+        return file.getPath();
+    }
+
+    // plays a random game from the start position and records it without
+    // passes
+    private static GameRecord randomGame(Random rng) {
+        BitBoardOthello o = new BitBoardOthello();
+        int[] moves = new int[64];
+        int count = 0;
+        while (o.checkWinner() == null) {
+            long valid = o.getValidMoves();
+            int n = rng.nextInt(Long.bitCount(valid));
+            for (int i = 0; i < n; i++) {
+                valid &= valid - 1;
+            }
+            moves[count] = Long.numberOfTrailingZeros(valid);
+            o.makeMove(moves[count++]);
+        }
+        return GameRecord.of(moves, count);
+    }
+
+    // a recorded game replays to the same result on both models
+    @Test
+    public void replayTest() {
+        Random rng = new Random(120);
+        boolean sawPass = false;
+        for (int g = 0; g < 200; g++) {
+            GameRecord record = randomGame(rng);
+            assertTrue(record.isFinished());
+            for (int i = 0; i < record.getMoveCount(); i++) {
+                sawPass |= record.getMove(i) == GameRecord.PASS;
+            }
+            OthelloModel array = new Othello();
+            OthelloModel bits = new BitBoardOthello();
+            record.replay(array);
+            record.replay(bits);
+            assertEquals(record.getWinner(), array.checkWinner());
+            assertEquals(record.getBlackPoints(), array.getBlackPoints());
+            assertEquals(record.getWhitePoints(), array.getWhitePoints());
+            assertEquals(bits.getHashKey(), array.getHashKey());
+        }
+        assertTrue(sawPass);
+    }
+
+    // a partial replay stops after the given number of moves
+    @Test
+    public void partialReplayTest() {
+        GameRecord record = GameRecord.of(new int[] { 37, 43, 34 }, 3);
+        assertFalse(record.isFinished());
+        assertNull(record.getWinner());
+        assertEquals("f5d6c5", record.toString());
+        OthelloModel o = new Othello();
+        record.replay(o, 1);
+        assertEquals(PlayerColor.WHITE, o.getCurrentTurn());
+        assertEquals(4, o.getBlackPoints());
+        assertThrows(IllegalArgumentException.class, () -> record.replay(o, 4));
+    }
+
+    // passes are filled in when left out and checked when given
+    @Test
+    public void passTest() throws IOException {
+        // in playToPass white plays f4 and black has to pass
+        OthelloModel o = new BitBoardOthello();
+        o.loadFile("files/input/playToPass.txt");
+        long black = ((BitBoardOthello) o).getBlackDisks();
+        long white = ((BitBoardOthello) o).getWhiteDisks();
+        int f4 = BitBoard.fromNotation("f4");
+        int c2 = BitBoard.fromNotation("c2");
+        GameRecord implicit = GameRecord.of(
+                black, white, PlayerColor.WHITE, new int[] { f4, c2 }, 2
+        );
+        GameRecord explicit = GameRecord.of(
+                black, white, PlayerColor.WHITE, new int[] { f4, GameRecord.PASS, c2 }, 3
+        );
+        assertEquals(implicit, explicit);
+        assertEquals(GameRecord.PASS, implicit.getMove(1));
+        implicit.replay(o);
+        assertEquals(PlayerColor.WHITE, o.getBoardSpace(2, 1));
+
+        // black has a move at the start so it cannot pass
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> GameRecord.of(new int[] { GameRecord.PASS }, 1)
+        );
+    }
+
+    @Test
+    public void invalidMoveTest() {
+        assertThrows(IllegalArgumentException.class, () -> GameRecord.of(new int[] { 0 }, 1));
+        assertThrows(IllegalArgumentException.class, () -> GameRecord.of(new int[] { 65 }, 1));
+    }
+
+    // games are streamed back in order and can be read directly through the
+    // index
+    @Test
+    public void writeAndReadTest() throws IOException {
+        String file = tempGames();
+        Random rng = new Random(7);
+        List<GameRecord> games = new ArrayList<>();
+        try (GameRecordWriter writer = new GameRecordWriter(file)) {
+            for (int g = 0; g < 500; g++) {
+                GameRecord record = randomGame(rng);
+                games.add(record);
+                writer.write(record);
+            }
+            assertEquals(500, writer.size());
+        }
+        try (GameRecordReader reader = new GameRecordReader(file)) {
+            assertTrue(reader.hasIndex());
+            assertEquals(500, reader.size());
+            for (GameRecord game : games) {
+                assertEquals(game, reader.next());
+            }
+            assertNull(reader.next());
+
+            assertEquals(games.get(321), reader.read(321));
+            assertEquals(games.get(322), reader.next());
+            assertEquals(games.get(0), reader.read(0));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.seek(500));
+        }
+    }
+
+    // a file cut off in the middle of a game is reported
+    @Test
+    public void truncatedFileTest() throws IOException {
+        String file = tempGames();
+        try (GameRecordWriter writer = new GameRecordWriter(file)) {
+            writer.write(randomGame(new Random(1)));
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+        try (GameRecordReader reader = new GameRecordReader(file)) {
+            assertThrows(IllegalArgumentException.class, reader::next);
+        }
+    }
+
+    // a start with fewer disks than the standard one has room for more moves
+    // and passes, the reader accepts as many as the empties allow
+    @Test
+    public void sparseStartTest() throws IOException {
+        long black = BitBoard.square(3, 3) | BitBoard.square(4, 4);
+        long white = BitBoard.square(4, 3);
+        assertEquals(123, GameRecord.maxMoves(black, white));
+
+        BitBoardOthello o = new BitBoardOthello();
+        o.setPosition(black, white, PlayerColor.WHITE);
+        int[] moves = new int[64];
+        int count = 0;
+        Random rng = new Random(3);
+        while (o.checkWinner() == null) {
+            long valid = o.getValidMoves();
+            int n = rng.nextInt(Long.bitCount(valid));
+            for (int i = 0; i < n; i++) {
+                valid &= valid - 1;
+            }
+            moves[count] = Long.numberOfTrailingZeros(valid);
+            o.makeMove(moves[count++]);
+        }
+        GameRecord game = GameRecord.of(black, white, PlayerColor.WHITE, moves, count);
+        assertEquals(o.getBlackPoints(), game.getBlackPoints());
+
+        // records as long as the start allows, and one longer
+        byte[] longest = new byte[123];
+        Arrays.fill(longest, (byte) GameRecord.PASS);
+        GameRecord full = new GameRecord(black, white, PlayerColor.WHITE, longest, 2, 1, false);
+        GameRecord tooLong = new GameRecord(
+                black, white, PlayerColor.WHITE, Arrays.copyOf(longest, 124), 2, 1, false
+        );
+        String file = tempGames();
+        try (GameRecordWriter writer = new GameRecordWriter(file)) {
+            writer.write(game);
+            writer.write(full);
+            writer.write(tooLong);
+        }
+        try (GameRecordReader reader = new GameRecordReader(file)) {
+            assertEquals(game, reader.next());
+            assertEquals(full, reader.next());
+            assertThrows(IllegalArgumentException.class, reader::next);
+        }
+    }
+
+    @Test
+    public void notAGameFileTest() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new GameRecordReader("files/input/testBoard.txt")
+        );
+    }
+}
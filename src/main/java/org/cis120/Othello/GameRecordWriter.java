@@ -0,0 +1,115 @@
+package org.cis120.Othello;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * GameRecordWriter streams game records into a file, together with an index
+ * file that GameRecordReader uses to jump straight to game N.
+ *
+ * The game file starts with an 8 byte header (magic number and version)
+ * followed by one record per game:
+ *
+ * <pre>
+ * black disks     8 bytes
+ * white disks     8 bytes
+ * flags           1 byte, bit 0 white to move, bit 1 game finished
+ * black points    1 byte
+ * white points    1 byte
+ * move count      1 byte
+ * moves           1 byte per move, 64 for a pass
+ * </pre>
+ *
+ * The index file (the game file name followed by .idx) holds the offset of
+ * every record as an 8 byte number. Both files are written through buffers,
+ * so memory use does not depend on the number of games.
+ */
+public final class GameRecordWriter implements Closeable {
+    // "OTHR"
+    static final int MAGIC = 0x4f544852;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 20;
+
+    static final int WHITE_TO_MOVE = 1;
+    static final int FINISHED = 2;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final DataOutputStream out;
+    private final DataOutputStream index;
+    // offset of the next record
+    private long offset;
+    private long games;
+
+    /**
+     * creates file and its index file, replacing them if they exist.
+     *
+     * @param file path of the game file
+     */
+    public GameRecordWriter(String file) throws IOException {
+        out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE)
+        );
+        try {
+            index = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(indexFile(file)), BUFFER_SIZE)
+            );
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        offset = HEADER_SIZE;
+    }
+
+    // returns the path of the index file of a game file
+    public static String indexFile(String file) {
+        return file + ".idx";
+    }
+
+    // returns the number of games written
+    public long size() {
+        return games;
+    }
+
+    // writes a record after the previous one
+    public void write(GameRecord record) throws IOException {
+        int count = record.getMoveCount();
+        index.writeLong(offset);
+        out.writeLong(record.getStartBlack());
+        out.writeLong(record.getStartWhite());
+        int flags = record.getStartTurn() == PlayerColor.WHITE ? WHITE_TO_MOVE : 0;
+        if (record.isFinished()) {
+            flags |= FINISHED;
+        }
+        out.writeByte(flags);
+        out.writeByte(record.getBlackPoints());
+        out.writeByte(record.getWhitePoints());
+        out.writeByte(count);
+        for (int i = 0; i < count; i++) {
+            out.writeByte(record.getMove(i));
+        }
+        offset += RECORD_HEADER_SIZE + count;
+        games++;
+    }
+
+    // writes buffered records to both files
+    public void flush() throws IOException {
+        out.flush();
+        index.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.close();
+        } finally {
+            index.close();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package org.cis120.Othello;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * GameStore keeps the state of many games in fixed size records of one
+ * direct buffer, outside of the Java heap.
+ *
+ * A record holds everything needed to continue a game with a
+ * BitBoardOthello: the black and white disks, a flags byte (white to move,
+ * pass, slot in use) and the number of moves played. It also keeps a
+ * generation that callers count up every time the slot is reused, 22 bytes
+ * in all. A game is loaded into a model, played, and stored back, so the
+ * store can hold millions of games without creating an object for any of
+ * them.
+ *
+ * A snapshot writes the header (magic, version, record size and capacity,
+ * all ints) and the whole buffer to a file in one write, and restore reads it
+ * back the same way.
+ *
+ * A store is not thread safe, callers lock the slots they use.
+ */
+public final class GameStore {
+    // "OTHS"
+    private static final int MAGIC = 0x4f544853;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+
+    public static final int RECORD_SIZE = 22;
+
+    // the lowest bit matches the flags byte of BoardFile
+    private static final int WHITE_TO_MOVE = 1;
+    private static final int PASS = 2;
+    private static final int USED = 4;
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+
+    /**
+     * Creates a store with every slot unused.
+     *
+     * @param capacityParam number of slots
+     */
+    public GameStore(int capacityParam) {
+        if (capacityParam < 1 || capacityParam > Integer.MAX_VALUE / RECORD_SIZE) {
+            throw new IllegalArgumentException();
+        }
+        capacity = capacityParam;
+        buffer = ByteBuffer.allocateDirect(capacity * RECORD_SIZE);
+    }
+
+    // returns the number of slots
+    public int capacity() {
+        return capacity;
+    }
+
+    private int offset(int slot) {
+        if (slot < 0 || slot >= capacity) {
+            throw new IndexOutOfBoundsException(Integer.toString(slot));
+        }
+        return slot * RECORD_SIZE;
+    }
+
+    // true if slot holds a game
+    public boolean isUsed(int slot) {
+        return (buffer.get(offset(slot) + 16) & USED) != 0;
+    }
+
+    // puts a new game at the start position into slot
+    public void reset(int slot) {
+        int offset = offset(slot);
+        buffer.putLong(offset, BitBoard.START_BLACK);
+        buffer.putLong(offset + 8, BitBoard.START_WHITE);
+        buffer.put(offset + 16, (byte) USED);
+        buffer.put(offset + 17, (byte) 0);
+    }
+
+    // marks slot as unused, the generation is kept
+    public void clear(int slot) {
+        int offset = offset(slot);
+        buffer.putLong(offset, 0);
+        buffer.putLong(offset + 8, 0);
+        buffer.putShort(offset + 16, (short) 0);
+    }
+
+    public long getBlack(int slot) {
+        return buffer.getLong(offset(slot));
+    }
+
+    public long getWhite(int slot) {
+        return buffer.getLong(offset(slot) + 8);
+    }
+
+    public PlayerColor getTurn(int slot) {
+        return BoardFile.turnOf(buffer.get(offset(slot) + 16));
+    }
+
+    public boolean getPass(int slot) {
+        return (buffer.get(offset(slot) + 16) & PASS) != 0;
+    }
+
+    // number of moves played in the game of slot, passes not included
+    public int getMoveCount(int slot) {
+        return buffer.get(offset(slot) + 17) & 0xff;
+    }
+
+    // generation of slot, 0 until it is set
+    public int getGeneration(int slot) {
+        return buffer.getInt(offset(slot) + 18);
+    }
+
+    public void setGeneration(int slot, int generation) {
+        buffer.putInt(offset(slot) + 18, generation);
+    }
+
+    /**
+     * load sets model to the game in slot. The undo stack of the model is
+     * cleared.
+     *
+     * @param slot  slot of a used record
+     * @param model model to load the game into
+     */
+    public void load(int slot, BitBoardOthello model) {
+        int offset = offset(slot);
+        int flags = buffer.get(offset + 16);
+        if ((flags & USED) == 0) {
+            throw new IllegalArgumentException("slot " + slot + " is unused");
+        }
+        model.restore(buffer.getLong(offset), buffer.getLong(offset + 8),
+                BoardFile.turnOf((byte) flags), (flags & PASS) != 0);
+    }
+
+    /**
+     * store writes the game of model into slot and marks the slot used.
+     *
+     * @param slot      slot to write
+     * @param model     game to store
+     * @param moveCount number of moves played in the game
+     */
+    public void store(int slot, BitBoardOthello model, int moveCount) {
+        if (moveCount < 0 || moveCount > 60) {
+            throw new IllegalArgumentException();
+        }
+        int offset = offset(slot);
+        int flags = USED;
+        if (model.getCurrentTurn() == PlayerColor.WHITE) {
+            flags |= WHITE_TO_MOVE;
+        }
+        if (model.getPass()) {
+            flags |= PASS;
+        }
+        buffer.putLong(offset, model.getBlackDisks());
+        buffer.putLong(offset + 8, model.getWhiteDisks());
+        buffer.put(offset + 16, (byte) flags);
+        buffer.put(offset + 17, (byte) moveCount);
+    }
+
+    // copies every record of this store into other, which needs the same
+    // capacity
+    public void copyTo(GameStore other) {
+        if (other.capacity != capacity) {
+            throw new IllegalArgumentException();
+        }
+        other.buffer.clear();
+        other.buffer.put(buffer.duplicate().clear());
+    }
+
+    /**
+     * snapshot writes every record into a file that restore reads back.
+     *
+     * @param file path of the snapshot
+     */
+    public void snapshot(String file) throws IOException {
+        try (FileChannel channel = FileChannel.open(
+                Paths.get(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(capacity).flip();
+            ByteBuffer records = buffer.duplicate().clear();
+            ByteBuffer[] buffers = { header, records };
+            while (records.hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+    }
+
+    /**
+     * restore reads a snapshot. Throws an IllegalArgumentException if the file
+     * is not a snapshot.
+     *
+     * @param file path of the snapshot
+     * @return a store with the records of the snapshot
+     */
+    public static GameStore restore(String file) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    throw new IllegalArgumentException("truncated snapshot");
+                }
+            }
+            if (header.getInt(0) != MAGIC
+                    || header.getInt(4) != VERSION || header.getInt(8) != RECORD_SIZE
+                    || header.getInt(12) < 1
+                    || channel.size() != HEADER_SIZE + (long) header.getInt(12) * RECORD_SIZE) {
+                throw new IllegalArgumentException();
+            }
+            GameStore store = new GameStore(header.getInt(12));
+            ByteBuffer records = store.buffer.duplicate().clear();
+            while (records.hasRemaining()) {
+                if (channel.read(records) < 0) {
+                    throw new IllegalArgumentException("truncated snapshot");
+                }
+            }
+            return store;
+        }
+    }
+}
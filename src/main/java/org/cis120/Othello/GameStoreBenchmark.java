@@ -0,0 +1,116 @@
+package org.cis120.Othello;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Compares the memory needed to hold many games mid-way through as Othello
+ * objects, as BitBoardOthello objects and as GameStore records, and times a
+ * snapshot and restore of the store.
+ *
+ * Usage: GameStoreBenchmark [games]
+ * Defaults to 50000 games, run with a large enough heap (-Xmx) for the
+ * Othello objects.
+ *
+ * Run this file to see the results in your console.
+ */
+public class GameStoreBenchmark {
+
+    private static final int PLIES = 20;
+
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+
+        // the same random opening for every kind of storage
+        Random rng = new Random(120);
+        int[][] openings = new int[games][PLIES];
+        BitBoardOthello o = new BitBoardOthello();
+        for (int g = 0; g < games; g++) {
+            o.reset();
+            for (int i = 0; i < PLIES; i++) {
+                long valid = o.getValidMoves();
+                // very rarely a game is over this early, pick another one
+                if (valid == 0) {
+                    o.reset();
+                    i = -1;
+                    continue;
+                }
+                int n = rng.nextInt(Long.bitCount(valid));
+                for (int j = 0; j < n; j++) {
+                    valid &= valid - 1;
+                }
+                openings[g][i] = Long.numberOfTrailingZeros(valid);
+                o.makeMove(openings[g][i]);
+            }
+        }
+
+        long before = usedMemory();
+        Othello[] arrays = new Othello[games];
+        for (int g = 0; g < games; g++) {
+            arrays[g] = new Othello();
+            for (int sq : openings[g]) {
+                arrays[g].playTurn(sq % 8, sq / 8, arrays[g].getCurrentTurn());
+            }
+        }
+        report("Othello", usedMemory() - before, games);
+        arrays = null;
+
+        before = usedMemory();
+        BitBoardOthello[] bits = new BitBoardOthello[games];
+        for (int g = 0; g < games; g++) {
+            bits[g] = new BitBoardOthello();
+            for (int sq : openings[g]) {
+                bits[g].makeMove(sq);
+            }
+        }
+        report("BitBoardOthello", usedMemory() - before, games);
+        bits = null;
+
+        // the records are the only memory per game, the store itself is one
+        // object on the heap
+        GameStore store = new GameStore(games);
+        for (int g = 0; g < games; g++) {
+            o.reset();
+            for (int sq : openings[g]) {
+                o.makeMove(sq);
+            }
+            store.store(g, o, PLIES);
+        }
+        System.out.printf(
+                "%-16s %8.1f bytes per game off the heap%n", "GameStore",
+                (double) GameStore.RECORD_SIZE
+        );
+
+        File file = File.createTempFile("games", ".snap");
+        file.deleteOnExit();
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            store.snapshot(file.getPath());
+            long saved = System.nanoTime();
+            GameStore restored = GameStore.restore(file.getPath());
+            long end = System.nanoTime();
+            if (restored.getBlack(games - 1) != store.getBlack(games - 1)) {
+                throw new IllegalStateException();
+            }
+            System.out.printf(
+                    "snapshot: %.2f ms  restore: %.2f ms  (%d bytes)%n",
+                    (saved - start) / 1e6, (end - saved) / 1e6, file.length()
+            );
+        }
+    }
+
+    private static void report(String name, long bytes, int games) {
+        System.out.printf(
+                "%-16s %8.1f bytes per game on the heap%n", name, bytes / (double) games
+        );
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,110 @@
+package org.cis120.Othello;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStoreTest {
+
+    @Test
+    public void storeAndLoadTest() {
+        GameStore store = new GameStore(4);
+        assertFalse(store.isUsed(2));
+        store.reset(2);
+        assertTrue(store.isUsed(2));
+        assertEquals(BitBoard.START_BLACK, store.getBlack(2));
+        assertEquals(PlayerColor.BLACK, store.getTurn(2));
+        assertEquals(0, store.getMoveCount(2));
+
+        BitBoardOthello o = new BitBoardOthello();
+        store.load(2, o);
+        o.makeMove(BitBoard.fromNotation("f5"));
+        store.store(2, o, 1);
+        BitBoardOthello loaded = new BitBoardOthello();
+        store.load(2, loaded);
+        assertEquals(o.getHashKey(), loaded.getHashKey());
+        assertEquals(PlayerColor.WHITE, store.getTurn(2));
+        assertEquals(1, store.getMoveCount(2));
+
+        // the generation is kept when the slot is cleared and reused
+        store.setGeneration(2, 7);
+        store.clear(2);
+        assertFalse(store.isUsed(2));
+        assertEquals(7, store.getGeneration(2));
+        store.reset(2);
+        assertEquals(7, store.getGeneration(2));
+        store.clear(2);
+        assertThrows(IllegalArgumentException.class, () -> store.load(2, loaded));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.isUsed(4));
+        assertThrows(IllegalArgumentException.class, () -> new GameStore(0));
+    }
+
+    // stored games keep the turn and pass flag through random games
+    @Test
+    public void randomGamesTest() {
+        Random rng = new Random(120);
+        GameStore store = new GameStore(1);
+        BitBoardOthello game = new BitBoardOthello();
+        BitBoardOthello loaded = new BitBoardOthello();
+        boolean sawPass = false;
+        for (int g = 0; g < 200; g++) {
+            game.reset();
+            store.reset(0);
+            int moves = 0;
+            while (game.getValidMoves() != 0) {
+                long valid = game.getValidMoves();
+                int n = rng.nextInt(Long.bitCount(valid));
+                for (int i = 0; i < n; i++) {
+                    valid &= valid - 1;
+                }
+                game.makeMove(Long.numberOfTrailingZeros(valid));
+                store.store(0, game, ++moves);
+                store.load(0, loaded);
+                assertEquals(game.getHashKey(), loaded.getHashKey());
+                assertEquals(game.getPass(), loaded.getPass());
+                assertEquals(game.getCurrentTurn(), loaded.getCurrentTurn());
+                assertEquals(game.checkWinner(), loaded.checkWinner());
+                sawPass |= game.getPass();
+            }
+            assertEquals(moves, store.getMoveCount(0));
+        }
+        assertTrue(sawPass);
+    }
+
+    @Test
+    public void snapshotTest() throws IOException {
+        GameStore store = new GameStore(1000);
+        BitBoardOthello o = new BitBoardOthello();
+        o.makeMove(BitBoard.fromNotation("d3"));
+        for (int slot = 0; slot < 1000; slot += 3) {
+            store.reset(slot);
+        }
+        store.store(999, o, 1);
+        store.setGeneration(3, 12);
+
+        File file = File.createTempFile("games", ".snap");
+        file.deleteOnExit();
+        store.snapshot(file.getPath());
+        assertEquals(16 + 1000 * GameStore.RECORD_SIZE, file.length());
+        GameStore restored = GameStore.restore(file.getPath());
+        assertEquals(1000, restored.capacity());
+        for (int slot = 0; slot < 1000; slot++) {
+            assertEquals(store.isUsed(slot), restored.isUsed(slot));
+            assertEquals(store.getBlack(slot), restored.getBlack(slot));
+            assertEquals(store.getWhite(slot), restored.getWhite(slot));
+            assertEquals(store.getGeneration(slot), restored.getGeneration(slot));
+        }
+        assertEquals(PlayerColor.WHITE, restored.getTurn(999));
+
+        // a cut off snapshot is rejected
+        try (RandomAccessFile f = new RandomAccessFile(file, "rw")) {
+            f.setLength(f.length() - 1);
+        }
+        assertThrows(IllegalArgumentException.class, () -> GameStore.restore(file.getPath()));
+    }
+}
@@ -0,0 +1,75 @@
+package org.cis120.Othello;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures the latency of a single Othello.playTurn call across complete
+ * random games, once with incremental valid move updates and once with the
+ * valid moves regenerated from scratch after every turn.
+ *
+ * Run this file to see the results in your console.
+ */
+public class IncrementalMovesBenchmark {
+
+    private static final int WARMUP_GAMES = 2000;
+    private static final int GAMES = 10000;
+
+    // plays games random games and records the time of every playTurn call
+    // returns the number of recorded moves
+    private static int run(Othello o, int games, long[] latencies) {
+        Random rng = new Random(120);
+        int[] moves = new int[64];
+        int recorded = 0;
+        for (int g = 0; g < games; g++) {
+            o.reset();
+            while (o.checkWinner() == null) {
+                int count = 0;
+                for (int y = 0; y < 8; y++) {
+                    for (int x = 0; x < 8; x++) {
+                        if (o.getBoardSpace(x, y) == PlayerColor.EMPTY) {
+                            moves[count++] = y * 8 + x;
+                        }
+                    }
+                }
+                int move = moves[rng.nextInt(count)];
+                long start = System.nanoTime();
+                o.playTurn(move % 8, move / 8, o.getCurrentTurn());
+                long time = System.nanoTime() - start;
+                if (recorded < latencies.length) {
+                    latencies[recorded++] = time;
+                }
+            }
+        }
+        return recorded;
+    }
+
+    private static void report(String name, long[] latencies, int count) {
+        Arrays.sort(latencies, 0, count);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += latencies[i];
+        }
+        System.out.printf(
+                "%-12s moves: %d  mean: %6.0f ns  p50: %6d ns  p99: %6d ns%n", name, count,
+                (double) total / count, latencies[count / 2], latencies[count * 99 / 100]
+        );
+    }
+
+    public static void main(String[] args) {
+        // a game has at most 60 moves
+        long[] latencies = new long[GAMES * 60];
+
+        Othello full = new Othello();
+        full.setIncrementalMoves(false);
+        Othello incremental = new Othello();
+
+        run(full, WARMUP_GAMES, latencies);
+        run(incremental, WARMUP_GAMES, latencies);
+
+        int count = run(full, GAMES, latencies);
+        report("full", latencies, count);
+        count = run(incremental, GAMES, latencies);
+        report("incremental", latencies, count);
+    }
+}
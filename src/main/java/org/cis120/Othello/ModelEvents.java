@@ -0,0 +1,82 @@
+package org.cis120.Othello;
+
+// Keeps the listeners of a model and sends them its changes
+// the models only call in here if hasListeners is true, so a model without
+// listeners, like the ones used by the search, pays a single field check
+final class ModelEvents {
+    private static final ModelListener[] NONE = new ModelListener[0];
+
+    // replaced on every change so listeners can be added from a listener
+    private ModelListener[] listeners = NONE;
+
+    // last state sent, changes are only sent when it differs
+    private long lastMoves = -1;
+    private PlayerColor lastTurn;
+    private int lastBlackPoints = -1;
+    private int lastWhitePoints = -1;
+
+    boolean hasListeners() {
+        return listeners.length != 0;
+    }
+
+    void add(ModelListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        ModelListener[] next = new ModelListener[listeners.length + 1];
+        System.arraycopy(listeners, 0, next, 0, listeners.length);
+        next[listeners.length] = listener;
+        listeners = next;
+        // a new listener has seen nothing yet
+        lastMoves = -1;
+        lastBlackPoints = -1;
+    }
+
+    void remove(ModelListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                ModelListener[] next = new ModelListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, next, 0, i);
+                System.arraycopy(listeners, i + 1, next, i, next.length - i);
+                listeners = next;
+                return;
+            }
+        }
+    }
+
+    void disksPlaced(int sq, long flipped, PlayerColor player) {
+        for (ModelListener listener : listeners) {
+            listener.disksPlaced(sq, flipped, player);
+        }
+    }
+
+    void disksRemoved(int sq, long flipped, PlayerColor player) {
+        for (ModelListener listener : listeners) {
+            listener.disksRemoved(sq, flipped, player);
+        }
+    }
+
+    void boardReplaced(long black, long white) {
+        for (ModelListener listener : listeners) {
+            listener.boardReplaced(black, white);
+        }
+    }
+
+    // sends the valid moves and score if they changed since they were last sent
+    void stateChanged(long moves, PlayerColor turn, int blackPoints, int whitePoints) {
+        if (moves != lastMoves || turn != lastTurn) {
+            lastMoves = moves;
+            lastTurn = turn;
+            for (ModelListener listener : listeners) {
+                listener.validMovesChanged(moves, turn);
+            }
+        }
+        if (blackPoints != lastBlackPoints || whitePoints != lastWhitePoints) {
+            lastBlackPoints = blackPoints;
+            lastWhitePoints = whitePoints;
+            for (ModelListener listener : listeners) {
+                listener.scoreChanged(blackPoints, whitePoints);
+            }
+        }
+    }
+}
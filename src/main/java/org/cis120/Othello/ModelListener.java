@@ -0,0 +1,48 @@
+package org.cis120.Othello;
+
+/**
+ * ModelListener receives the changes of an OthelloModel as they happen, so a
+ * view or a remote client can apply them instead of reading the whole board
+ * after every move. Every method does nothing by default, so a listener only
+ * implements the changes it cares about.
+ *
+ * Squares are bit masks with bit y * 8 + x for square x, y. Listeners are
+ * called on the thread that changes the model, in the order they were added,
+ * after the change is complete, so the model can be read from a listener.
+ */
+public interface ModelListener {
+
+    /**
+     * disksPlaced is called after a move.
+     *
+     * @param sq      bit index of the placed disk
+     * @param flipped disks that turned to player
+     * @param player  color of the player who moved
+     */
+    default void disksPlaced(int sq, long flipped, PlayerColor player) {
+    }
+
+    // called after a move is taken back, with the same arguments as the
+    // disksPlaced call of the move
+    default void disksRemoved(int sq, long flipped, PlayerColor player) {
+    }
+
+    // called when the whole board is replaced by reset, setPosition or
+    // loadFile, with the new disks
+    default void boardReplaced(long black, long white) {
+    }
+
+    /**
+     * validMovesChanged is called when the valid moves of the player to move
+     * or the player to move change.
+     *
+     * @param moves valid moves of turn, 0 once the game is over
+     * @param turn  player to move
+     */
+    default void validMovesChanged(long moves, PlayerColor turn) {
+    }
+
+    // called when the number of disks of either player changes
+    default void scoreChanged(int blackPoints, int whitePoints) {
+    }
+}
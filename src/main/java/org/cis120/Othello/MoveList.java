@@ -0,0 +1,109 @@
+package org.cis120.Othello;
+
+/**
+ * MoveList is a reusable buffer of valid moves for one player.
+ *
+ * Moves are stored as bit indexes (y * 8 + x) in insertion order and the disks
+ * flipped by each move are stored as a bit mask indexed by square, so looking
+ * up a move is a single array access. Clearing and refilling the list does not
+ * allocate anything.
+ */
+public class MoveList {
+    // squares of the valid moves in the order they were added
+    private final int[] squares = new int[64];
+    // flipped disks indexed by square, 0 if the square is not a valid move
+    private final long[] flips = new long[64];
+    // position of each square in the squares array, used for O(1) removal
+    private final int[] positions = new int[64];
+    private int size;
+    // mask of all squares in the list
+    private long mask;
+
+    // removes every move from the list
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            flips[squares[i]] = 0;
+        }
+        size = 0;
+        mask = 0;
+    }
+
+    // adds a move, the flipped mask must not be 0
+    public void add(int sq, long flipped) {
+        positions[sq] = size;
+        squares[size++] = sq;
+        flips[sq] = flipped;
+        mask |= 1L << sq;
+    }
+
+    // removes the move on sq if it is in the list
+    // the last move is swapped into its place so the order of moves changes
+    public void remove(int sq) {
+        if (flips[sq] == 0) {
+            return;
+        }
+        int last = squares[--size];
+        squares[positions[sq]] = last;
+        positions[last] = positions[sq];
+        flips[sq] = 0;
+        mask &= ~(1L << sq);
+    }
+
+    // adds, updates or removes (if flipped is 0) the move on sq
+    public void set(int sq, long flipped) {
+        if (flipped == 0) {
+            remove(sq);
+        } else if (flips[sq] != 0) {
+            flips[sq] = flipped;
+        } else {
+            add(sq, flipped);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // returns the square of the i-th move
+    public int getSquare(int i) {
+        return squares[i];
+    }
+
+    // returns the disks flipped by playing on sq, 0 if sq is not a valid move
+    public long getFlips(int sq) {
+        return flips[sq];
+    }
+
+    public boolean contains(int sq) {
+        return flips[sq] != 0;
+    }
+
+    // returns a mask of every square in the list
+    public long getMask() {
+        return mask;
+    }
+
+    // true if both lists contain the same moves with the same flips, ignoring
+    // the order the moves were added in
+    public boolean sameMoves(MoveList other) {
+        if (mask != other.mask) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (flips[squares[i]] != other.flips[squares[i]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // returns the i-th move as a ValidMove object
+    public ValidMove get(int i) {
+        int sq = squares[i];
+        return new ValidMove(sq % 8, sq / 8, flips[sq]);
+    }
+}
@@ -1,19 +1,8 @@
 package org.cis120.Othello;
 
-import java.io.*;
-import java.util.LinkedHashSet;
-import java.util.TreeSet;
-
-// Player color enum
-// used for keeping track of the current turn or what pieces are on the board
-// public so that it can be referenced from anywhere and the representation of
-// the pieces and the
-// players is consistent
-enum PlayerColor {
-    BLACK, WHITE, EMPTY
-}
+import java.io.IOException;
 
-public class Othello {
+public class Othello implements OthelloModel {
     // board 2d array
     // x,y format
     private PlayerColor[][] board;
@@ -26,8 +15,9 @@ public class Othello {
     private int whitePoints;
 
     // stores valid moves for both players
-    private TreeSet<ValidMove> blackValidMoves;
-    private TreeSet<ValidMove> whiteValidMoves;
+    // the buffers are reused for every move so generating moves never allocates
+    private final MoveList blackValidMoves = new MoveList();
+    private final MoveList whiteValidMoves = new MoveList();
 
     // Tracks game over state
     private boolean gameOver;
@@ -35,6 +25,33 @@ public class Othello {
     // true if next turn will be a pass turn and false otherwise
     private boolean pass;
 
+    // Zobrist key of the position, updated incrementally in playTurn
+    private long hashKey;
+
+    // when true the valid moves are updated incrementally after each turn,
+    // otherwise they are regenerated from scratch
+    private boolean incrementalMoves = true;
+
+    // when true every incremental update is checked against a full regeneration
+    private boolean verifyMoves;
+    private final MoveList verifyBlackMoves = new MoveList();
+    private final MoveList verifyWhiteMoves = new MoveList();
+
+    // pattern indexes updated with every move, null if none are attached
+    private PatternIndexes patterns;
+
+    // listeners told about every change of the board
+    private final ModelEvents events = new ModelEvents();
+
+    // undo stack used by makeMove and unmakeMove, see BitBoardOthello
+    // entries from historySize up to redoSize are moves taken back by undo
+    private static final int MAX_HISTORY = 64;
+    private final int[] historySquares = new int[MAX_HISTORY];
+    private final long[] historyFlips = new long[MAX_HISTORY];
+    private final boolean[] historyPass = new boolean[MAX_HISTORY];
+    private int historySize;
+    private int redoSize;
+
     // output filestring
     private final String fileString = "files/output/output.txt";
 
@@ -43,21 +60,31 @@ public class Othello {
         reset();
     }
 
+    // creates a mutable game starting from an immutable position
+    public Othello(Position position) {
+        reset();
+        setPosition(position);
+    }
+
     /**
      * resets the game state to start a new game.
      **/
+    @Override
     public void reset() {
         board = new PlayerColor[8][8];
         currentTurn = PlayerColor.BLACK;
         blackPoints = 2;
         whitePoints = 2;
-        blackValidMoves = new TreeSet<>();
-        whiteValidMoves = new TreeSet<>();
         gameOver = false;
         pass = false;
+        historySize = 0;
+        redoSize = 0;
         initBoard();
-        blackValidMoves = generateValidMoves(PlayerColor.BLACK);
-        whiteValidMoves = generateValidMoves(PlayerColor.WHITE);
+        hashKey = Zobrist.hash(BitBoard.START_BLACK, BitBoard.START_WHITE, currentTurn);
+        resetPatterns();
+        generateValidMoves(PlayerColor.BLACK, blackValidMoves);
+        generateValidMoves(PlayerColor.WHITE, whiteValidMoves);
+        fireBoardReplaced();
     }
 
     // Sets up the starting board state
@@ -74,7 +101,9 @@ public class Othello {
     }
 
     // Swaps the current turn variable to change over the turns
+    // the side to move is part of the hash key so it is updated as well
     private void currentTurnFlip() {
+        hashKey ^= Zobrist.SIDE;
         if (currentTurn == PlayerColor.BLACK) {
             currentTurn = PlayerColor.WHITE;
         } else {
@@ -82,60 +111,46 @@ public class Othello {
         }
     }
 
-    // generates all valid moves for one player
+    // generates all valid moves for one player into the given move buffer
     // specifically only checks squares that are adjacent to placed disks for
     // greater efficiency
-    private TreeSet<ValidMove> generateValidMoves(PlayerColor player) {
-        TreeSet<ValidMove> moves = new TreeSet<>();
+    // package-private so that the benchmarks can measure it on its own
+    void generateValidMoves(PlayerColor player, MoveList moves) {
+        moves.clear();
         for (int i = 0; i < board.length; i++) {
             for (int j = 0; j < board[0].length; j++) {
                 if (board[i][j] != PlayerColor.EMPTY) {
                     for (int k = -1; k < 2; k++) {
                         for (int l = -1; l < 2; l++) {
                             if (k == 0 && l == 0 || i + k > 7 || j + l > 7 || i + k < 0 ||
-                                    j + l < 0 || board[i + k][j + l] != PlayerColor.EMPTY) {
+                                    j + l < 0 || board[i + k][j + l] != PlayerColor.EMPTY ||
+                                    moves.contains(BitBoard.index(i + k, j + l))) {
                                 continue;
                             }
-                            LinkedHashSet<int[]> flipped = checkMove(i + k, j + l, player);
-                            if (!flipped.isEmpty()) {
-                                ValidMove v = new ValidMove(i + k, j + l, flipped);
-                                moves.add(v);
+                            long flipped = checkMove(i + k, j + l, player);
+                            if (flipped != 0) {
+                                moves.add(BitBoard.index(i + k, j + l), flipped);
                             }
                         }
                     }
                 }
             }
         }
-        return moves;
-    }
-
-    // gets a move from a valid moves treeset based on coordinates given
-    private ValidMove getValidMove(TreeSet<ValidMove> moves, int x, int y) {
-        for (ValidMove move : moves) {
-            if (move.getX() == x && move.getY() == y) {
-                return move;
-            }
-        }
-        return null;
     }
 
     // checks if a move is valid using raycast helper
     // takes a move and casts a ray out in all 8 directions to see if any disks are
     // flipped when that move is played
-    private LinkedHashSet<int[]> checkMove(int x, int y, PlayerColor player) {
-        LinkedHashSet<int[]> flipped = new LinkedHashSet<>();
+    // returns the flipped disks as a bit mask, 0 if the move is not valid
+    long checkMove(int x, int y, PlayerColor player) {
+        long flipped = 0;
         if (board[x][y] == PlayerColor.EMPTY) {
             for (int i = -1; i < 2; i++) {
                 for (int j = -1; j < 2; j++) {
                     if (i == 0 && j == 0) {
                         continue;
                     }
-                    flipped.addAll(
-                            rayCast(
-                                    x + i, y + j, new int[] { i, j }, player,
-                                    new LinkedHashSet<>()
-                            )
-                    );
+                    flipped |= rayCast(x + i, y + j, i, j, player, 0);
                 }
             }
         }
@@ -146,20 +161,115 @@ public class Othello {
     // direction is valid
     // i.e. will result in a valid "flanking maneuver"
     // aka will disks be flipped
-    private LinkedHashSet<int[]> rayCast(
-            int x, int y, int[] ray, PlayerColor player,
-            LinkedHashSet<int[]> rayQueue
-    ) {
+    // the disks passed over so far are accumulated in the rayQueue bit mask
+    long rayCast(int x, int y, int dx, int dy, PlayerColor player, long rayQueue) {
         if (x > 7 || y > 7 || x < 0 || y < 0 || board[x][y] == PlayerColor.EMPTY) {
-            return new LinkedHashSet<>();
+            return 0;
         } else if (board[x][y] != player) {
-            rayQueue.add(new int[] { x, y });
-            return rayCast(x + ray[0], y + ray[1], ray, player, rayQueue);
+            return rayCast(x + dx, y + dy, dx, dy, player, rayQueue | BitBoard.square(x, y));
         } else {
             return rayQueue;
         }
     }
 
+    // updates both valid moves buffers after the disks on the changed squares
+    // were placed, flipped or taken back
+    // only the empty squares that can see a changed square along a line of disks
+    // can change, so only those squares are checked again, together with the
+    // changed squares that are empty now
+    private void updateValidMoves(long changedSquares) {
+        long affected = 0;
+        for (long changed = changedSquares; changed != 0; changed &= changed - 1) {
+            int sq = Long.numberOfTrailingZeros(changed);
+            if (board[sq % 8][sq / 8] == PlayerColor.EMPTY) {
+                affected |= 1L << sq;
+            } else {
+                blackValidMoves.remove(sq);
+                whiteValidMoves.remove(sq);
+            }
+            for (int k = -1; k < 2; k++) {
+                for (int l = -1; l < 2; l++) {
+                    if (k == 0 && l == 0) {
+                        continue;
+                    }
+                    // walks over the line of disks until the first empty square
+                    int i = sq % 8 + k;
+                    int j = sq / 8 + l;
+                    while (i >= 0 && i < 8 && j >= 0 && j < 8 &&
+                            board[i][j] != PlayerColor.EMPTY) {
+                        i += k;
+                        j += l;
+                    }
+                    if (i >= 0 && i < 8 && j >= 0 && j < 8) {
+                        affected |= BitBoard.square(i, j);
+                    }
+                }
+            }
+        }
+
+        for (; affected != 0; affected &= affected - 1) {
+            int sq = Long.numberOfTrailingZeros(affected);
+            blackValidMoves.set(sq, checkMove(sq % 8, sq / 8, PlayerColor.BLACK));
+            whiteValidMoves.set(sq, checkMove(sq % 8, sq / 8, PlayerColor.WHITE));
+        }
+
+        if (verifyMoves) {
+            generateValidMoves(PlayerColor.BLACK, verifyBlackMoves);
+            generateValidMoves(PlayerColor.WHITE, verifyWhiteMoves);
+            if (!blackValidMoves.sameMoves(verifyBlackMoves) ||
+                    !whiteValidMoves.sameMoves(verifyWhiteMoves)) {
+                throw new IllegalStateException(
+                        "incremental valid moves differ from full regeneration"
+                );
+            }
+        }
+    }
+
+    // switches between incremental and full valid move updates
+    public void setIncrementalMoves(boolean incremental) {
+        incrementalMoves = incremental;
+    }
+
+    // turns on checking every incremental update against a full regeneration
+    // an IllegalStateException is thrown from playTurn if they differ
+    public void setVerifyMoves(boolean verify) {
+        verifyMoves = verify;
+    }
+
+    // generates the hash key from scratch
+    // used when loading a board
+    private void resetHashKey() {
+        long black = 0;
+        long white = 0;
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                if (board[i][j] == PlayerColor.BLACK) {
+                    black |= BitBoard.square(i, j);
+                } else if (board[i][j] == PlayerColor.WHITE) {
+                    white |= BitBoard.square(i, j);
+                }
+            }
+        }
+        hashKey = Zobrist.hash(black, white, currentTurn);
+    }
+
+    // attaches pattern indexes that follow every move, null to detach them
+    @Override
+    public void setPatternIndexes(PatternIndexes indexes) {
+        patterns = indexes;
+        resetPatterns();
+    }
+
+    // recomputes the attached pattern indexes from the board
+    private void resetPatterns() {
+        if (patterns != null) {
+            patterns.setBoard(
+                    BoardFile.mask(board, PlayerColor.BLACK),
+                    BoardFile.mask(board, PlayerColor.WHITE)
+            );
+        }
+    }
+
     // generates points from scratch
     // used when loading a board
     private void resetPoints() {
@@ -187,6 +297,7 @@ public class Othello {
      * @param y      row to play in
      * @param player move color
      **/
+    @Override
     public void playTurn(int x, int y, PlayerColor player) {
         // also mostly for debugging or manual input of moves without using GUI
         if (player != currentTurn) {
@@ -197,8 +308,8 @@ public class Othello {
             throw new IllegalArgumentException();
         }
 
-        // loads correct valid moves tree
-        TreeSet<ValidMove> moves;
+        // loads correct valid moves buffer
+        MoveList moves;
         if (player == PlayerColor.BLACK) {
             moves = blackValidMoves;
         } else {
@@ -211,50 +322,182 @@ public class Othello {
             return;
         }
 
-        // gets the valid move x y from the moves set
-        ValidMove move = getValidMove(moves, x, y);
+        // looks up the disks flipped by x y in the moves buffer
+        long flipped = moves.getFlips(BitBoard.index(x, y));
 
         // if the move is valid
-        if (move != null) {
-            // place the disk
-            board[x][y] = player;
-
-            // flip all disks changed by the move
-            LinkedHashSet<int[]> flipped = move.getFlippedDisks();
-            for (int[] disk : flipped) {
-                board[disk[0]][disk[1]] = player;
-            }
+        if (flipped != 0) {
+            redoSize = 0;
+            applyMove(BitBoard.index(x, y), flipped, player);
+            return;
+        }
+        // if move is invalid an exception is thrown to be handled in GameBoard.java
+        throw new IllegalArgumentException();
+    }
 
-            // update points
-            if (player == PlayerColor.BLACK) {
-                blackPoints += flipped.size() + 1;
-                whitePoints -= flipped.size();
-            } else {
-                whitePoints += flipped.size() + 1;
-                blackPoints -= flipped.size();
-            }
+    // places the disk on sq for player, flips the flipped disks and updates
+    // everything that depends on the board, then passes the turn on
+    private void applyMove(int sq, long flipped, PlayerColor player) {
+        // place the disk
+        board[sq % 8][sq / 8] = player;
+
+        // flip all disks changed by the move
+        for (long disks = flipped; disks != 0; disks &= disks - 1) {
+            int f = Long.numberOfTrailingZeros(disks);
+            board[f % 8][f / 8] = player;
+        }
 
-            // update valid moves sets
-            blackValidMoves = generateValidMoves(PlayerColor.BLACK);
-            whiteValidMoves = generateValidMoves(PlayerColor.WHITE);
+        // update hash key and pattern indexes
+        hashKey ^= Zobrist.moveKey(sq, flipped, player);
+        if (patterns != null) {
+            patterns.play(sq, flipped, player);
+        }
 
-            // flips turn
+        // update points
+        int flipCount = Long.bitCount(flipped);
+        if (player == PlayerColor.BLACK) {
+            blackPoints += flipCount + 1;
+            whitePoints -= flipCount;
+        } else {
+            whitePoints += flipCount + 1;
+            blackPoints -= flipCount;
+        }
+
+        historySquares[historySize] = sq;
+        historyFlips[historySize] = flipped;
+        historyPass[historySize] = pass;
+        historySize++;
+
+        // update valid moves buffers
+        if (incrementalMoves) {
+            updateValidMoves(flipped | 1L << sq);
+        } else {
+            generateValidMoves(PlayerColor.BLACK, blackValidMoves);
+            generateValidMoves(PlayerColor.WHITE, whiteValidMoves);
+        }
+
+        // flips turn
+        currentTurnFlip();
+
+        // passing code (operates on next turn)
+        if (player == PlayerColor.BLACK && whiteValidMoves.isEmpty()) {
+            pass = true;
             currentTurnFlip();
+        } else if (player == PlayerColor.WHITE && blackValidMoves.isEmpty()) {
+            pass = true;
+            currentTurnFlip();
+        } else {
+            pass = false;
+        }
 
-            // passing code (operates on next turn)
-            if (player == PlayerColor.BLACK && whiteValidMoves.isEmpty()) {
-                pass = true;
-                currentTurnFlip();
-            } else if (player == PlayerColor.WHITE && blackValidMoves.isEmpty()) {
-                pass = true;
-                currentTurnFlip();
-            } else {
-                pass = false;
-            }
-            return;
+        if (events.hasListeners()) {
+            events.disksPlaced(sq, flipped, player);
+            fireState();
+        }
+    }
+
+    /**
+     * makeMove plays a move for the current player, the same way as
+     * BitBoardOthello.makeMove, so code written for make and unmake works on
+     * both models. Moves taken back by undo can no longer be redone.
+     *
+     * @param sq bit index of a valid move for the current player
+     * @return mask of the disks flipped by the move
+     * @throws IllegalArgumentException if sq is not a valid move
+     */
+    public long makeMove(int sq) {
+        MoveList moves = currentTurn == PlayerColor.BLACK ? blackValidMoves : whiteValidMoves;
+        long flipped = sq >= 0 && sq < 64 ? moves.getFlips(sq) : 0;
+        if (flipped == 0) {
+            throw new IllegalArgumentException();
+        }
+        redoSize = 0;
+        applyMove(sq, flipped, currentTurn);
+        return flipped;
+    }
+
+    /**
+     * unmakeMove takes back the last move, restoring the board, the current
+     * turn and the pass state from the undo stack. The move is kept for redo.
+     * Only the squares around the changed disks are checked for valid moves,
+     * nothing is regenerated.
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if (historySize == 0) {
+            throw new IllegalStateException();
+        }
+        redoSize = Math.max(redoSize, historySize);
+        historySize--;
+        int sq = historySquares[historySize];
+        long flipped = historyFlips[historySize];
+
+        // the player who made the move owns the placed disk
+        PlayerColor player = board[sq % 8][sq / 8];
+        PlayerColor opponent = player == PlayerColor.BLACK ? PlayerColor.WHITE : PlayerColor.BLACK;
+        board[sq % 8][sq / 8] = PlayerColor.EMPTY;
+        for (long disks = flipped; disks != 0; disks &= disks - 1) {
+            int f = Long.numberOfTrailingZeros(disks);
+            board[f % 8][f / 8] = opponent;
+        }
+
+        hashKey ^= Zobrist.moveKey(sq, flipped, player);
+        if (patterns != null) {
+            patterns.undo(sq, flipped, player);
+        }
+
+        int flipCount = Long.bitCount(flipped);
+        if (player == PlayerColor.BLACK) {
+            blackPoints -= flipCount + 1;
+            whitePoints += flipCount;
+        } else {
+            whitePoints -= flipCount + 1;
+            blackPoints += flipCount;
+        }
+
+        if (incrementalMoves) {
+            updateValidMoves(flipped | 1L << sq);
+        } else {
+            generateValidMoves(PlayerColor.BLACK, blackValidMoves);
+            generateValidMoves(PlayerColor.WHITE, whiteValidMoves);
+        }
+
+        if (player != currentTurn) {
+            currentTurnFlip();
+        }
+        pass = historyPass[historySize];
+        gameOver = false;
+
+        if (events.hasListeners()) {
+            events.disksRemoved(sq, flipped, player);
+            fireState();
         }
-        // if move is invalid an exception is thrown to be handled in GameBoard.java
-        throw new IllegalArgumentException();
+    }
+
+    @Override
+    public void undo() {
+        unmakeMove();
+    }
+
+    @Override
+    public void redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException();
+        }
+        int top = redoSize;
+        applyMove(historySquares[historySize], historyFlips[historySize], currentTurn);
+        redoSize = top;
+    }
+
+    @Override
+    public boolean canUndo() {
+        return historySize > 0;
+    }
+
+    @Override
+    public boolean canRedo() {
+        return redoSize > historySize;
     }
 
     /**
@@ -264,6 +507,7 @@ public class Othello {
      * @return PlayerColor of the winner, empty if the game is a tie, or null if the
      *         game is not over
      **/
+    @Override
     public PlayerColor checkWinner() {
         if (blackValidMoves.isEmpty() && whiteValidMoves.isEmpty()) {
             if (blackPoints > whitePoints) {
@@ -286,6 +530,7 @@ public class Othello {
      * also prints potential moves for black and white depending on who's turn it
      * is.
      */
+    @Override
     public void printGameState() {
         System.out.println("B: " + blackPoints + ", W: " + whitePoints);
         System.out.print(" ");
@@ -299,13 +544,13 @@ public class Othello {
                 PlayerColor space = board[j][i];
                 if (space == PlayerColor.EMPTY) {
                     if (currentTurn == PlayerColor.BLACK) {
-                        if (getValidMove(blackValidMoves, j, i) != null) {
+                        if (blackValidMoves.contains(BitBoard.index(j, i))) {
                             System.out.print("*");
                         } else {
                             System.out.print(".");
                         }
                     } else {
-                        if (getValidMove(whiteValidMoves, j, i) != null) {
+                        if (whiteValidMoves.contains(BitBoard.index(j, i))) {
                             System.out.print("#");
                         } else {
                             System.out.print(".");
@@ -328,6 +573,7 @@ public class Othello {
      * 
      * @return current turn player color
      **/
+    @Override
     public PlayerColor getCurrentTurn() {
         return currentTurn;
     }
@@ -343,6 +589,7 @@ public class Othello {
      *         This return paradigm allows for easy access to valid move spaces
      *         which can be displayed by the GUI
      **/
+    @Override
     public PlayerColor getBoardSpace(int x, int y) {
         if (x > 7 || y > 7 || x < 0 || y < 0) {
             throw new IllegalArgumentException();
@@ -351,12 +598,12 @@ public class Othello {
         if (space != PlayerColor.EMPTY) {
             return space;
         } else if (currentTurn == PlayerColor.BLACK) {
-            if (getValidMove(blackValidMoves, x, y) != null) {
+            if (blackValidMoves.contains(BitBoard.index(x, y))) {
                 return PlayerColor.EMPTY;
             }
             return null;
         } else {
-            if (getValidMove(whiteValidMoves, x, y) != null) {
+            if (whiteValidMoves.contains(BitBoard.index(x, y))) {
                 return PlayerColor.EMPTY;
             }
             return null;
@@ -364,50 +611,52 @@ public class Othello {
     }
 
     // return points for black or white
+    @Override
     public int getBlackPoints() {
         return blackPoints;
     }
 
+    @Override
     public int getWhitePoints() {
         return whitePoints;
     }
 
     // returns the pass variable to see if the next turn will be passed
+    @Override
     public boolean getPass() {
         return pass;
     }
 
+    // mask of the valid moves of the current player, like
+    // BitBoardOthello.getValidMoves
+    long getValidMoves() {
+        MoveList moves = currentTurn == PlayerColor.BLACK ? blackValidMoves : whiteValidMoves;
+        return moves.getMask();
+    }
+
+    @Override
+    public long getHashKey() {
+        return hashKey;
+    }
+
     // saves the current game board by printing it into an output file
     // first prints the current turn and then prints the board
+    @Override
     public void saveGameBoard() throws IOException {
-        BufferedWriter bw = new BufferedWriter(new FileWriter(fileString));
-        if (currentTurn == PlayerColor.BLACK) {
-            bw.write("BLACK");
-            bw.newLine();
-        } else {
-            bw.write("WHITE");
-            bw.newLine();
-        }
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[0].length; j++) {
-                PlayerColor space = board[j][i];
-                if (space == PlayerColor.BLACK) {
-                    bw.write("X");
-                } else if (space == PlayerColor.WHITE) {
-                    bw.write("O");
-                } else {
-                    bw.write("*");
-                }
-            }
-            if (i < board.length - 1) {
-                bw.newLine();
-            }
-        }
-        bw.flush();
-        bw.close();
+        BoardFile.write(fileString, currentTurn, board);
+    }
+
+    // saves the current game board as a binary record
+    @Override
+    public void saveBinary(String file) throws IOException {
+        BoardFile.writeBinary(
+                file, currentTurn, BoardFile.mask(board, PlayerColor.BLACK),
+                BoardFile.mask(board, PlayerColor.WHITE)
+        );
     }
 
     // returns the output file string
+    @Override
     public String getFileString() {
         return fileString;
     }
@@ -416,59 +665,67 @@ public class Othello {
     // first reads the currnt turn then the board
     // also resets points and recalculates valid moves
     // Will throw Illegal argument exception if a file has incorrect formatting
+    @Override
     public void loadFile(String file) throws IOException {
-        PlayerColor[][] boardTemp = new PlayerColor[8][8];
-        BufferedReader br = new BufferedReader(new FileReader(file));
-        int c;
-        int x = 0;
-        int y = 0;
-        String turn = br.readLine();
-        if (turn == null) {
+        // the file is read into a temporary board so that a board is not loaded in
+        // until it has been verified as valid
+        BoardFile boardFile = BoardFile.read(file);
+        loadBoard(boardFile.getTurn(), boardFile.getBoard());
+    }
+
+    /**
+     * setPosition replaces the board with the given disks and player to move.
+     * If the player to move has no valid moves the turn is passed, the same way
+     * loadFile does it. The game over state is cleared.
+     *
+     * @param black mask of black disks
+     * @param white mask of white disks
+     * @param turn  player to move
+     */
+    @Override
+    public void setPosition(long black, long white, PlayerColor turn) {
+        if ((black & white) != 0 || turn == PlayerColor.EMPTY || turn == null) {
             throw new IllegalArgumentException();
         }
-        while ((c = br.read()) != -1) {
-            char disk = (char) c;
-            if (x == 8) {
-                x = 0;
-                y++;
-            } else if (x > 8) {
-                throw new IllegalArgumentException();
-            } else if (y > 7) {
-                throw new IllegalArgumentException();
-            } else if (disk == 'X') {
-                boardTemp[x][y] = PlayerColor.BLACK;
-                x++;
-            } else if (disk == 'O') {
-                boardTemp[x][y] = PlayerColor.WHITE;
-                x++;
-            } else if (disk == '*') {
-                boardTemp[x][y] = PlayerColor.EMPTY;
-                x++;
-            }
-        }
-        for (PlayerColor[] spaces : boardTemp) {
-            for (PlayerColor space : spaces) {
-                if (space == null) {
-                    throw new IllegalArgumentException();
-                }
+        gameOver = false;
+        pass = false;
+        loadBoard(turn, BoardFile.toBoard(black, white));
+    }
+
+    @Override
+    public Position toPosition() {
+        return Position.of(disks(PlayerColor.BLACK), disks(PlayerColor.WHITE), currentTurn, pass);
+    }
+
+    // sets the disks, turn and pass flag exactly as they are in position,
+    // unlike setPosition(long, long, PlayerColor) which passes the turn at the
+    // end of a game
+    @Override
+    public void setPosition(Position position) {
+        setPosition(position.getBlackDisks(), position.getWhiteDisks(), position.getCurrentTurn());
+        if (currentTurn != position.getCurrentTurn()) {
+            currentTurnFlip();
+            if (events.hasListeners()) {
+                fireState();
             }
         }
-        if (turn.equals("BLACK")) {
-            currentTurn = PlayerColor.BLACK;
-        } else if (turn.equals("WHITE")) {
-            currentTurn = PlayerColor.WHITE;
-        } else {
-            throw new IllegalArgumentException();
-        }
+        pass = position.getPass();
+    }
 
-        // board temp is used so that a board is not loaded in until it has been
-        // verified as valid
-        board = boardTemp;
+    // replaces the board and the current turn
+    // also resets points and recalculates valid moves
+    private void loadBoard(PlayerColor turn, PlayerColor[][] newBoard) {
+        currentTurn = turn;
+        board = newBoard;
+        historySize = 0;
+        redoSize = 0;
 
-        // points and valid moves are reset
+        // points, hash key and valid moves are reset
         resetPoints();
-        blackValidMoves = generateValidMoves(PlayerColor.BLACK);
-        whiteValidMoves = generateValidMoves(PlayerColor.WHITE);
+        resetHashKey();
+        resetPatterns();
+        generateValidMoves(PlayerColor.BLACK, blackValidMoves);
+        generateValidMoves(PlayerColor.WHITE, whiteValidMoves);
 
         // if the game is loaded into pass state some additional changes are required
         if (currentTurn == PlayerColor.BLACK && blackValidMoves.isEmpty()) {
@@ -478,6 +735,44 @@ public class Othello {
             pass = true;
             currentTurnFlip();
         }
+        fireBoardReplaced();
+    }
+
+    @Override
+    public void addModelListener(ModelListener listener) {
+        events.add(listener);
+    }
+
+    @Override
+    public void removeModelListener(ModelListener listener) {
+        events.remove(listener);
+    }
+
+    // tells the listeners that the whole board changed
+    private void fireBoardReplaced() {
+        if (events.hasListeners()) {
+            events.boardReplaced(disks(PlayerColor.BLACK), disks(PlayerColor.WHITE));
+            fireState();
+        }
+    }
+
+    // sends the valid moves and points to the listeners if they changed
+    private void fireState() {
+        MoveList moves = currentTurn == PlayerColor.BLACK ? blackValidMoves : whiteValidMoves;
+        events.stateChanged(moves.getMask(), currentTurn, blackPoints, whitePoints);
+    }
+
+    // returns the mask of the disks of one color
+    private long disks(PlayerColor color) {
+        long mask = 0;
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                if (board[x][y] == color) {
+                    mask |= BitBoard.square(x, y);
+                }
+            }
+        }
+        return mask;
     }
 
     /**
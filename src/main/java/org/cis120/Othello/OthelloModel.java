@@ -0,0 +1,126 @@
+package org.cis120.Othello;
+
+import java.io.IOException;
+
+/**
+ * OthelloModel is the public API shared by every board representation of the
+ * game. Othello stores the board as a 2D array and BitBoardOthello stores it as
+ * two 64-bit masks, but the GUI and the tests only ever talk to this interface.
+ */
+public interface OthelloModel {
+
+    /**
+     * resets the game state to start a new game.
+     **/
+    void reset();
+
+    /**
+     * playTurn allows players to play a turn. Throws an IllegalArgumentException
+     * if the wrong player moves, the location is out of bounds or the move is
+     * not valid. Does nothing once the game is over.
+     *
+     * @param x      column to play in
+     * @param y      row to play in
+     * @param player move color
+     **/
+    void playTurn(int x, int y, PlayerColor player);
+
+    /**
+     * undo takes back the last move in constant time, restoring the board,
+     * the player to move and the pass state. The move can be played again with
+     * redo until another move is played.
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    void undo();
+
+    // plays the last move taken back by undo again
+    // throws an IllegalStateException if there is none
+    void redo();
+
+    boolean canUndo();
+
+    boolean canRedo();
+
+    /**
+     * checkWinner checks whether the game has reached a win condition.
+     *
+     * @return PlayerColor of the winner, empty if the game is a tie, or null if the
+     *         game is not over
+     **/
+    PlayerColor checkWinner();
+
+    // prints the current game state for debugging
+    void printGameState();
+
+    // returns the player whose turn it is
+    PlayerColor getCurrentTurn();
+
+    /**
+     * getBoardSpace is a getter for the contents of the cell specified by the
+     * method arguments.
+     *
+     * @param x column to retrieve
+     * @param y row to retrieve
+     * @return a player color value, empty if the space is a valid move, null if the
+     *         space is empty and not a valid move
+     **/
+    PlayerColor getBoardSpace(int x, int y);
+
+    // return points for black or white
+    int getBlackPoints();
+
+    int getWhitePoints();
+
+    // returns the pass variable to see if the next turn will be passed
+    boolean getPass();
+
+    // returns the Zobrist key of the position, including the player to move
+    long getHashKey();
+
+    // attaches pattern indexes that are updated as disks are placed and
+    // flipped, null to detach them
+    void setPatternIndexes(PatternIndexes indexes);
+
+    /**
+     * addModelListener registers a listener that is told about every change
+     * of the board from now on, see ModelListener.
+     *
+     * @param listener listener to add
+     */
+    void addModelListener(ModelListener listener);
+
+    // stops sending changes to listener
+    void removeModelListener(ModelListener listener);
+
+    // saves the current game board into the output file
+    void saveGameBoard() throws IOException;
+
+    // saves the current game board into file as a 17 byte binary record
+    // loadFile reads it back just like a text save
+    void saveBinary(String file) throws IOException;
+
+    // returns the output file string
+    String getFileString();
+
+    /**
+     * setPosition replaces the board with the given disks and player to move,
+     * passing the turn if the player to move has no valid moves.
+     *
+     * @param black mask of black disks, bit y * 8 + x for square x, y
+     * @param white mask of white disks
+     * @param turn  player to move
+     */
+    void setPosition(long black, long white, PlayerColor turn);
+
+    // returns the disks, player to move and pass state as an immutable value
+    Position toPosition();
+
+    // replaces the board with position, keeping its player to move and pass
+    // state exactly, the inverse of toPosition
+    void setPosition(Position position);
+
+    // loads a game board from a text or binary file
+    // Will throw Illegal argument exception if a file has incorrect formatting
+    void loadFile(String file) throws IOException;
+}
@@ -2,14 +2,18 @@ package org.cis120.Othello;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class OthelloTest {
 
-    Othello o = new Othello();
+    OthelloModel o = new Othello();
 
     // tests basic reset functionality
     @Test
@@ -171,6 +175,40 @@ public class OthelloTest {
         assertEquals(PlayerColor.WHITE, o.getBoardSpace(3, 5));
     }
 
+    // same as saveGameTest but through the binary format, and checks that the
+    // binary file is a single 17 byte record
+    @Test
+    public void binarySaveGameTest() throws IOException {
+        File file = File.createTempFile("othello", ".bin");
+        file.deleteOnExit();
+        o.reset();
+        o.playTurn(5, 4, PlayerColor.BLACK);
+        o.saveBinary(file.getPath());
+        assertEquals(17, file.length());
+        long hash = o.getHashKey();
+        o.playTurn(3, 5, PlayerColor.WHITE);
+        o.loadFile(file.getPath());
+        assertEquals(PlayerColor.WHITE, o.getCurrentTurn());
+        assertEquals(hash, o.getHashKey());
+        assertEquals(PlayerColor.BLACK, o.getBoardSpace(5, 4));
+        assertEquals(4, o.getBlackPoints());
+        assertEquals(1, o.getWhitePoints());
+        o.playTurn(3, 5, PlayerColor.WHITE);
+        assertEquals(PlayerColor.WHITE, o.getBoardSpace(3, 5));
+    }
+
+    // a binary record where both colors own a square is rejected
+    @Test
+    public void binaryOverlappingDisksTest() throws IOException {
+        File file = File.createTempFile("othello", ".bin");
+        file.deleteOnExit();
+        byte[] record = new byte[17];
+        record[7] = 1;
+        record[15] = 1;
+        java.nio.file.Files.write(file.toPath(), record);
+        assertThrows(IllegalArgumentException.class, () -> o.loadFile(file.getPath()));
+    }
+
     // checks for file not found exception
     @Test
     public void loadGameFileNotFoundTest() {
@@ -275,4 +313,239 @@ public class OthelloTest {
         o.loadFile("files/input/emptyBoard.txt");
         assertEquals(PlayerColor.EMPTY, o.checkWinner());
     }
+
+    // plays random games with verification turned on so that every incremental
+    // valid moves update is checked against a full regeneration
+    @Test
+    public void incrementalValidMovesTest() {
+        Othello verified = new Othello();
+        verified.setVerifyMoves(true);
+        java.util.Random rng = new java.util.Random(120);
+        for (int i = 0; i < 50; i++) {
+            assertDoesNotThrow(() -> BitBoardBenchmark.playRandomGame(verified, rng));
+        }
+    }
+
+    // the incrementally updated hash key must match the key of the same position
+    // loaded from a file, and differ from the start position
+    @Test
+    public void hashKeyTest() throws IOException {
+        o.reset();
+        long start = o.getHashKey();
+        o.playTurn(5, 4, PlayerColor.BLACK);
+        o.playTurn(3, 5, PlayerColor.WHITE);
+        o.playTurn(2, 4, PlayerColor.BLACK);
+        long played = o.getHashKey();
+        assertNotEquals(start, played);
+        o.saveGameBoard();
+        o.reset();
+        assertEquals(start, o.getHashKey());
+        o.loadFile("files/output/output.txt");
+        assertEquals(played, o.getHashKey());
+    }
+
+    // records every model event as a line of text
+    static class EventLog implements ModelListener {
+        final StringBuilder log = new StringBuilder();
+
+        @Override
+        public void disksPlaced(int sq, long flipped, PlayerColor player) {
+            log.append("placed ").append(sq).append(' ').append(flipped).append(' ')
+                    .append(player).append('\n');
+        }
+
+        @Override
+        public void disksRemoved(int sq, long flipped, PlayerColor player) {
+            log.append("removed ").append(sq).append(' ').append(flipped).append(' ')
+                    .append(player).append('\n');
+        }
+
+        @Override
+        public void boardReplaced(long black, long white) {
+            log.append("board ").append(black).append(' ').append(white).append('\n');
+        }
+
+        @Override
+        public void validMovesChanged(long moves, PlayerColor turn) {
+            log.append("moves ").append(moves).append(' ').append(turn).append('\n');
+        }
+
+        @Override
+        public void scoreChanged(int blackPoints, int whitePoints) {
+            log.append("score ").append(blackPoints).append(' ').append(whitePoints)
+                    .append('\n');
+        }
+
+        // returns the events since the last call
+        String take() {
+            String events = log.toString();
+            log.setLength(0);
+            return events;
+        }
+    }
+
+    @Test
+    public void modelEventsTest() {
+        o.reset();
+        EventLog events = new EventLog();
+        o.addModelListener(events);
+        assertEquals("", events.take());
+
+        o.playTurn(5, 4, PlayerColor.BLACK);
+        long whiteMoves = BitBoard.square(5, 3) | BitBoard.square(3, 5) | BitBoard.square(5, 5);
+        assertEquals(
+                "placed 37 " + BitBoard.square(4, 4) + " BLACK\n"
+                        + "moves " + whiteMoves + " WHITE\n" + "score 4 1\n",
+                events.take()
+        );
+
+        // an invalid move changes nothing
+        assertThrows(IllegalArgumentException.class, () -> o.playTurn(0, 0, PlayerColor.WHITE));
+        assertEquals("", events.take());
+
+        o.reset();
+        assertEquals(
+                "board " + BitBoard.START_BLACK + " " + BitBoard.START_WHITE + "\n"
+                        + "moves " + BitBoard.validMoves(BitBoard.START_BLACK, BitBoard.START_WHITE)
+                        + " BLACK\n" + "score 2 2\n",
+                events.take()
+        );
+
+        o.removeModelListener(events);
+        o.playTurn(5, 4, PlayerColor.BLACK);
+        assertEquals("", events.take());
+    }
+
+    // a copy of the board kept only from the events matches the model over a
+    // whole game
+    @Test
+    public void modelEventsMirrorTest() {
+        o.reset();
+        long[] mirror = new long[3];
+        o.addModelListener(new ModelListener() {
+            @Override
+            public void disksPlaced(int sq, long flipped, PlayerColor player) {
+                int own = player == PlayerColor.BLACK ? 0 : 1;
+                mirror[own] |= flipped | 1L << sq;
+                mirror[1 - own] &= ~flipped;
+            }
+
+            @Override
+            public void boardReplaced(long black, long white) {
+                mirror[0] = black;
+                mirror[1] = white;
+            }
+
+            @Override
+            public void validMovesChanged(long moves, PlayerColor turn) {
+                mirror[2] = moves;
+            }
+        });
+        o.setPosition(BitBoard.START_BLACK, BitBoard.START_WHITE, PlayerColor.BLACK);
+        Random rng = new Random(7);
+        while (o.checkWinner() == null) {
+            long moves = 0;
+            for (int x = 0; x < 8; x++) {
+                for (int y = 0; y < 8; y++) {
+                    PlayerColor space = o.getBoardSpace(x, y);
+                    long sq = BitBoard.square(x, y);
+                    assertEquals(space == PlayerColor.BLACK, (mirror[0] & sq) != 0);
+                    assertEquals(space == PlayerColor.WHITE, (mirror[1] & sq) != 0);
+                    if (space == PlayerColor.EMPTY) {
+                        moves |= sq;
+                    }
+                }
+            }
+            assertEquals(moves, mirror[2]);
+            int n = rng.nextInt(Long.bitCount(moves));
+            for (int i = 0; i < n; i++) {
+                moves &= moves - 1;
+            }
+            int sq = Long.numberOfTrailingZeros(moves);
+            o.playTurn(sq % 8, sq / 8, o.getCurrentTurn());
+        }
+        assertEquals(0, mirror[2]);
+    }
+
+    // undo walks back through every position of a game and redo forward
+    // again, and a new move drops the moves left to redo
+    @Test
+    public void undoRedoTest() {
+        o.reset();
+        assertFalse(o.canUndo());
+        assertThrows(IllegalStateException.class, () -> o.undo());
+        List<Position> positions = new ArrayList<>();
+        List<Long> hashes = new ArrayList<>();
+        positions.add(o.toPosition());
+        hashes.add(o.getHashKey());
+        Random rng = new Random(11);
+        while (o.checkWinner() == null) {
+            long moves = o.toPosition().getValidMoves();
+            int n = rng.nextInt(Long.bitCount(moves));
+            for (int i = 0; i < n; i++) {
+                moves &= moves - 1;
+            }
+            int sq = Long.numberOfTrailingZeros(moves);
+            o.playTurn(sq % 8, sq / 8, o.getCurrentTurn());
+            positions.add(o.toPosition());
+            hashes.add(o.getHashKey());
+        }
+        assertFalse(o.canRedo());
+
+        for (int i = positions.size() - 2; i >= 0; i--) {
+            o.undo();
+            assertEquals(positions.get(i), o.toPosition());
+            assertEquals(positions.get(i).getPass(), o.getPass());
+            assertEquals((long) hashes.get(i), o.getHashKey());
+            assertEquals(positions.get(i).getBlackPoints(), o.getBlackPoints());
+        }
+        assertFalse(o.canUndo());
+        for (int i = 1; i < positions.size(); i++) {
+            o.redo();
+            assertEquals(positions.get(i), o.toPosition());
+            assertEquals(positions.get(i).getPass(), o.getPass());
+        }
+        assertNotNull(o.checkWinner());
+
+        o.undo();
+        o.undo();
+        assertTrue(o.canRedo());
+        Position p = o.toPosition();
+        int sq = Long.numberOfTrailingZeros(p.getValidMoves());
+        o.playTurn(sq % 8, sq / 8, o.getCurrentTurn());
+        assertFalse(o.canRedo());
+        assertThrows(IllegalStateException.class, () -> o.redo());
+        assertEquals(p.play(sq), o.toPosition());
+    }
+
+    // taking moves back with unmakeMove keeps the incremental valid moves
+    // the same as a full regeneration
+    @Test
+    public void unmakeMoveValidMovesTest() {
+        Othello verified = new Othello();
+        verified.setVerifyMoves(true);
+        Random rng = new Random(5);
+        for (int game = 0; game < 20; game++) {
+            verified.reset();
+            int played = 0;
+            while (verified.checkWinner() == null) {
+                long moves = verified.toPosition().getValidMoves();
+                int n = rng.nextInt(Long.bitCount(moves));
+                for (int i = 0; i < n; i++) {
+                    moves &= moves - 1;
+                }
+                verified.makeMove(Long.numberOfTrailingZeros(moves));
+                played++;
+                // take back a move now and then
+                if (rng.nextInt(4) == 0) {
+                    verified.unmakeMove();
+                    played--;
+                }
+            }
+            for (; played > 0; played--) {
+                verified.unmakeMove();
+            }
+            assertEquals(Position.START, verified.toPosition());
+        }
+    }
 }
@@ -0,0 +1,122 @@
+package org.cis120.Othello;
+
+/**
+ * PatternIndexes keeps the base-3 index of every pattern of a board up to
+ * date while moves are played.
+ *
+ * A pattern is a list of squares. Its index is the sum over its squares of
+ * digit * 3^i, where i is the position of the square in the list and the digit
+ * is 0 for an empty square, 1 for black and 2 for white. Playing a move only
+ * changes the patterns that contain the placed or flipped disks, so the models
+ * update the indexes with a few additions per disk instead of scanning the
+ * board. Attach the indexes to a model with setPatternIndexes.
+ */
+public final class PatternIndexes {
+    private static final int BLACK_DIGIT = 1;
+    private static final int WHITE_DIGIT = 2;
+
+    private final int[][] patterns;
+    private final int[] indexes;
+
+    // the patterns containing square sq are patternOf[first[sq]] up to
+    // patternOf[first[sq + 1] - 1] and the square has weight powerOf[...] in them
+    private final int[] first = new int[65];
+    private final int[] patternOf;
+    private final int[] powerOf;
+
+    /**
+     * Creates the indexes of a set of patterns, all 0 until a board is set.
+     *
+     * @param patternsParam squares of every pattern, at most 19 squares each
+     */
+    public PatternIndexes(int[][] patternsParam) {
+        patterns = new int[patternsParam.length][];
+        int entries = 0;
+        int[] count = new int[64];
+        for (int p = 0; p < patternsParam.length; p++) {
+            if (patternsParam[p].length > 19) {
+                throw new IllegalArgumentException();
+            }
+            patterns[p] = patternsParam[p].clone();
+            for (int sq : patterns[p]) {
+                count[sq]++;
+                entries++;
+            }
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            first[sq + 1] = first[sq] + count[sq];
+        }
+        patternOf = new int[entries];
+        powerOf = new int[entries];
+        int[] next = first.clone();
+        for (int p = 0; p < patterns.length; p++) {
+            int power = 1;
+            for (int sq : patterns[p]) {
+                patternOf[next[sq]] = p;
+                powerOf[next[sq]] = power;
+                next[sq]++;
+                power *= 3;
+            }
+        }
+        indexes = new int[patterns.length];
+    }
+
+    // returns the number of patterns
+    public int size() {
+        return indexes.length;
+    }
+
+    // returns the index of pattern p
+    public int get(int p) {
+        return indexes[p];
+    }
+
+    // computes every index from scratch
+    public void setBoard(long black, long white) {
+        for (int p = 0; p < patterns.length; p++) {
+            int index = 0;
+            int power = 1;
+            for (int sq : patterns[p]) {
+                if ((black >>> sq & 1) != 0) {
+                    index += BLACK_DIGIT * power;
+                } else if ((white >>> sq & 1) != 0) {
+                    index += WHITE_DIGIT * power;
+                }
+                power *= 3;
+            }
+            indexes[p] = index;
+        }
+    }
+
+    /**
+     * play updates the indexes for a move.
+     *
+     * @param sq      square of the placed disk
+     * @param flipped mask of the flipped disks
+     * @param player  color of the placed disk
+     */
+    public void play(int sq, long flipped, PlayerColor player) {
+        update(sq, flipped, player, 1);
+    }
+
+    // takes back a move given to play
+    public void undo(int sq, long flipped, PlayerColor player) {
+        update(sq, flipped, player, -1);
+    }
+
+    // adds (sign 1) or removes (sign -1) a move
+    private void update(int sq, long flipped, PlayerColor player, int sign) {
+        int digit = player == PlayerColor.BLACK ? BLACK_DIGIT : WHITE_DIGIT;
+        for (int i = first[sq]; i < first[sq + 1]; i++) {
+            indexes[patternOf[i]] += sign * digit * powerOf[i];
+        }
+        // a flipped disk goes from 2 to 1 for black and from 1 to 2 for white
+        int change = player == PlayerColor.BLACK ? -sign : sign;
+        for (long disks = flipped; disks != 0; disks &= disks - 1) {
+            int f = Long.numberOfTrailingZeros(disks);
+            for (int i = first[f]; i < first[f + 1]; i++) {
+                indexes[patternOf[i]] += change * powerOf[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.cis120.Othello;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Perft counts the leaf nodes of the game tree to a fixed depth. The counts
+ * are compared against known values to check that move generation is correct
+ * and timed to check that it stays fast.
+ *
+ * A pass counts as a move, so a player without valid moves whose opponent can
+ * still move passes and uses up one ply. A finished game counts as a single
+ * leaf no matter how much depth is left. At the last ply the valid moves are
+ * counted with a bit count instead of being played (bulk counting).
+ */
+public final class Perft {
+
+    private Perft() {
+    }
+
+    /**
+     * perft counts the leaves below a position.
+     *
+     * @param position position to count from, the player to move moves first
+     * @param depth    number of plies
+     * @return number of leaf nodes
+     */
+    public static long perft(OthelloModel position, int depth) {
+        BitBoardOthello o = BitBoardOthello.copyOf(position);
+        if (o.getCurrentTurn() == PlayerColor.BLACK) {
+            return perft(o.getBlackDisks(), o.getWhiteDisks(), depth);
+        } else {
+            return perft(o.getWhiteDisks(), o.getBlackDisks(), depth);
+        }
+    }
+
+    /**
+     * perft counts the leaves below a position, splitting the moves at the root
+     * over several threads.
+     *
+     * @param position position to count from, the player to move moves first
+     * @param depth    number of plies
+     * @param threads  number of threads
+     * @return number of leaf nodes
+     */
+    public static long perft(OthelloModel position, int depth, int threads) {
+        BitBoardOthello o = BitBoardOthello.copyOf(position);
+        boolean black = o.getCurrentTurn() == PlayerColor.BLACK;
+        long own = black ? o.getBlackDisks() : o.getWhiteDisks();
+        long opp = black ? o.getWhiteDisks() : o.getBlackDisks();
+        long moves = BitBoard.validMoves(own, opp);
+        if (threads <= 1 || depth <= 1 || moves == 0) {
+            return perft(own, opp, depth);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (long m = moves; m != 0; m &= m - 1) {
+                int sq = Long.numberOfTrailingZeros(m);
+                long f = BitBoard.flips(sq, own, opp);
+                long childOwn = opp & ~f;
+                long childOpp = own | f | (1L << sq);
+                futures.add(executor.submit(() -> perft(childOwn, childOpp, depth - 1)));
+            }
+            long total = 0;
+            for (Future<Long> future : futures) {
+                total += future.get();
+            }
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // counts the leaves below own to move against opp
+    static long perft(long own, long opp, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        long moves = BitBoard.validMoves(own, opp);
+        if (moves == 0) {
+            // finished game
+            if (BitBoard.validMoves(opp, own) == 0) {
+                return 1;
+            }
+            // pass
+            return perft(opp, own, depth - 1);
+        }
+        // bulk counting
+        if (depth == 1) {
+            return Long.bitCount(moves);
+        }
+        long total = 0;
+        for (; moves != 0; moves &= moves - 1) {
+            int sq = Long.numberOfTrailingZeros(moves);
+            long f = BitBoard.flips(sq, own, opp);
+            total += perft(opp & ~f, own | f | (1L << sq), depth - 1);
+        }
+        return total;
+    }
+
+    /**
+     * modelPerft counts the leaves below the position of an Othello by
+     * playing every move on it with makeMove and unmakeMove, so it checks the
+     * move generation of the array model the same way perft checks BitBoard.
+     * It is much slower than perft. The model is left as it was.
+     *
+     * @param o     game to count from, the player to move moves first
+     * @param depth number of plies
+     * @return number of leaf nodes
+     */
+    public static long modelPerft(Othello o, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        long moves = o.getValidMoves();
+        // finished game, makeMove never leaves a player without moves to move
+        if (moves == 0) {
+            return 1;
+        }
+        if (depth == 1) {
+            return Long.bitCount(moves);
+        }
+        long total = 0;
+        PlayerColor me = o.getCurrentTurn();
+        for (; moves != 0; moves &= moves - 1) {
+            o.makeMove(Long.numberOfTrailingZeros(moves));
+            // makeMove passes for the opponent, which uses up one more ply
+            if (o.getCurrentTurn() == me && o.getValidMoves() != 0) {
+                total += modelPerft(o, depth - 2);
+            } else {
+                total += modelPerft(o, depth - 1);
+            }
+            o.unmakeMove();
+        }
+        return total;
+    }
+
+    /**
+     * Runs perft from the command line and prints the count and speed of every
+     * depth up to the given depth.
+     *
+     * Usage: Perft depth [board file] [threads]
+     */
+    public static void main(String[] args) throws IOException {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        Othello o = new Othello();
+        if (args.length > 1) {
+            o.loadFile(args[1]);
+        }
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        for (int d = 1; d <= depth; d++) {
+            long start = System.nanoTime();
+            long count = perft(o, d, threads);
+            long time = System.nanoTime() - start;
+            System.out.printf(
+                    "depth %2d: %14d leaves  %8.1f ms  %6.1f M leaves/s%n", d, count,
+                    time / 1e6, count / (time / 1e3)
+            );
+        }
+    }
+}
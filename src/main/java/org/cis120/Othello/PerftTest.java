@@ -0,0 +1,116 @@
+package org.cis120.Othello;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTest {
+
+    // known leaf counts from the start position (OEIS A124004)
+    private static final long[] START_COUNTS = {
+        1, 4, 12, 56, 244, 1396, 8200, 55092, 390216, 3005288
+    };
+
+    // slow reference perft that plays every move on the model with makeMove
+    // makeMove passes automatically, so a pass shows up as the same player
+    // moving again and uses up one more ply
+    private static long modelPerft(BitBoardOthello o, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        long moves = o.getValidMoves();
+        if (moves == 0) {
+            return 1;
+        }
+        long total = 0;
+        for (; moves != 0; moves &= moves - 1) {
+            PlayerColor me = o.getCurrentTurn();
+            o.makeMove(Long.numberOfTrailingZeros(moves));
+            if (o.getCurrentTurn() == me && o.getValidMoves() != 0 && depth > 1) {
+                total += modelPerft(o, depth - 2);
+            } else {
+                total += modelPerft(o, depth - 1);
+            }
+            o.unmakeMove();
+        }
+        return total;
+    }
+
+    // checks the counts from the start position
+    @Test
+    public void startPositionTest() {
+        Othello o = new Othello();
+        for (int depth = 0; depth < START_COUNTS.length; depth++) {
+            assertEquals(START_COUNTS[depth], Perft.perft(o, depth));
+        }
+    }
+
+    // the array model played with makeMove and unmakeMove gives the same counts
+    @Test
+    public void modelStartPositionTest() {
+        Othello o = new Othello();
+        for (int depth = 0; depth <= 8; depth++) {
+            assertEquals(START_COUNTS[depth], Perft.modelPerft(o, depth));
+        }
+        assertEquals(4, Long.bitCount(o.getValidMoves()));
+        assertFalse(o.canUndo());
+    }
+
+    // checks recorded counts from loaded boards, including one that starts with
+    // a pass, against the reference perft
+    @Test
+    public void loadedBoardTest() throws IOException {
+        Othello o = new Othello();
+        o.loadFile("files/input/testBoard.txt");
+        assertEquals(13773, Perft.perft(o, 6));
+        assertEquals(13773, modelPerft(BitBoardOthello.copyOf(o), 6));
+        assertEquals(13773, Perft.modelPerft(o, 6));
+        o.loadFile("files/input/passTurn.txt");
+        assertEquals(76424, Perft.perft(o, 6));
+        assertEquals(76424, modelPerft(BitBoardOthello.copyOf(o), 6));
+        assertEquals(76424, Perft.modelPerft(o, 6));
+        o.loadFile("files/input/playToPass.txt");
+        assertEquals(modelPerft(BitBoardOthello.copyOf(o), 6), Perft.perft(o, 6));
+        assertEquals(Perft.perft(o, 6), Perft.modelPerft(o, 6));
+    }
+
+    // a finished game is a single leaf
+    @Test
+    public void finishedGameTest() throws IOException {
+        Othello o = new Othello();
+        o.loadFile("files/input/wonBoard.txt");
+        assertEquals(1, Perft.perft(o, 5));
+    }
+
+    // splitting the root over threads gives the same count
+    @Test
+    public void multiThreadedTest() {
+        assertEquals(START_COUNTS[8], Perft.perft(new Othello(), 8, 4));
+    }
+
+    // a deeper count on the bitboard model, the time it takes is reported by
+    // Perft.main
+    @Test
+    public void depthNineTest() {
+        assertEquals(START_COUNTS[9], Perft.perft(new BitBoardOthello(), 9));
+    }
+
+    // catches large slowdowns of move generation. Perft.main reports about
+    // 70 to 100 M leaves/s on one core, the floor is far below that so a busy
+    // machine does not fail it. The best of a few runs is used after warming up
+    @Test
+    public void speedTest() {
+        BitBoardOthello o = new BitBoardOthello();
+        Perft.perft(o, 8);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            assertEquals(START_COUNTS[9], Perft.perft(o, 9));
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double leavesPerSecond = START_COUNTS[9] / (best / 1e9);
+        assertTrue(leavesPerSecond > 10e6, "leaves/s: " + leavesPerSecond);
+    }
+}
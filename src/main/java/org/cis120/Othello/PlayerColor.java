@@ -0,0 +1,10 @@
+package org.cis120.Othello;
+
+// Player color enum
+// used for keeping track of the current turn or what pieces are on the board
+// public so that it can be referenced from anywhere and the representation of
+// the pieces and the
+// players is consistent
+public enum PlayerColor {
+    BLACK, WHITE, EMPTY
+}
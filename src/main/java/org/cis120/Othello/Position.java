@@ -0,0 +1,195 @@
+package org.cis120.Othello;
+
+/**
+ * Position is an immutable Othello position: the black and white disks as
+ * two 64-bit masks, bit y * 8 + x for square x, y, and a flags byte for the
+ * player to move and the pass state.
+ *
+ * play returns a new position and leaves this one alone, so positions can be
+ * shared between threads, kept in caches or stacked for undo without ever
+ * being copied. A position is the same 32 byte object whatever its history,
+ * and nothing but the new position is allocated by a move.
+ *
+ * The turn and pass rules are the same as in the models: after a move the
+ * turn goes to the opponent, or comes back with the pass flag set if the
+ * opponent has no valid moves. equals and hashCode look at the disks and the
+ * player to move only, the pass flag is part of the history.
+ */
+public final class Position {
+    private static final int WHITE_TO_MOVE = 1;
+    private static final int PASS = 2;
+
+    public static final Position START =
+            new Position(BitBoard.START_BLACK, BitBoard.START_WHITE, 0);
+
+    private final long black;
+    private final long white;
+    private final byte flags;
+
+    private Position(long blackParam, long whiteParam, int flagsParam) {
+        black = blackParam;
+        white = whiteParam;
+        flags = (byte) flagsParam;
+    }
+
+    /**
+     * of creates a position with the given disks and player to move. If the
+     * player to move has no valid moves the turn is passed, the same way
+     * OthelloModel.setPosition does it.
+     *
+     * @param black mask of black disks
+     * @param white mask of white disks
+     * @param turn  player to move
+     * @return the position
+     */
+    public static Position of(long black, long white, PlayerColor turn) {
+        if ((black & white) != 0 || turn == PlayerColor.EMPTY || turn == null) {
+            throw new IllegalArgumentException();
+        }
+        int flags = turn == PlayerColor.WHITE ? WHITE_TO_MOVE : 0;
+        long own = turn == PlayerColor.WHITE ? white : black;
+        long opp = turn == PlayerColor.WHITE ? black : white;
+        if (BitBoard.validMoves(own, opp) == 0) {
+            flags = (flags ^ WHITE_TO_MOVE) | PASS;
+        }
+        return new Position(black, white, flags);
+    }
+
+    // creates a position with exactly these disks, turn and pass flag, used
+    // by the models which already applied the pass rule
+    static Position of(long black, long white, PlayerColor turn, boolean pass) {
+        if ((black & white) != 0 || turn == PlayerColor.EMPTY || turn == null) {
+            throw new IllegalArgumentException();
+        }
+        return new Position(
+                black, white, (turn == PlayerColor.WHITE ? WHITE_TO_MOVE : 0) | (pass ? PASS : 0)
+        );
+    }
+
+    public long getBlackDisks() {
+        return black;
+    }
+
+    public long getWhiteDisks() {
+        return white;
+    }
+
+    // returns the player whose turn it is
+    public PlayerColor getCurrentTurn() {
+        return (flags & WHITE_TO_MOVE) != 0 ? PlayerColor.WHITE : PlayerColor.BLACK;
+    }
+
+    // true if the opponent had to pass to give the current player this turn
+    public boolean getPass() {
+        return (flags & PASS) != 0;
+    }
+
+    // returns the valid moves of the player to move as a mask
+    public long getValidMoves() {
+        return (flags & WHITE_TO_MOVE) != 0 ?
+                BitBoard.validMoves(white, black) : BitBoard.validMoves(black, white);
+    }
+
+    public int getBlackPoints() {
+        return Long.bitCount(black);
+    }
+
+    public int getWhitePoints() {
+        return Long.bitCount(white);
+    }
+
+    public int getEmptyCount() {
+        return 64 - Long.bitCount(black | white);
+    }
+
+    /**
+     * checkWinner checks whether the game is over.
+     *
+     * @return PlayerColor of the winner, empty if the game is a tie, or null if the
+     *         game is not over
+     */
+    public PlayerColor checkWinner() {
+        if (BitBoard.validMoves(black, white) != 0 || BitBoard.validMoves(white, black) != 0) {
+            return null;
+        }
+        int diff = Long.bitCount(black) - Long.bitCount(white);
+        return diff > 0 ? PlayerColor.BLACK : diff < 0 ? PlayerColor.WHITE : PlayerColor.EMPTY;
+    }
+
+    // returns the Zobrist key of the position, equal to getHashKey of a model
+    // in the same position
+    public long getHashKey() {
+        return Zobrist.hash(black, white, getCurrentTurn());
+    }
+
+    /**
+     * play returns the position after the player to move plays sq. This
+     * position is not changed.
+     *
+     * @param sq bit index of the move
+     * @return the new position
+     * @throws IllegalArgumentException if sq is not a valid move
+     */
+    public Position play(int sq) {
+        if (sq < 0 || sq > 63) {
+            throw new IllegalArgumentException();
+        }
+        boolean whiteMoves = (flags & WHITE_TO_MOVE) != 0;
+        long own = whiteMoves ? white : black;
+        long opp = whiteMoves ? black : white;
+        long flipped = BitBoard.flips(sq, own, opp);
+        if (flipped == 0 || ((own | opp) & 1L << sq) != 0) {
+            throw new IllegalArgumentException();
+        }
+        own |= flipped | 1L << sq;
+        opp &= ~flipped;
+
+        // the turn goes to the opponent unless it has to pass
+        int next = whiteMoves ? 0 : WHITE_TO_MOVE;
+        if (BitBoard.validMoves(opp, own) == 0) {
+            next = (next ^ WHITE_TO_MOVE) | PASS;
+        }
+        return whiteMoves ? new Position(opp, own, next) : new Position(own, opp, next);
+    }
+
+    // plays square x, y, see play(int)
+    public Position play(int x, int y) {
+        if (x > 7 || y > 7 || x < 0 || y < 0) {
+            throw new IllegalArgumentException();
+        }
+        return play(BitBoard.index(x, y));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Position)) {
+            return false;
+        }
+        Position other = (Position) obj;
+        return black == other.black && white == other.white
+                && ((flags ^ other.flags) & WHITE_TO_MOVE) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        long h = black * 0x9e3779b97f4a7c15L + white;
+        h = h * 31 + (flags & WHITE_TO_MOVE);
+        return (int) (h ^ h >>> 32);
+    }
+
+    // the board in the same 64 character format as the engine protocol
+    // followed by the player to move
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(72);
+        for (int sq = 0; sq < 64; sq++) {
+            long bit = 1L << sq;
+            sb.append((black & bit) != 0 ? 'X' : (white & bit) != 0 ? 'O' : '*');
+        }
+        return sb.append(' ').append(getCurrentTurn() == PlayerColor.BLACK ? "black" : "white")
+                .toString();
+    }
+}
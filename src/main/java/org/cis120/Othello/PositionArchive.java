@@ -0,0 +1,189 @@
+package org.cis120.Othello;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PositionArchive is an append-only file of positions in the 17 byte binary
+ * record format of BoardFile (black disks, white disks, player to move).
+ *
+ * The file starts with an 8 byte header (magic number and record size)
+ * followed by the records back to back, so record i is found at a fixed offset
+ * and can be read without reading anything before it. Reads go through memory
+ * mapped buffers and do not allocate. Appends are buffered and written when
+ * the buffer fills, when a new record is read and on flush and close.
+ *
+ * An archive is not thread safe.
+ */
+public final class PositionArchive implements Closeable {
+    // "OTHA"
+    private static final int MAGIC = 0x4f544841;
+    static final int HEADER_SIZE = 8;
+
+    // a single mapped buffer is limited to 2GB so the archive is mapped in
+    // segments of this many records
+    static final int SEGMENT_RECORDS = 1 << 26;
+
+    // appends are collected in this many records before they are written
+    private static final int WRITE_BUFFER_RECORDS = 4096;
+
+    private final FileChannel channel;
+    private final ByteBuffer writeBuffer =
+            ByteBuffer.allocateDirect(WRITE_BUFFER_RECORDS * BoardFile.RECORD_SIZE);
+
+    // mapped segments in file order, only the last one can be partly filled
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    // number of records covered by the mapped segments
+    private long mapped;
+    // number of records written to the file
+    private long written;
+
+    /**
+     * opens the archive in file, creating an empty archive if the file does not
+     * exist. Throws an IllegalArgumentException if the file is not an archive.
+     *
+     * @param file path of the archive
+     */
+    public PositionArchive(String file) throws IOException {
+        channel = FileChannel.open(
+                Paths.get(file), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        );
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (channel.size() == 0) {
+                header.putInt(MAGIC).putInt(BoardFile.RECORD_SIZE).flip();
+                channel.write(header, 0);
+            } else {
+                channel.read(header, 0);
+                if (header.position() != HEADER_SIZE || header.getInt(0) != MAGIC
+                        || header.getInt(4) != BoardFile.RECORD_SIZE
+                        || (channel.size() - HEADER_SIZE) % BoardFile.RECORD_SIZE != 0) {
+                    throw new IllegalArgumentException();
+                }
+            }
+            written = (channel.size() - HEADER_SIZE) / BoardFile.RECORD_SIZE;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // returns the number of positions in the archive, including buffered ones
+    public long size() {
+        return written + writeBuffer.position() / BoardFile.RECORD_SIZE;
+    }
+
+    /**
+     * append adds a position to the end of the archive.
+     *
+     * @param black mask of black disks
+     * @param white mask of white disks
+     * @param turn  player to move
+     * @return index of the new position
+     */
+    public long append(long black, long white, PlayerColor turn) throws IOException {
+        if (!writeBuffer.hasRemaining()) {
+            flush();
+        }
+        BoardFile.putRecord(writeBuffer, turn, black, white);
+        return size() - 1;
+    }
+
+    // appends the current position of model
+    public long append(BitBoardOthello model) throws IOException {
+        return append(model.getBlackDisks(), model.getWhiteDisks(), model.getCurrentTurn());
+    }
+
+    // writes every buffered position to the file
+    public void flush() throws IOException {
+        writeBuffer.flip();
+        long offset = HEADER_SIZE + written * BoardFile.RECORD_SIZE;
+        while (writeBuffer.hasRemaining()) {
+            offset += channel.write(writeBuffer, offset);
+        }
+        written = (offset - HEADER_SIZE) / BoardFile.RECORD_SIZE;
+        writeBuffer.clear();
+    }
+
+    // returns the black disks of position i
+    public long getBlack(long i) throws IOException {
+        return segment(i).getLong(offset(i));
+    }
+
+    // returns the white disks of position i
+    public long getWhite(long i) throws IOException {
+        return segment(i).getLong(offset(i) + 8);
+    }
+
+    // returns the player to move in position i
+    public PlayerColor getTurn(long i) throws IOException {
+        return BoardFile.turnOf(segment(i).get(offset(i) + 16));
+    }
+
+    /**
+     * load sets model to position i the same way setPosition does, so the turn
+     * is passed if the player to move has no valid moves.
+     *
+     * @param i     index of the position
+     * @param model model to load the position into
+     */
+    public void load(long i, BitBoardOthello model) throws IOException {
+        BoardFile record = BoardFile.readRecord(segment(i), offset(i));
+        model.setPosition(record.getBlack(), record.getWhite(), record.getTurn());
+    }
+
+    // offset of record i inside its segment
+    private static int offset(long i) {
+        return (int) (i % SEGMENT_RECORDS) * BoardFile.RECORD_SIZE;
+    }
+
+    // returns the mapped segment holding record i, mapping new records first
+    // if needed
+    private MappedByteBuffer segment(long i) throws IOException {
+        if (i < 0 || i >= size()) {
+            throw new IndexOutOfBoundsException(Long.toString(i));
+        }
+        if (i >= mapped) {
+            map();
+        }
+        return segments.get((int) (i / SEGMENT_RECORDS));
+    }
+
+    // flushes buffered positions and maps every record of the file
+    // the last segment is mapped again since it may have grown
+    private void map() throws IOException {
+        flush();
+        if (!segments.isEmpty()) {
+            segments.remove(segments.size() - 1);
+        }
+        long start = (long) segments.size() * SEGMENT_RECORDS;
+        while (start < written) {
+            long records = Math.min(SEGMENT_RECORDS, written - start);
+            segments.add(channel.map(
+                    FileChannel.MapMode.READ_ONLY,
+                    HEADER_SIZE + start * BoardFile.RECORD_SIZE,
+                    records * BoardFile.RECORD_SIZE
+            ));
+            start += records;
+        }
+        mapped = written;
+    }
+
+    // flushes buffered positions and closes the file
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.cis120.Othello;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Compares saving and loading positions in the text format, as single binary
+ * records and through a PositionArchive.
+ *
+ * The text and binary paths write and read one file per position, the same
+ * way saveGameBoard and loadFile do. The archive appends every position to one
+ * file and then reads them back in random order.
+ *
+ * Run this file to see the results in your console.
+ */
+public class PositionArchiveBenchmark {
+
+    private static final int GAMES = 2000;
+    private static final int ARCHIVE_GAMES = 200000;
+
+    // positions of random games as black, white, turn triples
+    private static long[] positions(int games) {
+        Random rng = new Random(120);
+        BitBoardOthello o = new BitBoardOthello();
+        long[] positions = new long[games * 60 * 3];
+        int count = 0;
+        for (int g = 0; g < games; g++) {
+            o.reset();
+            while (o.checkWinner() == null) {
+                positions[count++] = o.getBlackDisks();
+                positions[count++] = o.getWhiteDisks();
+                positions[count++] = o.getCurrentTurn().ordinal();
+                long moves = o.getValidMoves();
+                int n = rng.nextInt(Long.bitCount(moves));
+                for (int i = 0; i < n; i++) {
+                    moves &= moves - 1;
+                }
+                o.makeMove(Long.numberOfTrailingZeros(moves));
+            }
+        }
+        return java.util.Arrays.copyOf(positions, count);
+    }
+
+    // saves and loads every position through file and returns positions per
+    // second
+    private static double files(long[] positions, boolean binary, String file)
+            throws IOException {
+        long check = 0;
+        int count = positions.length / 3;
+        long start = System.nanoTime();
+        for (int i = 0; i < positions.length; i += 3) {
+            PlayerColor turn = PlayerColor.values()[(int) positions[i + 2]];
+            if (binary) {
+                BoardFile.writeBinary(file, turn, positions[i], positions[i + 1]);
+            } else {
+                BoardFile.write(file, turn, BoardFile.toBoard(positions[i], positions[i + 1]));
+            }
+            check += BoardFile.read(file).getBlack();
+        }
+        long time = System.nanoTime() - start;
+        if (check == 42) {
+            System.out.println();
+        }
+        return count / (time / 1e9);
+    }
+
+    public static void main(String[] args) throws IOException {
+        File text = File.createTempFile("benchmark", ".txt");
+        File binary = File.createTempFile("benchmark", ".bin");
+        File archiveFile = File.createTempFile("benchmark", ".archive");
+        text.deleteOnExit();
+        binary.deleteOnExit();
+        archiveFile.deleteOnExit();
+
+        long[] positions = positions(GAMES);
+        files(positions, false, text.getPath());
+        files(positions, true, binary.getPath());
+        double textRate = files(positions, false, text.getPath());
+        double binaryRate = files(positions, true, binary.getPath());
+
+        long[] many = positions(ARCHIVE_GAMES);
+        int count = many.length / 3;
+        archiveFile.delete();
+        long start = System.nanoTime();
+        try (PositionArchive archive = new PositionArchive(archiveFile.getPath())) {
+            for (int i = 0; i < many.length; i += 3) {
+                archive.append(many[i], many[i + 1], PlayerColor.values()[(int) many[i + 2]]);
+            }
+        }
+        long appendTime = System.nanoTime() - start;
+
+        Random rng = new Random(120);
+        long check = 0;
+        start = System.nanoTime();
+        try (PositionArchive archive = new PositionArchive(archiveFile.getPath())) {
+            for (int i = 0; i < count; i++) {
+                long index = rng.nextInt(count);
+                check += archive.getBlack(index) ^ archive.getWhite(index);
+            }
+        }
+        long readTime = System.nanoTime() - start;
+
+        System.out.printf("%d positions, %d in the archive%n", positions.length / 3, count);
+        System.out.printf("text save+load:   %12.0f positions/s%n", textRate);
+        System.out.printf("binary save+load: %12.0f positions/s%n", binaryRate);
+        System.out.printf("archive append:   %12.0f positions/s%n", count / (appendTime / 1e9));
+        System.out.printf(
+                "archive read:     %12.0f positions/s (checksum %d)%n",
+                count / (readTime / 1e9), check
+        );
+        System.out.printf(
+                "archive size:     %12d bytes, text would take %d%n", archiveFile.length(),
+                (long) count * text.length()
+        );
+    }
+}
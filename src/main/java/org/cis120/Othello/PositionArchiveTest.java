@@ -0,0 +1,125 @@
+package org.cis120.Othello;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionArchiveTest {
+
+    // returns a path for a new archive that is deleted when the tests finish
+    private static String tempArchive() throws IOException {
+        File file = File.createTempFile("archive", ".bin");
+        file.deleteOnExit();
+        Files.delete(file.toPath());
+        return file.getPath();
+    }
+
+    // positions of a random game, one per move
+    private static long[][] randomGame(long seed) {
+        Random rng = new Random(seed);
+        BitBoardOthello o = new BitBoardOthello();
+        long[][] positions = new long[64][];
+        int count = 0;
+        while (o.checkWinner() == null) {
+            positions[count++] = new long[] {
+                o.getBlackDisks(), o.getWhiteDisks(), o.getCurrentTurn().ordinal()
+            };
+            long moves = o.getValidMoves();
+            int n = rng.nextInt(Long.bitCount(moves));
+            for (int i = 0; i < n; i++) {
+                moves &= moves - 1;
+            }
+            o.makeMove(Long.numberOfTrailingZeros(moves));
+        }
+        return java.util.Arrays.copyOf(positions, count);
+    }
+
+    // appended positions can be read back in any order, before and after the
+    // archive is reopened
+    @Test
+    public void appendAndReadTest() throws IOException {
+        String file = tempArchive();
+        long[][] positions = randomGame(1);
+        try (PositionArchive archive = new PositionArchive(file)) {
+            assertEquals(0, archive.size());
+            for (int i = 0; i < positions.length; i++) {
+                PlayerColor turn = PlayerColor.values()[(int) positions[i][2]];
+                assertEquals(i, archive.append(positions[i][0], positions[i][1], turn));
+            }
+            assertEquals(positions.length, archive.size());
+            for (int i = positions.length - 1; i >= 0; i--) {
+                assertEquals(positions[i][0], archive.getBlack(i));
+                assertEquals(positions[i][1], archive.getWhite(i));
+                assertEquals(positions[i][2], archive.getTurn(i).ordinal());
+            }
+        }
+        assertEquals(
+                PositionArchive.HEADER_SIZE + positions.length * 17L, new File(file).length()
+        );
+
+        // appending after reopening keeps the old positions
+        long[][] more = randomGame(2);
+        try (PositionArchive archive = new PositionArchive(file)) {
+            assertEquals(positions.length, archive.size());
+            assertEquals(positions[3][0], archive.getBlack(3));
+            for (long[] p : more) {
+                archive.append(p[0], p[1], PlayerColor.values()[(int) p[2]]);
+            }
+            // reading maps the new positions
+            int last = positions.length + more.length - 1;
+            assertEquals(more[more.length - 1][1], archive.getWhite(last));
+            assertEquals(positions[0][0], archive.getBlack(0));
+        }
+    }
+
+    // load sets a model to an archived position
+    @Test
+    public void loadTest() throws IOException {
+        String file = tempArchive();
+        BitBoardOthello o = new BitBoardOthello();
+        o.playTurn(5, 4, PlayerColor.BLACK);
+        try (PositionArchive archive = new PositionArchive(file)) {
+            archive.append(o);
+            BitBoardOthello loaded = new BitBoardOthello();
+            archive.load(0, loaded);
+            assertEquals(o.getHashKey(), loaded.getHashKey());
+            assertEquals(PlayerColor.WHITE, loaded.getCurrentTurn());
+        }
+    }
+
+    @Test
+    public void indexOutOfBoundsTest() throws IOException {
+        try (PositionArchive archive = new PositionArchive(tempArchive())) {
+            archive.append(BitBoard.START_BLACK, BitBoard.START_WHITE, PlayerColor.BLACK);
+            assertThrows(IndexOutOfBoundsException.class, () -> archive.getBlack(1));
+            assertThrows(IndexOutOfBoundsException.class, () -> archive.getBlack(-1));
+        }
+    }
+
+    @Test
+    public void invalidPositionTest() throws IOException {
+        try (PositionArchive archive = new PositionArchive(tempArchive())) {
+            assertThrows(
+                    IllegalArgumentException.class, () -> archive.append(1, 1, PlayerColor.BLACK)
+            );
+            assertThrows(
+                    IllegalArgumentException.class, () -> archive.append(1, 2, PlayerColor.EMPTY)
+            );
+            assertEquals(0, archive.size());
+        }
+    }
+
+    // a text board file is not an archive
+    @Test
+    public void notAnArchiveTest() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new PositionArchive("files/input/testBoard.txt")
+        );
+    }
+}
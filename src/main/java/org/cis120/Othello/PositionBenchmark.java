@@ -0,0 +1,129 @@
+package org.cis120.Othello;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares the cost of keeping every position of a game, the way an undo
+ * stack, a cache or another thread needs them, for the mutable models and for
+ * the immutable Position.
+ *
+ * A mutable model has to be copied after every move to keep the position:
+ * "Othello copy" builds a new Othello and "BitBoardOthello copy" a new
+ * BitBoardOthello. "Position" just keeps the result of play. "Othello
+ * in place" plays the moves without keeping anything, as a baseline.
+ *
+ * Reports the bytes allocated and the time per move over complete random
+ * games.
+ *
+ * Run this file to see the results in your console.
+ */
+public class PositionBenchmark {
+
+    private static final int GAMES = 2000;
+    private static final int ROUNDS = 5;
+
+    // keeps the positions alive like a history would
+    private static final Object[] history = new Object[64];
+
+    public static void main(String[] args) {
+        // the same random games for every kind of model
+        Random rng = new Random(120);
+        int[][] games = new int[GAMES][];
+        int moves = 0;
+        for (int g = 0; g < GAMES; g++) {
+            int[] game = new int[60];
+            int length = 0;
+            Position p = Position.START;
+            while (p.checkWinner() == null) {
+                long valid = p.getValidMoves();
+                int n = rng.nextInt(Long.bitCount(valid));
+                for (int j = 0; j < n; j++) {
+                    valid &= valid - 1;
+                }
+                game[length] = Long.numberOfTrailingZeros(valid);
+                p = p.play(game[length++]);
+            }
+            games[g] = Arrays.copyOf(game, length);
+            moves += length;
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            boolean last = round == ROUNDS - 1;
+            measure("Othello in place", games, moves, last, PositionBenchmark::inPlace);
+            measure("Othello copy", games, moves, last, PositionBenchmark::othelloCopies);
+            measure("BitBoardOthello copy", games, moves, last, PositionBenchmark::bitBoardCopies);
+            measure("Position", games, moves, last, PositionBenchmark::positions);
+        }
+    }
+
+    interface Workload {
+        void run(int[][] games);
+    }
+
+    private static void inPlace(int[][] games) {
+        Othello o = new Othello();
+        for (int[] game : games) {
+            o.reset();
+            for (int sq : game) {
+                o.playTurn(sq % 8, sq / 8, o.getCurrentTurn());
+            }
+        }
+    }
+
+    private static void othelloCopies(int[][] games) {
+        for (int[] game : games) {
+            Othello o = new Othello();
+            for (int i = 0; i < game.length; i++) {
+                o.playTurn(game[i] % 8, game[i] / 8, o.getCurrentTurn());
+                Othello copy = new Othello();
+                copy.setPosition(o.toPosition());
+                history[i] = copy;
+                o = copy;
+            }
+        }
+    }
+
+    private static void bitBoardCopies(int[][] games) {
+        for (int[] game : games) {
+            BitBoardOthello o = new BitBoardOthello();
+            for (int i = 0; i < game.length; i++) {
+                o.makeMove(game[i]);
+                BitBoardOthello copy = new BitBoardOthello();
+                copy.restore(o.getBlackDisks(), o.getWhiteDisks(), o.getCurrentTurn(),
+                        o.getPass());
+                history[i] = copy;
+                o = copy;
+            }
+        }
+    }
+
+    private static void positions(int[][] games) {
+        for (int[] game : games) {
+            Position p = Position.START;
+            for (int i = 0; i < game.length; i++) {
+                p = p.play(game[i]);
+                history[i] = p;
+            }
+        }
+    }
+
+    private static void measure(String name, int[][] games, int moves, boolean print,
+            Workload workload) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        long bytes = threads.getThreadAllocatedBytes(id);
+        long start = System.nanoTime();
+        workload.run(games);
+        long nanos = System.nanoTime() - start;
+        bytes = threads.getThreadAllocatedBytes(id) - bytes;
+        if (print) {
+            System.out.printf(
+                    "%-22s %8.1f bytes/move  %7.1f ns/move%n", name,
+                    bytes / (double) moves, nanos / (double) moves
+            );
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.cis120.Othello;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionTest {
+
+    // playing random games on a position and on both models gives the same
+    // states, and the earlier positions never change
+    @Test
+    public void sameAsModelsTest() {
+        Random rng = new Random(120);
+        for (int game = 0; game < 50; game++) {
+            Position p = Position.START;
+            BitBoardOthello bits = new BitBoardOthello();
+            Othello array = new Othello();
+            while (p.checkWinner() == null) {
+                long moves = p.getValidMoves();
+                assertEquals(bits.getValidMoves(), moves);
+                int n = rng.nextInt(Long.bitCount(moves));
+                for (int i = 0; i < n; i++) {
+                    moves &= moves - 1;
+                }
+                int sq = Long.numberOfTrailingZeros(moves);
+
+                Position before = p;
+                String beforeText = before.toString();
+                p = p.play(sq);
+                bits.makeMove(sq);
+                array.playTurn(sq % 8, sq / 8, array.getCurrentTurn());
+                assertEquals(beforeText, before.toString());
+
+                assertEquals(bits.toPosition(), p);
+                assertEquals(array.toPosition(), p);
+                assertEquals(bits.getPass(), p.getPass());
+                assertEquals(array.getPass(), p.getPass());
+                assertEquals(bits.getHashKey(), p.getHashKey());
+                assertEquals(bits.getBlackPoints(), p.getBlackPoints());
+            }
+            assertEquals(bits.checkWinner(), p.checkWinner());
+            assertEquals(array.checkWinner(), p.checkWinner());
+        }
+    }
+
+    @Test
+    public void invalidMoveTest() {
+        assertThrows(IllegalArgumentException.class, () -> Position.START.play(0));
+        assertThrows(IllegalArgumentException.class, () -> Position.START.play(3, 3));
+        assertThrows(IllegalArgumentException.class, () -> Position.START.play(64));
+        assertThrows(IllegalArgumentException.class, () -> Position.START.play(8, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> Position.of(1L, 1L, PlayerColor.BLACK));
+        assertThrows(IllegalArgumentException.class,
+                () -> Position.of(1L, 2L, PlayerColor.EMPTY));
+    }
+
+    @Test
+    public void equalsTest() {
+        Position a = Position.START.play(5, 4).play(5, 5);
+        Position b = Position.START.play(4, 5).play(5, 5);
+        Position c = Position.START.play(5, 4);
+        assertEquals(a, Position.of(a.getBlackDisks(), a.getWhiteDisks(), PlayerColor.BLACK));
+        assertEquals(a.hashCode(),
+                Position.of(a.getBlackDisks(), a.getWhiteDisks(), PlayerColor.BLACK).hashCode());
+        assertNotEquals(a, b);
+        assertNotEquals(c, Position.of(c.getBlackDisks(), c.getWhiteDisks(), PlayerColor.BLACK));
+
+        Set<Position> set = new HashSet<>();
+        set.add(a);
+        set.add(Position.START.play(5, 4).play(5, 5));
+        assertEquals(1, set.size());
+        assertEquals(
+                "***************************OX******XXX************************** white",
+                Position.START.play(5, 4).toString()
+        );
+    }
+
+    // the models take a position back exactly, including a finished game
+    // where setPosition alone would pass the turn
+    @Test
+    public void wrapTest() {
+        Position p = Position.START.play(5, 4).play(5, 3);
+        Othello o = new Othello(p);
+        assertEquals(p, o.toPosition());
+        assertEquals(PlayerColor.BLACK, o.getCurrentTurn());
+        assertEquals(p.getHashKey(), o.getHashKey());
+        o.playTurn(4, 2, PlayerColor.BLACK);
+        assertEquals(p.play(4, 2), o.toPosition());
+
+        // black wins with white to move and nobody able to move
+        Position over = Position.of(-1L >>> 1, 1L << 63, PlayerColor.WHITE, true);
+        for (OthelloModel model : new OthelloModel[] { new Othello(), new BitBoardOthello() }) {
+            model.setPosition(over);
+            assertEquals(PlayerColor.WHITE, model.getCurrentTurn());
+            assertTrue(model.getPass());
+            assertEquals(over, model.toPosition());
+            assertEquals(PlayerColor.BLACK, model.checkWinner());
+        }
+    }
+}
@@ -38,8 +38,8 @@ public class RunOthello implements Runnable {
         final JFrame frame = new JFrame("Othello");
         frame.setLocation(330, 15);
 
-        // prevents the window from being resizable
-        frame.setResizable(false);
+        // the board scales with the window
+        frame.setResizable(true);
 
         // Status panel
         final JPanel status_panel = new JPanel();
@@ -97,14 +97,16 @@ public class RunOthello implements Runnable {
                                 "The winner is the player with the most disks in their color " +
                                 "at the end of the game\n"
                                 +
-                                "The game has a reset button to restart and saving and loading " +
+                                "The game has a reset button to restart, undo and redo buttons " +
+                                "to take back moves, and saving and loading " +
                                 "functionalities to save and load a game\n"
                                 +
                                 "Current points and the current turn are displayed in the status " +
                                 "bar at the bottom of the screen\n"
                                 +
-                                "The window cannot be resized to maintain the correct dimensions " +
-                                "of the gameboard"
+                                "The board scales with the window, F3 shows the repaint count " +
+                                "and frame time\n" +
+                                "Hints marks the best move found by the engine with a red dot"
                 );
             }
         });
@@ -159,9 +161,24 @@ public class RunOthello implements Runnable {
             }
         });
 
+        // undo and redo buttons
+        final JButton undo = new JButton("Undo");
+        undo.addActionListener(e -> board.undo());
+        final JButton redo = new JButton("Redo");
+        redo.addActionListener(e -> board.redo());
+
+        // hints checkbox
+        // the engine searches in the background and the best move is marked
+        final JCheckBox hints = new JCheckBox("Hints");
+        hints.setFocusable(false);
+        hints.addActionListener(e -> board.setHints(hints.isSelected()));
+
         control_panel.add(reset);
+        control_panel.add(undo);
+        control_panel.add(redo);
         control_panel.add(save);
         control_panel.add(load);
+        control_panel.add(hints);
         control_panel.add(instructions);
 
         // event listener inner class
@@ -171,7 +188,10 @@ public class RunOthello implements Runnable {
 
             @Override
             public void propertyChange(PropertyChangeEvent event) {
-                if (event.getPropertyName().equals("EventStatus")) {
+                // the board repaints itself from the model events, so there is
+                // nothing to do for the null events sent by setEventNull
+                if (event.getPropertyName().equals("EventStatus")
+                        && event.getNewValue() != null) {
                     EventStatus eventSource = (EventStatus) event.getSource();
                     EventStatusEnum eventValue = (EventStatusEnum) event.getNewValue();
                     if (eventValue == EventStatusEnum.ERROR) {
@@ -198,7 +218,6 @@ public class RunOthello implements Runnable {
                         board.passStatus();
                     }
                 }
-                board.boardUpdate();
             }
 
             // helper method so i don't have to write JOptionPane a lot
@@ -0,0 +1,211 @@
+package org.cis120.Othello;
+
+/**
+ * Move generation for a square Othello board of any size up to 16 by 16,
+ * stored as multi-word bitsets, the long[] version of BitBoard.
+ *
+ * Square (x, y) is stored in bit y * size + x of the words, bit i of the board
+ * is bit i % 64 of word i / 64. A 16 by 16 board takes 4 words. Shifting a
+ * board by a whole row moves bits across words, so a shift is a loop over the
+ * words carrying the bits that fall off one word into the next, followed by the
+ * same column masks BitBoard uses to stop bits from wrapping around.
+ *
+ * A SizedBitBoard holds the masks for one size and its own scratch words, so
+ * generating moves does not allocate but one instance must not be used from
+ * two threads at once.
+ */
+public final class SizedBitBoard {
+    public static final int MIN_SIZE = 4;
+    public static final int MAX_SIZE = 16;
+
+    private final int size;
+    private final int words;
+
+    // E, W, S, N, SE, SW, NE, NW like BitBoard, the shift amounts and the masks
+    // applied after the shift, which also clear the bits past the last square
+    private final int[] shifts;
+    private final long[][] masks;
+
+    // scratch words for validMoves
+    private final long[] empty;
+    private final long[] line;
+    private final long[] next;
+
+    /**
+     * Creates the masks for a board of the given size.
+     *
+     * @param sizeParam number of rows and columns, even and from 4 to 16
+     */
+    public SizedBitBoard(int sizeParam) {
+        if (sizeParam < MIN_SIZE || sizeParam > MAX_SIZE || sizeParam % 2 != 0) {
+            throw new IllegalArgumentException();
+        }
+        size = sizeParam;
+        words = (size * size + 63) / 64;
+        empty = new long[words];
+        line = new long[words];
+        next = new long[words];
+
+        shifts = new int[] {
+            1, -1, size, -size, size + 1, size - 1, -size + 1, -size - 1
+        };
+        int[] dx = { 1, -1, 0, 0, 1, -1, 1, -1 };
+        masks = new long[8][words];
+        for (int dir = 0; dir < 8; dir++) {
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    // a shift east can never land in the first column and a
+                    // shift west never in the last one
+                    if ((dx[dir] == 1 && x == 0) || (dx[dir] == -1 && x == size - 1)) {
+                        continue;
+                    }
+                    set(masks[dir], index(x, y));
+                }
+            }
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    // number of longs needed for one board
+    public int getWords() {
+        return words;
+    }
+
+    // converts x y coordinates into a bit index
+    public int index(int x, int y) {
+        return y * size + x;
+    }
+
+    // true if bit sq is set in b
+    public static boolean get(long[] b, int sq) {
+        return (b[sq >>> 6] & (1L << sq)) != 0;
+    }
+
+    public static void set(long[] b, int sq) {
+        b[sq >>> 6] |= 1L << sq;
+    }
+
+    // number of set bits in b
+    public static int count(long[] b) {
+        int count = 0;
+        for (long w : b) {
+            count += Long.bitCount(w);
+        }
+        return count;
+    }
+
+    public static boolean isEmpty(long[] b) {
+        for (long w : b) {
+            if (w != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // shifts src one step into direction dir and stores it in dst, dst may be
+    // src
+    private void shift(long[] src, int dir, long[] dst) {
+        int s = shifts[dir];
+        long[] mask = masks[dir];
+        // s is at most 17, so the bits only ever carry into the next word
+        if (s > 0) {
+            for (int i = words - 1; i > 0; i--) {
+                dst[i] = ((src[i] << s) | (src[i - 1] >>> (64 - s))) & mask[i];
+            }
+            dst[0] = (src[0] << s) & mask[0];
+        } else {
+            s = -s;
+            for (int i = 0; i < words - 1; i++) {
+                dst[i] = ((src[i] >>> s) | (src[i + 1] << (64 - s))) & mask[i];
+            }
+            dst[words - 1] = (src[words - 1] >>> s) & mask[words - 1];
+        }
+    }
+
+    /**
+     * validMoves finds every empty square where own can play. Works like
+     * BitBoard.validMoves, one direction at a time.
+     *
+     * @param own   disks of the player to move
+     * @param opp   disks of the opponent
+     * @param moves words the valid moves are written to
+     */
+    public void validMoves(long[] own, long[] opp, long[] moves) {
+        long[] board = masks[2];
+        for (int i = 0; i < words; i++) {
+            empty[i] = ~(own[i] | opp[i]) & board[i];
+            moves[i] = 0;
+        }
+        for (int dir = 0; dir < 8; dir++) {
+            shift(own, dir, line);
+            long any = 0;
+            for (int i = 0; i < words; i++) {
+                line[i] &= opp[i];
+                any |= line[i];
+            }
+            // a line of opponent disks can be at most size - 2 long, most
+            // lines end well before that
+            for (int k = 0; k < size - 3 && any != 0; k++) {
+                shift(line, dir, next);
+                any = 0;
+                for (int i = 0; i < words; i++) {
+                    long grown = next[i] & opp[i] & ~line[i];
+                    line[i] |= grown;
+                    any |= grown;
+                }
+            }
+            shift(line, dir, next);
+            for (int i = 0; i < words; i++) {
+                moves[i] |= next[i] & empty[i];
+            }
+        }
+    }
+
+    /**
+     * flips finds the disks flipped by own playing on sq, walking out from
+     * the square in every direction.
+     *
+     * @param sq      bit index of the move
+     * @param own     disks of the player to move
+     * @param opp     disks of the opponent
+     * @param flipped words the flipped disks are written to
+     * @return number of flipped disks, 0 if the move is not valid
+     */
+    public int flips(int sq, long[] own, long[] opp, long[] flipped) {
+        for (int i = 0; i < words; i++) {
+            flipped[i] = 0;
+        }
+        int count = 0;
+        int x0 = sq % size;
+        int y0 = sq / size;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (dx == 0 && dy == 0) {
+                    continue;
+                }
+                int x = x0 + dx;
+                int y = y0 + dy;
+                int run = 0;
+                while (x >= 0 && y >= 0 && x < size && y < size
+                        && get(opp, index(x, y))) {
+                    x += dx;
+                    y += dy;
+                    run++;
+                }
+                if (run == 0 || x < 0 || y < 0 || x >= size || y >= size
+                        || !get(own, index(x, y))) {
+                    continue;
+                }
+                for (int k = 1; k <= run; k++) {
+                    set(flipped, index(x0 + k * dx, y0 + k * dy));
+                }
+                count += run;
+            }
+        }
+        return count;
+    }
+}
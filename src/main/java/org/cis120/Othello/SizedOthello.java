@@ -0,0 +1,289 @@
+package org.cis120.Othello;
+
+/**
+ * SizedOthello is the Othello game on a square board of any even size from
+ * 4 by 4 to 16 by 16, the size is given when the game is created. The four
+ * starting disks are in the middle of the board like on the normal board.
+ *
+ * The normal 8 by 8 game keeps its 64-bit fast path: all calls are passed on
+ * to a BitBoardOthello. Every other size stores the board in multi-word
+ * bitsets and generates moves with a SizedBitBoard, so playing a move does
+ * not allocate on any size.
+ *
+ * The rest of the game (files, patterns, the engine and the GUI) is built
+ * around 64-bit masks and only knows the 8 by 8 board.
+ */
+public class SizedOthello {
+    private final int size;
+
+    // the fast path, only set for the 8 by 8 board
+    private final BitBoardOthello fast;
+
+    // everything below is only used when fast is null
+    private final SizedBitBoard bits;
+
+    // disks of each player, bit y * size + x is set if the player owns x, y
+    private final long[] black;
+    private final long[] white;
+
+    // valid moves for both players
+    private final long[] blackValidMoves;
+    private final long[] whiteValidMoves;
+
+    private PlayerColor currentTurn;
+
+    // true if next turn will be a pass turn and false otherwise
+    private boolean pass;
+
+    // moves played with makeMove, a game has fewer moves than squares
+    private final int[] historySquares;
+    private final long[][] historyFlips;
+    private final boolean[] historyPass;
+    private int historySize;
+
+    /**
+     * Creates a new game on a size by size board.
+     *
+     * @param sizeParam number of rows and columns, even and from 4 to 16
+     */
+    public SizedOthello(int sizeParam) {
+        this(sizeParam, false);
+    }
+
+    // words forces the multi-word bitsets for the 8 by 8 board as well, so the
+    // two can be compared
+    SizedOthello(int sizeParam, boolean words) {
+        bits = new SizedBitBoard(sizeParam);
+        size = sizeParam;
+        fast = size == 8 && !words ? new BitBoardOthello() : null;
+        int n = fast == null ? bits.getWords() : 0;
+        black = new long[n];
+        white = new long[n];
+        blackValidMoves = new long[n];
+        whiteValidMoves = new long[n];
+        int squares = fast == null ? size * size : 0;
+        historySquares = new int[squares];
+        historyFlips = new long[squares][n];
+        historyPass = new boolean[squares];
+        reset();
+    }
+
+    /**
+     * reset (re-)sets the game state to start a new game.
+     */
+    public void reset() {
+        if (fast != null) {
+            fast.reset();
+            return;
+        }
+        for (int i = 0; i < black.length; i++) {
+            black[i] = 0;
+            white[i] = 0;
+        }
+        int c = size / 2;
+        SizedBitBoard.set(white, bits.index(c - 1, c - 1));
+        SizedBitBoard.set(white, bits.index(c, c));
+        SizedBitBoard.set(black, bits.index(c, c - 1));
+        SizedBitBoard.set(black, bits.index(c - 1, c));
+        currentTurn = PlayerColor.BLACK;
+        pass = false;
+        historySize = 0;
+        updateValidMoves();
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    // true if the game runs on the 64-bit fast path
+    boolean isFast() {
+        return fast != null;
+    }
+
+    // regenerates the valid moves for both players
+    private void updateValidMoves() {
+        bits.validMoves(black, white, blackValidMoves);
+        bits.validMoves(white, black, whiteValidMoves);
+    }
+
+    /**
+     * playTurn allows players to play a turn. Behaves the same as
+     * Othello.playTurn on a board of this size.
+     *
+     * @param x      column to play in
+     * @param y      row to play in
+     * @param player move color
+     **/
+    public void playTurn(int x, int y, PlayerColor player) {
+        if (fast != null) {
+            fast.playTurn(x, y, player);
+            return;
+        }
+        if (player != currentTurn) {
+            throw new IllegalArgumentException();
+        }
+        if (x >= size || y >= size || x < 0 || y < 0) {
+            throw new IllegalArgumentException();
+        }
+        if (checkWinner() != null) {
+            return;
+        }
+        int sq = bits.index(x, y);
+        long[] moves = player == PlayerColor.BLACK ? blackValidMoves : whiteValidMoves;
+        if (!SizedBitBoard.get(moves, sq)) {
+            throw new IllegalArgumentException();
+        }
+        makeMove(sq);
+    }
+
+    /**
+     * makeMove plays a move for the current player without the checks done by
+     * playTurn, like BitBoardOthello.makeMove, so it can be taken back with
+     * unmakeMove.
+     *
+     * @param sq bit index y * size + x of a valid move for the current player
+     */
+    public void makeMove(int sq) {
+        if (fast != null) {
+            fast.makeMove(sq);
+            return;
+        }
+        PlayerColor player = currentTurn;
+        long[] flipped = historyFlips[historySize];
+        long[] own = player == PlayerColor.BLACK ? black : white;
+        long[] opp = player == PlayerColor.BLACK ? white : black;
+        bits.flips(sq, own, opp, flipped);
+        for (int i = 0; i < own.length; i++) {
+            own[i] |= flipped[i];
+            opp[i] &= ~flipped[i];
+        }
+        SizedBitBoard.set(own, sq);
+        historySquares[historySize] = sq;
+        historyPass[historySize] = pass;
+        historySize++;
+
+        updateValidMoves();
+
+        // the opponent moves next unless it has to pass
+        long[] next = player == PlayerColor.BLACK ? whiteValidMoves : blackValidMoves;
+        pass = SizedBitBoard.isEmpty(next);
+        if (!pass) {
+            currentTurn = player == PlayerColor.BLACK ? PlayerColor.WHITE : PlayerColor.BLACK;
+        }
+    }
+
+    /**
+     * unmakeMove takes back the last move played with makeMove or playTurn.
+     */
+    public void unmakeMove() {
+        if (fast != null) {
+            fast.unmakeMove();
+            return;
+        }
+        if (historySize == 0) {
+            throw new IllegalStateException();
+        }
+        historySize--;
+        int sq = historySquares[historySize];
+        long[] flipped = historyFlips[historySize];
+
+        // the player who made the move owns the placed disk
+        boolean byBlack = SizedBitBoard.get(black, sq);
+        long[] own = byBlack ? black : white;
+        long[] opp = byBlack ? white : black;
+        own[sq >>> 6] &= ~(1L << sq);
+        for (int i = 0; i < own.length; i++) {
+            own[i] &= ~flipped[i];
+            opp[i] |= flipped[i];
+        }
+        currentTurn = byBlack ? PlayerColor.BLACK : PlayerColor.WHITE;
+        pass = historyPass[historySize];
+        updateValidMoves();
+    }
+
+    /**
+     * checkWinner checks whether the game has reached a win condition.
+     *
+     * @return PlayerColor of the winner, empty if the game is a tie, or null if the
+     *         game is not over
+     **/
+    public PlayerColor checkWinner() {
+        if (fast != null) {
+            return fast.checkWinner();
+        }
+        if (SizedBitBoard.isEmpty(blackValidMoves) && SizedBitBoard.isEmpty(whiteValidMoves)) {
+            int blackPoints = getBlackPoints();
+            int whitePoints = getWhitePoints();
+            if (blackPoints > whitePoints) {
+                return PlayerColor.BLACK;
+            } else if (whitePoints > blackPoints) {
+                return PlayerColor.WHITE;
+            } else {
+                return PlayerColor.EMPTY;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * getBoardSpace works like Othello.getBoardSpace: the color of the disk
+     * on the square, EMPTY if it is a valid move of the current player and
+     * null otherwise.
+     *
+     * @param x column to retrieve
+     * @param y row to retrieve
+     * @return the disk, EMPTY or null
+     */
+    public PlayerColor getBoardSpace(int x, int y) {
+        if (fast != null) {
+            return fast.getBoardSpace(x, y);
+        }
+        if (x >= size || y >= size || x < 0 || y < 0) {
+            throw new IllegalArgumentException();
+        }
+        int sq = bits.index(x, y);
+        if (SizedBitBoard.get(black, sq)) {
+            return PlayerColor.BLACK;
+        } else if (SizedBitBoard.get(white, sq)) {
+            return PlayerColor.WHITE;
+        }
+        long[] moves = currentTurn == PlayerColor.BLACK ? blackValidMoves : whiteValidMoves;
+        if (SizedBitBoard.get(moves, sq)) {
+            return PlayerColor.EMPTY;
+        }
+        return null;
+    }
+
+    /**
+     * getValidMoves copies the valid moves of the current player into moves,
+     * one word for the 8 by 8 board and SizedBitBoard.getWords() otherwise.
+     *
+     * @param moves words to write to
+     * @return number of valid moves
+     */
+    public int getValidMoves(long[] moves) {
+        if (fast != null) {
+            moves[0] = fast.getValidMoves();
+            return Long.bitCount(moves[0]);
+        }
+        long[] valid = currentTurn == PlayerColor.BLACK ? blackValidMoves : whiteValidMoves;
+        System.arraycopy(valid, 0, moves, 0, valid.length);
+        return SizedBitBoard.count(valid);
+    }
+
+    public PlayerColor getCurrentTurn() {
+        return fast != null ? fast.getCurrentTurn() : currentTurn;
+    }
+
+    public boolean getPass() {
+        return fast != null ? fast.getPass() : pass;
+    }
+
+    public int getBlackPoints() {
+        return fast != null ? fast.getBlackPoints() : SizedBitBoard.count(black);
+    }
+
+    public int getWhitePoints() {
+        return fast != null ? fast.getWhitePoints() : SizedBitBoard.count(white);
+    }
+}
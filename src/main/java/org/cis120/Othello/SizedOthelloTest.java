@@ -0,0 +1,152 @@
+package org.cis120.Othello;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SizedOthelloTest {
+
+    // the straightforward array version of the rules, walking every ray
+    private static int flips(PlayerColor[][] board, int x0, int y0, PlayerColor player,
+            boolean apply) {
+        int size = board.length;
+        PlayerColor opp = player == PlayerColor.BLACK ? PlayerColor.WHITE : PlayerColor.BLACK;
+        if (board[x0][y0] != PlayerColor.EMPTY) {
+            return 0;
+        }
+        int count = 0;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                int x = x0 + dx;
+                int y = y0 + dy;
+                int run = 0;
+                while (x >= 0 && y >= 0 && x < size && y < size && board[x][y] == opp) {
+                    x += dx;
+                    y += dy;
+                    run++;
+                }
+                if (run > 0 && x >= 0 && y >= 0 && x < size && y < size
+                        && board[x][y] == player) {
+                    count += run;
+                    for (int k = 1; apply && k <= run; k++) {
+                        board[x0 + k * dx][y0 + k * dy] = player;
+                    }
+                }
+            }
+        }
+        if (apply) {
+            board[x0][y0] = player;
+        }
+        return count;
+    }
+
+    private static void assertSame(PlayerColor[][] board, SizedOthello o) {
+        int size = board.length;
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                PlayerColor expected = board[x][y];
+                if (expected == PlayerColor.EMPTY
+                        && flips(board, x, y, o.getCurrentTurn(), false) == 0) {
+                    expected = null;
+                }
+                assertEquals(expected, o.getBoardSpace(x, y), x + ", " + y);
+            }
+        }
+    }
+
+    @Test
+    public void invalidSizeTest() {
+        assertThrows(IllegalArgumentException.class, () -> new SizedOthello(2));
+        assertThrows(IllegalArgumentException.class, () -> new SizedOthello(7));
+        assertThrows(IllegalArgumentException.class, () -> new SizedOthello(18));
+        SizedOthello o = new SizedOthello(6);
+        assertThrows(IllegalArgumentException.class, () -> o.getBoardSpace(6, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> o.playTurn(0, 0, PlayerColor.BLACK));
+        assertThrows(IllegalArgumentException.class,
+                () -> o.playTurn(1, 2, PlayerColor.WHITE));
+    }
+
+    @Test
+    public void startTest() {
+        for (int size = 4; size <= 16; size += 2) {
+            SizedOthello o = new SizedOthello(size);
+            int c = size / 2;
+            assertEquals(PlayerColor.WHITE, o.getBoardSpace(c - 1, c - 1));
+            assertEquals(PlayerColor.BLACK, o.getBoardSpace(c, c - 1));
+            assertEquals(PlayerColor.EMPTY, o.getBoardSpace(c - 2, c - 1));
+            assertEquals(null, o.getBoardSpace(c - 2, c - 2));
+            assertEquals(4, o.getValidMoves(new long[4]));
+            assertEquals(2, o.getBlackPoints());
+            assertEquals(size == 8, o.isFast());
+        }
+    }
+
+    // random games on every size against the array version of the rules, then
+    // everything is taken back again
+    @Test
+    public void referenceTest() {
+        Random rng = new Random(120);
+        long[] moves = new long[4];
+        for (int size = 4; size <= 16; size += 2) {
+            for (int game = 0; game < 5; game++) {
+                SizedOthello o = new SizedOthello(size, true);
+                PlayerColor[][] board = new PlayerColor[size][size];
+                for (int x = 0; x < size; x++) {
+                    for (int y = 0; y < size; y++) {
+                        PlayerColor disk = o.getBoardSpace(x, y);
+                        board[x][y] = disk == null ? PlayerColor.EMPTY : disk;
+                    }
+                }
+                int played = 0;
+                for (int sq = BoardSizeBenchmark.randomMove(o, moves, rng); sq >= 0;
+                        sq = BoardSizeBenchmark.randomMove(o, moves, rng)) {
+                    flips(board, sq % size, sq / size, o.getCurrentTurn(), true);
+                    o.playTurn(sq % size, sq / size, o.getCurrentTurn());
+                    played++;
+                    assertSame(board, o);
+                }
+                assertNotNull(o.checkWinner());
+                for (int i = 0; i < played; i++) {
+                    o.unmakeMove();
+                }
+                assertEquals(2, o.getBlackPoints());
+                assertEquals(2, o.getWhitePoints());
+                assertEquals(PlayerColor.BLACK, o.getCurrentTurn());
+                assertEquals(4, o.getValidMoves(moves));
+                assertThrows(IllegalStateException.class, o::unmakeMove);
+            }
+        }
+    }
+
+    // the 8 by 8 fast path plays exactly like the multi-word bitsets
+    @Test
+    public void fastPathTest() {
+        Random rng = new Random(3);
+        long[] moves = new long[1];
+        for (int game = 0; game < 20; game++) {
+            SizedOthello fast = new SizedOthello(8);
+            SizedOthello slow = new SizedOthello(8, true);
+            assertTrue(fast.isFast());
+            assertFalse(slow.isFast());
+            while (fast.checkWinner() == null) {
+                int sq = BoardSizeBenchmark.randomMove(fast, moves, rng);
+                long valid = moves[0];
+                assertEquals(Long.bitCount(valid), slow.getValidMoves(moves));
+                assertEquals(valid, moves[0]);
+                fast.playTurn(sq % 8, sq / 8, fast.getCurrentTurn());
+                slow.playTurn(sq % 8, sq / 8, slow.getCurrentTurn());
+                assertEquals(fast.getCurrentTurn(), slow.getCurrentTurn());
+                assertEquals(fast.getPass(), slow.getPass());
+                for (int i = 0; i < 64; i++) {
+                    assertEquals(fast.getBoardSpace(i % 8, i / 8),
+                            slow.getBoardSpace(i % 8, i / 8));
+                }
+            }
+            assertEquals(fast.checkWinner(), slow.checkWinner());
+            assertEquals(fast.getBlackPoints(), slow.getBlackPoints());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.cis120.Othello;
+
+/**
+ * Static helpers for the 8 symmetries of the board (rotations and
+ * reflections) and for mapping a position to a single canonical form.
+ *
+ * A symmetry is a number from 0 to 7. Bit 2 transposes the board (swaps x and
+ * y), then bit 1 mirrors it (x becomes 7 - x) and bit 0 flips it (y becomes
+ * 7 - y). Symmetry 0 is the identity.
+ *
+ * Positions are given as the disks of the player to move and of the opponent.
+ * The canonical form of a position is the transform with the smallest own
+ * disks, and then the smallest opponent disks, compared as unsigned numbers.
+ * To use it, find the symmetry with canonicalSymmetry, transform the disks
+ * and moves with it, and map results back with its inverse. Every transform is
+ * a handful of shifts and masks on the 64-bit board.
+ */
+public final class Symmetry {
+    public static final int COUNT = 8;
+
+    private Symmetry() {
+    }
+
+    // y becomes 7 - y, the rows are the bytes of the board
+    public static long flipVertical(long b) {
+        return Long.reverseBytes(b);
+    }
+
+    // x becomes 7 - x, reverses the bits of every row
+    public static long mirrorHorizontal(long b) {
+        b = ((b >>> 1) & 0x5555555555555555L) | ((b & 0x5555555555555555L) << 1);
+        b = ((b >>> 2) & 0x3333333333333333L) | ((b & 0x3333333333333333L) << 2);
+        b = ((b >>> 4) & 0x0f0f0f0f0f0f0f0fL) | ((b & 0x0f0f0f0f0f0f0f0fL) << 4);
+        return b;
+    }
+
+    // swaps x and y by swapping blocks of 4, 2 and then 1 squares across the
+    // a1-h8 diagonal
+    public static long transpose(long b) {
+        long t = 0x0f0f0f0f00000000L & (b ^ (b << 28));
+        b ^= t ^ (t >>> 28);
+        t = 0x3333000033330000L & (b ^ (b << 14));
+        b ^= t ^ (t >>> 14);
+        t = 0x5500550055005500L & (b ^ (b << 7));
+        b ^= t ^ (t >>> 7);
+        return b;
+    }
+
+    // moves every disk of b by sym
+    public static long transform(long b, int sym) {
+        if ((sym & 4) != 0) {
+            b = transpose(b);
+        }
+        if ((sym & 2) != 0) {
+            b = mirrorHorizontal(b);
+        }
+        if ((sym & 1) != 0) {
+            b = flipVertical(b);
+        }
+        return b;
+    }
+
+    // returns the square sq is moved to by sym
+    public static int transformSquare(int sq, int sym) {
+        int x = sq & 7;
+        int y = sq >>> 3;
+        if ((sym & 4) != 0) {
+            int t = x;
+            x = y;
+            y = t;
+        }
+        if ((sym & 2) != 0) {
+            x = 7 - x;
+        }
+        if ((sym & 1) != 0) {
+            y = 7 - y;
+        }
+        return y * 8 + x;
+    }
+
+    // returns the symmetry that undoes sym
+    // mirroring and flipping swap roles when the board is transposed
+    public static int inverse(int sym) {
+        if ((sym & 4) == 0) {
+            return sym;
+        }
+        return 4 | (sym & 1) << 1 | (sym & 2) >> 1;
+    }
+
+    /**
+     * canonicalSymmetry returns the symmetry that maps a position to its
+     * canonical form. If the position is symmetric several symmetries give the
+     * canonical form and the smallest of them is returned.
+     *
+     * @param own disks of the player to move
+     * @param opp disks of the opponent
+     * @return symmetry from the position to its canonical form
+     */
+    public static int canonicalSymmetry(long own, long opp) {
+        // every form of the own disks comes from 2 mirrors, 1 transpose and
+        // byte reversals
+        long m = mirrorHorizontal(own);
+        long t = transpose(own);
+        long mt = mirrorHorizontal(t);
+        int best = 0;
+        long bestOwn = own;
+        for (int sym = 1; sym < COUNT; sym++) {
+            long o;
+            if ((sym & 6) == 0) {
+                o = own;
+            } else if ((sym & 6) == 2) {
+                o = m;
+            } else if ((sym & 6) == 4) {
+                o = t;
+            } else {
+                o = mt;
+            }
+            if ((sym & 1) != 0) {
+                o = flipVertical(o);
+            }
+            int c = Long.compareUnsigned(o, bestOwn);
+            // the opponent disks only matter on a tie, which is rare outside
+            // of symmetric positions
+            if (c < 0 || c == 0
+                    && Long.compareUnsigned(transform(opp, sym), transform(opp, best)) < 0) {
+                best = sym;
+                bestOwn = o;
+            }
+        }
+        return best;
+    }
+
+    // returns the own disks of the canonical form of a position
+    public static long canonicalOwn(long own, long opp) {
+        return transform(own, canonicalSymmetry(own, opp));
+    }
+
+    // returns the opponent disks of the canonical form of a position
+    public static long canonicalOpp(long own, long opp) {
+        return transform(opp, canonicalSymmetry(own, opp));
+    }
+
+    // true if sym maps the position onto itself
+    public static boolean isSymmetric(long own, long opp, int sym) {
+        return transform(own, sym) == own && transform(opp, sym) == opp;
+    }
+
+    /**
+     * canonicalMove picks one representative among moves that lead to the
+     * same position. In a symmetric position, such as the start position,
+     * symmetric moves are equivalent and the smallest square is returned.
+     *
+     * @param own disks of the player to move
+     * @param opp disks of the opponent
+     * @param sq  square of the move
+     * @return the smallest square equivalent to sq
+     */
+    public static int canonicalMove(long own, long opp, int sq) {
+        int best = sq;
+        for (int sym = 1; sym < COUNT; sym++) {
+            if (isSymmetric(own, opp, sym)) {
+                best = Math.min(best, transformSquare(sq, sym));
+            }
+        }
+        return best;
+    }
+}
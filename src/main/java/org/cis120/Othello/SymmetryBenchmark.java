@@ -0,0 +1,116 @@
+package org.cis120.Othello;
+
+import java.util.Random;
+
+/**
+ * Measures the cost of a single board transform and of finding the canonical
+ * form of a position, against moving every disk through a square table.
+ *
+ * Run this file to see the results in your console.
+ */
+public class SymmetryBenchmark {
+
+    private static final int POSITIONS = 1 << 16;
+    private static final int ROUNDS = 200;
+
+    // SQUARES[sym][sq] is the square sq is moved to by sym
+    private static final int[][] SQUARES = new int[Symmetry.COUNT][64];
+
+    static {
+        for (int sym = 0; sym < Symmetry.COUNT; sym++) {
+            for (int sq = 0; sq < 64; sq++) {
+                SQUARES[sym][sq] = Symmetry.transformSquare(sq, sym);
+            }
+        }
+    }
+
+    // moves every disk of b through the square table
+    private static long tableTransform(long b, int sym) {
+        long result = 0;
+        int[] squares = SQUARES[sym];
+        while (b != 0) {
+            result |= 1L << squares[Long.numberOfTrailingZeros(b)];
+            b &= b - 1;
+        }
+        return result;
+    }
+
+    // canonical symmetry found with the table transform
+    private static int tableCanonical(long own, long opp) {
+        int best = 0;
+        long bestOwn = own;
+        long bestOpp = opp;
+        for (int sym = 1; sym < Symmetry.COUNT; sym++) {
+            long o = tableTransform(own, sym);
+            long p = tableTransform(opp, sym);
+            int c = Long.compareUnsigned(o, bestOwn);
+            if (c < 0 || c == 0 && Long.compareUnsigned(p, bestOpp) < 0) {
+                best = sym;
+                bestOwn = o;
+                bestOpp = p;
+            }
+        }
+        return best;
+    }
+
+    private static void report(String name, long nanos, long calls) {
+        System.out.printf("%-20s %6.2f ns/call%n", name + ":", (double) nanos / calls);
+    }
+
+    public static void main(String[] args) {
+        // midgame like positions with about 32 disks
+        Random rng = new Random(120);
+        long[] own = new long[POSITIONS];
+        long[] opp = new long[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            long disks = rng.nextLong() & rng.nextLong() | rng.nextLong() & rng.nextLong();
+            own[i] = disks & rng.nextLong();
+            opp[i] = disks & ~own[i];
+        }
+
+        long calls = (long) POSITIONS * ROUNDS;
+        for (int pass = 0; pass < 2; pass++) {
+            long check = 0;
+            long start = System.nanoTime();
+            for (int r = 0; r < ROUNDS; r++) {
+                for (int i = 0; i < POSITIONS; i++) {
+                    check += Symmetry.transform(own[i], i & 7);
+                }
+            }
+            long bitTransform = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int r = 0; r < ROUNDS; r++) {
+                for (int i = 0; i < POSITIONS; i++) {
+                    check += tableTransform(own[i], i & 7);
+                }
+            }
+            long tableTransform = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int r = 0; r < ROUNDS; r++) {
+                for (int i = 0; i < POSITIONS; i++) {
+                    check += Symmetry.canonicalSymmetry(own[i], opp[i]);
+                }
+            }
+            long bitCanonical = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int r = 0; r < ROUNDS; r++) {
+                for (int i = 0; i < POSITIONS; i++) {
+                    check += tableCanonical(own[i], opp[i]);
+                }
+            }
+            long tableCanonical = System.nanoTime() - start;
+
+            // the first pass only warms up the JIT
+            if (pass == 1) {
+                report("transform, bit ops", bitTransform, calls);
+                report("transform, table", tableTransform, calls);
+                report("canonical, bit ops", bitCanonical, calls);
+                report("canonical, table", tableCanonical, calls);
+                System.out.println("checksum " + check);
+            }
+        }
+    }
+}
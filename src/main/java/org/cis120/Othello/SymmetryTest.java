@@ -0,0 +1,94 @@
+package org.cis120.Othello;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SymmetryTest {
+
+    // moves every disk one square at a time, used to check the bit operations
+    private static long slowTransform(long b, int sym) {
+        long result = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            if ((b & 1L << sq) != 0) {
+                result |= 1L << Symmetry.transformSquare(sq, sym);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void transformSquareTest() {
+        int d3 = BitBoard.fromNotation("d3");
+        assertEquals(d3, Symmetry.transformSquare(d3, 0));
+        assertEquals(BitBoard.fromNotation("d6"), Symmetry.transformSquare(d3, 1));
+        assertEquals(BitBoard.fromNotation("e3"), Symmetry.transformSquare(d3, 2));
+        assertEquals(BitBoard.fromNotation("c4"), Symmetry.transformSquare(d3, 4));
+    }
+
+    // the bit operations move disks the same way as transformSquare
+    @Test
+    public void transformTest() {
+        Random rng = new Random(120);
+        for (int i = 0; i < 1000; i++) {
+            long b = rng.nextLong();
+            for (int sym = 0; sym < Symmetry.COUNT; sym++) {
+                assertEquals(slowTransform(b, sym), Symmetry.transform(b, sym));
+            }
+        }
+    }
+
+    @Test
+    public void inverseTest() {
+        Random rng = new Random(1);
+        for (int sym = 0; sym < Symmetry.COUNT; sym++) {
+            long b = rng.nextLong();
+            assertEquals(b, Symmetry.transform(Symmetry.transform(b, sym), Symmetry.inverse(sym)));
+            for (int sq = 0; sq < 64; sq++) {
+                int moved = Symmetry.transformSquare(sq, sym);
+                assertEquals(sq, Symmetry.transformSquare(moved, Symmetry.inverse(sym)));
+            }
+        }
+    }
+
+    // every symmetric copy of a position has the same canonical form, and the
+    // canonical form maps back to the position
+    @Test
+    public void canonicalTest() {
+        Random rng = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            long own = rng.nextLong() & rng.nextLong();
+            long opp = rng.nextLong() & ~own;
+            long canonicalOwn = Symmetry.canonicalOwn(own, opp);
+            long canonicalOpp = Symmetry.canonicalOpp(own, opp);
+            int sym = Symmetry.canonicalSymmetry(own, opp);
+            assertEquals(own, Symmetry.transform(canonicalOwn, Symmetry.inverse(sym)));
+            assertEquals(opp, Symmetry.transform(canonicalOpp, Symmetry.inverse(sym)));
+            for (int s = 0; s < Symmetry.COUNT; s++) {
+                long o = Symmetry.transform(own, s);
+                long p = Symmetry.transform(opp, s);
+                assertEquals(canonicalOwn, Symmetry.canonicalOwn(o, p));
+                assertEquals(canonicalOpp, Symmetry.canonicalOpp(o, p));
+                assertTrue(Long.compareUnsigned(canonicalOwn, o) <= 0);
+            }
+        }
+    }
+
+    // the start position is symmetric, so all four first moves are the same
+    @Test
+    public void canonicalMoveTest() {
+        long own = BitBoard.START_BLACK;
+        long opp = BitBoard.START_WHITE;
+        Set<Integer> moves = new HashSet<>();
+        for (String move : new String[] { "d3", "c4", "f5", "e6" }) {
+            moves.add(Symmetry.canonicalMove(own, opp, BitBoard.fromNotation(move)));
+        }
+        assertEquals(1, moves.size());
+        // after a move the position is no longer symmetric
+        assertEquals(5, Symmetry.canonicalMove(1, 2, 5));
+    }
+}
@@ -1,13 +1,13 @@
 package org.cis120.Othello;
 
-import java.util.LinkedHashSet;
-
+// A move's coordinates together with the disks it flips
+// flipped disks are stored as a bit mask where bit y * 8 + x is square x, y
 public class ValidMove implements Comparable<ValidMove> {
     private final int x;
     private final int y;
-    private final LinkedHashSet<int[]> flippedDisks;
+    private final long flippedDisks;
 
-    public ValidMove(int xParam, int yParam, LinkedHashSet<int[]> flippedParam) {
+    public ValidMove(int xParam, int yParam, long flippedParam) {
         x = xParam;
         y = yParam;
         flippedDisks = flippedParam;
@@ -21,8 +21,14 @@ public class ValidMove implements Comparable<ValidMove> {
         return y;
     }
 
-    public LinkedHashSet<int[]> getFlippedDisks() {
-        return new LinkedHashSet<>(flippedDisks);
+    // bit index of the move
+    public int getSquare() {
+        return y * 8 + x;
+    }
+
+    // the mask is a primitive so it does not need to be copied
+    public long getFlippedDisks() {
+        return flippedDisks;
     }
 
     @Override
@@ -48,4 +54,13 @@ public class ValidMove implements Comparable<ValidMove> {
         return this.x == v.getX() && this.y == v.getY();
     }
 
+    @Override
+    public int hashCode() {
+        return getSquare();
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ")";
+    }
 }
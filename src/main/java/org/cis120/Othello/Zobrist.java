@@ -0,0 +1,64 @@
+package org.cis120.Othello;
+
+/**
+ * Zobrist keys used to hash Othello positions into a single long.
+ *
+ * The key of a position is the xor of one random number for every disk on the
+ * board plus SIDE if white is to move. Because xor is its own inverse the key
+ * can be updated when a disk is placed or flipped instead of being computed
+ * from scratch. The keys are generated from a fixed seed so they are the same
+ * on every run.
+ */
+public final class Zobrist {
+
+    public static final long[] BLACK_KEYS = new long[64];
+    public static final long[] WHITE_KEYS = new long[64];
+    // xor of the black and white key of a square, used when a disk is flipped
+    public static final long[] FLIP_KEYS = new long[64];
+    public static final long SIDE;
+
+    static {
+        // splitmix64 so the keys do not depend on java.util.Random
+        long seed = 0x0123456789abcdefL;
+        for (int i = 0; i < 64; i++) {
+            seed += 0x9e3779b97f4a7c15L;
+            BLACK_KEYS[i] = mix(seed);
+            seed += 0x9e3779b97f4a7c15L;
+            WHITE_KEYS[i] = mix(seed);
+            FLIP_KEYS[i] = BLACK_KEYS[i] ^ WHITE_KEYS[i];
+        }
+        seed += 0x9e3779b97f4a7c15L;
+        SIDE = mix(seed);
+    }
+
+    private Zobrist() {
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // computes the key of a position from scratch
+    public static long hash(long black, long white, PlayerColor turn) {
+        long key = turn == PlayerColor.WHITE ? SIDE : 0;
+        for (long b = black; b != 0; b &= b - 1) {
+            key ^= BLACK_KEYS[Long.numberOfTrailingZeros(b)];
+        }
+        for (long w = white; w != 0; w &= w - 1) {
+            key ^= WHITE_KEYS[Long.numberOfTrailingZeros(w)];
+        }
+        return key;
+    }
+
+    // returns the change in key when player places a disk on sq and flips the
+    // disks in flipped
+    public static long moveKey(int sq, long flipped, PlayerColor player) {
+        long key = player == PlayerColor.BLACK ? BLACK_KEYS[sq] : WHITE_KEYS[sq];
+        for (long f = flipped; f != 0; f &= f - 1) {
+            key ^= FLIP_KEYS[Long.numberOfTrailingZeros(f)];
+        }
+        return key;
+    }
+}
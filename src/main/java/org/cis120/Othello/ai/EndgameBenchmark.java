@@ -0,0 +1,69 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoardOthello;
+
+import java.util.Random;
+
+/**
+ * Solves a fixed set of endgame positions with 10 to 20 empty squares, both
+ * exactly and in win/loss/draw mode, and reports the time and nodes of every
+ * solve. The solver's table is cleared before every solve.
+ *
+ * The positions are reached by playing seeded random games, so they are the
+ * same on every run and results can be compared between versions.
+ *
+ * Run this file to see the results in your console. Pass the largest number of
+ * empties to solve as the first argument (default 20).
+ */
+public class EndgameBenchmark {
+
+    private static final int MIN_EMPTIES = 10;
+    private static final int POSITIONS_PER_COUNT = 2;
+
+    // plays a seeded random game until empties squares are left
+    // retries with the next game if the game ends too early
+    static BitBoardOthello positionWithEmpties(Random rng, int empties) {
+        while (true) {
+            BitBoardOthello o = SearchBenchmark.randomPosition(rng, 60 - empties);
+            if (o.getEmptyCount() == empties && o.getValidMoves() != 0) {
+                return o;
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int maxEmpties = args.length > 0 ? Integer.parseInt(args[0]) : EndgameSolver.MAX_EMPTIES;
+        EndgameSolver solver = new EndgameSolver();
+        Random rng = new Random(120);
+
+        // warmup
+        for (int i = 0; i < 20; i++) {
+            solver.solve(positionWithEmpties(rng, 12));
+        }
+
+        rng = new Random(120);
+        System.out.println("empties  score  exact ms     exact nodes   wld   wld ms       wld nodes");
+        for (int empties = MIN_EMPTIES; empties <= maxEmpties; empties++) {
+            for (int i = 0; i < POSITIONS_PER_COUNT; i++) {
+                BitBoardOthello o = positionWithEmpties(rng, empties);
+
+                // the table is cleared so every solve starts from nothing
+                solver.clearTable();
+                long start = System.nanoTime();
+                int score = solver.solve(o);
+                long exactTime = System.nanoTime() - start;
+                long exactNodes = solver.getLastNodes();
+
+                solver.clearTable();
+                start = System.nanoTime();
+                int wld = solver.solveWinLossDraw(o);
+                long wldTime = System.nanoTime() - start;
+
+                System.out.printf(
+                        "%7d %6d %9.1f %15d %5d %8.1f %15d%n", empties, score,
+                        exactTime / 1e6, exactNodes, wld, wldTime / 1e6, solver.getLastNodes()
+                );
+            }
+        }
+    }
+}
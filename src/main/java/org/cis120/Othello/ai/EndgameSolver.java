@@ -0,0 +1,407 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoard;
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.OthelloModel;
+import org.cis120.Othello.PlayerColor;
+import org.cis120.Othello.ValidMove;
+
+import java.util.Arrays;
+
+/**
+ * EndgameSolver computes the exact result of a position once MAX_EMPTIES or
+ * fewer squares are empty.
+ *
+ * The result is the final disk difference (player to move minus opponent)
+ * with perfect play from both sides, counted the same way as
+ * getBlackPoints/getWhitePoints, so empty squares left at the end of the game
+ * do not count for anyone. In win/loss/draw mode only the sign of the result is
+ * computed, which needs far fewer nodes.
+ *
+ * The solver works directly on bit boards passed down the recursion, so
+ * nothing is allocated or copied while solving. Moves are ordered fastest-first
+ * (fewest opponent replies first) while there are many empties and by region
+ * parity (moves in quadrants with an odd number of empties first) near the
+ * end. The last two empties are solved by unrolled code.
+ *
+ * Positions with at least TABLE_EMPTIES empties are remembered in a small
+ * table that stores both disk masks exactly, together with the proven lower
+ * and upper bound of the score and the best move. The bounds are facts about
+ * the position, so the table is kept between solves.
+ *
+ * An EndgameSolver is not thread safe, use one solver per thread.
+ */
+public class EndgameSolver {
+
+    public static final int MAX_EMPTIES = 20;
+
+    private static final int INFINITY = 100;
+
+    // with more empties than this moves are ordered fastest-first
+    private static final int FASTEST_FIRST_EMPTIES = 6;
+
+    // the four quadrants of the board used for parity ordering
+    private static final long[] QUADRANTS = {
+        0x000000000f0f0f0fL, 0x00000000f0f0f0f0L,
+        0x0f0f0f0f00000000L, 0xf0f0f0f000000000L
+    };
+
+    private static final long CORNERS = 0x8100000000000081L;
+
+    // positions with at least this many empties are stored in the table
+    static final int TABLE_EMPTIES = 9;
+
+    // default table size, 2^18 entries (5 MB)
+    public static final int DEFAULT_TABLE_BITS = 18;
+    private static final int NO_MOVE = 64;
+
+    // the table, data is lower bound, upper bound and best move in one int
+    private final long[] tableOwn;
+    private final long[] tableOpp;
+    private final int[] tableData;
+    private final int tableShift;
+
+    // move buffers indexed by the number of empties
+    private final int[][] moveBuffers = new int[MAX_EMPTIES + 1][32];
+    private final int[][] keyBuffers = new int[MAX_EMPTIES + 1][32];
+
+    private long nodes;
+    private int lastMove;
+    private int lastScore;
+
+    // creates a solver with a table of the default size
+    public EndgameSolver() {
+        this(DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Creates a solver with a table of 2^tableBits entries.
+     *
+     * @param tableBits log2 of the number of table entries
+     */
+    public EndgameSolver(int tableBits) {
+        if (tableBits < 1 || tableBits > 28) {
+            throw new IllegalArgumentException();
+        }
+        tableOwn = new long[1 << tableBits];
+        tableOpp = new long[1 << tableBits];
+        tableData = new int[1 << tableBits];
+        tableShift = 64 - tableBits;
+    }
+
+    /**
+     * solve returns the exact final disk difference for the player to move.
+     *
+     * @param position position with at most MAX_EMPTIES empty squares
+     * @return final disk difference from the view of the player to move
+     */
+    public int solve(OthelloModel position) {
+        long[] disks = disks(position);
+        lastMove = solveRoot(disks[0], disks[1], -INFINITY, INFINITY);
+        return lastScore;
+    }
+
+    /**
+     * solveWinLossDraw only finds out who wins, which is much faster than an
+     * exact solve.
+     *
+     * @param position position with at most MAX_EMPTIES empty squares
+     * @return 1 if the player to move wins, -1 if they lose and 0 for a draw
+     */
+    public int solveWinLossDraw(OthelloModel position) {
+        long[] disks = disks(position);
+        lastMove = solveRoot(disks[0], disks[1], -1, 1);
+        return Integer.signum(lastScore);
+    }
+
+    /**
+     * findBestMove returns a move that achieves the exact result of the
+     * position. The result itself is available from getLastScore.
+     *
+     * @param position position with at most MAX_EMPTIES empty squares
+     * @return the best move, or null if the player to move has no moves
+     */
+    public ValidMove findBestMove(OthelloModel position) {
+        long[] disks = disks(position);
+        lastMove = solveRoot(disks[0], disks[1], -INFINITY, INFINITY);
+        if (lastMove < 0) {
+            return null;
+        }
+        return new ValidMove(
+                lastMove % 8, lastMove / 8, BitBoard.flips(lastMove, disks[0], disks[1])
+        );
+    }
+
+    // reads the disks of the player to move and the opponent from a model
+    private static long[] disks(OthelloModel position) {
+        BitBoardOthello copy = BitBoardOthello.copyOf(position);
+        long black = copy.getBlackDisks();
+        long white = copy.getWhiteDisks();
+        if (64 - Long.bitCount(black | white) > MAX_EMPTIES) {
+            throw new IllegalArgumentException("too many empty squares to solve");
+        }
+        if (position.getCurrentTurn() == PlayerColor.BLACK) {
+            return new long[] { black, white };
+        } else {
+            return new long[] { white, black };
+        }
+    }
+
+    // solves the root and returns the best move, or -1 if there is none
+    // the score is stored in lastScore
+    int solveRoot(long own, long opp, int alpha, int beta) {
+        nodes = 0;
+        int empties = 64 - Long.bitCount(own | opp);
+        long moves = BitBoard.validMoves(own, opp);
+        if (moves == 0) {
+            lastScore = solve(own, opp, alpha, beta, empties);
+            return -1;
+        }
+        int best = -INFINITY;
+        int bestMove = -1;
+        int[] buffer = moveBuffers[empties];
+        int count = orderMoves(own, opp, moves, empties, buffer);
+        for (int i = 0; i < count; i++) {
+            int sq = buffer[i];
+            long f = BitBoard.flips(sq, own, opp);
+            int score = -solve(
+                    opp & ~f, own | f | (1L << sq), -beta, -Math.max(alpha, best), empties - 1
+            );
+            if (score > best) {
+                best = score;
+                bestMove = sq;
+                if (best >= beta) {
+                    break;
+                }
+            }
+        }
+        lastScore = best;
+        return bestMove;
+    }
+
+    // negamax alpha-beta solve of a position with empties empty squares
+    private int solve(long own, long opp, int alpha, int beta, int empties) {
+        nodes++;
+        if (empties == 2) {
+            long empty = ~(own | opp);
+            int sq1 = Long.numberOfTrailingZeros(empty);
+            int sq2 = 63 - Long.numberOfLeadingZeros(empty);
+            return solve2(own, opp, alpha, beta, sq1, sq2);
+        }
+        if (empties == 1) {
+            return solve1(own, opp, Long.numberOfTrailingZeros(~(own | opp)));
+        }
+        if (empties == 0) {
+            return Long.bitCount(own) - Long.bitCount(opp);
+        }
+
+        long moves = BitBoard.validMoves(own, opp);
+        if (moves == 0) {
+            if (BitBoard.validMoves(opp, own) == 0) {
+                return Long.bitCount(own) - Long.bitCount(opp);
+            }
+            return -solve(opp, own, -beta, -alpha, empties);
+        }
+
+        // narrow the window with the bounds proven earlier
+        int slot = -1;
+        int hashMove = NO_MOVE;
+        if (empties >= TABLE_EMPTIES) {
+            slot = tableSlot(own, opp);
+            if (tableOwn[slot] == own && tableOpp[slot] == opp) {
+                int data = tableData[slot];
+                int lower = (byte) data;
+                int upper = (byte) (data >> 8);
+                hashMove = (data >> 16) & 0xff;
+                if (lower >= beta) {
+                    return lower;
+                }
+                if (upper <= alpha) {
+                    return upper;
+                }
+                alpha = Math.max(alpha, lower);
+                beta = Math.min(beta, upper);
+            }
+        }
+
+        int originalAlpha = alpha;
+        int[] buffer = moveBuffers[empties];
+        int count = orderMoves(own, opp, moves, empties, buffer);
+        if (hashMove != NO_MOVE) {
+            moveToFront(buffer, count, hashMove);
+        }
+        int best = -INFINITY;
+        int bestMove = NO_MOVE;
+        for (int i = 0; i < count; i++) {
+            int sq = buffer[i];
+            long f = BitBoard.flips(sq, own, opp);
+            int score = -solve(opp & ~f, own | f | (1L << sq), -beta, -alpha, empties - 1);
+            if (score > best) {
+                best = score;
+                bestMove = sq;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (slot >= 0) {
+            int lower = -64;
+            int upper = 64;
+            // keep the bounds already known for this position
+            if (tableOwn[slot] == own && tableOpp[slot] == opp) {
+                lower = (byte) tableData[slot];
+                upper = (byte) (tableData[slot] >> 8);
+            }
+            if (best <= originalAlpha) {
+                upper = Math.min(upper, best);
+            } else if (best >= beta) {
+                lower = Math.max(lower, best);
+            } else {
+                lower = best;
+                upper = best;
+            }
+            tableOwn[slot] = own;
+            tableOpp[slot] = opp;
+            tableData[slot] = (lower & 0xff) | ((upper & 0xff) << 8) | (bestMove << 16);
+        }
+        return best;
+    }
+
+    // index of a position in the table
+    private int tableSlot(long own, long opp) {
+        long h = own * 0x9e3779b97f4a7c15L ^ opp * 0xc2b2ae3d27d4eb4fL;
+        return (int) (h >>> tableShift);
+    }
+
+    // moves sq to the front of the buffer keeping the order of the other moves
+    private static void moveToFront(int[] buffer, int count, int sq) {
+        for (int i = 0; i < count; i++) {
+            if (buffer[i] == sq) {
+                for (; i > 0; i--) {
+                    buffer[i] = buffer[i - 1];
+                }
+                buffer[0] = sq;
+                return;
+            }
+        }
+    }
+
+    // exact score with two empty squares left, unrolled
+    private int solve2(long own, long opp, int alpha, int beta, int sq1, int sq2) {
+        int best = -INFINITY;
+        long f = BitBoard.flips(sq1, own, opp);
+        if (f != 0) {
+            best = -solve1(opp & ~f, own | f | (1L << sq1), sq2);
+        }
+        if (best < beta) {
+            f = BitBoard.flips(sq2, own, opp);
+            if (f != 0) {
+                best = Math.max(best, -solve1(opp & ~f, own | f | (1L << sq2), sq1));
+            }
+        }
+        if (best != -INFINITY) {
+            return best;
+        }
+
+        // the player to move has to pass, the opponent picks the worst result
+        int worst = INFINITY;
+        f = BitBoard.flips(sq1, opp, own);
+        if (f != 0) {
+            worst = solve1(own & ~f, opp | f | (1L << sq1), sq2);
+        }
+        if (worst > alpha) {
+            f = BitBoard.flips(sq2, opp, own);
+            if (f != 0) {
+                worst = Math.min(worst, solve1(own & ~f, opp | f | (1L << sq2), sq1));
+            }
+        }
+        if (worst != INFINITY) {
+            return worst;
+        }
+        return Long.bitCount(own) - Long.bitCount(opp);
+    }
+
+    // exact score with one empty square left
+    private int solve1(long own, long opp, int sq) {
+        nodes++;
+        long f = BitBoard.flips(sq, own, opp);
+        if (f != 0) {
+            return Long.bitCount(own | f) + 1 - Long.bitCount(opp & ~f);
+        }
+        f = BitBoard.flips(sq, opp, own);
+        if (f != 0) {
+            return Long.bitCount(own & ~f) - Long.bitCount(opp | f) - 1;
+        }
+        return Long.bitCount(own) - Long.bitCount(opp);
+    }
+
+    // fills the buffer with the moves in the mask in the order they should be
+    // searched and returns the number of moves
+    private int orderMoves(long own, long opp, long moves, int empties, int[] buffer) {
+        int count = 0;
+        if (empties > FASTEST_FIRST_EMPTIES) {
+            // fastest-first, moves that leave the opponent the fewest replies go
+            // first, corners get a bonus
+            int[] keys = keyBuffers[empties];
+            for (long m = moves; m != 0; m &= m - 1) {
+                int sq = Long.numberOfTrailingZeros(m);
+                long placed = 1L << sq;
+                long f = BitBoard.flips(sq, own, opp);
+                int key = Long.bitCount(BitBoard.validMoves(opp & ~f, own | f | placed)) * 2;
+                if ((placed & CORNERS) != 0) {
+                    key -= 3;
+                }
+                int i = count++;
+                while (i > 0 && keys[i - 1] > key) {
+                    keys[i] = keys[i - 1];
+                    buffer[i] = buffer[i - 1];
+                    i--;
+                }
+                keys[i] = key;
+                buffer[i] = sq;
+            }
+        } else {
+            // parity, moves in regions with an odd number of empties go first
+            long empty = ~(own | opp);
+            long odd = 0;
+            for (long quadrant : QUADRANTS) {
+                if ((Long.bitCount(empty & quadrant) & 1) != 0) {
+                    odd |= quadrant;
+                }
+            }
+            for (long m = moves & odd; m != 0; m &= m - 1) {
+                buffer[count++] = Long.numberOfTrailingZeros(m);
+            }
+            for (long m = moves & ~odd; m != 0; m &= m - 1) {
+                buffer[count++] = Long.numberOfTrailingZeros(m);
+            }
+        }
+        return count;
+    }
+
+    // forgets every position stored in the table
+    public void clearTable() {
+        Arrays.fill(tableOwn, 0);
+        Arrays.fill(tableOpp, 0);
+        Arrays.fill(tableData, 0);
+    }
+
+    // result of the last solve from the view of the player to move
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    // best move square of the last solve, -1 if the player to move had to pass
+    public int getLastMove() {
+        return lastMove;
+    }
+
+    // nodes visited by the last solve
+    public long getLastNodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,70 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndgameSolverTest {
+
+    EndgameSolver solver = new EndgameSolver();
+
+    // plain minimax over the model with no pruning, used as a reference
+    private static int minimax(BitBoardOthello o) {
+        long moves = o.getValidMoves();
+        PlayerColor me = o.getCurrentTurn();
+        int sign = me == PlayerColor.BLACK ? 1 : -1;
+        if (moves == 0) {
+            return sign * (o.getBlackPoints() - o.getWhitePoints());
+        }
+        int best = Integer.MIN_VALUE;
+        for (; moves != 0; moves &= moves - 1) {
+            o.makeMove(Long.numberOfTrailingZeros(moves));
+            int score = minimax(o);
+            if (o.getCurrentTurn() != me) {
+                score = -score;
+            }
+            o.unmakeMove();
+            best = Math.max(best, score);
+        }
+        return best;
+    }
+
+    // the solver must agree with plain minimax on small endgames, including
+    // positions where players have to pass, and past TABLE_EMPTIES where the
+    // solver uses its table. Minimax is slow there so fewer positions are used
+    @Test
+    public void matchesMinimaxTest() {
+        Random rng = new Random(120);
+        for (int empties = 1; empties <= EndgameSolver.TABLE_EMPTIES + 2; empties++) {
+            int positions = empties < EndgameSolver.TABLE_EMPTIES ? 10 : 3;
+            for (int i = 0; i < positions; i++) {
+                BitBoardOthello o = EndgameBenchmark.positionWithEmpties(rng, empties);
+                int expected = minimax(o);
+                assertEquals(expected, solver.solve(o));
+                assertEquals(Integer.signum(expected), solver.solveWinLossDraw(o));
+            }
+        }
+    }
+
+    // the best move must achieve the solved score
+    @Test
+    public void bestMoveAchievesScoreTest() {
+        BitBoardOthello o = EndgameBenchmark.positionWithEmpties(new Random(7), 10);
+        int score = solver.solve(o);
+        solver.findBestMove(o);
+        PlayerColor me = o.getCurrentTurn();
+        o.makeMove(solver.getLastMove());
+        int after = solver.solve(o);
+        assertEquals(score, o.getCurrentTurn() == me ? after : -after);
+    }
+
+    // positions with too many empties are rejected
+    @Test
+    public void tooManyEmptiesTest() {
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(new BitBoardOthello()));
+    }
+}
@@ -0,0 +1,52 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoard;
+
+/**
+ * Static evaluation used by the search at the leaves of the tree.
+ *
+ * Scores are always from the point of view of the player owning the disks in
+ * own. Finished games are scored by the final disk difference times
+ * WIN_SCORE so that any win is better than any heuristic score.
+ */
+public final class Evaluation {
+
+    public static final int WIN_SCORE = 1000;
+
+    // weight of every square, corners are good and the squares next to them are
+    // bad because they give the opponent access to the corner
+    static final int[] SQUARE_WEIGHTS = {
+        100, -20, 10, 5, 5, 10, -20, 100,
+        -20, -50, -2, -2, -2, -2, -50, -20,
+        10, -2, -1, -1, -1, -1, -2, 10,
+        5, -2, -1, -1, -1, -1, -2, 5,
+        5, -2, -1, -1, -1, -1, -2, 5,
+        10, -2, -1, -1, -1, -1, -2, 10,
+        -20, -50, -2, -2, -2, -2, -50, -20,
+        100, -20, 10, 5, 5, 10, -20, 100
+    };
+
+    static final int MOBILITY_WEIGHT = 5;
+
+    private Evaluation() {
+    }
+
+    // heuristic score of a position that is not finished
+    public static int evaluate(long own, long opp) {
+        int score = 0;
+        for (long b = own; b != 0; b &= b - 1) {
+            score += SQUARE_WEIGHTS[Long.numberOfTrailingZeros(b)];
+        }
+        for (long b = opp; b != 0; b &= b - 1) {
+            score -= SQUARE_WEIGHTS[Long.numberOfTrailingZeros(b)];
+        }
+        int mobility = Long.bitCount(BitBoard.validMoves(own, opp)) -
+                Long.bitCount(BitBoard.validMoves(opp, own));
+        return score + MOBILITY_WEIGHT * mobility;
+    }
+
+    // exact score of a finished game
+    public static int finalScore(long own, long opp) {
+        return (Long.bitCount(own) - Long.bitCount(opp)) * WIN_SCORE;
+    }
+}
@@ -0,0 +1,215 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.OthelloModel;
+import org.cis120.Othello.ValidMove;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ParallelSearch runs a Lazy SMP search: every thread runs its own
+ * SearchEngine on its own copy of the root position, and all of them share
+ * one TranspositionTable. The threads help each other only through the
+ * table, which is lock-free, so no other synchronization is needed while
+ * searching. Helper threads start one ply deeper on every other thread so
+ * they explore different parts of the tree than the main thread.
+ *
+ * The search stops when the main thread finishes or the time budget runs out,
+ * and the result of the thread that completed the deepest iteration is
+ * returned.
+ *
+ * Call shutdown when the search is no longer needed to stop the threads.
+ */
+public class ParallelSearch {
+
+    private final int threads;
+    private final TranspositionTable table;
+    private final SearchEngine[] engines;
+    private final ExecutorService executor;
+
+    // results of the last search
+    private final long[] threadNodes;
+    private long lastNanos;
+    private int lastDepth;
+    private int lastScore;
+
+    // creates a search with its own shared transposition table
+    public ParallelSearch(int threadsParam) {
+        this(threadsParam, new TranspositionTable(SearchEngine.DEFAULT_TABLE_BITS));
+    }
+
+    /**
+     * Creates a search with the given number of threads sharing a table.
+     *
+     * @param threadsParam number of search threads, at least 1
+     * @param tableParam   transposition table shared by all threads
+     */
+    public ParallelSearch(int threadsParam, TranspositionTable tableParam) {
+        this(threadsParam, tableParam, EndgameSolver.DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Creates a search with the given number of threads sharing a table. Every
+     * thread has its own endgame table of the given size.
+     *
+     * @param threadsParam     number of search threads, at least 1
+     * @param tableParam       transposition table shared by all threads
+     * @param endgameTableBits log2 of the number of endgame table entries
+     */
+    public ParallelSearch(int threadsParam, TranspositionTable tableParam, int endgameTableBits) {
+        if (threadsParam < 1 || tableParam == null) {
+            throw new IllegalArgumentException();
+        }
+        threads = threadsParam;
+        table = tableParam;
+        engines = new SearchEngine[threads];
+        for (int i = 0; i < threads; i++) {
+            engines[i] = new SearchEngine(table, endgameTableBits);
+        }
+        threadNodes = new long[threads];
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "othello-search");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // searches without a depth limit, see findBestMove(position, time, depth)
+    public ValidMove findBestMove(OthelloModel position, long timeBudgetMillis) {
+        return findBestMove(position, timeBudgetMillis, 64);
+    }
+
+    /**
+     * findBestMove searches the position on every thread until the time budget
+     * runs out or the main thread has searched maxDepth completely. The
+     * position itself is never changed.
+     *
+     * @param position         position to search
+     * @param timeBudgetMillis time budget in milliseconds
+     * @param maxDepth         maximum depth in plies
+     * @return the best move, or null if the game is over
+     */
+    public ValidMove findBestMove(OthelloModel position, long timeBudgetMillis, int maxDepth) {
+        long start = System.nanoTime();
+        long deadline = SearchEngine.deadlineFor(timeBudgetMillis);
+        AtomicBoolean stop = new AtomicBoolean();
+        table.newSearch();
+
+        List<Future<ValidMove>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            SearchEngine engine = engines[i];
+            BitBoardOthello root = BitBoardOthello.copyOf(position);
+            boolean main = i == 0;
+            int startDepth = 1 + i % 2;
+            futures.add(executor.submit(() -> {
+                ValidMove move = engine.search(root, deadline, maxDepth, startDepth, stop);
+                // helpers keep going until the main thread is done
+                if (main) {
+                    stop.set(true);
+                }
+                return move;
+            }));
+        }
+
+        ValidMove best = null;
+        lastDepth = -1;
+        for (int i = 0; i < threads; i++) {
+            ValidMove move = get(futures.get(i));
+            threadNodes[i] = engines[i].getLastNodes();
+            if (engines[i].getLastDepth() > lastDepth) {
+                best = move;
+                lastDepth = engines[i].getLastDepth();
+                lastScore = engines[i].getLastScore();
+            }
+        }
+        lastNanos = System.nanoTime() - start;
+        return best;
+    }
+
+    // waits for a search thread to finish
+    private static ValidMove get(Future<ValidMove> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // stops the search threads
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // sets the leaf evaluation of every thread, null to use Evaluation
+    // the evaluation only holds read-only tables so the threads can share it
+    public void setEvaluation(PatternEvaluation evaluation) {
+        for (SearchEngine engine : engines) {
+            engine.setEvaluation(evaluation);
+        }
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    // table counters of all threads added together
+    public TableStats getTableStats() {
+        TableStats total = new TableStats();
+        for (SearchEngine engine : engines) {
+            total.add(engine.getTableStats());
+        }
+        return total;
+    }
+
+    // deepest completed iteration of the last search
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    // score of the last search from the view of the player to move
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    // wall clock time of the last search in nanoseconds
+    public long getLastNanos() {
+        return lastNanos;
+    }
+
+    // nodes searched by one thread in the last search
+    public long getThreadNodes(int thread) {
+        return threadNodes[thread];
+    }
+
+    // nodes searched by all threads in the last search
+    public long getTotalNodes() {
+        long total = 0;
+        for (long n : threadNodes) {
+            total += n;
+        }
+        return total;
+    }
+
+    // nodes per second of one thread in the last search
+    public double getThreadNodesPerSecond(int thread) {
+        return threadNodes[thread] / (lastNanos / 1e9);
+    }
+
+    // nodes per second of all threads together in the last search
+    public double getTotalNodesPerSecond() {
+        return getTotalNodes() / (lastNanos / 1e9);
+    }
+}
@@ -0,0 +1,67 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoardOthello;
+
+import java.util.Random;
+
+/**
+ * Measures how Lazy SMP scales by searching a fixed set of positions to a fixed
+ * depth with 1, 2, 4, 8 and 16 threads. Reports the time to depth, the speedup
+ * over one thread and the nodes per second of every thread and in total.
+ *
+ * Run this file to see the results in your console. Pass a depth as the first
+ * argument to change the search depth.
+ */
+public class ParallelSearchBenchmark {
+
+    private static final int[] THREAD_COUNTS = { 1, 2, 4, 8, 16 };
+    private static final int POSITIONS = 8;
+    private static final int DEFAULT_DEPTH = 10;
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        Random rng = new Random(120);
+        BitBoardOthello[] positions = new BitBoardOthello[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = SearchBenchmark.randomPosition(rng, 16 + 2 * i);
+        }
+        System.out.println(
+                "cores: " + Runtime.getRuntime().availableProcessors() + ", depth: " + depth
+        );
+
+        double baseline = 0;
+        for (int threads : THREAD_COUNTS) {
+            ParallelSearch search = new ParallelSearch(threads);
+            // warmup
+            search.findBestMove(positions[0], Long.MAX_VALUE, depth - 2);
+
+            long nanos = 0;
+            long[] nodes = new long[threads];
+            for (BitBoardOthello position : positions) {
+                search.getTable().clear();
+                search.findBestMove(position, Long.MAX_VALUE, depth);
+                nanos += search.getLastNanos();
+                for (int t = 0; t < threads; t++) {
+                    nodes[t] += search.getThreadNodes(t);
+                }
+            }
+            search.shutdown();
+
+            double seconds = nanos / 1e9;
+            if (threads == 1) {
+                baseline = seconds;
+            }
+            long total = 0;
+            StringBuilder perThread = new StringBuilder();
+            for (int t = 0; t < threads; t++) {
+                total += nodes[t];
+                perThread.append(String.format(" %.0f", nodes[t] / seconds));
+            }
+            System.out.printf(
+                    "threads: %2d  time: %7.2f s  speedup: %5.2fx  total nodes/s: %10.0f%n",
+                    threads, seconds, baseline / seconds, total / seconds
+            );
+            System.out.println("  nodes/s per thread:" + perThread);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoard;
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.PlayerColor;
+import org.cis120.Othello.ValidMove;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSearchTest {
+
+    // several threads must agree with a single engine on an obvious move and
+    // must not change the position they search
+    @Test
+    public void parallelFindsWinningCornerTest() {
+        BitBoardOthello o = new BitBoardOthello();
+        long white = 0;
+        for (int x = 1; x < 7; x++) {
+            white |= BitBoard.square(x, 0);
+        }
+        o.setPosition(BitBoard.square(7, 0), white, PlayerColor.BLACK);
+        ParallelSearch search = new ParallelSearch(4);
+        ValidMove move = search.findBestMove(o, 200);
+        search.shutdown();
+        assertEquals(0, move.getX());
+        assertEquals(0, move.getY());
+        assertEquals(white, o.getWhiteDisks());
+        assertTrue(search.getTotalNodes() > 0);
+    }
+
+    // the fixed depth result of every thread count is a legal move
+    @Test
+    public void fixedDepthTest() {
+        BitBoardOthello o = SearchBenchmark.randomPosition(new java.util.Random(120), 20);
+        ParallelSearch search = new ParallelSearch(3);
+        ValidMove move = search.findBestMove(o, Long.MAX_VALUE, 5);
+        search.shutdown();
+        assertNotEquals(0, o.getValidMoves() & BitBoard.square(move.getX(), move.getY()));
+        assertTrue(search.getLastDepth() >= 5);
+
+        // every thread counts its own table use and the totals add them up
+        TableStats stats = search.getTableStats();
+        assertTrue(stats.getProbes() > 0);
+        assertTrue(stats.getHits() <= stats.getProbes());
+        assertTrue(stats.getStores() > 0);
+    }
+}
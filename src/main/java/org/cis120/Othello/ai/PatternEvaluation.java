@@ -0,0 +1,94 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoard;
+import org.cis120.Othello.PatternIndexes;
+
+/**
+ * PatternEvaluation scores a position from the base-3 indexes of the board
+ * patterns in Patterns, plus a mobility table.
+ *
+ * The indexes are kept up to date by the model (see PatternIndexes), so
+ * scoring a position is one table lookup per pattern instance instead of a
+ * scan over the board. The weights are copied into one int table per stage
+ * and side to move when the evaluation is created, so lookups do not need to
+ * swap colors.
+ *
+ * Like Evaluation, scores are from the view of the player to move and stay
+ * below WIN_SCORE so any win is better than any heuristic score.
+ */
+public final class PatternEvaluation {
+    private static final int MAX_SCORE = Evaluation.WIN_SCORE - 1;
+
+    // offset of the table of every instance inside the tables below
+    private static final int[] INSTANCE_OFFSET = new int[Patterns.instanceCount()];
+    private static final int TABLE_SIZE;
+
+    static {
+        int[] typeOffset = new int[Patterns.TYPES];
+        int size = 0;
+        for (int type = 0; type < Patterns.TYPES; type++) {
+            typeOffset[type] = size;
+            size += Patterns.typeSize(type);
+        }
+        for (int i = 0; i < INSTANCE_OFFSET.length; i++) {
+            INSTANCE_OFFSET[i] = typeOffset[Patterns.instanceType(i)];
+        }
+        TABLE_SIZE = size;
+    }
+
+    // [stage][offset + index] for black and white to move
+    private final int[][] blackTables = new int[PatternWeights.STAGES][TABLE_SIZE];
+    private final int[][] whiteTables = new int[PatternWeights.STAGES][TABLE_SIZE];
+    private final int[][] mobility = new int[PatternWeights.STAGES][PatternWeights.MOBILITY_SIZE];
+
+    public PatternEvaluation(PatternWeights weights) {
+        for (int stage = 0; stage < PatternWeights.STAGES; stage++) {
+            int offset = 0;
+            for (int type = 0; type < Patterns.TYPES; type++) {
+                int length = Patterns.typeLength(type);
+                for (int index = 0; index < Patterns.typeSize(type); index++) {
+                    int weight = weights.get(stage, type, index);
+                    blackTables[stage][offset + index] = weight;
+                    // white to move sees its disks as digit 1
+                    whiteTables[stage][offset + Patterns.swapColors(index, length)] = weight;
+                }
+                offset += Patterns.typeSize(type);
+            }
+            for (int i = 0; i < PatternWeights.MOBILITY_SIZE; i++) {
+                mobility[stage][i] = weights.get(stage, Patterns.TYPES, i);
+            }
+        }
+    }
+
+    /**
+     * evaluate scores a position that is not finished.
+     *
+     * @param indexes     pattern indexes of the position, from Patterns.newIndexes
+     * @param own         disks of the player to move
+     * @param opp         disks of the opponent
+     * @param blackToMove true if the player to move is black
+     * @return heuristic score for the player to move
+     */
+    public int evaluate(PatternIndexes indexes, long own, long opp, boolean blackToMove) {
+        int stage = PatternWeights.stage(Long.bitCount(own | opp));
+        int[] table = blackToMove ? blackTables[stage] : whiteTables[stage];
+        int sum = 0;
+        for (int i = 0; i < INSTANCE_OFFSET.length; i++) {
+            sum += table[INSTANCE_OFFSET[i] + indexes.get(i)];
+        }
+        int moves = Long.bitCount(BitBoard.validMoves(own, opp)) -
+                Long.bitCount(BitBoard.validMoves(opp, own));
+        sum += mobility[stage][Math.max(0, Math.min(
+                PatternWeights.MOBILITY_SIZE - 1, moves + PatternWeights.MOBILITY_OFFSET))];
+        int score = sum / PatternWeights.WEIGHT_SCALE;
+        return Math.max(-MAX_SCORE, Math.min(MAX_SCORE, score));
+    }
+
+    // scores a position without attached indexes by computing every index
+    // from scratch, much slower than evaluate
+    public int evaluate(long own, long opp, boolean blackToMove) {
+        PatternIndexes indexes = Patterns.newIndexes();
+        indexes.setBoard(blackToMove ? own : opp, blackToMove ? opp : own);
+        return evaluate(indexes, own, opp, blackToMove);
+    }
+}
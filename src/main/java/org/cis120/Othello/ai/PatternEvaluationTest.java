@@ -0,0 +1,141 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoard;
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.Othello;
+import org.cis120.Othello.OthelloModel;
+import org.cis120.Othello.PatternIndexes;
+import org.cis120.Othello.PlayerColor;
+import org.cis120.Othello.Symmetry;
+import org.cis120.Othello.ValidMove;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PatternEvaluationTest {
+
+    private static void assertIndexes(PatternIndexes indexes, long black, long white) {
+        for (int i = 0; i < indexes.size(); i++) {
+            assertEquals(Patterns.index(i, black, white), indexes.get(i));
+        }
+    }
+
+    @Test
+    public void patternsTest() {
+        assertEquals(46, Patterns.instanceCount());
+        // every square is covered by some pattern
+        long covered = 0;
+        for (int i = 0; i < Patterns.instanceCount(); i++) {
+            for (int sq : Patterns.instanceSquares(i)) {
+                covered |= 1L << sq;
+            }
+        }
+        assertEquals(-1L, covered);
+        assertEquals(59049, Patterns.typeSize(Patterns.EDGE_2X));
+    }
+
+    // the indexes follow playTurn, makeMove and unmakeMove
+    @Test
+    public void incrementalIndexesTest() {
+        Random rng = new Random(120);
+        BitBoardOthello bits = new BitBoardOthello();
+        OthelloModel array = new Othello();
+        PatternIndexes bitIndexes = Patterns.newIndexes();
+        PatternIndexes arrayIndexes = Patterns.newIndexes();
+        bits.setPatternIndexes(bitIndexes);
+        array.setPatternIndexes(arrayIndexes);
+        assertIndexes(bitIndexes, BitBoard.START_BLACK, BitBoard.START_WHITE);
+        while (bits.checkWinner() == null) {
+            long moves = bits.getValidMoves();
+            int n = rng.nextInt(Long.bitCount(moves));
+            for (int i = 0; i < n; i++) {
+                moves &= moves - 1;
+            }
+            int sq = Long.numberOfTrailingZeros(moves);
+            array.playTurn(sq % 8, sq / 8, array.getCurrentTurn());
+            bits.makeMove(sq);
+            assertIndexes(bitIndexes, bits.getBlackDisks(), bits.getWhiteDisks());
+            assertIndexes(arrayIndexes, bits.getBlackDisks(), bits.getWhiteDisks());
+        }
+        while (true) {
+            try {
+                bits.unmakeMove();
+            } catch (IllegalStateException e) {
+                break;
+            }
+            assertIndexes(bitIndexes, bits.getBlackDisks(), bits.getWhiteDisks());
+        }
+        assertIndexes(bitIndexes, BitBoard.START_BLACK, BitBoard.START_WHITE);
+    }
+
+    // colors are swapped for white, so a position and the same position with
+    // the colors and the player to move swapped get the same score
+    @Test
+    public void colorSymmetryTest() {
+        PatternEvaluation eval = new PatternEvaluation(PatternWeights.defaults());
+        BitBoardOthello o = new BitBoardOthello();
+        o.playTurn(5, 4, PlayerColor.BLACK);
+        long black = o.getBlackDisks();
+        long white = o.getWhiteDisks();
+        int score = eval.evaluate(white, black, false);
+        assertEquals(score, eval.evaluate(white, black, true));
+        // the board is symmetric so rotating it does not change the score
+        assertEquals(score, eval.evaluate(
+                Symmetry.transform(white, 5), Symmetry.transform(black, 5), false
+        ));
+        assertEquals(0, eval.evaluate(BitBoard.START_BLACK, BitBoard.START_WHITE, true));
+    }
+
+    // the default weights are close to Evaluation
+    @Test
+    public void defaultWeightsTest() {
+        PatternEvaluation eval = new PatternEvaluation(PatternWeights.defaults());
+        Random rng = new Random(3);
+        for (int i = 0; i < 200; i++) {
+            long own = rng.nextLong() & rng.nextLong();
+            long opp = rng.nextLong() & rng.nextLong() & ~own;
+            int expected = Evaluation.evaluate(own, opp);
+            assertTrue(Math.abs(expected - eval.evaluate(own, opp, i % 2 == 0)) <= 2);
+        }
+    }
+
+    @Test
+    public void saveAndLoadTest() throws IOException {
+        File file = File.createTempFile("weights", ".bin");
+        file.deleteOnExit();
+        PatternWeights weights = PatternWeights.defaults();
+        weights.set(3, Patterns.CORNER_3X3, 17, -1234);
+        weights.save(file.getPath());
+        PatternWeights loaded = PatternWeights.load(file.getPath());
+        assertEquals(-1234, loaded.get(3, Patterns.CORNER_3X3, 17));
+        for (int type = 0; type < Patterns.TYPES; type++) {
+            for (int index = 0; index < Patterns.typeSize(type); index += 97) {
+                assertEquals(weights.get(5, type, index), loaded.get(5, type, index));
+            }
+        }
+        assertEquals(weights.getMobility(0, 7), loaded.getMobility(0, 7));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> PatternWeights.load("files/input/testBoard.txt")
+        );
+    }
+
+    // a search with the pattern evaluation plays a valid move and leaves the
+    // root without indexes
+    @Test
+    public void searchTest() {
+        SearchEngine engine = new SearchEngine();
+        engine.setEvaluation(new PatternEvaluation(PatternWeights.defaults()));
+        BitBoardOthello o = new BitBoardOthello();
+        long hash = o.getHashKey();
+        ValidMove move = engine.findBestMove(o, 1000, 5);
+        assertTrue((o.getValidMoves() & 1L << move.getSquare()) != 0);
+        assertEquals(hash, o.getHashKey());
+        assertNull(o.getPatternIndexes());
+        assertEquals(5, engine.getLastDepth());
+    }
+}
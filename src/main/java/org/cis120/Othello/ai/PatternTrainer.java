@@ -0,0 +1,362 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoard;
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.GameRecord;
+import org.cis120.Othello.GameRecordReader;
+import org.cis120.Othello.PatternIndexes;
+import org.cis120.Othello.PlayerColor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * PatternTrainer fits the weights of PatternEvaluation to the results of
+ * recorded games.
+ *
+ * Every position of a finished game where a move is played is labelled with
+ * the final disk difference from the view of the player to move, times
+ * TARGET_SCALE so that labels fit the range of heuristic scores. An epoch
+ * streams the game file through a fixed size chunk of positions: games are
+ * replayed with pattern indexes attached, the features of every position are
+ * stored as ints, and the chunk is trained in shuffled mini-batches before
+ * the next games are read. Memory therefore stays the same for any number of
+ * games.
+ *
+ * A mini-batch is split between the threads in two steps. First every thread
+ * scores its share of the positions and sums the residuals of every feature
+ * into its own gradient array. Then every thread applies the summed update
+ * of the features it owns (feature % threads), so no two threads write the
+ * same weight. A weight moves by rate times the mean residual of the
+ * positions containing it, divided by the number of features of a position.
+ *
+ * A trainer is not thread safe.
+ */
+public class PatternTrainer {
+    public static final int TARGET_SCALE = 10;
+
+    // pattern instances plus the mobility table
+    static final int FEATURES = Patterns.instanceCount() + 1;
+    private static final int CHUNK_POSITIONS = 1 << 16;
+
+    // offset of every type inside the weights of a stage, the mobility table
+    // comes after the last type
+    private static final int[] TYPE_OFFSET = new int[Patterns.TYPES + 1];
+    private static final int STAGE_SIZE;
+    // index with the colors swapped, for every type
+    private static final int[][] SWAPPED = new int[Patterns.TYPES][];
+
+    static {
+        int size = 0;
+        for (int type = 0; type < Patterns.TYPES; type++) {
+            TYPE_OFFSET[type] = size;
+            size += Patterns.typeSize(type);
+            SWAPPED[type] = new int[Patterns.typeSize(type)];
+            for (int index = 0; index < SWAPPED[type].length; index++) {
+                SWAPPED[type][index] = Patterns.swapColors(index, Patterns.typeLength(type));
+            }
+        }
+        TYPE_OFFSET[Patterns.TYPES] = size;
+        STAGE_SIZE = size + PatternWeights.MOBILITY_SIZE;
+    }
+
+    private final int threads;
+    private final int batchSize;
+    private final double rate;
+    private final ExecutorService executor;
+
+    // weights in evaluation points, [stage * STAGE_SIZE + offset + index]
+    private final float[] weights = new float[PatternWeights.STAGES * STAGE_SIZE];
+    // summed residuals and number of positions of every feature, per thread
+    private final float[][] gradients;
+    private final int[][] counts;
+
+    // the current chunk, features[p * FEATURES + k] is feature k of position p
+    private final int[] features = new int[CHUNK_POSITIONS * FEATURES];
+    private final float[] targets = new float[CHUNK_POSITIONS];
+    private final int[] order = new int[CHUNK_POSITIONS];
+    private int chunkSize;
+
+    private final BitBoardOthello o = new BitBoardOthello();
+    private final PatternIndexes indexes = Patterns.newIndexes();
+
+    private long lastPositions;
+
+    /**
+     * Creates a trainer.
+     *
+     * @param threadsParam   number of threads, at least 1
+     * @param batchSizeParam positions per mini-batch, at least 1
+     * @param rateParam      learning rate, 1 moves the score of a batch by
+     *                       about its mean residual
+     * @param initial        weights to start from
+     */
+    public PatternTrainer(int threadsParam, int batchSizeParam, double rateParam,
+            PatternWeights initial) {
+        if (threadsParam < 1 || batchSizeParam < 1 || !(rateParam > 0) || initial == null) {
+            throw new IllegalArgumentException();
+        }
+        threads = threadsParam;
+        batchSize = batchSizeParam;
+        rate = rateParam;
+        gradients = new float[threads][weights.length];
+        counts = new int[threads][weights.length];
+        for (int stage = 0; stage < PatternWeights.STAGES; stage++) {
+            for (int type = 0; type <= Patterns.TYPES; type++) {
+                int size = type < Patterns.TYPES
+                        ? Patterns.typeSize(type) : PatternWeights.MOBILITY_SIZE;
+                for (int index = 0; index < size; index++) {
+                    weights[stage * STAGE_SIZE + TYPE_OFFSET[type] + index] =
+                            (float) initial.get(stage, type, index) / PatternWeights.WEIGHT_SCALE;
+                }
+            }
+        }
+        o.setPatternIndexes(indexes);
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "othello-trainer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // number of positions trained in the last epoch
+    public long getLastPositions() {
+        return lastPositions;
+    }
+
+    /**
+     * trainEpoch trains once on every position of the games read by reader.
+     *
+     * @param reader games to train on, read to the end
+     * @param rng    random numbers used to shuffle every chunk
+     * @return mean absolute error in disks before every update
+     */
+    public double trainEpoch(GameRecordReader reader, SplittableRandom rng) throws IOException {
+        double error = 0;
+        lastPositions = 0;
+        chunkSize = 0;
+        GameRecord game;
+        while ((game = reader.next()) != null) {
+            // every move fills an empty square, so a game has at most as many
+            // positions with a move as its start has empties
+            int empties = 64 - Long.bitCount(game.getStartBlack() | game.getStartWhite());
+            if (chunkSize + empties > CHUNK_POSITIONS) {
+                error += trainChunk(rng);
+            }
+            addGame(game);
+        }
+        error += trainChunk(rng);
+        return lastPositions == 0 ? 0 : error / lastPositions / TARGET_SCALE;
+    }
+
+    // stores the features and label of every position of a finished game
+    private void addGame(GameRecord game) {
+        if (!game.isFinished()) {
+            return;
+        }
+        int diff = game.getBlackPoints() - game.getWhitePoints();
+        o.setPosition(game.getStartBlack(), game.getStartWhite(), game.getStartTurn());
+        for (int i = 0; i < game.getMoveCount(); i++) {
+            int sq = game.getMove(i);
+            // the model passes on its own
+            if (sq == GameRecord.PASS) {
+                continue;
+            }
+            boolean black = o.getCurrentTurn() == PlayerColor.BLACK;
+            long own = black ? o.getBlackDisks() : o.getWhiteDisks();
+            long opp = black ? o.getWhiteDisks() : o.getBlackDisks();
+            int base = PatternWeights.stage(Long.bitCount(own | opp)) * STAGE_SIZE;
+            int f = chunkSize * FEATURES;
+            for (int p = 0; p < FEATURES - 1; p++) {
+                int type = Patterns.instanceType(p);
+                // weights see the player to move as black
+                int index = black ? indexes.get(p) : SWAPPED[type][indexes.get(p)];
+                features[f + p] = base + TYPE_OFFSET[type] + index;
+            }
+            int moves = Long.bitCount(BitBoard.validMoves(own, opp)) -
+                    Long.bitCount(BitBoard.validMoves(opp, own));
+            features[f + FEATURES - 1] = base + TYPE_OFFSET[Patterns.TYPES] + Math.max(0,
+                    Math.min(PatternWeights.MOBILITY_SIZE - 1,
+                            moves + PatternWeights.MOBILITY_OFFSET));
+            targets[chunkSize] = (black ? diff : -diff) * TARGET_SCALE;
+            chunkSize++;
+            o.makeMove(sq);
+        }
+    }
+
+    // trains on the chunk in shuffled mini-batches and empties it, returns the
+    // summed absolute error
+    private double trainChunk(SplittableRandom rng) {
+        for (int i = 0; i < chunkSize; i++) {
+            int j = rng.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        double error = 0;
+        List<Callable<Double>> residuals = new ArrayList<>(threads);
+        List<Callable<Double>> updates = new ArrayList<>(threads);
+        for (int start = 0; start < chunkSize; start += batchSize) {
+            int first = start;
+            int end = Math.min(chunkSize, start + batchSize);
+            residuals.clear();
+            updates.clear();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                int from = start + (end - start) * t / threads;
+                int to = start + (end - start) * (t + 1) / threads;
+                residuals.add(() -> residuals(thread, from, to));
+                updates.add(() -> update(thread, first, end));
+            }
+            for (Future<Double> future : invokeAll(residuals)) {
+                error += get(future);
+            }
+            invokeAll(updates);
+        }
+        lastPositions += chunkSize;
+        chunkSize = 0;
+        return error;
+    }
+
+    // scores positions from up to to and sums their residuals into the
+    // gradient of thread, returns the summed absolute error
+    private double residuals(int thread, int from, int to) {
+        float[] gradient = gradients[thread];
+        int[] count = counts[thread];
+        double error = 0;
+        for (int i = from; i < to; i++) {
+            int f = order[i] * FEATURES;
+            float score = 0;
+            for (int k = 0; k < FEATURES; k++) {
+                score += weights[features[f + k]];
+            }
+            float residual = targets[order[i]] - score;
+            error += Math.abs(residual);
+            for (int k = 0; k < FEATURES; k++) {
+                gradient[features[f + k]] += residual;
+                count[features[f + k]]++;
+            }
+        }
+        return error;
+    }
+
+    // applies the summed gradient of the features of positions from up to to
+    // that thread owns, and clears it
+    private Double update(int thread, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int f = order[i] * FEATURES;
+            for (int k = 0; k < FEATURES; k++) {
+                int feature = features[f + k];
+                if (feature % threads != thread) {
+                    continue;
+                }
+                float sum = 0;
+                int n = 0;
+                for (int t = 0; t < threads; t++) {
+                    sum += gradients[t][feature];
+                    n += counts[t][feature];
+                    gradients[t][feature] = 0;
+                    counts[t][feature] = 0;
+                }
+                // 0 if the feature was already applied for an earlier position
+                if (n != 0) {
+                    weights[feature] += rate * sum / n / FEATURES;
+                }
+            }
+        }
+        return null;
+    }
+
+    private List<Future<Double>> invokeAll(List<Callable<Double>> tasks) {
+        try {
+            return executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double get(Future<Double> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // returns the current weights, rounded to the weight file units
+    public PatternWeights getWeights() {
+        PatternWeights w = new PatternWeights();
+        for (int stage = 0; stage < PatternWeights.STAGES; stage++) {
+            for (int type = 0; type <= Patterns.TYPES; type++) {
+                int size = type < Patterns.TYPES
+                        ? Patterns.typeSize(type) : PatternWeights.MOBILITY_SIZE;
+                for (int index = 0; index < size; index++) {
+                    float weight = weights[stage * STAGE_SIZE + TYPE_OFFSET[type] + index];
+                    w.set(stage, type, index, Math.round(weight * PatternWeights.WEIGHT_SCALE));
+                }
+            }
+        }
+        return w;
+    }
+
+    // stops the training threads
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Trains weights from the command line.
+     *
+     * Usage: PatternTrainer games weights [epochs] [threads] [batch] [rate] [initial]
+     * Defaults to 10 epochs on every core, batches of 4096 positions, a rate
+     * of 0.5 and starting from PatternWeights.defaults.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println(
+                    "usage: PatternTrainer games weights [epochs] [threads] [batch] [rate] "
+                            + "[initial]"
+            );
+            return;
+        }
+        int epochs = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int threads = args.length > 3
+                ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int batch = args.length > 4 ? Integer.parseInt(args[4]) : 4096;
+        double rate = args.length > 5 ? Double.parseDouble(args[5]) : 0.5;
+        PatternWeights initial =
+                args.length > 6 ? PatternWeights.load(args[6]) : PatternWeights.defaults();
+
+        PatternTrainer trainer = new PatternTrainer(threads, batch, rate, initial);
+        SplittableRandom rng = new SplittableRandom(120);
+        try {
+            for (int epoch = 1; epoch <= epochs; epoch++) {
+                long start = System.nanoTime();
+                double error;
+                try (GameRecordReader reader = new GameRecordReader(args[0])) {
+                    error = trainer.trainEpoch(reader, rng);
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf(
+                        "epoch %d: mean error %.2f disks, %d positions, %.0f positions/s%n",
+                        epoch, error, trainer.getLastPositions(),
+                        trainer.getLastPositions() / seconds
+                );
+                // written every epoch so a long run can be stopped at any time
+                trainer.getWeights().save(args[1]);
+            }
+        } finally {
+            trainer.shutdown();
+        }
+    }
+}
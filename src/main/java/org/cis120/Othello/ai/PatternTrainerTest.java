@@ -0,0 +1,139 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.GameRecord;
+import org.cis120.Othello.GameRecordReader;
+import org.cis120.Othello.GameRecordWriter;
+import org.cis120.Othello.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PatternTrainerTest {
+
+    // writes random games into a temporary game file
+    private static String randomGames(List<GameRecord> games, int count) throws IOException {
+        File file = File.createTempFile("games", ".bin");
+        file.deleteOnExit();
+        new File(GameRecordWriter.indexFile(file.getPath())).deleteOnExit();
+        Random rng = new Random(120);
+        try (GameRecordWriter writer = new GameRecordWriter(file.getPath())) {
+            for (int g = 0; g < count; g++) {
+                BitBoardOthello o = new BitBoardOthello();
+                int[] moves = new int[64];
+                int n = 0;
+                while (o.checkWinner() == null) {
+                    long valid = o.getValidMoves();
+                    int pick = rng.nextInt(Long.bitCount(valid));
+                    for (int i = 0; i < pick; i++) {
+                        valid &= valid - 1;
+                    }
+                    moves[n] = Long.numberOfTrailingZeros(valid);
+                    o.makeMove(moves[n++]);
+                }
+                GameRecord game = GameRecord.of(moves, n);
+                games.add(game);
+                writer.write(game);
+            }
+        }
+        return file.getPath();
+    }
+
+    // mean absolute error in disks of an evaluation over every position
+    // with a move
+    private static double meanError(PatternEvaluation eval, List<GameRecord> games) {
+        double error = 0;
+        int positions = 0;
+        BitBoardOthello o = new BitBoardOthello();
+        for (GameRecord game : games) {
+            int diff = game.getBlackPoints() - game.getWhitePoints();
+            o.reset();
+            for (int i = 0; i < game.getMoveCount(); i++) {
+                if (game.getMove(i) == GameRecord.PASS) {
+                    continue;
+                }
+                boolean black = o.getCurrentTurn() == PlayerColor.BLACK;
+                long own = black ? o.getBlackDisks() : o.getWhiteDisks();
+                long opp = black ? o.getWhiteDisks() : o.getBlackDisks();
+                int score = eval.evaluate(own, opp, black);
+                error += Math.abs((black ? diff : -diff) * PatternTrainer.TARGET_SCALE - score);
+                positions++;
+                o.makeMove(game.getMove(i));
+            }
+        }
+        return error / positions / PatternTrainer.TARGET_SCALE;
+    }
+
+    @Test
+    public void invalidArgumentsTest() {
+        PatternWeights w = new PatternWeights();
+        assertThrows(IllegalArgumentException.class, () -> new PatternTrainer(0, 1, 1, w));
+        assertThrows(IllegalArgumentException.class, () -> new PatternTrainer(1, 0, 1, w));
+        assertThrows(IllegalArgumentException.class, () -> new PatternTrainer(1, 1, 0, w));
+        assertThrows(IllegalArgumentException.class, () -> new PatternTrainer(1, 1, 1, null));
+    }
+
+    // the training error goes down over the epochs and every position is seen
+    // once per epoch
+    @Test
+    public void errorDecreasesTest() throws IOException {
+        List<GameRecord> games = new ArrayList<>();
+        String file = randomGames(games, 300);
+        int positions = 0;
+        for (GameRecord game : games) {
+            for (int i = 0; i < game.getMoveCount(); i++) {
+                positions += game.getMove(i) == GameRecord.PASS ? 0 : 1;
+            }
+        }
+        PatternTrainer trainer = new PatternTrainer(2, 256, 0.5, PatternWeights.defaults());
+        SplittableRandom rng = new SplittableRandom(120);
+        try {
+            double first = 0;
+            double last = 0;
+            for (int epoch = 0; epoch < 5; epoch++) {
+                try (GameRecordReader reader = new GameRecordReader(file)) {
+                    last = trainer.trainEpoch(reader, rng);
+                }
+                assertEquals(positions, trainer.getLastPositions());
+                if (epoch == 0) {
+                    first = last;
+                }
+            }
+            assertTrue(last < first, first + " " + last);
+        } finally {
+            trainer.shutdown();
+        }
+    }
+
+    // the weight file written after training scores the training games better
+    // than the weights it started from
+    @Test
+    public void trainedWeightsTest() throws IOException {
+        List<GameRecord> games = new ArrayList<>();
+        String file = randomGames(games, 300);
+        PatternTrainer trainer = new PatternTrainer(3, 128, 0.5, PatternWeights.defaults());
+        SplittableRandom rng = new SplittableRandom(120);
+        try {
+            for (int epoch = 0; epoch < 3; epoch++) {
+                try (GameRecordReader reader = new GameRecordReader(file)) {
+                    trainer.trainEpoch(reader, rng);
+                }
+            }
+        } finally {
+            trainer.shutdown();
+        }
+        File weights = File.createTempFile("weights", ".bin");
+        weights.deleteOnExit();
+        trainer.getWeights().save(weights.getPath());
+        PatternEvaluation trained = new PatternEvaluation(PatternWeights.load(weights.getPath()));
+        PatternEvaluation defaults = new PatternEvaluation(PatternWeights.defaults());
+        assertTrue(meanError(trained, games) < meanError(defaults, games));
+    }
+}
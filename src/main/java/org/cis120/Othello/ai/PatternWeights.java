@@ -0,0 +1,179 @@
+package org.cis120.Othello.ai;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * PatternWeights holds the weight tables of PatternEvaluation, one set for
+ * every game stage.
+ *
+ * Weights are seen from black (index digit 1) and stored as shorts in units of
+ * 1 / WEIGHT_SCALE of an evaluation point. Besides one table per pattern type
+ * there is a mobility table indexed by the difference in valid moves plus
+ * MOBILITY_OFFSET.
+ *
+ * The weight file is big-endian: magic, version, stage count, type count,
+ * the length of every type and the mobility table size (all ints), followed
+ * by the weights of every stage, type by type and then the mobility table
+ * (all shorts).
+ */
+public final class PatternWeights {
+    // "OTHW"
+    private static final int MAGIC = 0x4f544857;
+    private static final int VERSION = 1;
+
+    public static final int STAGES = 6;
+    public static final int WEIGHT_SCALE = 16;
+    public static final int MOBILITY_OFFSET = 32;
+    public static final int MOBILITY_SIZE = 2 * MOBILITY_OFFSET + 1;
+
+    // weights[stage][type][index], with type TYPES being the mobility table
+    private final short[][][] weights = new short[STAGES][Patterns.TYPES + 1][];
+
+    // creates weights that are all 0
+    public PatternWeights() {
+        for (int stage = 0; stage < STAGES; stage++) {
+            for (int type = 0; type < Patterns.TYPES; type++) {
+                weights[stage][type] = new short[Patterns.typeSize(type)];
+            }
+            weights[stage][Patterns.TYPES] = new short[MOBILITY_SIZE];
+        }
+    }
+
+    // returns the stage of a position with the given number of disks
+    public static int stage(int disks) {
+        return Math.min(STAGES - 1, Math.max(0, (disks - 4) * STAGES / 61));
+    }
+
+    public int get(int stage, int type, int index) {
+        return weights[stage][type][index];
+    }
+
+    // sets a weight, clamped to the range of a short
+    public void set(int stage, int type, int index, int weight) {
+        weights[stage][type][index] =
+                (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, weight));
+    }
+
+    // returns the weight of a difference in valid moves, the mobility table is
+    // also reachable through get and set as type Patterns.TYPES
+    public int getMobility(int stage, int difference) {
+        int i = Math.max(0, Math.min(MOBILITY_SIZE - 1, difference + MOBILITY_OFFSET));
+        return weights[stage][Patterns.TYPES][i];
+    }
+
+    /**
+     * defaults returns weights that score a position like Evaluation does:
+     * every square weight is shared evenly by the instances covering the
+     * square, and mobility uses the same weight per move.
+     *
+     * @return weights for every stage
+     */
+    public static PatternWeights defaults() {
+        int[] covering = new int[64];
+        for (int i = 0; i < Patterns.instanceCount(); i++) {
+            for (int sq : Patterns.INSTANCES[i]) {
+                covering[sq]++;
+            }
+        }
+        // every type is scored through its first instance, the others are its
+        // symmetric copies and the square weights are symmetric
+        int[] first = new int[Patterns.TYPES];
+        for (int i = Patterns.instanceCount() - 1; i >= 0; i--) {
+            first[Patterns.instanceType(i)] = i;
+        }
+        PatternWeights w = new PatternWeights();
+        for (int type = 0; type < Patterns.TYPES; type++) {
+            int[] squares = Patterns.INSTANCES[first[type]];
+            for (int index = 0; index < Patterns.typeSize(type); index++) {
+                double score = 0;
+                int rest = index;
+                for (int sq : squares) {
+                    int digit = rest % 3;
+                    rest /= 3;
+                    double share = (double) Evaluation.SQUARE_WEIGHTS[sq] / covering[sq];
+                    if (digit == 1) {
+                        score += share;
+                    } else if (digit == 2) {
+                        score -= share;
+                    }
+                }
+                for (int stage = 0; stage < STAGES; stage++) {
+                    w.set(stage, type, index, (int) Math.round(score * WEIGHT_SCALE));
+                }
+            }
+        }
+        for (int stage = 0; stage < STAGES; stage++) {
+            for (int i = 0; i < MOBILITY_SIZE; i++) {
+                w.set(stage, Patterns.TYPES, i,
+                        (i - MOBILITY_OFFSET) * Evaluation.MOBILITY_WEIGHT * WEIGHT_SCALE);
+            }
+        }
+        return w;
+    }
+
+    /**
+     * load reads a weight file. Throws an IllegalArgumentException if the file
+     * does not match the patterns of this version.
+     *
+     * @param file path of the weight file
+     * @return the weights in the file
+     */
+    public static PatternWeights load(String file) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(Paths.get(file)));
+        PatternWeights w = new PatternWeights();
+        try {
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION || buf.getInt() != STAGES
+                    || buf.getInt() != Patterns.TYPES) {
+                throw new IllegalArgumentException();
+            }
+            for (int type = 0; type < Patterns.TYPES; type++) {
+                if (buf.getInt() != Patterns.typeLength(type)) {
+                    throw new IllegalArgumentException();
+                }
+            }
+            if (buf.getInt() != MOBILITY_SIZE) {
+                throw new IllegalArgumentException();
+            }
+            for (short[][] stage : w.weights) {
+                for (short[] table : stage) {
+                    buf.asShortBuffer().get(table);
+                    buf.position(buf.position() + 2 * table.length);
+                }
+            }
+        } catch (java.nio.BufferUnderflowException e) {
+            throw new IllegalArgumentException(e);
+        }
+        if (buf.hasRemaining()) {
+            throw new IllegalArgumentException();
+        }
+        return w;
+    }
+
+    // writes the weights into a file that load reads back
+    public void save(String file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(STAGES);
+            out.writeInt(Patterns.TYPES);
+            for (int type = 0; type < Patterns.TYPES; type++) {
+                out.writeInt(Patterns.typeLength(type));
+            }
+            out.writeInt(MOBILITY_SIZE);
+            for (short[][] stage : weights) {
+                for (short[] table : stage) {
+                    for (short weight : table) {
+                        out.writeShort(weight);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoard;
+import org.cis120.Othello.PatternIndexes;
+import org.cis120.Othello.Symmetry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The board patterns scored by PatternEvaluation.
+ *
+ * Every pattern type is a list of squares given once, for the top left corner
+ * or edge of the board. Its symmetric copies on the rest of the board are
+ * instances of the same type and share its weights. Instances are listed in
+ * the order used by newIndexes.
+ */
+public final class Patterns {
+
+    public static final int EDGE_2X = 0;
+    public static final int CORNER_3X3 = 1;
+    public static final int CORNER_2X5 = 2;
+    public static final int DIAG_8 = 3;
+    public static final int DIAG_7 = 4;
+    public static final int DIAG_6 = 5;
+    public static final int DIAG_5 = 6;
+    public static final int DIAG_4 = 7;
+    public static final int LINE_2 = 8;
+    public static final int LINE_3 = 9;
+    public static final int LINE_4 = 10;
+    public static final int TYPES = 11;
+
+    // squares of every type in standard notation
+    private static final String[] TYPE_SQUARES = {
+        "a1 b1 c1 d1 e1 f1 g1 h1 b2 g2",
+        "a1 b1 c1 a2 b2 c2 a3 b3 c3",
+        "a1 b1 c1 d1 e1 a2 b2 c2 d2 e2",
+        "a1 b2 c3 d4 e5 f6 g7 h8",
+        "a2 b3 c4 d5 e6 f7 g8",
+        "a3 b4 c5 d6 e7 f8",
+        "a4 b5 c6 d7 e8",
+        "a5 b6 c7 d8",
+        "a2 b2 c2 d2 e2 f2 g2 h2",
+        "a3 b3 c3 d3 e3 f3 g3 h3",
+        "a4 b4 c4 d4 e4 f4 g4 h4"
+    };
+
+    // number of squares of every type
+    static final int[] TYPE_LENGTH = new int[TYPES];
+    // number of indexes of every type, 3 ^ length
+    static final int[] TYPE_SIZE = new int[TYPES];
+
+    // squares of every instance and the type it belongs to
+    static final int[][] INSTANCES;
+    static final int[] INSTANCE_TYPE;
+
+    static {
+        List<int[]> instances = new ArrayList<>();
+        List<Integer> types = new ArrayList<>();
+        for (int type = 0; type < TYPES; type++) {
+            String[] names = TYPE_SQUARES[type].split(" ");
+            int[] squares = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                squares[i] = BitBoard.fromNotation(names[i]);
+            }
+            TYPE_LENGTH[type] = squares.length;
+            TYPE_SIZE[type] = (int) Math.pow(3, squares.length);
+
+            // symmetric copies covering the same squares count only once
+            List<Long> seen = new ArrayList<>();
+            for (int sym = 0; sym < Symmetry.COUNT; sym++) {
+                int[] instance = new int[squares.length];
+                long mask = 0;
+                for (int i = 0; i < squares.length; i++) {
+                    instance[i] = Symmetry.transformSquare(squares[i], sym);
+                    mask |= 1L << instance[i];
+                }
+                if (!seen.contains(mask)) {
+                    seen.add(mask);
+                    instances.add(instance);
+                    types.add(type);
+                }
+            }
+        }
+        INSTANCES = instances.toArray(new int[0][]);
+        INSTANCE_TYPE = new int[types.size()];
+        for (int i = 0; i < INSTANCE_TYPE.length; i++) {
+            INSTANCE_TYPE[i] = types.get(i);
+        }
+    }
+
+    private Patterns() {
+    }
+
+    // returns the number of pattern instances on the board
+    public static int instanceCount() {
+        return INSTANCES.length;
+    }
+
+    // returns the type of instance i
+    public static int instanceType(int i) {
+        return INSTANCE_TYPE[i];
+    }
+
+    // returns the squares of instance i
+    public static int[] instanceSquares(int i) {
+        return Arrays.copyOf(INSTANCES[i], INSTANCES[i].length);
+    }
+
+    // returns the number of squares of a type
+    public static int typeLength(int type) {
+        return TYPE_LENGTH[type];
+    }
+
+    // returns the number of different indexes of a type
+    public static int typeSize(int type) {
+        return TYPE_SIZE[type];
+    }
+
+    // creates indexes for every instance, to be attached to a model
+    public static PatternIndexes newIndexes() {
+        return new PatternIndexes(INSTANCES);
+    }
+
+    // returns the index of pattern i computed from scratch, used by code that
+    // does not follow the moves of a model
+    static int index(int i, long black, long white) {
+        int index = 0;
+        int power = 1;
+        for (int sq : INSTANCES[i]) {
+            if ((black >>> sq & 1) != 0) {
+                index += power;
+            } else if ((white >>> sq & 1) != 0) {
+                index += 2 * power;
+            }
+            power *= 3;
+        }
+        return index;
+    }
+
+    // swaps the colors of an index of a pattern with length squares
+    static int swapColors(int index, int length) {
+        int swapped = 0;
+        int power = 1;
+        for (int i = 0; i < length; i++) {
+            int digit = index % 3;
+            index /= 3;
+            if (digit != 0) {
+                swapped += (3 - digit) * power;
+            }
+            power *= 3;
+        }
+        return swapped;
+    }
+}
@@ -0,0 +1,62 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoardOthello;
+
+import java.util.Random;
+
+/**
+ * Runs the search with a 100 ms budget on positions taken from random games
+ * and reports the depth reached and the nodes searched per second.
+ *
+ * Run this file to see the results in your console.
+ */
+public class SearchBenchmark {
+
+    private static final long BUDGET_MILLIS = 100;
+    private static final int POSITIONS = 20;
+
+    // plays plies random moves from the start position
+    static BitBoardOthello randomPosition(Random rng, int plies) {
+        BitBoardOthello o = new BitBoardOthello();
+        for (int i = 0; i < plies && o.getValidMoves() != 0; i++) {
+            long moves = o.getValidMoves();
+            int pick = rng.nextInt(Long.bitCount(moves));
+            for (int j = 0; j < pick; j++) {
+                moves &= moves - 1;
+            }
+            o.makeMove(Long.numberOfTrailingZeros(moves));
+        }
+        return o;
+    }
+
+    public static void main(String[] args) {
+        SearchEngine engine = new SearchEngine();
+        Random rng = new Random(120);
+
+        // warmup
+        for (int i = 0; i < 10; i++) {
+            engine.findBestMove(randomPosition(rng, 20), BUDGET_MILLIS);
+        }
+
+        long totalNodes = 0;
+        long totalNanos = 0;
+        int totalDepth = 0;
+        for (int i = 0; i < POSITIONS; i++) {
+            BitBoardOthello o = randomPosition(rng, 10 + i % 30);
+            long start = System.nanoTime();
+            engine.findBestMove(o, BUDGET_MILLIS);
+            long time = System.nanoTime() - start;
+            totalNodes += engine.getLastNodes();
+            totalNanos += time;
+            totalDepth += engine.getLastDepth();
+            System.out.printf(
+                    "empties: %2d  depth: %2d  nodes: %8d  time: %4d ms%n", o.getEmptyCount(),
+                    engine.getLastDepth(), engine.getLastNodes(), time / 1000000
+            );
+        }
+        System.out.printf(
+                "average depth: %.1f  nodes/s: %.0f%n", (double) totalDepth / POSITIONS,
+                totalNodes / (totalNanos / 1e9)
+        );
+    }
+}
@@ -0,0 +1,445 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoard;
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.OthelloModel;
+import org.cis120.Othello.PatternIndexes;
+import org.cis120.Othello.PlayerColor;
+import org.cis120.Othello.ValidMove;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * SearchEngine finds the best move for the player to move in a position using
+ * negamax alpha-beta search with iterative deepening and a time budget.
+ *
+ * The search plays and takes back moves on a BitBoardOthello with makeMove and
+ * unmakeMove, so no board is copied while searching. Moves are ordered by
+ * square weight with the best move of the previous iteration searched first.
+ *
+ * Results are kept in a TranspositionTable keyed by the Zobrist key of the
+ * model, so positions reached through different move orders are only searched
+ * once and the best move stored for a position is tried first.
+ *
+ * Once few enough squares are empty the EndgameSolver is used instead, so the
+ * engine plays perfectly at the end of the game.
+ *
+ * Leaves are scored with Evaluation unless a PatternEvaluation is set. The
+ * pattern indexes it needs are attached to the root for the length of a
+ * search, so the model updates them in makeMove and unmakeMove.
+ *
+ * A SearchEngine is not thread safe, use one engine per thread.
+ */
+public class SearchEngine {
+
+    private static final int INFINITY = 1000000;
+    private static final int MAX_PLY = 64;
+
+    // the time is only checked every CHECK_NODES nodes since nanoTime is slow
+    private static final int CHECK_NODES = 1023;
+
+    // move buffers for every ply so ordering moves does not allocate
+    private final int[][] moveBuffers = new int[MAX_PLY][64];
+
+    // default table size, 2^20 buckets of two entries (32 MB)
+    public static final int DEFAULT_TABLE_BITS = 20;
+
+    // default number of empties at which the root is solved exactly
+    public static final int DEFAULT_ENDGAME_EMPTIES = 12;
+
+    private final TranspositionTable table;
+    // counters of this engine's probes and stores, the table keeps none
+    private final TableStats tableStats = new TableStats();
+    private final EndgameSolver solver;
+    private int endgameEmpties = DEFAULT_ENDGAME_EMPTIES;
+
+    // leaf evaluation, Evaluation is used if this is null
+    private PatternEvaluation patternEvaluation;
+    private final PatternIndexes indexes = Patterns.newIndexes();
+
+    private BitBoardOthello model;
+    private long deadline;
+    private AtomicBoolean stopFlag;
+    private boolean stopped;
+    private long nodes;
+
+    // results of the last search
+    private int lastDepth;
+    private int lastScore;
+    private long lastNodes;
+
+    // creates an engine with its own transposition table
+    public SearchEngine() {
+        this(new TranspositionTable(DEFAULT_TABLE_BITS));
+    }
+
+    /**
+     * Creates an engine that uses the given transposition table.
+     *
+     * @param tableParam transposition table, or null to search without one
+     */
+    public SearchEngine(TranspositionTable tableParam) {
+        this(tableParam, EndgameSolver.DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Creates an engine that uses the given transposition table and an
+     * endgame table of the given size.
+     *
+     * @param tableParam       transposition table, or null to search without one
+     * @param endgameTableBits log2 of the number of endgame table entries
+     */
+    public SearchEngine(TranspositionTable tableParam, int endgameTableBits) {
+        table = tableParam;
+        solver = new EndgameSolver(endgameTableBits);
+    }
+
+    /**
+     * findBestMove searches the position for at most timeBudgetMillis and returns
+     * the best move found for the player to move. Positions that are not a
+     * BitBoardOthello are copied once into one before searching. A
+     * BitBoardOthello is searched in place and left exactly as it was.
+     *
+     * @param position         position to search
+     * @param timeBudgetMillis time budget in milliseconds
+     * @return the best move, or null if the game is over
+     */
+    public ValidMove findBestMove(OthelloModel position, long timeBudgetMillis) {
+        return findBestMove(position, timeBudgetMillis, MAX_PLY);
+    }
+
+    /**
+     * findBestMove searches the position until the time budget runs out or
+     * maxDepth has been searched completely.
+     *
+     * @param position         position to search
+     * @param timeBudgetMillis time budget in milliseconds
+     * @param maxDepth         maximum depth in plies
+     * @return the best move, or null if the game is over
+     */
+    public ValidMove findBestMove(OthelloModel position, long timeBudgetMillis, int maxDepth) {
+        return findBestMove(position, timeBudgetMillis, maxDepth, null);
+    }
+
+    /**
+     * findBestMove searches like the other overloads but can also be stopped
+     * from another thread by setting stop, for example when the position
+     * searched is no longer wanted. A stopped search returns the best move of
+     * the last finished iteration.
+     *
+     * @param position         position to search
+     * @param timeBudgetMillis time budget in milliseconds
+     * @param maxDepth         maximum depth in plies
+     * @param stop             the search stops soon after this is set, may be
+     *                         null
+     * @return the best move, or null if the game is over
+     */
+    public ValidMove findBestMove(
+            OthelloModel position, long timeBudgetMillis, int maxDepth, AtomicBoolean stop
+    ) {
+        BitBoardOthello root = position instanceof BitBoardOthello ?
+                (BitBoardOthello) position : BitBoardOthello.copyOf(position);
+        if (table != null) {
+            table.newSearch();
+        }
+        return search(root, deadlineFor(timeBudgetMillis), maxDepth, 1, stop);
+    }
+
+    // converts a time budget into a System.nanoTime deadline
+    static long deadlineFor(long timeBudgetMillis) {
+        // very large budgets would overflow, they mean there is no time limit
+        if (timeBudgetMillis >= Long.MAX_VALUE / 2000000L) {
+            return Long.MAX_VALUE;
+        }
+        return System.nanoTime() + timeBudgetMillis * 1000000L;
+    }
+
+    /**
+     * search runs iterative deepening on the model in place. Used directly by
+     * ParallelSearch, where every thread searches its own copy of the root.
+     *
+     * @param root           position to search, left unchanged
+     * @param deadlineParam  System.nanoTime deadline
+     * @param maxDepth       maximum depth in plies
+     * @param startDepth     depth of the first iteration
+     * @param stopFlagParam  the search stops when this is set, may be null
+     * @return the best move, or null if the game is over
+     */
+    ValidMove search(
+            BitBoardOthello root, long deadlineParam, int maxDepth, int startDepth,
+            AtomicBoolean stopFlagParam
+    ) {
+        if (patternEvaluation == null) {
+            return searchModel(root, deadlineParam, maxDepth, startDepth, stopFlagParam);
+        }
+        PatternIndexes previous = root.getPatternIndexes();
+        root.setPatternIndexes(indexes);
+        try {
+            return searchModel(root, deadlineParam, maxDepth, startDepth, stopFlagParam);
+        } finally {
+            root.setPatternIndexes(previous);
+        }
+    }
+
+    // iterative deepening on the model, see search
+    private ValidMove searchModel(
+            BitBoardOthello root, long deadlineParam, int maxDepth, int startDepth,
+            AtomicBoolean stopFlagParam
+    ) {
+        model = root;
+        deadline = deadlineParam;
+        stopFlag = stopFlagParam;
+        stopped = false;
+        nodes = 0;
+        lastDepth = 0;
+        lastScore = 0;
+
+        long moves = model.getValidMoves();
+        if (moves == 0) {
+            lastNodes = 0;
+            return null;
+        }
+
+        // the end of the game is solved exactly instead of searched
+        if (model.getEmptyCount() <= endgameEmpties) {
+            ValidMove move = solver.findBestMove(model);
+            nodes = solver.getLastNodes();
+            lastNodes = nodes;
+            lastDepth = model.getEmptyCount();
+            lastScore = solver.getLastScore() * Evaluation.WIN_SCORE;
+            return move;
+        }
+
+        int bestMove = Long.numberOfTrailingZeros(moves);
+        // there is nothing to search past the last empty square
+        int depthLimit = Math.min(maxDepth, model.getEmptyCount());
+        for (int depth = Math.min(startDepth, depthLimit); depth <= depthLimit; depth++) {
+            int[] result = searchRoot(depth, bestMove);
+            if (stopped) {
+                break;
+            }
+            bestMove = result[0];
+            lastScore = result[1];
+            lastDepth = depth;
+            // a proven win or loss will not change with more depth
+            if (Math.abs(lastScore) >= Evaluation.WIN_SCORE) {
+                break;
+            }
+        }
+        lastNodes = nodes;
+
+        long own = model.getCurrentTurn() == PlayerColor.BLACK ?
+                model.getBlackDisks() : model.getWhiteDisks();
+        long opp = model.getCurrentTurn() == PlayerColor.BLACK ?
+                model.getWhiteDisks() : model.getBlackDisks();
+        return new ValidMove(bestMove % 8, bestMove / 8, BitBoard.flips(bestMove, own, opp));
+    }
+
+    // searches every root move and returns the best move and its score
+    // the best move of the previous iteration is searched first
+    private int[] searchRoot(int depth, int firstMove) {
+        int[] moves = moveBuffers[0];
+        int count = orderMoves(model.getValidMoves(), moves, firstMove);
+        PlayerColor me = model.getCurrentTurn();
+        int alpha = -INFINITY;
+        int bestMove = moves[0];
+        for (int i = 0; i < count; i++) {
+            int score = searchChild(moves[i], me, depth, 1, alpha, INFINITY);
+            if (stopped) {
+                break;
+            }
+            if (score > alpha) {
+                alpha = score;
+                bestMove = moves[i];
+            }
+        }
+        return new int[] { bestMove, alpha };
+    }
+
+    // plays a move, searches the resulting position and takes the move back
+    // the score is negated unless the opponent had to pass
+    private int searchChild(int sq, PlayerColor me, int depth, int ply, int alpha, int beta) {
+        model.makeMove(sq);
+        int score;
+        if (model.getCurrentTurn() == me) {
+            score = negamax(depth - 1, ply, alpha, beta);
+        } else {
+            score = -negamax(depth - 1, ply, -beta, -alpha);
+        }
+        model.unmakeMove();
+        return score;
+    }
+
+    // negamax alpha-beta search, scores are from the view of the player to move
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        nodes++;
+        if ((nodes & CHECK_NODES) == 0 &&
+                (System.nanoTime() > deadline || stopFlag != null && stopFlag.get())) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        PlayerColor me = model.getCurrentTurn();
+        long own = me == PlayerColor.BLACK ? model.getBlackDisks() : model.getWhiteDisks();
+        long opp = me == PlayerColor.BLACK ? model.getWhiteDisks() : model.getBlackDisks();
+        long validMoves = model.getValidMoves();
+
+        // makeMove passes automatically, so no moves means the game is over
+        if (validMoves == 0) {
+            return Evaluation.finalScore(own, opp);
+        }
+        if (depth == 0) {
+            if (patternEvaluation != null) {
+                return patternEvaluation.evaluate(indexes, own, opp, me == PlayerColor.BLACK);
+            }
+            return Evaluation.evaluate(own, opp);
+        }
+
+        // a stored result that is deep enough can end the search right away
+        long key = model.getHashKey();
+        int hashMove = -1;
+        if (table != null) {
+            long entry = table.probe(key, tableStats);
+            if (entry != 0) {
+                hashMove = TranspositionTable.move(entry);
+                if (TranspositionTable.depth(entry) >= depth) {
+                    int score = TranspositionTable.score(entry);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT ||
+                            bound == TranspositionTable.LOWER && score >= beta ||
+                            bound == TranspositionTable.UPPER && score <= alpha) {
+                        return score;
+                    }
+                }
+            }
+        }
+
+        int originalAlpha = alpha;
+        int[] moves = moveBuffers[ply];
+        int count = orderMoves(validMoves, moves, hashMove);
+        int best = -INFINITY;
+        int bestMove = TranspositionTable.NO_MOVE;
+        for (int i = 0; i < count; i++) {
+            int score = searchChild(moves[i], me, depth, ply + 1, alpha, beta);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = moves[i];
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (table != null) {
+            int bound;
+            if (best <= originalAlpha) {
+                bound = TranspositionTable.UPPER;
+            } else if (best >= beta) {
+                bound = TranspositionTable.LOWER;
+            } else {
+                bound = TranspositionTable.EXACT;
+            }
+            table.store(key, depth, bound, best, bestMove, tableStats);
+        }
+        return best;
+    }
+
+    // fills the buffer with the moves in the mask, best square weight first
+    // firstMove is always put at the front if it is in the mask
+    private static int orderMoves(long validMoves, int[] buffer, int firstMove) {
+        int count = 0;
+        for (long m = validMoves; m != 0; m &= m - 1) {
+            int sq = Long.numberOfTrailingZeros(m);
+            // insertion sort by square weight
+            int weight = Evaluation.SQUARE_WEIGHTS[sq];
+            int i = count++;
+            while (i > 0 && Evaluation.SQUARE_WEIGHTS[buffer[i - 1]] < weight) {
+                buffer[i] = buffer[i - 1];
+                i--;
+            }
+            buffer[i] = sq;
+        }
+        if (firstMove >= 0 && firstMove < 64 && ((validMoves >>> firstMove) & 1) != 0) {
+            int i = 0;
+            while (buffer[i] != firstMove) {
+                i++;
+            }
+            for (; i > 0; i--) {
+                buffer[i] = buffer[i - 1];
+            }
+            buffer[0] = firstMove;
+        }
+        return count;
+    }
+
+    // depth of the last completed iteration of the last search
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    // score of the last search from the view of the player to move
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    // number of nodes visited by the last search
+    public long getLastNodes() {
+        return lastNodes;
+    }
+
+    /**
+     * Sets the number of empty squares at which the engine stops searching and
+     * solves the position exactly. Solving 16 or more empties can take much
+     * longer than a typical time budget.
+     *
+     * @param empties number of empties, 0 to never solve, at most
+     *                EndgameSolver.MAX_EMPTIES
+     */
+    public void setEndgameEmpties(int empties) {
+        if (empties < 0 || empties > EndgameSolver.MAX_EMPTIES) {
+            throw new IllegalArgumentException();
+        }
+        endgameEmpties = empties;
+    }
+
+    /**
+     * Sets the evaluation used at the leaves of the search. Scores stored in a
+     * shared transposition table by another evaluation are not cleared.
+     *
+     * @param evaluation pattern evaluation, or null to use Evaluation
+     */
+    public void setEvaluation(PatternEvaluation evaluation) {
+        patternEvaluation = evaluation;
+    }
+
+    /**
+     * clear forgets everything learned in earlier searches, the transposition
+     * table and the endgame table. With a fixed depth and no time limit the
+     * next searches then only depend on the positions they are given. A
+     * shared transposition table is cleared for every engine using it.
+     */
+    public void clear() {
+        if (table != null) {
+            table.clear();
+        }
+        solver.clearTable();
+    }
+
+    // the transposition table used by this engine, may be null
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    // table counters of this engine since they were last reset
+    public TableStats getTableStats() {
+        return tableStats;
+    }
+}
@@ -0,0 +1,72 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoard;
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.Othello;
+import org.cis120.Othello.PlayerColor;
+import org.cis120.Othello.ValidMove;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchEngineTest {
+
+    SearchEngine engine = new SearchEngine();
+
+    // the search should return one of the 4 valid opening moves
+    @Test
+    public void openingMoveTest() {
+        Othello o = new Othello();
+        ValidMove move = engine.findBestMove(o, 50);
+        assertNotNull(move);
+        assertEquals(PlayerColor.EMPTY, o.getBoardSpace(move.getX(), move.getY()));
+        assertTrue(engine.getLastDepth() > 0);
+    }
+
+    // searching a bitboard model in place must leave it exactly as it was
+    @Test
+    public void makeUnmakeRestoresPositionTest() {
+        BitBoardOthello o = SearchBenchmark.randomPosition(new java.util.Random(120), 20);
+        long black = o.getBlackDisks();
+        long white = o.getWhiteDisks();
+        PlayerColor turn = o.getCurrentTurn();
+        engine.findBestMove(o, 50);
+        assertEquals(black, o.getBlackDisks());
+        assertEquals(white, o.getWhiteDisks());
+        assertEquals(turn, o.getCurrentTurn());
+    }
+
+    // black can take the corner and win the whole board
+    @Test
+    public void takesWinningCornerTest() {
+        BitBoardOthello o = new BitBoardOthello();
+        // white on b1..g1 with black on h1, black to play on a1
+        long white = 0;
+        for (int x = 1; x < 7; x++) {
+            white |= BitBoard.square(x, 0);
+        }
+        o.setPosition(BitBoard.square(7, 0), white, PlayerColor.BLACK);
+        ValidMove move = engine.findBestMove(o, 100);
+        assertEquals(0, move.getX());
+        assertEquals(0, move.getY());
+        assertEquals(white, move.getFlippedDisks());
+    }
+
+    // a finished game has no best move
+    @Test
+    public void gameOverTest() throws IOException {
+        Othello o = new Othello();
+        o.loadFile("files/input/wonBoard.txt");
+        assertNull(engine.findBestMove(o, 50));
+    }
+
+    // the search should stop close to its time budget
+    @Test
+    public void timeBudgetTest() {
+        long start = System.currentTimeMillis();
+        engine.findBestMove(new BitBoardOthello(), 100);
+        assertTrue(System.currentTimeMillis() - start < 500);
+    }
+}
@@ -0,0 +1,57 @@
+package org.cis120.Othello.ai;
+
+/**
+ * Counters of how a TranspositionTable was used by one search thread.
+ *
+ * Every SearchEngine keeps its own TableStats and hands it to the table with
+ * each probe and store, so threads sharing a table never write to the same
+ * counters. ParallelSearch adds the counters of its engines together.
+ */
+public final class TableStats {
+    long probes;
+    long hits;
+    long collisions;
+    long stores;
+    long overwrites;
+
+    public void reset() {
+        probes = 0;
+        hits = 0;
+        collisions = 0;
+        stores = 0;
+        overwrites = 0;
+    }
+
+    // adds the counters of other to these
+    public void add(TableStats other) {
+        probes += other.probes;
+        hits += other.hits;
+        collisions += other.collisions;
+        stores += other.stores;
+        overwrites += other.overwrites;
+    }
+
+    // number of probes since the last reset
+    public long getProbes() {
+        return probes;
+    }
+
+    // number of probes that found their position
+    public long getHits() {
+        return hits;
+    }
+
+    // number of probes that missed because other positions were in the bucket
+    public long getCollisions() {
+        return collisions;
+    }
+
+    public long getStores() {
+        return stores;
+    }
+
+    // number of stores that replaced a different position
+    public long getOverwrites() {
+        return overwrites;
+    }
+}
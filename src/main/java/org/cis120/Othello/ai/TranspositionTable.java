@@ -0,0 +1,159 @@
+package org.cis120.Othello.ai;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size transposition table that remembers the results of searched
+ * positions by their Zobrist key.
+ *
+ * Each entry is two longs: the packed data (score, depth, bound type, best
+ * move and search age) and the key xor the data. A probe only accepts an entry
+ * if key ^ data matches the key it is looking for, so an entry that was torn
+ * by two threads writing at once is simply treated as a miss. This makes the
+ * table safe to share between threads without any locks.
+ *
+ * Entries are grouped in buckets of two with an explicit replacement policy:
+ * the first slot keeps the deepest result (unless it is from an older search)
+ * and the second slot is always replaced.
+ *
+ * The table itself keeps no statistics, so the hot path never writes shared
+ * fields. Callers that want counters pass their own TableStats.
+ */
+public class TranspositionTable {
+
+    // bound types, never 0 so that packed data is never 0
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    // move stored when there is no best move
+    public static final int NO_MOVE = 127;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private int age;
+
+    /**
+     * Creates a table with 2^bits buckets of two entries each.
+     *
+     * @param bits log2 of the number of buckets
+     */
+    public TranspositionTable(int bits) {
+        if (bits < 1 || bits > 28) {
+            throw new IllegalArgumentException();
+        }
+        int buckets = 1 << bits;
+        keys = new long[buckets * 2];
+        data = new long[buckets * 2];
+        bucketMask = buckets - 1;
+    }
+
+    // called at the start of every search so that old entries can be replaced
+    public void newSearch() {
+        age = (age + 1) & 0xff;
+    }
+
+    // removes every entry and resets the age
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+        age = 0;
+    }
+
+    /**
+     * probe looks up a position.
+     *
+     * @param key   Zobrist key of the position
+     * @param stats counters of the caller, may be null
+     * @return packed data of the entry, 0 if the position is not in the table
+     */
+    public long probe(long key, TableStats stats) {
+        int slot = ((int) key & bucketMask) * 2;
+        for (int i = slot; i < slot + 2; i++) {
+            long d = data[i];
+            if (d != 0 && (keys[i] ^ d) == key) {
+                if (stats != null) {
+                    stats.probes++;
+                    stats.hits++;
+                }
+                return d;
+            }
+        }
+        if (stats != null) {
+            stats.probes++;
+            // the bucket is in use by other positions
+            if (data[slot] != 0) {
+                stats.collisions++;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * store saves the result of a search.
+     *
+     * @param key   Zobrist key of the position
+     * @param depth depth the position was searched to
+     * @param bound EXACT, LOWER or UPPER
+     * @param score score from the view of the player to move
+     * @param move  best move square, or NO_MOVE
+     * @param stats counters of the caller, may be null
+     */
+    public void store(long key, int depth, int bound, int score, int move, TableStats stats) {
+        long d = pack(depth, bound, score, move, age);
+        int slot = ((int) key & bucketMask) * 2;
+        int target;
+        long first = data[slot];
+        if ((keys[slot] ^ first) == key || (keys[slot + 1] ^ data[slot + 1]) == key) {
+            // same position, replace whichever slot it is in
+            target = (keys[slot] ^ first) == key ? slot : slot + 1;
+        } else if (first == 0 || depth >= depth(first) || age(first) != age) {
+            // depth preferred slot
+            target = slot;
+        } else {
+            // always replace slot
+            target = slot + 1;
+        }
+        if (stats != null) {
+            stats.stores++;
+            if (data[target] != 0 && (keys[target] ^ data[target]) != key) {
+                stats.overwrites++;
+            }
+        }
+        data[target] = d;
+        keys[target] = key ^ d;
+    }
+
+    // packs an entry into a long
+    // bits 0-31 score, 32-39 depth, 40-41 bound, 42-48 move, 49-56 age
+    static long pack(int depth, int bound, int score, int move, int age) {
+        return (score & 0xffffffffL) | ((long) depth << 32) | ((long) bound << 40) |
+                ((long) move << 42) | ((long) age << 49);
+    }
+
+    public static int score(long d) {
+        return (int) d;
+    }
+
+    public static int depth(long d) {
+        return (int) (d >>> 32) & 0xff;
+    }
+
+    public static int bound(long d) {
+        return (int) (d >>> 40) & 0x3;
+    }
+
+    public static int move(long d) {
+        return (int) (d >>> 42) & 0x7f;
+    }
+
+    static int age(long d) {
+        return (int) (d >>> 49) & 0xff;
+    }
+
+    // number of entries in the table
+    public int size() {
+        return data.length;
+    }
+}
@@ -0,0 +1,60 @@
+package org.cis120.Othello.ai;
+
+import org.cis120.Othello.BitBoardOthello;
+
+import java.util.Random;
+
+/**
+ * Searches the same positions to a fixed depth with and without a
+ * transposition table and reports the nodes searched at every depth, along
+ * with the hit and collision counters of the table.
+ *
+ * Run this file to see the results in your console.
+ */
+public class TranspositionTableBenchmark {
+
+    private static final int POSITIONS = 10;
+    private static final int MAX_DEPTH = 9;
+
+    // searches every position to depth and returns the total nodes
+    private static long totalNodes(SearchEngine engine, BitBoardOthello[] positions, int depth) {
+        long nodes = 0;
+        for (BitBoardOthello position : positions) {
+            if (engine.getTable() != null) {
+                engine.getTable().clear();
+            }
+            engine.getTableStats().reset();
+            engine.findBestMove(position, Long.MAX_VALUE, depth);
+            nodes += engine.getLastNodes();
+        }
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        Random rng = new Random(120);
+        BitBoardOthello[] positions = new BitBoardOthello[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = SearchBenchmark.randomPosition(rng, 12 + 2 * i);
+        }
+
+        SearchEngine plain = new SearchEngine(null);
+        SearchEngine hashed = new SearchEngine();
+
+        System.out.println("depth   nodes (no table)   nodes (table)   saved");
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            long plainNodes = totalNodes(plain, positions, depth);
+            long hashedNodes = totalNodes(hashed, positions, depth);
+            System.out.printf(
+                    "%5d %18d %15d %6.1f%%%n", depth, plainNodes, hashedNodes,
+                    100.0 * (plainNodes - hashedNodes) / plainNodes
+            );
+        }
+
+        TableStats stats = hashed.getTableStats();
+        System.out.printf(
+                "last position: probes %d, hits %d, collisions %d, stores %d, overwrites %d%n",
+                stats.getProbes(), stats.getHits(), stats.getCollisions(), stats.getStores(),
+                stats.getOverwrites()
+        );
+    }
+}
@@ -0,0 +1,77 @@
+package org.cis120.Othello.ai;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+    TranspositionTable table = new TranspositionTable(4);
+    TableStats stats = new TableStats();
+
+    // stored entries can be read back exactly
+    @Test
+    public void storeProbeTest() {
+        table.store(12345L, 7, TranspositionTable.LOWER, -2500, 63, stats);
+        long entry = table.probe(12345L, stats);
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        assertEquals(-2500, TranspositionTable.score(entry));
+        assertEquals(63, TranspositionTable.move(entry));
+        assertEquals(1, stats.getHits());
+    }
+
+    // a key that was never stored misses, and is counted as a collision if it
+    // lands in a bucket used by another position
+    @Test
+    public void missAndCollisionTest() {
+        assertEquals(0, table.probe(1L, stats));
+        assertEquals(0, stats.getCollisions());
+        table.store(1L, 3, TranspositionTable.EXACT, 10, 0, stats);
+        // same bucket, different key
+        assertEquals(0, table.probe(1L + (1L << 32), stats));
+        assertEquals(1, stats.getCollisions());
+    }
+
+    // the deep entry stays in the first slot and shallow entries go to the second
+    @Test
+    public void replacementPolicyTest() {
+        long deep = 5L;
+        long shallow1 = 5L + (1L << 40);
+        long shallow2 = 5L + (2L << 40);
+        table.store(deep, 10, TranspositionTable.EXACT, 1, 1, stats);
+        table.store(shallow1, 2, TranspositionTable.EXACT, 2, 2, stats);
+        table.store(shallow2, 2, TranspositionTable.EXACT, 3, 3, stats);
+        assertNotEquals(0, table.probe(deep, stats));
+        assertEquals(0, table.probe(shallow1, stats));
+        assertNotEquals(0, table.probe(shallow2, stats));
+        assertEquals(1, stats.getOverwrites());
+
+        // entries from an older search can be replaced by anything
+        table.newSearch();
+        table.store(shallow1, 1, TranspositionTable.EXACT, 4, 4, stats);
+        assertEquals(0, table.probe(deep, stats));
+        assertEquals(4, TranspositionTable.score(table.probe(shallow1, stats)));
+    }
+
+    // every caller counts its own probes and stores, and passing no counters
+    // leaves the table working the same
+    @Test
+    public void separateStatsTest() {
+        TableStats other = new TableStats();
+        table.store(9L, 4, TranspositionTable.EXACT, 7, 2, null);
+        assertEquals(7, TranspositionTable.score(table.probe(9L, stats)));
+        assertEquals(0, table.probe(10L, other));
+        assertEquals(1, stats.getProbes());
+        assertEquals(1, stats.getHits());
+        assertEquals(0, stats.getStores());
+        assertEquals(1, other.getProbes());
+        assertEquals(0, other.getHits());
+
+        stats.add(other);
+        assertEquals(2, stats.getProbes());
+        assertEquals(1, stats.getHits());
+        stats.reset();
+        assertEquals(0, stats.getProbes());
+    }
+}
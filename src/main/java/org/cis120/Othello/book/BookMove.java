@@ -0,0 +1,69 @@
+package org.cis120.Othello.book;
+
+import org.cis120.Othello.BitBoard;
+
+/**
+ * Statistics of one move in the opening book, always seen from the player
+ * making the move.
+ */
+public final class BookMove {
+    private final int square;
+    private final int games;
+    private final int wins;
+    private final int draws;
+    private final long discSum;
+
+    /**
+     * @param squareParam  bit index of the move
+     * @param gamesParam   number of games the move was played in
+     * @param winsParam    games won by the player making the move
+     * @param drawsParam   games drawn
+     * @param discSumParam sum over all games of the final disc difference for
+     *                     the player making the move
+     */
+    public BookMove(int squareParam, int gamesParam, int winsParam, int drawsParam,
+            long discSumParam) {
+        square = squareParam;
+        games = gamesParam;
+        wins = winsParam;
+        draws = drawsParam;
+        discSum = discSumParam;
+    }
+
+    public int getSquare() {
+        return square;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+
+    public int getLosses() {
+        return games - wins - draws;
+    }
+
+    // wins plus half of the draws, divided by the games
+    public double getScore() {
+        return (wins + draws / 2.0) / games;
+    }
+
+    // average final disc difference for the player making the move
+    public double getAverageDiscs() {
+        return (double) discSum / games;
+    }
+
+    @Override
+    public String toString() {
+        return BitBoard.toNotation(square) + " games " + games + " score "
+                + String.format("%.3f", getScore()) + " discs "
+                + String.format("%+.1f", getAverageDiscs());
+    }
+}
@@ -0,0 +1,188 @@
+package org.cis120.Othello.book;
+
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.PlayerColor;
+import org.cis120.Othello.Symmetry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * OpeningBook looks up move statistics for positions in a book file written
+ * by OpeningBookBuilder.
+ *
+ * Positions are stored as the disks of the player to move and of the
+ * opponent in their canonical form (see Symmetry), so every symmetric copy of
+ * a position shares one entry. The file is an open addressing hash table of
+ * positions followed by the moves of every position and is memory mapped when
+ * the book is opened, so a lookup costs a few probes into the mapped file and
+ * the book is never loaded into the heap.
+ *
+ * File layout, all numbers big-endian:
+ *
+ * <pre>
+ * header     magic, version, slots, positions, moves    5 ints
+ * slots      own disks, opponent disks, first move, move count   24 bytes each
+ * moves      square, games, wins, draws (1 + 3 ints), disc sum (long)   21 bytes each
+ * </pre>
+ *
+ * An empty slot has no disks, which no real position can have. A book is safe
+ * to read from many threads.
+ */
+public final class OpeningBook implements Closeable {
+    // "OTHB"
+    static final int MAGIC = 0x4f544842;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 20;
+    static final int SLOT_SIZE = 24;
+    static final int MOVE_SIZE = 21;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slotMask;
+    private final int positions;
+    private final int movesOffset;
+
+    /**
+     * opens and maps a book file. Throws an IllegalArgumentException if the
+     * file is not a book.
+     *
+     * @param file path of the book
+     */
+    public OpeningBook(String file) throws IOException {
+        channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ);
+        try {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException();
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int slots = buffer.getInt(8);
+            positions = buffer.getInt(12);
+            int moves = buffer.getInt(16);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || Integer.bitCount(slots) != 1 || positions >= slots
+                    || channel.size() != HEADER_SIZE + (long) slots * SLOT_SIZE
+                            + (long) moves * MOVE_SIZE) {
+                throw new IllegalArgumentException();
+            }
+            slotMask = slots - 1;
+            movesOffset = HEADER_SIZE + slots * SLOT_SIZE;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // returns the number of positions in the book
+    public int size() {
+        return positions;
+    }
+
+    // slot of a canonical position in a table of slotMask + 1 slots
+    static int slot(long own, long opp, int slotMask) {
+        long h = own * 0x9e3779b97f4a7c15L ^ Long.rotateLeft(opp * 0xc2b2ae3d27d4eb4fL, 31);
+        h ^= h >>> 29;
+        return (int) h & slotMask;
+    }
+
+    // returns the offset of the slot holding a canonical position, -1 if the
+    // position is not in the book
+    private int find(long own, long opp) {
+        int slot = slot(own, opp, slotMask);
+        while (true) {
+            int offset = HEADER_SIZE + slot * SLOT_SIZE;
+            long slotOwn = buffer.getLong(offset);
+            long slotOpp = buffer.getLong(offset + 8);
+            if (slotOwn == own && slotOpp == opp) {
+                return offset;
+            } else if (slotOwn == 0 && slotOpp == 0) {
+                return -1;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    /**
+     * lookup returns the book moves of a position, most played first. Moves
+     * that lead to the same position in a symmetric position are counted
+     * together under one of them.
+     *
+     * @param own disks of the player to move
+     * @param opp disks of the opponent
+     * @return the moves with their statistics, empty if the position is not in
+     *         the book
+     */
+    public List<BookMove> lookup(long own, long opp) {
+        int sym = Symmetry.canonicalSymmetry(own, opp);
+        int offset = find(Symmetry.transform(own, sym), Symmetry.transform(opp, sym));
+        if (offset < 0) {
+            return Collections.emptyList();
+        }
+        int first = buffer.getInt(offset + 16);
+        int count = buffer.getInt(offset + 20);
+        int inverse = Symmetry.inverse(sym);
+        List<BookMove> moves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int m = movesOffset + (first + i) * MOVE_SIZE;
+            moves.add(new BookMove(
+                    Symmetry.transformSquare(buffer.get(m), inverse), buffer.getInt(m + 1),
+                    buffer.getInt(m + 5), buffer.getInt(m + 9), buffer.getLong(m + 13)
+            ));
+        }
+        return moves;
+    }
+
+    // returns the book moves of the current position of model
+    public List<BookMove> lookup(BitBoardOthello model) {
+        if (model.getCurrentTurn() == PlayerColor.BLACK) {
+            return lookup(model.getBlackDisks(), model.getWhiteDisks());
+        }
+        return lookup(model.getWhiteDisks(), model.getBlackDisks());
+    }
+
+    /**
+     * chooseMove picks a book move at random, weighted by the number of games
+     * each move was played in. Moves played in fewer than minGames games are
+     * ignored.
+     *
+     * @param model    position to pick a move for
+     * @param minGames smallest number of games a move needs
+     * @param rng      random numbers used to pick
+     * @return bit index of the move, -1 if the book has no move
+     */
+    public int chooseMove(BitBoardOthello model, int minGames, SplittableRandom rng) {
+        List<BookMove> moves = lookup(model);
+        long total = 0;
+        for (BookMove move : moves) {
+            if (move.getGames() >= minGames) {
+                total += move.getGames();
+            }
+        }
+        if (total == 0) {
+            return -1;
+        }
+        long pick = rng.nextLong(total);
+        for (BookMove move : moves) {
+            if (move.getGames() >= minGames) {
+                pick -= move.getGames();
+                if (pick < 0) {
+                    return move.getSquare();
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
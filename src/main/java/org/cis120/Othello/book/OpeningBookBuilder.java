@@ -0,0 +1,310 @@
+package org.cis120.Othello.book;
+
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.GameRecord;
+import org.cis120.Othello.GameRecordReader;
+import org.cis120.Othello.PlayerColor;
+import org.cis120.Othello.Symmetry;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * OpeningBookBuilder counts the moves played in the first plies of a corpus
+ * of game records and writes them as an OpeningBook file.
+ *
+ * Every position is made canonical the same way OpeningBook looks it up and the
+ * statistics are collected in primitive arrays forming an open addressing
+ * table keyed by position and move, so a corpus of millions of games does not
+ * create an object per move.
+ */
+public class OpeningBookBuilder {
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    private final int maxPlies;
+
+    // table of (own, opp, move) entries, an entry is used if games is not 0
+    private long[] own = new long[INITIAL_CAPACITY];
+    private long[] opp = new long[INITIAL_CAPACITY];
+    private byte[] move = new byte[INITIAL_CAPACITY];
+    private int[] games = new int[INITIAL_CAPACITY];
+    private int[] wins = new int[INITIAL_CAPACITY];
+    private int[] draws = new int[INITIAL_CAPACITY];
+    private long[] discSum = new long[INITIAL_CAPACITY];
+    private int size;
+
+    private final BitBoardOthello o = new BitBoardOthello();
+
+    /**
+     * Creates a builder.
+     *
+     * @param maxPliesParam number of moves of every game that go into the
+     *                      book, passes included
+     */
+    public OpeningBookBuilder(int maxPliesParam) {
+        if (maxPliesParam < 1) {
+            throw new IllegalArgumentException();
+        }
+        maxPlies = maxPliesParam;
+    }
+
+    // returns the number of different (position, move) pairs seen so far
+    public int size() {
+        return size;
+    }
+
+    // adds the first moves of a finished game, unfinished games are skipped
+    // since they have no result
+    public void add(GameRecord game) {
+        if (!game.isFinished()) {
+            return;
+        }
+        int diff = game.getBlackPoints() - game.getWhitePoints();
+        o.setPosition(game.getStartBlack(), game.getStartWhite(), game.getStartTurn());
+        int plies = Math.min(maxPlies, game.getMoveCount());
+        for (int i = 0; i < plies; i++) {
+            int sq = game.getMove(i);
+            // the model passes on its own
+            if (sq == GameRecord.PASS) {
+                continue;
+            }
+            boolean black = o.getCurrentTurn() == PlayerColor.BLACK;
+            long ownDisks = black ? o.getBlackDisks() : o.getWhiteDisks();
+            long oppDisks = black ? o.getWhiteDisks() : o.getBlackDisks();
+            int sym = Symmetry.canonicalSymmetry(ownDisks, oppDisks);
+            ownDisks = Symmetry.transform(ownDisks, sym);
+            oppDisks = Symmetry.transform(oppDisks, sym);
+            int bookMove = Symmetry.canonicalMove(
+                    ownDisks, oppDisks, Symmetry.transformSquare(sq, sym)
+            );
+            count(ownDisks, oppDisks, bookMove, black ? diff : -diff);
+            o.makeMove(sq);
+        }
+    }
+
+    // adds every game read by reader
+    public void addAll(GameRecordReader reader) throws IOException {
+        GameRecord game;
+        while ((game = reader.next()) != null) {
+            add(game);
+        }
+    }
+
+    // adds one game result to the entry of a canonical position and move
+    private void count(long ownDisks, long oppDisks, int sq, int diff) {
+        if (size * 2 >= games.length) {
+            grow();
+        }
+        int mask = games.length - 1;
+        int i = entrySlot(ownDisks, oppDisks, sq, mask);
+        while (games[i] != 0
+                && (own[i] != ownDisks || opp[i] != oppDisks || move[i] != sq)) {
+            i = (i + 1) & mask;
+        }
+        if (games[i] == 0) {
+            own[i] = ownDisks;
+            opp[i] = oppDisks;
+            move[i] = (byte) sq;
+            size++;
+        }
+        games[i]++;
+        if (diff > 0) {
+            wins[i]++;
+        } else if (diff == 0) {
+            draws[i]++;
+        }
+        discSum[i] += diff;
+    }
+
+    private static int entrySlot(long ownDisks, long oppDisks, int sq, int mask) {
+        return OpeningBook.slot(ownDisks, oppDisks ^ sq, mask);
+    }
+
+    // doubles the table and reinserts every entry
+    private void grow() {
+        long[] oldOwn = own;
+        long[] oldOpp = opp;
+        byte[] oldMove = move;
+        int[] oldGames = games;
+        int[] oldWins = wins;
+        int[] oldDraws = draws;
+        long[] oldDiscSum = discSum;
+        int capacity = oldGames.length * 2;
+        own = new long[capacity];
+        opp = new long[capacity];
+        move = new byte[capacity];
+        games = new int[capacity];
+        wins = new int[capacity];
+        draws = new int[capacity];
+        discSum = new long[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldGames.length; j++) {
+            if (oldGames[j] == 0) {
+                continue;
+            }
+            int i = entrySlot(oldOwn[j], oldOpp[j], oldMove[j], mask);
+            while (games[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            own[i] = oldOwn[j];
+            opp[i] = oldOpp[j];
+            move[i] = oldMove[j];
+            games[i] = oldGames[j];
+            wins[i] = oldWins[j];
+            draws[i] = oldDraws[j];
+            discSum[i] = oldDiscSum[j];
+        }
+    }
+
+    // orders two entries by position and then by most games
+    private int compareEntries(int a, int b) {
+        int c = Long.compareUnsigned(own[a], own[b]);
+        if (c == 0) {
+            c = Long.compareUnsigned(opp[a], opp[b]);
+        }
+        if (c == 0) {
+            c = Integer.compare(games[b], games[a]);
+        }
+        return c;
+    }
+
+    // sorts entry indexes with compareEntries, a bottom-up merge sort on int
+    // arrays so no index is boxed
+    private void sortEntries(int[] entries) {
+        int[] from = entries;
+        int[] to = new int[entries.length];
+        for (int width = 1; width < entries.length; width *= 2) {
+            for (int lo = 0; lo < entries.length; lo += 2 * width) {
+                int mid = Math.min(lo + width, entries.length);
+                int hi = Math.min(lo + 2 * width, entries.length);
+                int i = lo;
+                int j = mid;
+                for (int k = lo; k < hi; k++) {
+                    if (i < mid && (j >= hi || compareEntries(from[i], from[j]) <= 0)) {
+                        to[k] = from[i++];
+                    } else {
+                        to[k] = from[j++];
+                    }
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != entries) {
+            System.arraycopy(from, 0, entries, 0, entries.length);
+        }
+    }
+
+    /**
+     * write writes every move played in at least minGames games into a book
+     * file. Positions left without moves are not written.
+     *
+     * @param file     path of the book
+     * @param minGames smallest number of games a move needs to be kept
+     * @return number of positions written
+     */
+    public int write(String file, int minGames) throws IOException {
+        // entries kept, sorted by position and then by most games
+        int kept = 0;
+        for (int g : games) {
+            if (g != 0 && g >= minGames) {
+                kept++;
+            }
+        }
+        int[] entries = new int[kept];
+        kept = 0;
+        for (int i = 0; i < games.length; i++) {
+            if (games[i] != 0 && games[i] >= minGames) {
+                entries[kept++] = i;
+            }
+        }
+        sortEntries(entries);
+
+        int positions = 0;
+        for (int i = 0; i < entries.length; i++) {
+            if (i == 0 || !samePosition(entries[i], entries[i - 1])) {
+                positions++;
+            }
+        }
+        int slots = Integer.highestOneBit(Math.max(1, positions * 2 - 1)) << 1;
+        long bytes = OpeningBook.HEADER_SIZE + (long) slots * OpeningBook.SLOT_SIZE
+                + (long) entries.length * OpeningBook.MOVE_SIZE;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("book too large");
+        }
+
+        // hash table of positions, built in memory since it is only a small part
+        // of the book
+        int slotMask = slots - 1;
+        ByteBuffer table = ByteBuffer.allocate(slots * OpeningBook.SLOT_SIZE);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeInt(slots);
+            out.writeInt(positions);
+            out.writeInt(entries.length);
+
+            int start = 0;
+            while (start < entries.length) {
+                int end = start + 1;
+                while (end < entries.length && samePosition(entries[end], entries[start])) {
+                    end++;
+                }
+                int e = entries[start];
+                int slot = OpeningBook.slot(own[e], opp[e], slotMask);
+                while (table.getLong(slot * OpeningBook.SLOT_SIZE) != 0
+                        || table.getLong(slot * OpeningBook.SLOT_SIZE + 8) != 0) {
+                    slot = (slot + 1) & slotMask;
+                }
+                table.position(slot * OpeningBook.SLOT_SIZE);
+                table.putLong(own[e]).putLong(opp[e]).putInt(start).putInt(end - start);
+                start = end;
+            }
+            out.write(table.array());
+
+            for (int e : entries) {
+                out.writeByte(move[e]);
+                out.writeInt(games[e]);
+                out.writeInt(wins[e]);
+                out.writeInt(draws[e]);
+                out.writeLong(discSum[e]);
+            }
+        }
+        return positions;
+    }
+
+    private boolean samePosition(int a, int b) {
+        return own[a] == own[b] && opp[a] == opp[b];
+    }
+
+    /**
+     * Builds a book from the command line.
+     *
+     * Usage: OpeningBookBuilder games book [maxPlies] [minGames]
+     * Defaults to the first 20 plies of every game and moves played at least
+     * twice.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("usage: OpeningBookBuilder games book [maxPlies] [minGames]");
+            return;
+        }
+        int maxPlies = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int minGames = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPlies);
+        long start = System.nanoTime();
+        try (GameRecordReader reader = new GameRecordReader(args[0])) {
+            builder.addAll(reader);
+        }
+        int positions = builder.write(args[1], minGames);
+        System.out.printf(
+                "%d moves seen, %d positions written in %.1f s%n", builder.size(), positions,
+                (System.nanoTime() - start) / 1e9
+        );
+    }
+}
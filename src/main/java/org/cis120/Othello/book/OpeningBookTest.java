@@ -0,0 +1,126 @@
+package org.cis120.Othello.book;
+
+import org.cis120.Othello.BitBoard;
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.GameRecordReader;
+import org.cis120.Othello.GameRecordWriter;
+import org.cis120.Othello.Symmetry;
+import org.cis120.Othello.selfplay.RandomPolicy;
+import org.cis120.Othello.selfplay.SelfPlay;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpeningBookTest {
+
+    private static final int GAMES = 2000;
+
+    private static String tempFile(String suffix) throws IOException {
+        File file = File.createTempFile("book", suffix);
+        file.deleteOnExit();
+        new File(file.getPath() + ".idx").deleteOnExit();
+        return file.getPath();
+    }
+
+    // builds a book from the first 8 plies of random self-play games
+    private static String buildBook(int minGames) throws IOException {
+        String games = tempFile(".games");
+        SelfPlay selfPlay = new SelfPlay(1, RandomPolicy::new, RandomPolicy::new, 3);
+        try (GameRecordWriter records = new GameRecordWriter(games)) {
+            selfPlay.setRecordWriter(records);
+            selfPlay.run(GAMES, null);
+        }
+        OpeningBookBuilder builder = new OpeningBookBuilder(8);
+        try (GameRecordReader reader = new GameRecordReader(games)) {
+            builder.addAll(reader);
+        }
+        String book = tempFile(".book");
+        builder.write(book, minGames);
+        return book;
+    }
+
+    // the four first moves are symmetric so they share one entry, and every
+    // game goes through the position after it
+    @Test
+    public void symmetricOpeningTest() throws IOException {
+        try (OpeningBook book = new OpeningBook(buildBook(1))) {
+            BitBoardOthello o = new BitBoardOthello();
+            List<BookMove> first = book.lookup(o);
+            assertEquals(1, first.size());
+            assertEquals(GAMES, first.get(0).getGames());
+
+            o.playTurn(5, 4, o.getCurrentTurn());
+            int games = 0;
+            for (BookMove move : book.lookup(o)) {
+                games += move.getGames();
+                assertTrue((o.getValidMoves() & 1L << move.getSquare()) != 0);
+            }
+            assertEquals(GAMES, games);
+        }
+    }
+
+    // a position and its symmetric copies get the same moves, moved the same way
+    @Test
+    public void symmetricLookupTest() throws IOException {
+        try (OpeningBook book = new OpeningBook(buildBook(1))) {
+            BitBoardOthello o = new BitBoardOthello();
+            for (String move : new String[] { "f5", "d6", "c3" }) {
+                int sq = BitBoard.fromNotation(move);
+                o.playTurn(sq % 8, sq / 8, o.getCurrentTurn());
+            }
+            // white to move
+            long own = o.getWhiteDisks();
+            long opp = o.getBlackDisks();
+            List<BookMove> moves = book.lookup(own, opp);
+            assertFalse(moves.isEmpty());
+            for (int sym = 0; sym < Symmetry.COUNT; sym++) {
+                List<BookMove> copy = book.lookup(
+                        Symmetry.transform(own, sym), Symmetry.transform(opp, sym)
+                );
+                assertEquals(moves.size(), copy.size());
+                for (int i = 0; i < moves.size(); i++) {
+                    assertEquals(
+                            Symmetry.transformSquare(moves.get(i).getSquare(), sym),
+                            copy.get(i).getSquare()
+                    );
+                    assertEquals(moves.get(i).getGames(), copy.get(i).getGames());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void missingPositionTest() throws IOException {
+        try (OpeningBook book = new OpeningBook(buildBook(1))) {
+            assertTrue(book.lookup(1L, 2L).isEmpty());
+            BitBoardOthello o = new BitBoardOthello();
+            o.setPosition(1L, 2L, org.cis120.Othello.PlayerColor.BLACK);
+            assertEquals(-1, book.chooseMove(o, 1, new SplittableRandom(1)));
+        }
+    }
+
+    // moves below minGames are left out of the book
+    @Test
+    public void minGamesTest() throws IOException {
+        try (OpeningBook all = new OpeningBook(buildBook(1));
+                OpeningBook common = new OpeningBook(buildBook(50))) {
+            assertTrue(common.size() < all.size());
+            BitBoardOthello o = new BitBoardOthello();
+            int move = common.chooseMove(o, 50, new SplittableRandom(1));
+            assertTrue((o.getValidMoves() & 1L << move) != 0);
+        }
+    }
+
+    @Test
+    public void notABookTest() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new OpeningBook("files/input/testBoard.txt")
+        );
+    }
+}
@@ -0,0 +1,73 @@
+package org.cis120.Othello.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Measures the round trip time of protocol commands over a local TCP
+ * connection: a client sends a command and waits for its answer before
+ * sending the next one, like a tournament manager driving the engine.
+ *
+ * Run this file to see the results in your console.
+ */
+public class EngineBenchmark {
+
+    private static final int ROUNDS = 20000;
+
+    private static final String[] COMMANDS = {
+        "position start moves f5 d6 c3 d3 c4", "moves", "play f4", "board", "result"
+    };
+
+    public static void main(String[] args) throws IOException {
+        try (EngineServer server = new EngineServer(0, 1, null)) {
+            server.start();
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+                socket.setTcpNoDelay(true);
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)
+                );
+                Writer out =
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+
+                // warmup
+                run(in, out, COMMANDS[0], ROUNDS);
+                for (String command : COMMANDS) {
+                    long[] nanos = run(in, out, command, ROUNDS);
+                    Arrays.sort(nanos);
+                    System.out.printf(
+                            "%-40s p50: %6.1f us  p99: %6.1f us%n", command,
+                            nanos[nanos.length / 2] / 1e3, nanos[nanos.length * 99 / 100] / 1e3
+                    );
+                }
+            }
+        }
+    }
+
+    // sends command rounds times and returns the time of every round trip
+    private static long[] run(BufferedReader in, Writer out, String command, int rounds)
+            throws IOException {
+        long[] nanos = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            // play changes the position, so start over from a fixed one
+            if (command.startsWith("play")) {
+                out.write(COMMANDS[0] + "\n");
+                out.flush();
+                in.readLine();
+            }
+            long start = System.nanoTime();
+            out.write(command);
+            out.write('\n');
+            out.flush();
+            in.readLine();
+            nanos[i] = System.nanoTime() - start;
+        }
+        return nanos;
+    }
+}
@@ -0,0 +1,190 @@
+package org.cis120.Othello.engine;
+
+import org.cis120.Othello.ai.PatternEvaluation;
+import org.cis120.Othello.ai.PatternWeights;
+import org.cis120.Othello.ai.SearchEngine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * EngineServer lets external programs drive the engine through the protocol
+ * of EngineSession, either over stdin and stdout or over a TCP socket on the
+ * local machine.
+ *
+ * Every TCP connection gets its own session, with its own position and
+ * search, on its own thread, so a tournament manager can play many games
+ * through one server or start one engine process per game. Answers are
+ * flushed and sent without delay after every command. Sessions on a server
+ * get SESSION_TABLE_BITS tables by default so many connections fit in memory.
+ */
+public class EngineServer implements Closeable {
+
+    // default transposition table of every TCP session, 2^16 buckets (2 MB)
+    public static final int SESSION_TABLE_BITS = 16;
+
+    private final ServerSocket server;
+    private final int threads;
+    private final int tableBits;
+    private final PatternEvaluation evaluation;
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "othello-engine");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Opens a server on the loopback address with SESSION_TABLE_BITS tables.
+     * Call start to accept clients.
+     *
+     * @param port       port to listen on, 0 for any free port
+     * @param threads    search threads of every session
+     * @param evaluation leaf evaluation shared by every session, null to use
+     *                   Evaluation
+     */
+    public EngineServer(int port, int threads, PatternEvaluation evaluation)
+            throws IOException {
+        this(port, threads, SESSION_TABLE_BITS, evaluation);
+    }
+
+    /**
+     * Opens a server on the loopback address. Call start to accept clients.
+     *
+     * @param port            port to listen on, 0 for any free port
+     * @param threadsParam    search threads of every session
+     * @param tableBitsParam  log2 of the transposition table buckets of every
+     *                        session
+     * @param evaluationParam leaf evaluation shared by every session, null to
+     *                        use Evaluation
+     */
+    public EngineServer(
+            int port, int threadsParam, int tableBitsParam, PatternEvaluation evaluationParam
+    ) throws IOException {
+        if (threadsParam < 1 || tableBitsParam < 1 || tableBitsParam > 28) {
+            throw new IllegalArgumentException();
+        }
+        threads = threadsParam;
+        tableBits = tableBitsParam;
+        evaluation = evaluationParam;
+        server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+
+    // returns the port the server listens on
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    // accepts clients on a background thread until the server is closed
+    public void start() {
+        executor.execute(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    executor.execute(() -> serve(socket));
+                } catch (IOException e) {
+                    // the server was closed
+                }
+            }
+        });
+    }
+
+    // runs a session for one client until it quits or disconnects
+    private void serve(Socket socket) {
+        try (Socket s = socket;
+                EngineSession session = new EngineSession(threads, tableBits, evaluation)) {
+            s.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII)
+            );
+            BufferedWriter out = new BufferedWriter(
+                    new OutputStreamWriter(s.getOutputStream(), StandardCharsets.US_ASCII)
+            );
+            session.run(in, out);
+        } catch (IOException e) {
+            // the client went away, nothing to clean up beyond the session
+        }
+    }
+
+    // stops accepting clients, open sessions end when their clients disconnect
+    @Override
+    public void close() throws IOException {
+        server.close();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs the engine from the command line.
+     *
+     * Usage: EngineServer [--port PORT] [--threads THREADS] [--hash BITS]
+     * [--weights FILE]
+     * Without a port the engine talks over stdin and stdout. Defaults to 1
+     * search thread per session, the built in evaluation and tables of
+     * SearchEngine.DEFAULT_TABLE_BITS over stdin or SESSION_TABLE_BITS per
+     * TCP session.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = -1;
+        int threads = 1;
+        int tableBits = -1;
+        PatternEvaluation evaluation = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--hash":
+                    tableBits = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--weights":
+                    evaluation = new PatternEvaluation(PatternWeights.load(args[i + 1]));
+                    break;
+                default:
+                    System.err.println("usage: EngineServer [--port PORT] [--threads THREADS] "
+                            + "[--hash BITS] [--weights FILE]");
+                    return;
+            }
+        }
+
+        if (port < 0) {
+            if (tableBits < 0) {
+                tableBits = SearchEngine.DEFAULT_TABLE_BITS;
+            }
+            try (EngineSession session = new EngineSession(threads, tableBits, evaluation)) {
+                session.run(
+                        new BufferedReader(
+                                new InputStreamReader(System.in, StandardCharsets.US_ASCII)
+                        ),
+                        new BufferedWriter(
+                                new OutputStreamWriter(System.out, StandardCharsets.US_ASCII)
+                        )
+                );
+            }
+            return;
+        }
+        if (tableBits < 0) {
+            tableBits = SESSION_TABLE_BITS;
+        }
+        EngineServer server = new EngineServer(port, threads, tableBits, evaluation);
+        server.start();
+        System.err.println("listening on port " + server.getPort());
+        // the accept thread is a daemon, so keep the process alive
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            server.close();
+        }
+    }
+}
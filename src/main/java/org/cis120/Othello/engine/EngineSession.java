@@ -0,0 +1,302 @@
+package org.cis120.Othello.engine;
+
+import org.cis120.Othello.BitBoard;
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.PlayerColor;
+import org.cis120.Othello.ValidMove;
+import org.cis120.Othello.ai.EndgameSolver;
+import org.cis120.Othello.ai.ParallelSearch;
+import org.cis120.Othello.ai.PatternEvaluation;
+import org.cis120.Othello.ai.SearchEngine;
+import org.cis120.Othello.ai.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * EngineSession runs the line based engine protocol for one client: it holds
+ * a position and a search and answers every command with exactly one line.
+ *
+ * Moves are in standard notation (a1 to h8) and a board is 64 characters in
+ * square order a1, b1, ..., h8 with X for black, O for white and * for empty,
+ * like the save files. Passes are forced and played automatically.
+ *
+ * <pre>
+ * isready                               readyok
+ * position start [moves f5 d6 ...]      ok
+ * position BOARD black|white [moves ...] ok
+ * play f5                               ok
+ * moves                                 moves f5 d6 ...
+ * board                                 board BOARD black|white
+ * result                                result black|white|tie|none BLACK WHITE
+ * go MILLIS [DEPTH]                     bestmove f5 score S depth D nodes N time T
+ *                                       (bestmove none if the game is over)
+ * quit                                  the session ends without an answer
+ * </pre>
+ *
+ * A command that cannot be run is answered with "error" and a message, and
+ * leaves the position unchanged. Only go searches, every other command is a
+ * few bit operations on the position.
+ *
+ * The tables of the search are the memory a session holds on to. A server
+ * with many sessions gives each a smaller transposition table, and the
+ * endgame table of every thread is never larger than it.
+ */
+public class EngineSession implements Closeable {
+
+    private final ParallelSearch search;
+    private BitBoardOthello position = new BitBoardOthello();
+    private final StringBuilder answer = new StringBuilder();
+
+    /**
+     * Creates a session at the start position with tables of the default size.
+     *
+     * @param threads    number of search threads, at least 1
+     * @param evaluation leaf evaluation of the search, null to use Evaluation
+     */
+    public EngineSession(int threads, PatternEvaluation evaluation) {
+        this(threads, SearchEngine.DEFAULT_TABLE_BITS, evaluation);
+    }
+
+    /**
+     * Creates a session at the start position.
+     *
+     * @param threads    number of search threads, at least 1
+     * @param tableBits  log2 of the number of transposition table buckets,
+     *                   32 bytes each
+     * @param evaluation leaf evaluation of the search, null to use Evaluation
+     */
+    public EngineSession(int threads, int tableBits, PatternEvaluation evaluation) {
+        search = new ParallelSearch(
+                threads, new TranspositionTable(tableBits),
+                Math.min(tableBits, EndgameSolver.DEFAULT_TABLE_BITS)
+        );
+        search.setEvaluation(evaluation);
+    }
+
+    // returns the search, for tests
+    ParallelSearch getSearch() {
+        return search;
+    }
+
+    // returns the current position, for tests
+    BitBoardOthello getPosition() {
+        return position;
+    }
+
+    /**
+     * execute runs one command.
+     *
+     * @param line command line, surrounding spaces are ignored
+     * @return the answer without a line end, an empty string for an empty line
+     *         or null for quit
+     */
+    public String execute(String line) {
+        String[] words = line.trim().split("\\s+");
+        answer.setLength(0);
+        try {
+            switch (words[0]) {
+                case "":
+                    break;
+                case "isready":
+                    answer.append("readyok");
+                    break;
+                case "position":
+                    position = parsePosition(words);
+                    answer.append("ok");
+                    break;
+                case "play":
+                    if (words.length != 2) {
+                        throw new IllegalArgumentException("usage: play MOVE");
+                    }
+                    play(position, words[1]);
+                    answer.append("ok");
+                    break;
+                case "moves":
+                    appendMoves(answer, position);
+                    break;
+                case "board":
+                    appendBoard(answer, position);
+                    break;
+                case "result":
+                    appendResult(answer, position);
+                    break;
+                case "go":
+                    go(words);
+                    break;
+                case "quit":
+                    return null;
+                default:
+                    throw new IllegalArgumentException("unknown command " + words[0]);
+            }
+        } catch (IllegalArgumentException e) {
+            answer.setLength(0);
+            answer.append("error ").append(e.getMessage());
+        }
+        return answer.toString();
+    }
+
+    // builds the position of a position command
+    private static BitBoardOthello parsePosition(String[] words) {
+        BitBoardOthello o = new BitBoardOthello();
+        int next;
+        if (words.length > 1 && words[1].equals("start")) {
+            next = 2;
+        } else if (words.length > 2) {
+            o.setPosition(disks(words[1], 'X'), disks(words[1], 'O'), turn(words[2]));
+            next = 3;
+        } else {
+            throw new IllegalArgumentException("usage: position start|BOARD TURN [moves ...]");
+        }
+        if (next < words.length) {
+            if (!words[next].equals("moves")) {
+                throw new IllegalArgumentException("expected moves, got " + words[next]);
+            }
+            for (int i = next + 1; i < words.length; i++) {
+                play(o, words[i]);
+            }
+        }
+        return o;
+    }
+
+    // returns the squares of a board string holding c
+    private static long disks(String board, char c) {
+        if (board.length() != 64) {
+            throw new IllegalArgumentException("board needs 64 squares");
+        }
+        long disks = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            char s = board.charAt(sq);
+            if (s != 'X' && s != 'O' && s != '*') {
+                throw new IllegalArgumentException("bad square " + s);
+            }
+            if (s == c) {
+                disks |= 1L << sq;
+            }
+        }
+        return disks;
+    }
+
+    private static PlayerColor turn(String word) {
+        switch (word) {
+            case "black":
+                return PlayerColor.BLACK;
+            case "white":
+                return PlayerColor.WHITE;
+            default:
+                throw new IllegalArgumentException("bad turn " + word);
+        }
+    }
+
+    // plays a move given in standard notation if it is legal
+    static void play(BitBoardOthello o, String move) {
+        int sq;
+        try {
+            sq = BitBoard.fromNotation(move);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("bad move " + move);
+        }
+        if ((o.getValidMoves() >>> sq & 1) == 0) {
+            throw new IllegalArgumentException("illegal move " + move);
+        }
+        o.makeMove(sq);
+    }
+
+    // appends the answer of moves
+    static void appendMoves(StringBuilder answer, BitBoardOthello position) {
+        answer.append("moves");
+        for (long m = position.getValidMoves(); m != 0; m &= m - 1) {
+            answer.append(' ').append(BitBoard.toNotation(Long.numberOfTrailingZeros(m)));
+        }
+    }
+
+    // appends the answer of board
+    static void appendBoard(StringBuilder answer, BitBoardOthello position) {
+        answer.append("board ");
+        long black = position.getBlackDisks();
+        long white = position.getWhiteDisks();
+        for (int sq = 0; sq < 64; sq++) {
+            if ((black >>> sq & 1) != 0) {
+                answer.append('X');
+            } else if ((white >>> sq & 1) != 0) {
+                answer.append('O');
+            } else {
+                answer.append('*');
+            }
+        }
+        answer.append(position.getCurrentTurn() == PlayerColor.BLACK ? " black" : " white");
+    }
+
+    // appends the answer of result
+    static void appendResult(StringBuilder answer, BitBoardOthello position) {
+        PlayerColor winner = position.checkWinner();
+        answer.append("result ");
+        if (winner == null) {
+            answer.append("none");
+        } else if (winner == PlayerColor.EMPTY) {
+            answer.append("tie");
+        } else {
+            answer.append(winner == PlayerColor.BLACK ? "black" : "white");
+        }
+        answer.append(' ').append(position.getBlackPoints())
+                .append(' ').append(position.getWhitePoints());
+    }
+
+    // searches the position without changing it
+    private void go(String[] words) {
+        if (words.length < 2 || words.length > 3) {
+            throw new IllegalArgumentException("usage: go MILLIS [DEPTH]");
+        }
+        long millis;
+        int depth;
+        try {
+            millis = Long.parseLong(words[1]);
+            depth = words.length > 2 ? Integer.parseInt(words[2]) : 64;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad number");
+        }
+        if (millis < 0 || depth < 1) {
+            throw new IllegalArgumentException("bad limits");
+        }
+        ValidMove move = search.findBestMove(position, millis, depth);
+        answer.append("bestmove ");
+        if (move == null) {
+            answer.append("none");
+            return;
+        }
+        answer.append(BitBoard.toNotation(move.getSquare()))
+                .append(" score ").append(search.getLastScore())
+                .append(" depth ").append(search.getLastDepth())
+                .append(" nodes ").append(search.getTotalNodes())
+                .append(" time ").append(search.getLastNanos() / 1000000);
+    }
+
+    /**
+     * run answers commands read from in until quit or the end of the input.
+     * Every answer is flushed right away.
+     *
+     * @param in  commands, one per line
+     * @param out answers, one per line
+     */
+    public void run(BufferedReader in, Writer out) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            String reply = execute(line);
+            if (reply == null) {
+                break;
+            } else if (!reply.isEmpty()) {
+                out.write(reply);
+                out.write('\n');
+                out.flush();
+            }
+        }
+    }
+
+    // stops the search threads
+    @Override
+    public void close() {
+        search.shutdown();
+    }
+}
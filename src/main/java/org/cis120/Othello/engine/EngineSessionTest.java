@@ -0,0 +1,145 @@
+package org.cis120.Othello.engine;
+
+import org.cis120.Othello.BitBoard;
+import org.cis120.Othello.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EngineSessionTest {
+
+    private static final String START_BOARD =
+            "***************************OX******XO***************************";
+
+    @Test
+    public void startPositionTest() {
+        try (EngineSession session = new EngineSession(1, null)) {
+            assertEquals("readyok", session.execute("isready"));
+            assertEquals("moves d3 c4 f5 e6", session.execute("moves"));
+            assertEquals("board " + START_BOARD + " black", session.execute("board"));
+            assertEquals("result none 2 2", session.execute("result"));
+            assertEquals("", session.execute("   "));
+            assertNull(session.execute("quit"));
+        }
+    }
+
+    @Test
+    public void positionAndPlayTest() {
+        try (EngineSession session = new EngineSession(1, null)) {
+            assertEquals("ok", session.execute("position start moves f5 d6"));
+            assertEquals(PlayerColor.BLACK, session.getPosition().getCurrentTurn());
+            assertEquals("ok", session.execute("play c3"));
+            assertEquals(PlayerColor.WHITE, session.getPosition().getCurrentTurn());
+
+            // a board given directly gives the same position
+            String board = session.execute("board").split(" ")[1];
+            assertEquals("ok", session.execute("position " + board + " white"));
+            assertEquals("ok", session.execute("position start moves f5 d6 c3"));
+            assertEquals("board " + board + " white", session.execute("board"));
+        }
+    }
+
+    // a session can be given a small table and still searches
+    @Test
+    public void tableSizeTest() {
+        try (EngineSession session = new EngineSession(1, 10, null)) {
+            assertEquals(2 << 10, session.getSearch().getTable().size());
+            session.execute("position start moves f5 d6");
+            assertTrue(session.execute("go 1000 4").startsWith("bestmove "));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new EngineSession(1, 0, null));
+    }
+
+    // bad commands are answered with an error and change nothing
+    @Test
+    public void errorTest() {
+        try (EngineSession session = new EngineSession(1, null)) {
+            session.execute("position start moves f5");
+            long black = session.getPosition().getBlackDisks();
+            assertEquals("error illegal move a1", session.execute("play a1"));
+            assertEquals("error bad move z9", session.execute("play z9"));
+            assertTrue(session.execute("position start moves f5 a1").startsWith("error"));
+            assertTrue(session.execute("position XO white").startsWith("error"));
+            assertTrue(session.execute("position " + START_BOARD + " red").startsWith("error"));
+            assertTrue(session.execute("go soon").startsWith("error"));
+            assertEquals("error unknown command fly", session.execute("fly"));
+            assertEquals(black, session.getPosition().getBlackDisks());
+        }
+    }
+
+    @Test
+    public void goTest() {
+        try (EngineSession session = new EngineSession(1, null)) {
+            session.execute("position start moves f5 d6");
+            String[] answer = session.execute("go 1000 3").split(" ");
+            assertEquals("bestmove", answer[0]);
+            int sq = BitBoard.fromNotation(answer[1]);
+            assertTrue((session.getPosition().getValidMoves() >>> sq & 1) != 0);
+            assertEquals("depth", answer[4]);
+            assertEquals("3", answer[5]);
+            // go does not play the move
+            assertEquals(PlayerColor.BLACK, session.getPosition().getCurrentTurn());
+
+            // a finished game has no best move
+            String full = START_BOARD.replace('*', 'X');
+            assertEquals("ok", session.execute("position " + full + " white"));
+            assertEquals("bestmove none", session.execute("go 100"));
+            assertEquals("result black 62 2", session.execute("result"));
+        }
+    }
+
+    @Test
+    public void runTest() throws IOException {
+        StringWriter out = new StringWriter();
+        try (EngineSession session = new EngineSession(1, null)) {
+            session.run(
+                    new BufferedReader(new StringReader("isready\n\nplay f5\nquit\nisready\n")),
+                    out
+            );
+        }
+        assertEquals("readyok\nok\n", out.toString());
+    }
+
+    // every connection gets its own session
+    @Test
+    public void serverTest() throws IOException {
+        try (EngineServer server = new EngineServer(0, 1, null)) {
+            server.start();
+            try (Socket a = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+                    Socket b = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+                BufferedReader inA = new BufferedReader(
+                        new InputStreamReader(a.getInputStream(), StandardCharsets.US_ASCII)
+                );
+                Writer outA =
+                        new OutputStreamWriter(a.getOutputStream(), StandardCharsets.US_ASCII);
+                BufferedReader inB = new BufferedReader(
+                        new InputStreamReader(b.getInputStream(), StandardCharsets.US_ASCII)
+                );
+                Writer outB =
+                        new OutputStreamWriter(b.getOutputStream(), StandardCharsets.US_ASCII);
+
+                outA.write("play f5\n");
+                outA.flush();
+                assertEquals("ok", inA.readLine());
+                outB.write("moves\n");
+                outB.flush();
+                assertEquals("moves d3 c4 f5 e6", inB.readLine());
+                outA.write("moves\nquit\n");
+                outA.flush();
+                assertEquals("moves f4 d6 f6", inA.readLine());
+                assertNull(inA.readLine());
+            }
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package org.cis120.Othello.engine;
+
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.GameStore;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * GameServer hosts many games at once without any Swing components. Every
+ * game lives in a 22 byte record of an off-heap GameStore, so a game costs no
+ * heap at all. The id of a game is the slot of its record in the low 32 bits
+ * and the generation of the slot in the high bits. Closing a game counts the
+ * generation up, so the id of a closed game never names a later game in the
+ * same slot.
+ *
+ * The slots are spread over STRIPES stripes and every stripe has its own
+ * lock, so requests for different games almost never wait for each other. A
+ * request loads the game into a BitBoardOthello owned by the serving thread,
+ * runs, and stores the game back, all while holding the lock of its stripe.
+ * Closed slots are reused by later games.
+ *
+ * Clients use a line protocol like EngineSession, with the game id after the
+ * command:
+ *
+ * <pre>
+ * new                game ID
+ * play ID MOVE       ok
+ * moves ID           moves f5 d6 ...
+ * board ID           board BOARD black|white
+ * result ID          result black|white|tie|none BLACK WHITE
+ * close ID           ok
+ * count              games N
+ * quit               the connection is closed
+ * </pre>
+ *
+ * execute is thread safe, so any number of connections can share a server,
+ * and one connection can drive many games. snapshot saves every game while
+ * the server keeps running and restore starts a server from a snapshot.
+ */
+public class GameServer implements Closeable {
+    static final int STRIPES = 256;
+    public static final int DEFAULT_CAPACITY = 1 << 17;
+
+    private final GameStore store;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final ThreadLocal<BitBoardOthello> models =
+            ThreadLocal.withInitial(BitBoardOthello::new);
+
+    // unused slots below nextSlot, guarded by the array itself
+    private final int[] free;
+    private int freeCount;
+    private int nextSlot;
+    private final AtomicInteger size = new AtomicInteger();
+
+    // copy of the store written by snapshot, guarded by this
+    private GameStore snapshotCopy;
+
+    private ServerSocket server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "othello-games");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // creates a server for up to DEFAULT_CAPACITY games
+    public GameServer() {
+        this(new GameStore(DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Creates a server hosting the games already in a store, for example one
+     * read with GameStore.restore. The server owns the store from now on.
+     *
+     * @param storeParam store of the games, its capacity limits the number of
+     *                   games
+     */
+    public GameServer(GameStore storeParam) {
+        store = storeParam;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        free = new int[store.capacity()];
+        for (int slot = 0; slot < store.capacity(); slot++) {
+            if (store.isUsed(slot)) {
+                nextSlot = slot + 1;
+                size.incrementAndGet();
+            }
+        }
+        for (int slot = nextSlot - 1; slot >= 0; slot--) {
+            if (!store.isUsed(slot)) {
+                free[freeCount++] = slot;
+            }
+        }
+    }
+
+    // starts a server with the games of a snapshot file
+    public static GameServer restore(String file) throws IOException {
+        return new GameServer(GameStore.restore(file));
+    }
+
+    private ReentrantLock lock(int slot) {
+        return locks[slot & (STRIPES - 1)];
+    }
+
+    private static long gameId(int slot, int generation) {
+        return (long) generation << 32 | slot;
+    }
+
+    // slot named by a game id, -1 if id can never name a game
+    private int slot(long id) {
+        int slot = (int) id;
+        return id < 0 || slot < 0 || slot >= store.capacity() ? -1 : slot;
+    }
+
+    // true if id names the game in slot, the caller holds the lock of slot
+    private boolean isGame(long id, int slot) {
+        return store.isUsed(slot) && store.getGeneration(slot) == (int) (id >>> 32);
+    }
+
+    /**
+     * create starts a new game.
+     *
+     * @return id of the game
+     * @throws IllegalStateException if the store is full
+     */
+    public long create() {
+        int slot;
+        synchronized (free) {
+            if (freeCount > 0) {
+                slot = free[--freeCount];
+            } else if (nextSlot < store.capacity()) {
+                slot = nextSlot++;
+            } else {
+                throw new IllegalStateException("server full");
+            }
+        }
+        ReentrantLock lock = lock(slot);
+        long id;
+        lock.lock();
+        try {
+            store.reset(slot);
+            id = gameId(slot, store.getGeneration(slot));
+        } finally {
+            lock.unlock();
+        }
+        size.incrementAndGet();
+        return id;
+    }
+
+    // ends a game, false if there is no game with this id
+    public boolean remove(long id) {
+        int slot = slot(id);
+        if (slot < 0) {
+            return false;
+        }
+        ReentrantLock lock = lock(slot);
+        lock.lock();
+        try {
+            if (!isGame(id, slot)) {
+                return false;
+            }
+            store.clear(slot);
+            // ids are never negative
+            store.setGeneration(slot, (store.getGeneration(slot) + 1) & Integer.MAX_VALUE);
+        } finally {
+            lock.unlock();
+        }
+        synchronized (free) {
+            free[freeCount++] = slot;
+        }
+        size.decrementAndGet();
+        return true;
+    }
+
+    // returns the number of games
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * withGame runs action on a game while holding the lock of its stripe.
+     * Moves played by action are kept. The model is reused and must not be
+     * used after action returns.
+     *
+     * @param id     id of the game
+     * @param action code to run on the game
+     * @throws IllegalArgumentException if there is no game with this id
+     */
+    public void withGame(long id, Consumer<BitBoardOthello> action) {
+        int slot = slot(id);
+        if (slot < 0) {
+            throw new IllegalArgumentException("unknown game " + id);
+        }
+        BitBoardOthello game = models.get();
+        ReentrantLock lock = lock(slot);
+        lock.lock();
+        try {
+            if (!isGame(id, slot)) {
+                throw new IllegalArgumentException("unknown game " + id);
+            }
+            store.load(slot, game);
+            int disks = Long.bitCount(game.getBlackDisks() | game.getWhiteDisks());
+            action.accept(game);
+            // every move adds one disk
+            int played = Long.bitCount(game.getBlackDisks() | game.getWhiteDisks()) - disks;
+            store.store(slot, game, store.getMoveCount(slot) + played);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // number of moves played in a game, passes not included
+    public int getMoveCount(long id) {
+        int slot = slot(id);
+        if (slot < 0) {
+            throw new IllegalArgumentException("unknown game " + id);
+        }
+        ReentrantLock lock = lock(slot);
+        lock.lock();
+        try {
+            if (!isGame(id, slot)) {
+                throw new IllegalArgumentException("unknown game " + id);
+            }
+            return store.getMoveCount(slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * snapshot writes every game to a file that restore reads back. The
+     * games are copied while every stripe is locked, which takes about a
+     * millisecond per million games, and written after the locks are released.
+     *
+     * @param file path of the snapshot
+     */
+    public synchronized void snapshot(String file) throws IOException {
+        if (snapshotCopy == null) {
+            snapshotCopy = new GameStore(store.capacity());
+        }
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            store.copyTo(snapshotCopy);
+        } finally {
+            for (ReentrantLock lock : locks) {
+                lock.unlock();
+            }
+        }
+        snapshotCopy.snapshot(file);
+    }
+
+    /**
+     * execute runs one command.
+     *
+     * @param line command line, surrounding spaces are ignored
+     * @return the answer without a line end, an empty string for an empty line
+     *         or null for quit
+     */
+    public String execute(String line) {
+        String[] words = line.trim().split("\\s+");
+        StringBuilder answer = new StringBuilder();
+        try {
+            switch (words[0]) {
+                case "":
+                    break;
+                case "new":
+                    answer.append("game ").append(create());
+                    break;
+                case "count":
+                    answer.append("games ").append(size());
+                    break;
+                case "play":
+                    if (words.length != 3) {
+                        throw new IllegalArgumentException("usage: play ID MOVE");
+                    }
+                    withGame(id(words), game -> EngineSession.play(game, words[2]));
+                    answer.append("ok");
+                    break;
+                case "moves":
+                    withGame(id(words), game -> EngineSession.appendMoves(answer, game));
+                    break;
+                case "board":
+                    withGame(id(words), game -> EngineSession.appendBoard(answer, game));
+                    break;
+                case "result":
+                    withGame(id(words), game -> EngineSession.appendResult(answer, game));
+                    break;
+                case "close":
+                    if (!remove(id(words))) {
+                        throw new IllegalArgumentException("unknown game " + words[1]);
+                    }
+                    answer.append("ok");
+                    break;
+                case "quit":
+                    return null;
+                default:
+                    throw new IllegalArgumentException("unknown command " + words[0]);
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            answer.setLength(0);
+            answer.append("error ").append(e.getMessage());
+        }
+        return answer.toString();
+    }
+
+    // returns the game id of a command
+    private static long id(String[] words) {
+        if (words.length < 2) {
+            throw new IllegalArgumentException("missing game id");
+        }
+        try {
+            return Long.parseLong(words[1]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad game id " + words[1]);
+        }
+    }
+
+    /**
+     * start listens for clients on the loopback address. Every connection is
+     * served by its own thread and may drive any number of games.
+     *
+     * @param port port to listen on, 0 for any free port
+     * @return the port the server listens on
+     */
+    public int start(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("already started");
+        }
+        server = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        executor.execute(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    executor.execute(() -> serve(socket));
+                } catch (IOException e) {
+                    // the server was closed
+                }
+            }
+        });
+        return server.getLocalPort();
+    }
+
+    // answers the commands of one connection until it quits or disconnects
+    private void serve(Socket socket) {
+        try (Socket s = socket) {
+            s.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII)
+            );
+            BufferedWriter out = new BufferedWriter(
+                    new OutputStreamWriter(s.getOutputStream(), StandardCharsets.US_ASCII)
+            );
+            String line;
+            while ((line = in.readLine()) != null) {
+                String reply = execute(line);
+                if (reply == null) {
+                    break;
+                } else if (!reply.isEmpty()) {
+                    out.write(reply);
+                    out.write('\n');
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // the client went away, its games stay until they are closed
+        }
+    }
+
+    // stops accepting connections, open connections end when their clients
+    // disconnect and the games are kept
+    @Override
+    public void close() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs a game server from the command line.
+     *
+     * Usage: GameServer [port] [snapshot]
+     * Defaults to port 7120. With a snapshot file the server starts with the
+     * games in the file, if it exists, and writes them back on shutdown.
+     */
+    public static void main(String[] args) throws IOException {
+        String snapshot = args.length > 1 ? args[1] : null;
+        GameServer games = snapshot != null && new File(snapshot).exists()
+                ? restore(snapshot) : new GameServer();
+        if (snapshot != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    games.snapshot(snapshot);
+                } catch (IOException e) {
+                    System.err.println("could not write snapshot: " + e.getMessage());
+                }
+            }));
+        }
+        int port = games.start(args.length > 0 ? Integer.parseInt(args[0]) : 7120);
+        System.err.println(games.size() + " games, listening on port " + port);
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            games.close();
+        }
+    }
+}
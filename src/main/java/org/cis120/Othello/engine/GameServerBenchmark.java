@@ -0,0 +1,195 @@
+package org.cis120.Othello.engine;
+
+import org.cis120.Othello.GameStore;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load test for GameServer: opens a number of games, then every client
+ * connection plays random moves in its share of the games, round robin, until
+ * all of them are finished. Reports the p50 and p99 round trip time of a play
+ * command and the throughput. When the server runs in this process it also
+ * reports the heap used per open game, which is only noise since the games
+ * are kept off the heap in a GameStore.
+ *
+ * Usage: GameServerBenchmark [games] [clients] [host port]
+ * Defaults to 10000 games over 8 connections to a server started in this
+ * process.
+ *
+ * Run this file to see the results in your console.
+ */
+public class GameServerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        String host = args.length > 3 ? args[2] : "localhost";
+
+        GameServer local = null;
+        int port;
+        if (args.length > 3) {
+            port = Integer.parseInt(args[3]);
+        } else {
+            local = new GameServer();
+            port = local.start(0);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            // warmup on a separate set of games
+            run(executor, host, port, Math.min(games, 2000), clients, false);
+            run(executor, host, port, games, clients, local != null);
+        } finally {
+            executor.shutdownNow();
+            if (local != null) {
+                local.close();
+            }
+        }
+    }
+
+    private static void run(ExecutorService executor, String host, int port, int games,
+            int clients, boolean measureMemory) throws Exception {
+        long before = measureMemory ? usedMemory() : 0;
+
+        // every client opens its games first, then plays them all
+        List<Client> all = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            Client client = new Client(host, port, c);
+            client.open(games / clients + (c < games % clients ? 1 : 0));
+            all.add(client);
+        }
+        if (measureMemory) {
+            System.out.printf(
+                    "heap per game: %.0f bytes, plus %d bytes off the heap%n",
+                    Math.max(0, usedMemory() - before) / (double) games, GameStore.RECORD_SIZE
+            );
+        }
+
+        long start = System.nanoTime();
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (Client client : all) {
+            futures.add(executor.submit(client::play));
+        }
+        long[][] latencies = new long[clients][];
+        int moves = 0;
+        for (int c = 0; c < clients; c++) {
+            try {
+                latencies[c] = futures.get(c).get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+            moves += latencies[c].length;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        for (Client client : all) {
+            client.close();
+        }
+
+        long[] merged = new long[moves];
+        int n = 0;
+        for (long[] l : latencies) {
+            System.arraycopy(l, 0, merged, n, l.length);
+            n += l.length;
+        }
+        Arrays.sort(merged);
+        System.out.printf(
+                "%d games, %d clients: %d moves in %.2f s, %.0f moves/s, "
+                        + "p50: %.1f us, p99: %.1f us%n",
+                games, clients, moves, seconds, moves / seconds,
+                merged[moves / 2] / 1e3, merged[moves * 99 / 100] / 1e3
+        );
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // one connection playing its share of the games
+    private static final class Client {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final Writer out;
+        private final SplittableRandom rng;
+        private long[] ids = new long[0];
+
+        Client(String host, int port, long seed) throws IOException {
+            socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)
+            );
+            out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+            rng = new SplittableRandom(seed);
+        }
+
+        private String send(String command) throws IOException {
+            out.write(command);
+            out.write('\n');
+            out.flush();
+            String reply = in.readLine();
+            if (reply == null || reply.startsWith("error")) {
+                throw new IllegalStateException(command + ": " + reply);
+            }
+            return reply;
+        }
+
+        void open(int games) throws IOException {
+            ids = new long[games];
+            for (int i = 0; i < games; i++) {
+                ids[i] = Long.parseLong(send("new").substring(5));
+            }
+        }
+
+        // plays until every game is over, returns the time of every play
+        long[] play() throws IOException {
+            long[] latencies = new long[ids.length * 60];
+            int count = 0;
+            int open = ids.length;
+            boolean[] done = new boolean[ids.length];
+            while (open > 0) {
+                for (int i = 0; i < ids.length; i++) {
+                    if (done[i]) {
+                        continue;
+                    }
+                    String[] moves = send("moves " + ids[i]).split(" ");
+                    if (moves.length == 1) {
+                        done[i] = true;
+                        open--;
+                        continue;
+                    }
+                    String move = moves[1 + rng.nextInt(moves.length - 1)];
+                    String command = "play " + ids[i] + " " + move;
+                    long start = System.nanoTime();
+                    send(command);
+                    latencies[count++] = System.nanoTime() - start;
+                }
+            }
+            return Arrays.copyOf(latencies, count);
+        }
+
+        void close() throws IOException {
+            for (long id : ids) {
+                send("close " + id);
+            }
+            socket.close();
+        }
+    }
+}
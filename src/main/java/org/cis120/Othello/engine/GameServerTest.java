@@ -0,0 +1,184 @@
+package org.cis120.Othello.engine;
+
+import org.cis120.Othello.GameStore;
+import org.cis120.Othello.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServerTest {
+
+    @Test
+    public void gamesAreSeparateTest() {
+        GameServer server = new GameServer();
+        long a = server.create();
+        long b = server.create();
+        assertEquals(2, server.size());
+        assertEquals("ok", server.execute("play " + a + " f5"));
+        assertEquals("moves f4 d6 f6", server.execute("moves " + a));
+        assertEquals("moves d3 c4 f5 e6", server.execute("moves " + b));
+        assertEquals("games 2", server.execute("count"));
+        assertEquals("ok", server.execute("close " + a));
+        assertEquals(1, server.size());
+        assertEquals("error unknown game " + a, server.execute("moves " + a));
+        assertEquals("result none 2 2", server.execute("result " + b));
+    }
+
+    @Test
+    public void errorTest() {
+        GameServer server = new GameServer();
+        long a = server.create();
+        assertEquals("error illegal move a1", server.execute("play " + a + " a1"));
+        assertEquals("error missing game id", server.execute("board"));
+        assertEquals("error bad game id x", server.execute("board x"));
+        assertEquals("error usage: play ID MOVE", server.execute("play " + a));
+        assertEquals("error unknown game 99", server.execute("close 99"));
+        assertEquals("error unknown command fly", server.execute("fly"));
+        assertNull(server.execute("quit"));
+        assertFalse(server.remove(99));
+    }
+
+    // threads playing their own games at the same time all finish them
+    @Test
+    public void concurrentGamesTest() throws InterruptedException {
+        GameServer server = new GameServer();
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Random rng = new Random(t);
+            threads.add(new Thread(() -> {
+                try {
+                    long[] ids = new long[50];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = server.create();
+                    }
+                    for (long id : ids) {
+                        String[] moves;
+                        while ((moves = server.execute("moves " + id).split(" ")).length > 1) {
+                            String move = moves[1 + rng.nextInt(moves.length - 1)];
+                            assertEquals("ok", server.execute("play " + id + " " + move));
+                        }
+                        server.withGame(id, game -> {
+                            assertNotNull(game.checkWinner());
+                            assertEquals(64, game.getBlackPoints() + game.getWhitePoints()
+                                    + game.getEmptyCount());
+                        });
+                        assertTrue(server.remove(id));
+                    }
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            }));
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(List.of(), errors);
+        assertEquals(0, server.size());
+    }
+
+    // a closed game's slot is reused under a new id, and the old id names no
+    // game any more
+    @Test
+    public void staleIdTest() {
+        GameServer server = new GameServer(new GameStore(4));
+        long a = server.create();
+        server.execute("play " + a + " f5");
+        assertTrue(server.remove(a));
+        long b = server.create();
+        assertEquals((int) a, (int) b);
+        assertNotEquals(a, b);
+
+        assertEquals("error unknown game " + a, server.execute("moves " + a));
+        assertEquals("error unknown game " + a, server.execute("play " + a + " d3"));
+        assertEquals("error unknown game " + a, server.execute("close " + a));
+        assertThrows(IllegalArgumentException.class, () -> server.getMoveCount(a));
+        assertFalse(server.remove(a));
+        assertEquals("moves d3 c4 f5 e6", server.execute("moves " + b));
+        assertEquals(0, server.getMoveCount(b));
+        assertEquals(1, server.size());
+    }
+
+    // a restored snapshot has the same games and reuses closed slots
+    @Test
+    public void snapshotTest() throws IOException {
+        GameServer server = new GameServer(new GameStore(16));
+        long a = server.create();
+        long b = server.create();
+        long c = server.create();
+        server.execute("play " + b + " f5");
+        server.execute("play " + b + " d6");
+        server.remove(a);
+        File file = File.createTempFile("games", ".snap");
+        file.deleteOnExit();
+        server.snapshot(file.getPath());
+
+        GameServer restored = GameServer.restore(file.getPath());
+        assertEquals(2, restored.size());
+        assertEquals(server.execute("board " + b), restored.execute("board " + b));
+        assertEquals(2, restored.getMoveCount(b));
+        assertEquals(0, restored.getMoveCount(c));
+        assertEquals("error unknown game " + a, restored.execute("board " + a));
+        // same slot, but the generation counted up before the snapshot is kept
+        long d = restored.create();
+        assertEquals((int) a, (int) d);
+        assertNotEquals(a, d);
+        assertEquals("error unknown game " + a, restored.execute("board " + a));
+        assertEquals(c + 1, restored.create());
+    }
+
+    @Test
+    public void fullTest() {
+        GameServer server = new GameServer(new GameStore(2));
+        server.create();
+        server.create();
+        assertEquals("error server full", server.execute("new"));
+        assertTrue(server.remove(1));
+        // slot 1 in its second generation
+        assertEquals("game " + (1L << 32 | 1), server.execute("new"));
+    }
+
+    @Test
+    public void socketTest() throws IOException {
+        try (GameServer server = new GameServer()) {
+            int port = server.start(0);
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)
+                );
+                Writer out =
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+                out.write("new\nnew\n");
+                out.flush();
+                String a = in.readLine().substring(5);
+                String b = in.readLine().substring(5);
+                assertNotEquals(a, b);
+                out.write("play " + b + " d3\nquit\n");
+                out.flush();
+                assertEquals("ok", in.readLine());
+                assertNull(in.readLine());
+                // the games outlive the connection
+                server.withGame(Long.parseLong(b), game ->
+                        assertEquals(PlayerColor.WHITE, game.getCurrentTurn()));
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.cis120.Othello.selfplay;
+
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.book.OpeningBook;
+
+import java.util.SplittableRandom;
+
+// plays a book move while the position is in the opening book and asks
+// another policy once it is not
+public class BookPolicy implements Policy {
+
+    private final OpeningBook book;
+    private final int minGames;
+    private final Policy fallback;
+
+    /**
+     * Creates a book policy. The book can be shared by every thread.
+     *
+     * @param bookParam     opening book to play from
+     * @param minGamesParam smallest number of games a book move needs
+     * @param fallbackParam policy used outside the book
+     */
+    public BookPolicy(OpeningBook bookParam, int minGamesParam, Policy fallbackParam) {
+        book = bookParam;
+        minGames = minGamesParam;
+        fallback = fallbackParam;
+    }
+
+    @Override
+    public int chooseMove(BitBoardOthello position, SplittableRandom rng) {
+        int move = book.chooseMove(position, minGames, rng);
+        if (move >= 0) {
+            return move;
+        }
+        return fallback.chooseMove(position, rng);
+    }
+
+    @Override
+    public void newGame() {
+        fallback.newGame();
+    }
+}
@@ -0,0 +1,31 @@
+package org.cis120.Othello.selfplay;
+
+import org.cis120.Othello.BitBoard;
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.PlayerColor;
+
+import java.util.SplittableRandom;
+
+// plays the move that flips the most disks, ties are broken randomly
+public class GreedyPolicy implements Policy {
+
+    @Override
+    public int chooseMove(BitBoardOthello position, SplittableRandom rng) {
+        boolean black = position.getCurrentTurn() == PlayerColor.BLACK;
+        long own = black ? position.getBlackDisks() : position.getWhiteDisks();
+        long opp = black ? position.getWhiteDisks() : position.getBlackDisks();
+        long best = 0;
+        int bestCount = -1;
+        for (long m = position.getValidMoves(); m != 0; m &= m - 1) {
+            int sq = Long.numberOfTrailingZeros(m);
+            int count = Long.bitCount(BitBoard.flips(sq, own, opp));
+            if (count > bestCount) {
+                bestCount = count;
+                best = 1L << sq;
+            } else if (count == bestCount) {
+                best |= 1L << sq;
+            }
+        }
+        return RandomPolicy.randomMove(best, rng);
+    }
+}
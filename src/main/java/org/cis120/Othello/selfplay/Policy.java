@@ -0,0 +1,30 @@
+package org.cis120.Othello.selfplay;
+
+import org.cis120.Othello.BitBoardOthello;
+
+import java.util.SplittableRandom;
+
+/**
+ * A Policy picks the move to play in a self-play game. Policies may keep state
+ * such as a search engine, so every self-play thread gets its own instance.
+ */
+public interface Policy {
+
+    /**
+     * chooseMove picks a move for the player to move. The position may be
+     * changed while choosing as long as it is restored before returning.
+     *
+     * @param position position with at least one valid move
+     * @param rng      random numbers for this game
+     * @return bit index of a valid move
+     */
+    int chooseMove(BitBoardOthello position, SplittableRandom rng);
+
+    /**
+     * newGame is called before every game. Policies that learn from earlier
+     * positions, like a search with a transposition table, forget them here so
+     * a game does not depend on the games played before it on the same thread.
+     */
+    default void newGame() {
+    }
+}
@@ -0,0 +1,23 @@
+package org.cis120.Othello.selfplay;
+
+import org.cis120.Othello.BitBoardOthello;
+
+import java.util.SplittableRandom;
+
+// plays a uniformly random valid move
+public class RandomPolicy implements Policy {
+
+    @Override
+    public int chooseMove(BitBoardOthello position, SplittableRandom rng) {
+        return randomMove(position.getValidMoves(), rng);
+    }
+
+    // picks a random square out of a non empty mask
+    static int randomMove(long moves, SplittableRandom rng) {
+        int pick = rng.nextInt(Long.bitCount(moves));
+        for (int i = 0; i < pick; i++) {
+            moves &= moves - 1;
+        }
+        return Long.numberOfTrailingZeros(moves);
+    }
+}
@@ -0,0 +1,54 @@
+package org.cis120.Othello.selfplay;
+
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.ValidMove;
+import org.cis120.Othello.ai.SearchEngine;
+import org.cis120.Othello.ai.TranspositionTable;
+
+import java.util.SplittableRandom;
+
+// plays the move found by the alpha-beta search
+// the tables of the engine are cleared before every game, so a fixed depth
+// search plays the same game from the same position every time
+public class SearchPolicy implements Policy {
+
+    // self-play runs many engines at once, so each gets a small table (1 MB)
+    private static final int TABLE_BITS = 15;
+
+    private final SearchEngine engine = new SearchEngine(new TranspositionTable(TABLE_BITS));
+    private final long timeBudgetMillis;
+    private final int maxDepth;
+
+    /**
+     * Creates a search policy with a time budget. The depth reached depends on
+     * the speed and load of the machine, so games are not reproducible.
+     *
+     * @param timeBudgetMillisParam time budget per move in milliseconds
+     * @param maxDepthParam         maximum search depth in plies
+     */
+    public SearchPolicy(long timeBudgetMillisParam, int maxDepthParam) {
+        timeBudgetMillis = timeBudgetMillisParam;
+        maxDepth = maxDepthParam;
+    }
+
+    /**
+     * Creates a search policy that always searches to depth without a time
+     * limit, so the same seed gives the same games.
+     *
+     * @param depth search depth in plies
+     */
+    public SearchPolicy(int depth) {
+        this(Long.MAX_VALUE, depth);
+    }
+
+    @Override
+    public int chooseMove(BitBoardOthello position, SplittableRandom rng) {
+        ValidMove move = engine.findBestMove(position, timeBudgetMillis, maxDepth);
+        return move.getSquare();
+    }
+
+    @Override
+    public void newGame() {
+        engine.clear();
+    }
+}
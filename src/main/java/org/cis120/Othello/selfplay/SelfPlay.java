@@ -0,0 +1,221 @@
+package org.cis120.Othello.selfplay;
+
+import org.cis120.Othello.BitBoardOthello;
+import org.cis120.Othello.GameRecord;
+import org.cis120.Othello.GameRecordWriter;
+import org.cis120.Othello.PlayerColor;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * SelfPlay plays many headless games between two policies on a pool of
+ * threads.
+ *
+ * Every finished game is written straight to the output as one line
+ *
+ * <pre>
+ * game,blackPoints,whitePoints,moves
+ * </pre>
+ *
+ * where moves is the move list in standard notation (for example f5d6c3),
+ * with passes left out since they are forced. Nothing is kept per game, only
+ * counters and a histogram of disk differences, so memory stays flat no matter
+ * how many games are played.
+ *
+ * Game i always uses the random seed seed + i, and every policy is told about
+ * a new game before it starts so it can forget the earlier games of its
+ * thread. With RandomPolicy, GreedyPolicy, BookPolicy and a fixed depth
+ * SearchPolicy a run therefore gives the same games whatever the number of
+ * threads. A SearchPolicy with a time budget searches as deep as the machine
+ * allows, so its games change with the load.
+ *
+ * Games can also be written as game records, for example to build an opening
+ * book from them.
+ */
+public class SelfPlay {
+
+    private final int threads;
+    private final Supplier<Policy> blackPolicy;
+    private final Supplier<Policy> whitePolicy;
+    private final long seed;
+
+    // games are also written here if it is not null
+    private GameRecordWriter records;
+
+    /**
+     * Creates a self-play runner.
+     *
+     * @param threadsParam number of threads playing games
+     * @param black        creates the policy for black, called once per thread
+     * @param white        creates the policy for white, called once per thread
+     * @param seedParam    random seed of the first game
+     */
+    public SelfPlay(int threadsParam, Supplier<Policy> black, Supplier<Policy> white,
+            long seedParam) {
+        if (threadsParam < 1) {
+            throw new IllegalArgumentException();
+        }
+        threads = threadsParam;
+        blackPolicy = black;
+        whitePolicy = white;
+        seed = seedParam;
+    }
+
+    // writes every game played by run into records as well, null to stop
+    // the writer is not closed
+    public void setRecordWriter(GameRecordWriter recordsParam) {
+        records = recordsParam;
+    }
+
+    /**
+     * run plays games and streams one line per game to out. The writer is not
+     * closed.
+     *
+     * @param games number of games to play
+     * @param out   where results are written, may be null to only count
+     * @return statistics of the run
+     */
+    public SelfPlayStats run(long games, Writer out) throws IOException {
+        SelfPlayStats stats = new SelfPlayStats();
+        AtomicLong nextGame = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    playGames(games, nextGame, out, stats);
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        if (out != null) {
+            out.flush();
+        }
+        stats.setNanos(System.nanoTime() - start);
+        return stats;
+    }
+
+    // plays games on one thread until all games have been handed out
+    private void playGames(long games, AtomicLong nextGame, Writer out, SelfPlayStats stats)
+            throws IOException {
+        Policy black = blackPolicy.get();
+        Policy white = whitePolicy.get();
+        BitBoardOthello o = new BitBoardOthello();
+        int[] moves = new int[64];
+        StringBuilder line = new StringBuilder();
+
+        long game;
+        while ((game = nextGame.getAndIncrement()) < games) {
+            SplittableRandom rng = new SplittableRandom(seed + game);
+            o.reset();
+            black.newGame();
+            white.newGame();
+            int count = 0;
+            while (o.getValidMoves() != 0) {
+                Policy policy = o.getCurrentTurn() == PlayerColor.BLACK ? black : white;
+                int sq = policy.chooseMove(o, rng);
+                o.playTurn(sq % 8, sq / 8, o.getCurrentTurn());
+                moves[count++] = sq;
+            }
+            stats.addGame(o.getBlackPoints(), o.getWhitePoints(), count);
+
+            if (records != null) {
+                GameRecord record = GameRecord.of(moves, count);
+                synchronized (records) {
+                    records.write(record);
+                }
+            }
+
+            if (out != null) {
+                line.setLength(0);
+                line.append(game).append(',').append(o.getBlackPoints()).append(',')
+                        .append(o.getWhitePoints()).append(',');
+                // standard notation, appended directly to avoid a string per move
+                for (int i = 0; i < count; i++) {
+                    line.append((char) ('a' + moves[i] % 8)).append((char) ('1' + moves[i] / 8));
+                }
+                line.append('\n');
+                synchronized (out) {
+                    out.append(line);
+                }
+            }
+        }
+    }
+
+    // creates a policy by name: random, greedy or search
+    static Supplier<Policy> policy(String name) {
+        switch (name) {
+            case "random":
+                return RandomPolicy::new;
+            case "greedy":
+                return GreedyPolicy::new;
+            case "search":
+                return () -> new SearchPolicy(4);
+            default:
+                throw new IllegalArgumentException("unknown policy " + name);
+        }
+    }
+
+    /**
+     * Plays self-play games from the command line.
+     *
+     * Usage: SelfPlay games threads blackPolicy whitePolicy [output file]
+     * [game record file]
+     * Policies are random, greedy or search (fixed depth 4). Defaults to
+     * 100000 random games on every core without writing results. Use - as the
+     * output file to only write game records.
+     */
+    public static void main(String[] args) throws IOException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) :
+                Runtime.getRuntime().availableProcessors();
+        Supplier<Policy> black = policy(args.length > 2 ? args[2] : "random");
+        Supplier<Policy> white = policy(args.length > 3 ? args[3] : "random");
+        SelfPlay selfPlay = new SelfPlay(threads, black, white, 120);
+
+        GameRecordWriter records = null;
+        if (args.length > 5) {
+            records = new GameRecordWriter(args[5]);
+            selfPlay.setRecordWriter(records);
+        }
+
+        SelfPlayStats stats;
+        if (args.length > 4 && !args[4].equals("-")) {
+            try (Writer out = new BufferedWriter(new FileWriter(args[4]), 1 << 16)) {
+                stats = selfPlay.run(games, out);
+            }
+        } else {
+            stats = selfPlay.run(games, null);
+        }
+        if (records != null) {
+            records.close();
+        }
+        System.out.println(stats.report());
+    }
+}
@@ -0,0 +1,96 @@
+package org.cis120.Othello.selfplay;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters collected during a self-play run. Updated from every thread at
+ * once, so all counters are atomic.
+ */
+public class SelfPlayStats {
+
+    private final AtomicLong games = new AtomicLong();
+    private final AtomicLong moves = new AtomicLong();
+    private final AtomicLong blackWins = new AtomicLong();
+    private final AtomicLong whiteWins = new AtomicLong();
+    private final AtomicLong draws = new AtomicLong();
+    // number of games for every disk difference (black - white) from -64 to 64
+    private final AtomicLongArray differences = new AtomicLongArray(129);
+    private long nanos;
+
+    // records a finished game
+    void addGame(int blackPoints, int whitePoints, int moveCount) {
+        games.incrementAndGet();
+        moves.addAndGet(moveCount);
+        if (blackPoints > whitePoints) {
+            blackWins.incrementAndGet();
+        } else if (whitePoints > blackPoints) {
+            whiteWins.incrementAndGet();
+        } else {
+            draws.incrementAndGet();
+        }
+        differences.incrementAndGet(blackPoints - whitePoints + 64);
+    }
+
+    void setNanos(long nanosParam) {
+        nanos = nanosParam;
+    }
+
+    public long getGames() {
+        return games.get();
+    }
+
+    public long getMoves() {
+        return moves.get();
+    }
+
+    public long getBlackWins() {
+        return blackWins.get();
+    }
+
+    public long getWhiteWins() {
+        return whiteWins.get();
+    }
+
+    public long getDraws() {
+        return draws.get();
+    }
+
+    // number of games that ended with the given black - white disk difference
+    public long getDifferenceCount(int difference) {
+        return differences.get(difference + 64);
+    }
+
+    public double getGamesPerSecond() {
+        return getGames() / (nanos / 1e9);
+    }
+
+    public double getMovesPerSecond() {
+        return getMoves() / (nanos / 1e9);
+    }
+
+    // summary of the run with a histogram of disk differences in buckets of 8
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(
+                "games: %d  moves: %d  time: %.2f s%n", getGames(), getMoves(), nanos / 1e9
+        ));
+        sb.append(String.format(
+                "games/s: %.0f  moves/s: %.0f%n", getGamesPerSecond(), getMovesPerSecond()
+        ));
+        sb.append(String.format(
+                "black wins: %d  white wins: %d  draws: %d%n", getBlackWins(), getWhiteWins(),
+                getDraws()
+        ));
+        sb.append("black - white disks:");
+        for (int low = -64; low < 64; low += 8) {
+            long count = 0;
+            for (int d = low; d < low + 8; d++) {
+                count += getDifferenceCount(d);
+            }
+            sb.append(String.format("%n  %4d..%4d %d", low, low + 7, count));
+        }
+        sb.append(String.format("%n    64 %d", getDifferenceCount(64)));
+        return sb.toString();
+    }
+}
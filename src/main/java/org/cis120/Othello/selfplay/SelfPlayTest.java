@@ -0,0 +1,76 @@
+package org.cis120.Othello.selfplay;
+
+import org.cis120.Othello.BitBoard;
+import org.cis120.Othello.Othello;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SelfPlayTest {
+
+    // every game is written once and the counters add up
+    @Test
+    public void statsAndOutputTest() throws IOException {
+        StringWriter out = new StringWriter();
+        SelfPlay selfPlay = new SelfPlay(3, RandomPolicy::new, GreedyPolicy::new, 1);
+        SelfPlayStats stats = selfPlay.run(200, out);
+        String[] lines = out.toString().split("\n");
+        assertEquals(200, lines.length);
+        assertEquals(200, stats.getGames());
+        assertEquals(200, stats.getBlackWins() + stats.getWhiteWins() + stats.getDraws());
+        long histogram = 0;
+        for (int d = -64; d <= 64; d++) {
+            histogram += stats.getDifferenceCount(d);
+        }
+        assertEquals(200, histogram);
+    }
+
+    // a written game can be replayed through the array model with the same result
+    @Test
+    public void replayTest() throws IOException {
+        StringWriter out = new StringWriter();
+        new SelfPlay(1, RandomPolicy::new, RandomPolicy::new, 5).run(1, out);
+        String[] fields = out.toString().trim().split(",");
+        Othello o = new Othello();
+        String moves = fields[3];
+        for (int i = 0; i < moves.length(); i += 2) {
+            int sq = BitBoard.fromNotation(moves.substring(i, i + 2));
+            o.playTurn(sq % 8, sq / 8, o.getCurrentTurn());
+        }
+        assertNotNull(o.checkWinner());
+        assertEquals(Integer.parseInt(fields[1]), o.getBlackPoints());
+        assertEquals(Integer.parseInt(fields[2]), o.getWhitePoints());
+    }
+
+    // the same seed gives the same games on any number of threads
+    @Test
+    public void deterministicTest() throws IOException {
+        StringWriter one = new StringWriter();
+        StringWriter four = new StringWriter();
+        new SelfPlay(1, RandomPolicy::new, RandomPolicy::new, 9).run(50, one);
+        new SelfPlay(4, RandomPolicy::new, RandomPolicy::new, 9).run(50, four);
+        Set<String> a = new HashSet<>(Arrays.asList(one.toString().split("\n")));
+        Set<String> b = new HashSet<>(Arrays.asList(four.toString().split("\n")));
+        assertEquals(a, b);
+    }
+
+    // a fixed depth search starts every game with empty tables, so its games
+    // do not depend on the games played before on the same thread
+    @Test
+    public void deterministicSearchTest() throws IOException {
+        StringWriter one = new StringWriter();
+        StringWriter three = new StringWriter();
+        new SelfPlay(1, () -> new SearchPolicy(2), RandomPolicy::new, 11).run(12, one);
+        new SelfPlay(3, () -> new SearchPolicy(2), RandomPolicy::new, 11).run(12, three);
+        Set<String> a = new HashSet<>(Arrays.asList(one.toString().split("\n")));
+        Set<String> b = new HashSet<>(Arrays.asList(three.toString().split("\n")));
+        assertEquals(12, a.size());
+        assertEquals(a, b);
+    }
+}